@@ -0,0 +1,164 @@
+package liquibase;
+
+import liquibase.exception.LiquibaseException;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MigrationTaskTest {
+
+    @Test
+    public void backgroundMigration() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        MigrationTask migration = new MigrationTask(new Callable<Object>() {
+            public Object call() throws Exception {
+                release.await();
+                return null;
+            }
+        });
+        assertEquals(MigrationTask.PENDING, migration.getStatus());
+
+        migration.start("test-migration");
+        assertFalse(migration.isReady());
+        assertFalse(migration.await(10, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertTrue(migration.await(10, TimeUnit.SECONDS));
+        assertTrue(migration.isReady());
+        assertEquals(MigrationTask.READY, migration.getStatus());
+        assertTrue(migration.getEndTime() >= migration.getStartTime());
+    }
+
+    @Test
+    public void failedMigration() throws Exception {
+        final LiquibaseException failure = new LiquibaseException("failed");
+        MigrationTask migration = new MigrationTask(new Callable<Object>() {
+            public Object call() throws Exception {
+                throw failure;
+            }
+        });
+        migration.run();
+
+        assertTrue(migration.isDone());
+        assertFalse(migration.isReady());
+        assertEquals(MigrationTask.FAILED, migration.getStatus());
+        assertSame(failure, migration.getFailure());
+        try {
+            migration.await();
+            fail("Did not throw exception");
+        } catch (LiquibaseException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void otherFailuresAreWrapped() throws Exception {
+        MigrationTask migration = new MigrationTask(new Callable<Object>() {
+            public Object call() throws Exception {
+                throw new IllegalStateException("failed");
+            }
+        });
+        migration.run();
+
+        try {
+            migration.await();
+            fail("Did not throw exception");
+        } catch (LiquibaseException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void cancelStopsBackgroundMigration() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        MigrationTask migration = new MigrationTask(new Callable<Object>() {
+            public Object call() throws Exception {
+                started.countDown();
+                new CountDownLatch(1).await();
+                return null;
+            }
+        });
+
+        Thread thread = migration.start("test-migration");
+        assertFalse(thread.isDaemon());
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        assertTrue(migration.cancel(10000));
+        assertTrue(migration.isDone());
+        thread.join(10000);
+        assertFalse(thread.isAlive());
+        assertEquals(MigrationTask.FAILED, migration.getStatus());
+        try {
+            migration.await();
+            fail("Did not throw exception");
+        } catch (LiquibaseException e) {
+            assertEquals("Migration was cancelled", e.getMessage());
+        }
+    }
+
+    @Test
+    public void cancelledMigrationRunsUntilItStops() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        MigrationTask migration = new MigrationTask(new Callable<Object>() {
+            public Object call() throws Exception {
+                started.countDown();
+                while (true) {
+                    try {
+                        release.await();
+                        return null;
+                    } catch (InterruptedException e) {
+                        //like a JDBC call, keep going until the work is done
+                    }
+                }
+            }
+        });
+
+        Thread thread = migration.start("test-migration");
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        assertFalse(migration.cancel(50));
+        assertFalse(migration.isDone());
+        assertNull(migration.getFailure());
+        assertEquals(MigrationTask.RUNNING, migration.getStatus());
+        assertFalse(migration.await(10, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertTrue(migration.cancel(10000));
+        thread.join(10000);
+        assertTrue(migration.isDone());
+        assertEquals(MigrationTask.FAILED, migration.getStatus());
+    }
+
+    @Test
+    public void cancelBeforeStart() throws Exception {
+        final CountDownLatch ran = new CountDownLatch(1);
+        MigrationTask migration = new MigrationTask(new Callable<Object>() {
+            public Object call() throws Exception {
+                ran.countDown();
+                return null;
+            }
+        });
+
+        assertTrue(migration.cancel(0));
+        migration.start("test-migration").join(10000);
+        assertEquals(1L, ran.getCount());
+        assertEquals(MigrationTask.FAILED, migration.getStatus());
+    }
+
+    @Test
+    public void cancelLeavesFinishedMigration() throws Exception {
+        MigrationTask migration = new MigrationTask(new Callable<Object>() {
+            public Object call() throws Exception {
+                return null;
+            }
+        });
+        migration.run();
+
+        assertTrue(migration.cancel(0));
+        assertEquals(MigrationTask.READY, migration.getStatus());
+    }
+}
@@ -0,0 +1,294 @@
+package liquibase;
+
+import liquibase.change.custom.CustomSqlChange;
+import liquibase.database.Database;
+import liquibase.database.DatabaseConnection;
+import liquibase.database.HsqlDatabase;
+import liquibase.database.MockDatabase;
+import liquibase.database.sql.RawSqlStatement;
+import liquibase.database.sql.SqlStatement;
+import liquibase.database.sql.visitor.SqlVisitor;
+import liquibase.database.template.JdbcTemplate;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.JDBCException;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelUpdaterTest {
+
+    private static final String CHANGE_LOG = "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog/1.9\""
+            + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+            + " xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog/1.9 http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-1.9.xsd\">"
+            + "<changeSet id=\"1\" author=\"nvoxland\"><sql>CREATE TABLE a (id int)</sql></changeSet>"
+            + "<changeSet id=\"2\" author=\"nvoxland\"><sql>CREATE TABLE b (id int)</sql></changeSet>"
+            + "</databaseChangeLog>";
+
+    private static final String CUSTOM_CHANGE_LOG = "<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog/1.9\""
+            + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+            + " xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog/1.9 http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-1.9.xsd\">"
+            + "<changeSet id=\"1\" author=\"nvoxland\"><customChange class=\"" + ExclusiveCustomChange.class.getName() + "\">"
+            + "<param name=\"tableName\" value=\"custom\"/></customChange></changeSet>"
+            + "</databaseChangeLog>";
+
+    private AtomicInteger changeLogReads = new AtomicInteger();
+
+    private FileOpener fileOpener = new FileOpener() {
+        public InputStream getResourceAsStream(String file) throws IOException {
+            if (file.equals("changelog.sql")) {
+                return new ByteArrayInputStream("CREATE TABLE a (id int);".getBytes());
+            } else if (file.equals("changelog.xml")) {
+                changeLogReads.incrementAndGet();
+                return new ByteArrayInputStream(CHANGE_LOG.getBytes());
+            } else if (file.equals("custom.xml")) {
+                changeLogReads.incrementAndGet();
+                return new ByteArrayInputStream(CUSTOM_CHANGE_LOG.getBytes());
+            }
+            return null;
+        }
+
+        public Enumeration<URL> getResources(String packageName) throws IOException {
+            return null;
+        }
+
+        public ClassLoader toClassLoader() {
+            return getClass().getClassLoader();
+        }
+    };
+
+    @Test
+    public void failuresAreReportedPerDatabase() throws Exception {
+        List<Database> databases = new ArrayList<Database>();
+        for (int i = 0; i < 3; i++) {
+            databases.add(new MockDatabase());
+        }
+
+        ParallelUpdater updater = new ParallelUpdater("changelog.sql", fileOpener);
+        updater.setThreads(2);
+        UpdateReport report = updater.update(databases, null);
+
+        assertEquals(3, report.getResults().size());
+        for (int i = 0; i < 3; i++) {
+            assertSame(databases.get(i), report.getResults().get(i).getDatabase());
+        }
+        assertTrue(report.hasFailures());
+        assertEquals(3, report.getFailures().size());
+        assertNotNull(report.getFailures().get(0).getFailure());
+        assertTrue(report.toString().startsWith("Updated 0 of 3 databases, 3 failed:"));
+    }
+
+    @Test
+    public void allDatabasesUpdated() throws Exception {
+        List<Database> databases = new ArrayList<Database>();
+        for (int i = 0; i < 4; i++) {
+            databases.add(new TenantDatabase("jdbc:tenant:" + i, null));
+        }
+
+        ParallelUpdater updater = new ParallelUpdater("changelog.xml", fileOpener);
+        updater.setThreads(2);
+        UpdateReport report = updater.update(databases, null);
+
+        //at most once per thread
+        assertTrue(changeLogReads.get() >= 1 && changeLogReads.get() <= 2);
+        assertFalse(report.hasFailures());
+        assertEquals(4, report.getResults().size());
+        for (int i = 0; i < 4; i++) {
+            UpdateReport.Result result = report.getResults().get(i);
+            assertSame(databases.get(i), result.getDatabase());
+            assertTrue(result.isSuccessful());
+            assertNull(result.getFailure());
+
+            TenantDatabase database = (TenantDatabase) databases.get(i);
+            assertEquals(Arrays.asList("CREATE TABLE a (id int)", "CREATE TABLE b (id int)"), database.executed);
+            assertEquals(Arrays.asList("1", "2"), database.ran);
+        }
+        assertEquals("Updated 4 of 4 databases", report.toString());
+    }
+
+    @Test
+    public void failedDatabaseDoesNotStopOthers() throws Exception {
+        List<Database> databases = new ArrayList<Database>();
+        databases.add(new TenantDatabase("jdbc:tenant:0", null));
+        databases.add(new TenantDatabase("jdbc:tenant:1", "CREATE TABLE b (id int)"));
+        databases.add(new TenantDatabase("jdbc:tenant:2", null));
+
+        ParallelUpdater updater = new ParallelUpdater("changelog.xml", fileOpener);
+        updater.setThreads(1);
+        UpdateReport report = updater.update(databases, null);
+
+        assertEquals(1, changeLogReads.get());
+        assertEquals(3, report.getResults().size());
+        assertTrue(report.getResults().get(0).isSuccessful());
+        assertFalse(report.getResults().get(1).isSuccessful());
+        assertTrue(report.getResults().get(2).isSuccessful());
+
+        assertEquals(1, report.getFailures().size());
+        UpdateReport.Result failure = report.getFailures().get(0);
+        assertSame(databases.get(1), failure.getDatabase());
+        assertNotNull(failure.getFailure());
+        assertTrue(report.toString().startsWith("Updated 2 of 3 databases, 1 failed:"));
+        assertTrue(report.toString().indexOf("jdbc:tenant:1: ") > 0);
+        assertTrue(report.getResults().get(0).toString().startsWith("jdbc:tenant:0: updated in "));
+
+        assertEquals(Arrays.asList("1", "2"), ((TenantDatabase) databases.get(0)).ran);
+        assertEquals(Collections.singletonList("1"), ((TenantDatabase) databases.get(1)).ran);
+        assertEquals(Arrays.asList("1", "2"), ((TenantDatabase) databases.get(2)).ran);
+    }
+
+    @Test
+    public void customChangesAreNotShared() throws Exception {
+        ExclusiveCustomChange.bothRunning = new CyclicBarrier(2);
+        List<Database> databases = new ArrayList<Database>();
+        databases.add(new TenantDatabase("jdbc:tenant:0", null));
+        databases.add(new TenantDatabase("jdbc:tenant:1", null));
+
+        ParallelUpdater updater = new ParallelUpdater("custom.xml", fileOpener);
+        updater.setThreads(2);
+        UpdateReport report = updater.update(databases, null);
+
+        assertFalse(report.toString(), report.hasFailures());
+        assertEquals(2, changeLogReads.get());
+        for (Database database : databases) {
+            assertEquals(Collections.singletonList("UPDATE custom SET done = 1"), ((TenantDatabase) database).executed);
+        }
+    }
+
+    @Test
+    public void noDatabases() throws Exception {
+        UpdateReport report = new ParallelUpdater("changelog.sql", fileOpener).update(new ArrayList<Database>(), null);
+
+        assertEquals(0, report.getResults().size());
+        assertFalse(report.hasFailures());
+    }
+
+    @Test(expected = ChangeLogParseException.class)
+    public void changeLogNotFound() throws Exception {
+        List<Database> databases = new ArrayList<Database>();
+        databases.add(new MockDatabase());
+
+        new ParallelUpdater("doesNotExist.sql", fileOpener).update(databases, null);
+    }
+
+    /**
+     * Records the statements an update runs and the change sets it marks as ran instead of using a connection.
+     */
+    private static class TenantDatabase extends HsqlDatabase {
+        private List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        private List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+
+        /**
+         * @param failingSql a statement to fail on, or null
+         */
+        private TenantDatabase(String url, final String failingSql) throws Exception {
+            DatabaseMetaData metaData = createNiceMock(DatabaseMetaData.class);
+            expect(metaData.getURL()).andReturn(url).anyTimes();
+            replay(metaData);
+            DatabaseConnection connection = createNiceMock(DatabaseConnection.class);
+            expect(connection.getMetaData()).andReturn(metaData).anyTimes();
+            replay(connection);
+            setConnection(connection);
+            setJdbcTemplate(new JdbcTemplate(this) {
+                public void execute(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws JDBCException {
+                    String statement = sql.getSqlStatement(TenantDatabase.this);
+                    if (statement.equals(failingSql)) {
+                        throw new JDBCException("Cannot run " + statement);
+                    }
+                    executed.add(statement);
+                }
+
+                public Object queryForObject(SqlStatement sql, Class requiredType, List<SqlVisitor> sqlVisitors) {
+                    return Boolean.FALSE;
+                }
+
+                public int update(SqlStatement sql, List<SqlVisitor> sqlVisitors) {
+                    return 1;
+                }
+
+                public void comment(String message) {
+                }
+            });
+        }
+
+        public void checkDatabaseChangeLogTable() {
+        }
+
+        public void checkDatabaseChangeLogLockTable() {
+        }
+
+        public boolean doesChangeLogLockTableExist() {
+            return true;
+        }
+
+        public List<RanChangeSet> getRanChangeSetList() {
+            return new ArrayList<RanChangeSet>();
+        }
+
+        public void markChangeSetAsRan(ChangeSet changeSet) {
+            ran.add(changeSet.getId());
+        }
+
+        public void commit() {
+        }
+
+        public void rollback() {
+        }
+    }
+
+    /**
+     * Fails if the same instance is run by two threads at once.  Two updates wait for each other inside
+     * generateStatements, so they overlap whenever they share the instance.
+     */
+    public static class ExclusiveCustomChange implements CustomSqlChange {
+        private static CyclicBarrier bothRunning;
+
+        private AtomicInteger running = new AtomicInteger();
+        private String tableName;
+
+        public void setTableName(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public SqlStatement[] generateStatements(Database database) throws CustomChangeException {
+            running.incrementAndGet();
+            try {
+                bothRunning.await(10, TimeUnit.SECONDS);
+                if (running.get() != 1) {
+                    throw new CustomChangeException("Change run by " + running.get() + " threads at once");
+                }
+            } catch (Exception e) {
+                throw new CustomChangeException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+            return new SqlStatement[]{new RawSqlStatement("UPDATE " + tableName + " SET done = 1")};
+        }
+
+        public String getConfirmationMessage() {
+            return "Updated " + tableName;
+        }
+
+        public void setUp() {
+        }
+
+        public void setFileOpener(FileOpener fileOpener) {
+        }
+
+        public void validate(Database database) {
+        }
+    }
+}
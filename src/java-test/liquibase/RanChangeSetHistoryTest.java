@@ -0,0 +1,81 @@
+package liquibase;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import liquibase.util.MD5Util;
+
+import java.util.Date;
+
+public class RanChangeSetHistoryTest {
+
+    @Test
+    public void valuesAreKept() {
+        RanChangeSetHistory history = new RanChangeSetHistory();
+        history.add("path/changelog.xml", "1", "nvoxland", "0123456789abcdef0123456789abcdef", new Date(1000), "tag1");
+        history.add("path/changelog.xml", "2", "nvoxland", "123456789abcdef0123456789abcdef", null, null);
+        history.add("path/changelog.xml", "3", "nvoxland", null, new Date(3000), null);
+
+        assertEquals(3, history.size());
+        RanChangeSet first = history.get(0);
+        assertEquals("path/changelog.xml", first.getChangeLog());
+        assertEquals("1", first.getId());
+        assertEquals("nvoxland", first.getAuthor());
+        assertEquals("0123456789abcdef0123456789abcdef", first.getMd5sum());
+        assertEquals(new Date(1000), first.getDateExecuted());
+        assertEquals("tag1", first.getTag());
+
+        assertEquals("123456789abcdef0123456789abcdef", history.get(1).getMd5sum());
+        assertNull(history.get(1).getDateExecuted());
+        assertNull(history.get(1).getTag());
+        assertNull(history.get(2).getMd5sum());
+    }
+
+    @Test
+    public void repeatedValuesAreShared() {
+        RanChangeSetHistory history = new RanChangeSetHistory();
+        history.add(new String("path/changelog.xml"), "1", new String("nvoxland"), null, null, null);
+        history.add(new String("path/changelog.xml"), "2", new String("nvoxland"), null, null, null);
+
+        assertSame(history.get(0).getChangeLog(), history.get(1).getChangeLog());
+        assertSame(history.get(0).getAuthor(), history.get(1).getAuthor());
+    }
+
+    @Test
+    public void addRemoveAndTag() {
+        ChangeSet changeSet = new ChangeSet("2", "nvoxland", false, false, "path/changelog.xml", null, null, null);
+
+        RanChangeSetHistory history = new RanChangeSetHistory();
+        history.add("path/changelog.xml", "1", "nvoxland", null, new Date(1000), null);
+        history.add(new RanChangeSet("path\\changelog.xml", "2", "nvoxland", "abc", new Date(2000), null));
+        RanChangeSet last = history.get(1);
+
+        assertEquals("abc", history.find(changeSet).getMd5sum());
+        assertEquals(new RanChangeSet("path\\changelog.xml", "2", "nvoxland", null, null, null), last);
+
+        last.setTag("tag2");
+        assertEquals("tag2", history.get(1).getTag());
+
+        assertTrue(history.remove(new RanChangeSet("path/changelog.xml", "1", "nvoxland", null, null, null)));
+        assertEquals(1, history.size());
+        assertEquals("2", history.get(0).getId());
+        assertEquals("2", last.getId());
+        assertNull(history.find(new ChangeSet("1", "nvoxland", false, false, "path/changelog.xml", null, null, null)));
+    }
+
+    @Test
+    public void shortMd5sumsAreKept() {
+        String unpadded = MD5Util.computeMD5("");
+        assertTrue(unpadded.length() < 32);
+
+        RanChangeSetHistory history = new RanChangeSetHistory();
+        history.add("path/changelog.xml", "1", "nvoxland", unpadded, null, null);
+        history.add("path/changelog.xml", "2", "nvoxland", "0", null, null);
+        history.add("path/changelog.xml", "3", "nvoxland", "0123456789abcdef0", null, null);
+        history.add("path/changelog.xml", "4", "nvoxland", "ABC", null, null);
+
+        assertEquals(unpadded, history.get(0).getMd5sum());
+        assertEquals("0", history.get(1).getMd5sum());
+        assertEquals("0123456789abcdef0", history.get(2).getMd5sum());
+        assertEquals("ABC", history.get(3).getMd5sum());
+    }
+}
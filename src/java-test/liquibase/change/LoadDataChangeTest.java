@@ -1,6 +1,8 @@
 package liquibase.change;
 
+import liquibase.FileOpener;
 import liquibase.database.MockDatabase;
+import liquibase.database.sql.ComputedNumericValue;
 import liquibase.database.sql.AlterSequenceStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.sql.InsertStatement;
@@ -10,6 +12,12 @@ import org.junit.Test;
 import org.w3c.dom.Element;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Date;
+import java.util.Enumeration;
 
 /**
  * Tests for {@link liquibase.change.AlterSequenceChange}
@@ -127,4 +135,55 @@ public class LoadDataChangeTest extends AbstractChangeTest {
         assertTrue(md5sum2.equals(refactoring.getMD5Sum()));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void generateStatement_typedColumns() throws Exception {
+        LoadDataChange refactoring = new LoadDataChange();
+        refactoring.setTableName("TABLE_NAME");
+        refactoring.setFile("data.csv");
+        refactoring.setFileOpener(new FileOpener() {
+            public InputStream getResourceAsStream(String file) throws IOException {
+                return new ByteArrayInputStream("name,age,active,born,note\r\nBob,15,TRUE,2008-01-02,null\r\nJohn,(max),false,NULL,null\r\n".getBytes());
+            }
+
+            public Enumeration<URL> getResources(String packageName) throws IOException {
+                return null;
+            }
+
+            public ClassLoader toClassLoader() {
+                return null;
+            }
+        });
+
+        LoadDataColumnConfig ageConfig = new LoadDataColumnConfig();
+        ageConfig.setHeader("age");
+        ageConfig.setType("numeric");
+        refactoring.addColumn(ageConfig);
+
+        LoadDataColumnConfig activeConfig = new LoadDataColumnConfig();
+        activeConfig.setIndex(2);
+        activeConfig.setName("is_active");
+        activeConfig.setType("BOOLEAN");
+        refactoring.addColumn(activeConfig);
+
+        LoadDataColumnConfig bornConfig = new LoadDataColumnConfig();
+        bornConfig.setHeader("born");
+        bornConfig.setType("DATE");
+        refactoring.addColumn(bornConfig);
+
+        SqlStatement[] sqlStatements = refactoring.generateStatements(new MockDatabase());
+
+        assertEquals(2, sqlStatements.length);
+        InsertStatement first = (InsertStatement) sqlStatements[0];
+        assertEquals("15", first.getColumnValue("age").toString());
+        assertEquals(Boolean.TRUE, first.getColumnValue("is_active"));
+        assertTrue(first.getColumnValue("born") instanceof Date);
+        assertEquals("null", first.getColumnValue("note"));
+
+        InsertStatement second = (InsertStatement) sqlStatements[1];
+        assertTrue(second.getColumnValue("age") instanceof ComputedNumericValue);
+        assertEquals("max", second.getColumnValue("age").toString());
+        assertEquals(Boolean.FALSE, second.getColumnValue("is_active"));
+        assertEquals("NULL", second.getColumnValue("born"));
+    }
+
+}
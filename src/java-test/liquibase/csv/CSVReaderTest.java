@@ -0,0 +1,40 @@
+package liquibase.csv;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+
+public class CSVReaderTest {
+
+    private void assertRow(CSVReader reader, String... expected) throws Exception {
+        String[] row = reader.readNext();
+        assertNotNull(row);
+        assertEquals(Arrays.asList(expected), Arrays.asList(row));
+    }
+
+    @Test
+    public void readNext() throws Exception {
+        CSVReader reader = new CSVReader(new StringReader("a,b,c\r\n\"d,e\",\"f \"\"g\"\"\",\r\n\r\nh\rx,\"multi\nline\",y\n"));
+
+        assertRow(reader, "a", "b", "c");
+        assertRow(reader, "d,e", "f \"g\"", "");
+        assertRow(reader, "");
+        assertRow(reader, "h");
+        assertRow(reader, "x", "multi\nline", "y");
+        assertNull(reader.readNext());
+    }
+
+    @Test
+    public void longLinesAndSkippedLines() throws Exception {
+        StringBuffer longValue = new StringBuffer();
+        for (int i = 0; i < 10000; i++) {
+            longValue.append('v');
+        }
+        CSVReader reader = new CSVReader(new StringReader("skipped\n" + longValue + ",end"), ',', '"', 1);
+
+        assertRow(reader, longValue.toString(), "end");
+        assertNull(reader.readNext());
+    }
+}
@@ -1,6 +1,24 @@
 package liquibase.database;
 
 import junit.framework.TestCase;
+import liquibase.ClassLoaderFileOpener;
+import liquibase.Liquibase;
+import liquibase.database.sql.SqlStatement;
+import liquibase.database.sql.visitor.SqlVisitor;
+import liquibase.database.structure.DatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
+import liquibase.database.template.JdbcTemplate;
+import liquibase.diff.DiffStatusListener;
+import liquibase.exception.JDBCException;
+import liquibase.lock.LockHandler;
+import static org.easymock.EasyMock.*;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 public class HsqlDatabaseTest extends TestCase {
     public void testGetDefaultDriver() {
@@ -22,4 +40,86 @@ public class HsqlDatabaseTest extends TestCase {
         assertNull(database.getConcatSql((String[]) null));
     }
 
+    public void testDropAllDropsWholeSchemaHoldingLiquibaseTables() throws Exception {
+        ResultSet tables = createMock(ResultSet.class);
+        expect(tables.next()).andReturn(true);
+        expect(tables.getString("TABLE_NAME")).andReturn("DATABASECHANGELOG");
+        tables.close();
+        replay(tables);
+
+        DatabaseMetaData metaData = createMock(DatabaseMetaData.class);
+        expect(metaData.getTables((String) isNull(), eq("PUBLIC"), (String) isNull(), aryEq(new String[]{"TABLE"}))).andReturn(tables);
+        replay(metaData);
+
+        DatabaseConnection connection = createNiceMock(DatabaseConnection.class);
+        expect(connection.getMetaData()).andReturn(metaData).anyTimes();
+        replay(connection);
+
+        DropSchemaDatabase database = new DropSchemaDatabase();
+        database.setConnection(connection);
+
+        new Liquibase(null, new ClassLoaderFileOpener(), database).dropAll("PUBLIC");
+
+        assertEquals(Arrays.asList(
+                "lock",
+                "check tables",
+                "DROP SCHEMA PUBLIC CASCADE",
+                "check tables",
+                "lock",
+                "check tables",
+                "unlock"), database.events);
+        assertFalse(LockHandler.getInstance(database).hasChangeLogLock());
+        verify(tables);
+    }
+
+    public void testDropSchemaStatementsQuoteSchemaName() throws Exception {
+        SqlStatement[] statements = new HsqlDatabase().getDropSchemaStatements("my\"schema");
+        assertEquals(2, statements.length);
+        assertEquals("DROP SCHEMA \"MY\"\"SCHEMA\" CASCADE", statements[0].getSqlStatement(new HsqlDatabase()));
+        assertEquals("CREATE SCHEMA \"MY\"\"SCHEMA\" AUTHORIZATION DBA", statements[1].getSqlStatement(new HsqlDatabase()));
+    }
+
+    /**
+     * Records what dropAll does instead of running it, and fails if the objects are dropped one by one.
+     */
+    private static class DropSchemaDatabase extends HsqlDatabase {
+        private List<String> events = new ArrayList<String>();
+
+        private DropSchemaDatabase() {
+            setJdbcTemplate(new JdbcTemplate(this) {
+                public void batchExecute(List<SqlStatement> statements, List<SqlVisitor> sqlVisitors) throws JDBCException {
+                    for (SqlStatement statement : statements) {
+                        events.add(statement.getSqlStatement(DropSchemaDatabase.this));
+                    }
+                }
+
+                public Object queryForObject(SqlStatement sql, Class requiredType, List<SqlVisitor> sqlVisitors) {
+                    return Boolean.FALSE;
+                }
+
+                public int update(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws JDBCException {
+                    events.add(sql.getSqlStatement(DropSchemaDatabase.this).indexOf("LOCKEDBY = NULL") >= 0 ? "unlock" : "lock");
+                    return 1;
+                }
+
+                public void comment(String message) {
+                }
+            });
+        }
+
+        public void checkDatabaseChangeLogTable() {
+            events.add("check tables");
+        }
+
+        public void checkDatabaseChangeLogLockTable() {
+        }
+
+        public boolean doesChangeLogLockTableExist() {
+            return true;
+        }
+
+        public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) {
+            throw new UnsupportedOperationException("Objects should not be dropped one by one");
+        }
+    }
 }
@@ -8,17 +8,22 @@ import liquibase.diff.DiffStatusListener;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.template.JdbcTemplate;
 import liquibase.database.structure.DatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.exception.DatabaseHistoryException;
 import liquibase.exception.JDBCException;
 import liquibase.exception.LockException;
+import liquibase.metrics.MigrationMetrics;
 
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 public class MockDatabase implements Database {
@@ -264,6 +269,10 @@ public class MockDatabase implements Database {
         return null;
     }
 
+    public Map<String, String> getViewDefinitions(String schemaName) throws JDBCException {
+        return null;
+    }
+
     public int getDatabaseType(int type) {
         return type;
     }
@@ -442,6 +451,14 @@ public class MockDatabase implements Database {
         ;
     }
 
+    public OfflineChangeLogHistory getOfflineHistory() {
+        return null;
+    }
+
+    public void setOfflineHistory(OfflineChangeLogHistory offlineHistory) {
+        ;
+    }
+
     public void commit() {
         ;
     }
@@ -466,6 +483,10 @@ public class MockDatabase implements Database {
         return string;
     }
 
+    public String foldIdentifierCase(String identifier) {
+        return identifier == null ? null : identifier.toUpperCase(Locale.ENGLISH);
+    }
+
     public void close() throws JDBCException {
         ;
     }
@@ -474,6 +495,10 @@ public class MockDatabase implements Database {
         return null;
     }
 
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return null;
+    }
+
     public boolean supportsRestrictForeignKeys() {
         return true;
     }
@@ -485,4 +510,26 @@ public class MockDatabase implements Database {
     public boolean isLocalDatabase() throws JDBCException {
     	return true;
     }
+
+    public String getRowHashExpression(List<String> escapedColumnNames) {
+        return null;
+    }
+
+    public int getFetchSize() {
+        return 0;
+    }
+
+    public void setFetchSize(int fetchSize) {
+    }
+
+    public Statement createStreamingStatement() throws SQLException {
+        return null;
+    }
+
+    public MigrationMetrics getMigrationMetrics() {
+        return null;
+    }
+
+    public void setMigrationMetrics(MigrationMetrics migrationMetrics) {
+    }
 }
@@ -0,0 +1,90 @@
+package liquibase.database;
+
+import liquibase.ChangeSet;
+import liquibase.RanChangeSet;
+import liquibase.database.template.JdbcOutputTemplate;
+import liquibase.lock.LockHandler;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+public class OfflineChangeLogHistoryTest {
+
+    private static final String EXPORT = "ID,AUTHOR,FILENAME,DATEEXECUTED,MD5SUM,DESCRIPTION,COMMENTS,TAG,LIQUIBASE\n"
+            + "\"1\",\"nvoxland\",\"changelog.xml\",\"2009-01-02 10:11:12.0\",\"abc\",\"Create Table\",\"\",\"\",\"1.9.4\"\n"
+            + "\"2\",\"nvoxland\",\"changelog.xml\",\"2009-01-03T10:11:12\",,\"Add Column\",,\"version_1\",\"1.9.4\"\n";
+
+    @Test
+    public void readExport() throws Exception {
+        OfflineChangeLogHistory history = new OfflineChangeLogHistory(new StringReader(EXPORT));
+
+        assertTrue(history.isTablePresent());
+        List<RanChangeSet> ranChangeSets = history.getRanChangeSets();
+        assertEquals(2, ranChangeSets.size());
+        assertEquals("1", ranChangeSets.get(0).getId());
+        assertEquals("nvoxland", ranChangeSets.get(0).getAuthor());
+        assertEquals("changelog.xml", ranChangeSets.get(0).getChangeLog());
+        assertEquals("abc", ranChangeSets.get(0).getMd5sum());
+        assertNotNull(ranChangeSets.get(0).getDateExecuted());
+        assertNull(ranChangeSets.get(0).getTag());
+
+        assertNull(ranChangeSets.get(1).getMd5sum());
+        assertNotNull(ranChangeSets.get(1).getDateExecuted());
+        assertEquals("version_1", ranChangeSets.get(1).getTag());
+        assertTrue(history.doesTagExist("version_1"));
+    }
+
+    @Test
+    public void emptyHistory() throws Exception {
+        OfflineChangeLogHistory history = new OfflineChangeLogHistory(new StringReader(""));
+
+        assertFalse(history.isTablePresent());
+        assertEquals(0, history.getRanChangeSets().size());
+        assertFalse(history.tag("version_1"));
+    }
+
+    @Test
+    public void writeRoundTrip() throws Exception {
+        OfflineChangeLogHistory history = new OfflineChangeLogHistory(new StringReader(EXPORT));
+        history.getRanChangeSets().add(new RanChangeSet(new ChangeSet("3", "nvoxland", false, false, "changelog.xml", null, null, null)));
+        assertTrue(history.tag("version_2"));
+
+        StringWriter writer = new StringWriter();
+        history.write(writer);
+
+        OfflineChangeLogHistory reread = new OfflineChangeLogHistory(new StringReader(writer.toString()));
+        assertEquals(3, reread.getRanChangeSets().size());
+        assertEquals(history.getRanChangeSets(), reread.getRanChangeSets());
+        assertEquals("abc", reread.getRanChangeSets().get(0).getMd5sum());
+        assertEquals(history.getRanChangeSets().get(0).getDateExecuted(), reread.getRanChangeSets().get(0).getDateExecuted());
+        assertEquals("version_2", reread.getRanChangeSets().get(2).getTag());
+    }
+
+    @Test
+    public void offlineDatabaseGeneratesSqlWithoutConnection() throws Exception {
+        Database database = new H2Database();
+        database.setOfflineHistory(new OfflineChangeLogHistory(new StringReader("")));
+        StringWriter output = new StringWriter();
+        database.setJdbcTemplate(new JdbcOutputTemplate(output, database));
+
+        LockHandler.getInstance(database).waitForLock();
+        database.checkDatabaseChangeLogLockTable();
+        database.checkDatabaseChangeLogTable();
+        ChangeSet changeSet = new ChangeSet("1", "nvoxland", false, false, "changelog.xml", null, null, null);
+        assertEquals(ChangeSet.RunStatus.NOT_RAN, database.getRunStatus(changeSet));
+        database.markChangeSetAsRan(changeSet);
+        database.commit();
+        LockHandler.getInstance(database).releaseLock();
+
+        assertEquals(ChangeSet.RunStatus.ALREADY_RAN, database.getRunStatus(changeSet));
+        assertEquals(1, database.getOfflineHistory().getRanChangeSets().size());
+
+        String sql = output.toString();
+        assertTrue(sql.indexOf("CREATE TABLE DATABASECHANGELOG") >= 0);
+        assertTrue(sql.indexOf("INSERT INTO DATABASECHANGELOG") >= 0);
+        assertTrue(sql.indexOf("DATABASECHANGELOGLOCK") < 0);
+    }
+}
@@ -0,0 +1,77 @@
+package liquibase.database;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+public class SQLConnectionDelegateTest {
+
+    @Test
+    public void leastRecentlyUsedStatementIsClosed() throws Exception {
+        Connection connection = createMock(Connection.class);
+        PreparedStatement statementA = createMock(PreparedStatement.class);
+        PreparedStatement statementB = createMock(PreparedStatement.class);
+        PreparedStatement statementC = createMock(PreparedStatement.class);
+
+        expect(connection.prepareStatement("A")).andReturn(statementA);
+        expect(connection.prepareStatement("B")).andReturn(statementB);
+        expect(connection.prepareStatement("C")).andReturn(statementC);
+        statementB.close();
+        replay(connection, statementA, statementB, statementC);
+
+        SQLConnectionDelegate delegate = new SQLConnectionDelegate(connection);
+        delegate.setStatementCacheSize(2);
+        assertSame(statementA, delegate.prepareCachedStatement("A"));
+        assertSame(statementB, delegate.prepareCachedStatement("B"));
+        assertSame(statementA, delegate.prepareCachedStatement("A"));
+        assertSame(statementC, delegate.prepareCachedStatement("C"));
+
+        verify(connection, statementA, statementB, statementC);
+    }
+
+    @Test
+    public void closeClosesCachedStatements() throws Exception {
+        Connection connection = createMock(Connection.class);
+        PreparedStatement statement = createMock(PreparedStatement.class);
+
+        expect(connection.prepareStatement("A")).andReturn(statement);
+        expect(connection.getAutoCommit()).andReturn(true);
+        statement.close();
+        connection.close();
+        replay(connection, statement);
+
+        SQLConnectionDelegate delegate = new SQLConnectionDelegate(connection);
+        delegate.prepareCachedStatement("A");
+        delegate.close();
+
+        verify(connection, statement);
+    }
+
+    @Test
+    public void closeClosesConnectionWhenStatementCloseFails() throws Exception {
+        Connection connection = createMock(Connection.class);
+        PreparedStatement statement = createMock(PreparedStatement.class);
+
+        expect(connection.prepareStatement("A")).andReturn(statement);
+        expect(connection.getAutoCommit()).andReturn(true);
+        statement.close();
+        expectLastCall().andThrow(new SQLException("statement already closed"));
+        connection.close();
+        replay(connection, statement);
+
+        SQLConnectionDelegate delegate = new SQLConnectionDelegate(connection);
+        delegate.prepareCachedStatement("A");
+        try {
+            delegate.close();
+            fail("Did not throw exception");
+        } catch (SQLException e) {
+            assertEquals("statement already closed", e.getMessage());
+        }
+
+        verify(connection, statement);
+    }
+}
@@ -0,0 +1,80 @@
+package liquibase.database;
+
+import liquibase.change.*;
+import liquibase.database.sql.CopyRowsStatement;
+import liquibase.database.structure.Index;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class SQLiteTableRebuildPlannerTest {
+
+    @Test
+    public void canDeferWithNothingPending() {
+        SQLiteTableRebuildPlanner planner = new SQLiteTableRebuildPlanner(new SQLiteDatabase());
+
+        assertTrue(planner.canDefer(new CreateTableChange()));
+        assertTrue(planner.canDefer(renameColumn("other")));
+    }
+
+    @Test
+    public void canDeferRebuildsOfPendingTable() throws Exception {
+        SQLiteTableRebuildPlanner planner = new SQLiteTableRebuildPlanner(new SQLiteDatabase());
+        assertEquals(0, planner.defer(new NoOpAlterTableVisitor(), null, "person").size());
+
+        assertTrue(planner.canDefer(renameColumn("person")));
+        assertTrue(planner.canDefer(renameColumn("PERSON")));
+        assertFalse(planner.canDefer(renameColumn("address")));
+        assertFalse(planner.canDefer(new CreateTableChange()));
+        assertFalse(planner.canDefer(new AddColumnChange()));
+    }
+
+    @Test
+    public void copyRowsIntoTargetColumns() throws Exception {
+        CopyRowsStatement statement = new CopyRowsStatement("person_temporary", "person",
+                Arrays.asList(column("id"), column("name")),
+                Arrays.asList(column("id"), column("full_name")));
+
+        assertEquals("INSERT INTO `person` (`id`,`full_name`) SELECT `id`,`name` FROM `person_temporary`", statement.getSqlStatement(new SQLiteDatabase()));
+    }
+
+    @Test
+    public void copyRowsPositionally() throws Exception {
+        CopyRowsStatement statement = new CopyRowsStatement("person_temporary", "person", Arrays.asList(column("id"), column("name")));
+
+        assertEquals("INSERT INTO `person` SELECT `id`,`name` FROM `person_temporary`", statement.getSqlStatement(new SQLiteDatabase()));
+    }
+
+    private RenameColumnChange renameColumn(String tableName) {
+        RenameColumnChange change = new RenameColumnChange();
+        change.setTableName(tableName);
+        change.setOldColumnName("name");
+        change.setNewColumnName("full_name");
+        return change;
+    }
+
+    private ColumnConfig column(String name) {
+        ColumnConfig column = new ColumnConfig();
+        column.setName(name);
+        return column;
+    }
+
+    private static class NoOpAlterTableVisitor implements SQLiteDatabase.AlterTableVisitor {
+        public ColumnConfig[] getColumnsToAdd() {
+            return new ColumnConfig[0];
+        }
+
+        public boolean copyThisColumn(ColumnConfig column) {
+            return true;
+        }
+
+        public boolean createThisColumn(ColumnConfig column) {
+            return true;
+        }
+
+        public boolean createThisIndex(Index index) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package liquibase.database.sql.visitor;
+
+import liquibase.database.Database;
+import liquibase.database.MySQLDatabase;
+import liquibase.database.OracleDatabase;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SqlVisitorPipelineTest {
+
+    private static final String SQL = "CREATE TABLE person (id int, name varchar(255), address varchar(255))";
+
+    @Test
+    public void skipsVisitorsForOtherDatabases() {
+        AppendSqlVisitor mysqlOnly = append(" engine innodb");
+        mysqlOnly.setApplicableDbms(Arrays.asList("mysql"));
+        List<SqlVisitor> visitors = new ArrayList<SqlVisitor>();
+        visitors.add(mysqlOnly);
+        visitors.add(append(";"));
+
+        SqlVisitorPipeline oraclePipeline = SqlVisitorPipeline.compile(visitors, new OracleDatabase());
+        assertEquals(1, oraclePipeline.size());
+        assertEquals(SQL + ";", oraclePipeline.apply(SQL));
+
+        SqlVisitorPipeline mysqlPipeline = SqlVisitorPipeline.compile(visitors, new MySQLDatabase());
+        assertEquals(2, mysqlPipeline.size());
+        assertEquals(SQL + " engine innodb;", mysqlPipeline.apply(SQL));
+    }
+
+    @Test
+    public void compiledPipelineIsReused() {
+        Database database = new OracleDatabase();
+        List<SqlVisitor> visitors = new ArrayList<SqlVisitor>();
+        visitors.add(append(";"));
+
+        SqlVisitorPipeline pipeline = SqlVisitorPipeline.compile(visitors, database);
+        assertSame(pipeline, SqlVisitorPipeline.compile(pipeline, database));
+        assertNotSame(pipeline, SqlVisitorPipeline.compile(pipeline, new OracleDatabase()));
+    }
+
+    @Test
+    public void literalVisitorsMatchSequentialApplication() {
+        assertSameAsSequential(replace("varchar", "varchar2"), replace("int", "number"), prepend("/* x */ "), append(" tablespace t"));
+        assertSameAsSequential(prepend("a"), prepend("b"), append("c"), append("d"));
+        assertSameAsSequential(append(" int"), replace("int", "number"));
+        assertSameAsSequential(replace("int", "varchar"), replace("varchar", "clob"));
+        assertSameAsSequential(replace("ar", "X"), replace("rc", "Y"));
+        assertSameAsSequential(replace("name", ""), replace("(id int, ", "("));
+        assertSameAsSequential(replace("a", "b"), replace("b", "a"));
+        assertSameAsSequential(replace("255", "(500)"), replace("ab", "AB"));
+    }
+
+    @Test
+    public void regExpVisitorsMatchSequentialApplication() {
+        assertSameAsSequential(regExp("varchar\\((\\d+)\\)", "varchar2($1 char)"), append(";"));
+        assertSameAsSequential(replace("person", "people"), regExp("peo\\w+", "persons"), prepend("-- "));
+    }
+
+    @Test
+    public void regExpPatternFollowsReplace() {
+        RegExpReplaceSqlVisitor visitor = regExp("a+", "b");
+        assertEquals("b", visitor.modifySql("aaa", null));
+        visitor.setReplace("c");
+        assertEquals("aaa", visitor.modifySql("aaa", null));
+        assertEquals("b", visitor.modifySql("c", null));
+    }
+
+    private void assertSameAsSequential(SqlVisitor... visitors) {
+        Database database = new OracleDatabase();
+        String expected = SQL;
+        for (SqlVisitor visitor : visitors) {
+            expected = visitor.modifySql(expected, database);
+        }
+        assertEquals(expected, SqlVisitorPipeline.compile(Arrays.asList(visitors), database).apply(SQL));
+    }
+
+    private AppendSqlVisitor append(String value) {
+        AppendSqlVisitor visitor = new AppendSqlVisitor();
+        visitor.setValue(value);
+        return visitor;
+    }
+
+    private PrependSqlVisitor prepend(String value) {
+        PrependSqlVisitor visitor = new PrependSqlVisitor();
+        visitor.setValue(value);
+        return visitor;
+    }
+
+    private ReplaceSqlVisitor replace(String replace, String with) {
+        ReplaceSqlVisitor visitor = new ReplaceSqlVisitor();
+        visitor.setReplace(replace);
+        visitor.setWith(with);
+        return visitor;
+    }
+
+    private RegExpReplaceSqlVisitor regExp(String replace, String with) {
+        RegExpReplaceSqlVisitor visitor = new RegExpReplaceSqlVisitor();
+        visitor.setReplace(replace);
+        visitor.setWith(with);
+        return visitor;
+    }
+}
@@ -0,0 +1,229 @@
+package liquibase.database.structure;
+
+import liquibase.change.*;
+import liquibase.database.MockDatabase;
+import liquibase.diff.Diff;
+import liquibase.diff.DiffResult;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChangeLogDatabaseSnapshotTest {
+
+    @Test
+    public void changesAreAppliedInOrder() {
+        List<Change> changes = createSchemaChanges();
+
+        RenameColumnChange renameColumn = new RenameColumnChange();
+        renameColumn.setTableName("person");
+        renameColumn.setOldColumnName("name");
+        renameColumn.setNewColumnName("full_name");
+        changes.add(renameColumn);
+
+        RenameTableChange renameTable = new RenameTableChange();
+        renameTable.setOldTableName("address");
+        renameTable.setNewTableName("addresses");
+        changes.add(renameTable);
+
+        DropColumnChange dropColumn = new DropColumnChange();
+        dropColumn.setTableName("addresses");
+        dropColumn.setColumnName("street");
+        changes.add(dropColumn);
+
+        ChangeLogDatabaseSnapshot snapshot = new ChangeLogDatabaseSnapshot(changes, new MockDatabase());
+
+        assertEquals(2, snapshot.getTables().size());
+        assertNull(snapshot.getTable("address"));
+        Table addresses = snapshot.getTable("ADDRESSES");
+        assertNotNull(addresses);
+        assertEquals(2, addresses.getColumns().size());
+        assertNull(snapshot.getColumn("addresses", "street"));
+        assertEquals(4, snapshot.getColumns().size());
+
+        Column fullName = snapshot.getColumn("person", "full_name");
+        assertNotNull(fullName);
+        assertEquals("VARCHAR(50)", fullName.getTypeName());
+        assertFalse(fullName.isNullable());
+        assertFalse(fullName.isCertainDataType());
+
+        PrimaryKey pk = snapshot.getPrimaryKeyForTable("person");
+        assertEquals("id", pk.getColumnNames());
+        assertTrue(snapshot.getColumn("person", "id").isPrimaryKey());
+        assertFalse(snapshot.getColumn("person", "id").isNullable());
+
+        ForeignKey fk = snapshot.getForeignKey("fk_address_person");
+        assertSame(addresses, fk.getForeignKeyTable());
+        assertEquals("person_id", fk.getForeignKeyColumns());
+        assertEquals("id", fk.getPrimaryKeyColumns());
+
+        assertEquals("full_name", snapshot.getUniqueConstraint("uc_person_name").getColumnNames());
+        assertEquals("full_name", snapshot.getIndex("idx_person_name").getColumnNames());
+    }
+
+    @Test
+    public void dropTableRemovesItsKeys() {
+        List<Change> changes = createSchemaChanges();
+        DropTableChange dropTable = new DropTableChange();
+        dropTable.setTableName("address");
+        changes.add(dropTable);
+
+        ChangeLogDatabaseSnapshot snapshot = new ChangeLogDatabaseSnapshot(changes, new MockDatabase());
+        assertEquals(1, snapshot.getTables().size());
+        assertEquals(0, snapshot.getForeignKeys().size());
+        assertEquals(1, snapshot.getPrimaryKeys().size());
+    }
+
+    @Test
+    public void changeLogsCanBeDiffed() throws Exception {
+        List<Change> changes = createSchemaChanges();
+        ChangeLogDatabaseSnapshot oldSnapshot = new ChangeLogDatabaseSnapshot(new ArrayList<Change>(changes), new MockDatabase());
+
+        AddColumnChange addColumn = new AddColumnChange();
+        addColumn.setTableName("person");
+        addColumn.addColumn(createColumn("email", "VARCHAR(100)", null));
+        changes.add(addColumn);
+        ChangeLogDatabaseSnapshot newSnapshot = new ChangeLogDatabaseSnapshot(changes, new MockDatabase());
+
+        DiffResult diffResult = new Diff(newSnapshot, oldSnapshot).compare();
+        assertEquals(1, diffResult.getMissingColumns().size());
+        assertEquals("email", diffResult.getMissingColumns().first().getName());
+        assertEquals(0, diffResult.getMissingTables().size());
+        assertEquals(0, diffResult.getUnexpectedColumns().size());
+        assertEquals(0, diffResult.getMissingForeignKeys().size());
+    }
+
+    @Test
+    public void diffAgainstDatabaseSnapshot() throws Exception {
+        List<Change> changes = createSchemaChanges();
+
+        CreateTableChange createPhone = new CreateTableChange();
+        createPhone.setTableName("phone");
+        createPhone.addColumn(createColumn("person_id", "INT", null));
+        changes.add(createPhone);
+
+        AddForeignKeyConstraintChange addForeignKey = new AddForeignKeyConstraintChange();
+        addForeignKey.setConstraintName("fk_phone_person");
+        addForeignKey.setBaseTableName("phone");
+        addForeignKey.setBaseColumnNames("person_id");
+        addForeignKey.setReferencedTableName("person");
+        addForeignKey.setReferencedColumnNames("id");
+        addForeignKey.setOnDelete("CASCADE");
+        changes.add(addForeignKey);
+
+        CreateViewChange createView = new CreateViewChange();
+        createView.setViewName("person_view");
+        createView.setSelectQuery("SELECT id, name FROM person");
+        changes.add(createView);
+
+        ChangeLogDatabaseSnapshot changeLogSnapshot = new ChangeLogDatabaseSnapshot(changes, new MockDatabase());
+        assertEquals(DatabaseMetaData.importedKeyCascade, changeLogSnapshot.getForeignKey("fk_phone_person").getDeleteRule().intValue());
+        assertNull(changeLogSnapshot.getForeignKey("fk_phone_person").getUpdateRule());
+        assertNull(changeLogSnapshot.getForeignKey("fk_address_person").getDeleteRule());
+
+        //as read from a database, which always knows the rules and the view columns
+        SqlDatabaseSnapshot databaseSnapshot = new UnsupportedDatabaseSnapshot();
+        databaseSnapshot.database = new MockDatabase();
+        Table person = addTable(databaseSnapshot, "PERSON", "ID", "NAME");
+        Table address = addTable(databaseSnapshot, "ADDRESS", "ID", "PERSON_ID", "STREET");
+        Table phone = addTable(databaseSnapshot, "PHONE", "PERSON_ID");
+        View personView = new View("PERSON_VIEW");
+        databaseSnapshot.views.add(personView);
+        for (String columnName : new String[]{"ID", "NAME"}) {
+            Column column = new Column();
+            column.setName(columnName);
+            column.setView(personView);
+            personView.addColumn(column);
+            databaseSnapshot.columns.add(column);
+        }
+        ForeignKey addressFK = addForeignKey(databaseSnapshot, "FK_ADDRESS_PERSON", address, person, DatabaseMetaData.importedKeyNoAction);
+        ForeignKey phoneFK = addForeignKey(databaseSnapshot, "FK_PHONE_PERSON", phone, person, DatabaseMetaData.importedKeyCascade);
+
+        DiffResult diffResult = new Diff(changeLogSnapshot, databaseSnapshot).compare();
+        assertEquals(0, diffResult.getMissingForeignKeys().size());
+        assertEquals(0, diffResult.getUnexpectedForeignKeys().size());
+        assertEquals(0, diffResult.getMissingViews().size());
+        assertEquals(0, diffResult.getUnexpectedViews().size());
+        assertEquals(0, diffResult.getMissingColumns().size());
+        assertEquals(0, diffResult.getUnexpectedColumns().size());
+
+        addressFK.setDeleteRule(DatabaseMetaData.importedKeySetNull);
+        phoneFK.setDeleteRule(DatabaseMetaData.importedKeySetNull);
+        diffResult = new Diff(changeLogSnapshot, databaseSnapshot).compare();
+        assertEquals(1, diffResult.getMissingForeignKeys().size());
+        assertEquals("fk_phone_person", diffResult.getMissingForeignKeys().first().getName());
+        assertEquals(1, diffResult.getUnexpectedForeignKeys().size());
+        assertSame(phoneFK, diffResult.getUnexpectedForeignKeys().first());
+    }
+
+    private Table addTable(SqlDatabaseSnapshot snapshot, String name, String... columnNames) {
+        Table table = new Table(name);
+        snapshot.tables.add(table);
+        for (String columnName : columnNames) {
+            Column column = new Column();
+            column.setName(columnName);
+            column.setTable(table);
+            column.setNullable(true);
+            table.getColumns().add(column);
+            snapshot.columns.add(column);
+        }
+        return table;
+    }
+
+    private ForeignKey addForeignKey(SqlDatabaseSnapshot snapshot, String name, Table baseTable, Table referencedTable, int deleteRule) {
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName(name);
+        foreignKey.setForeignKeyTable(baseTable);
+        foreignKey.addForeignKeyColumn("PERSON_ID");
+        foreignKey.setPrimaryKeyTable(referencedTable);
+        foreignKey.addPrimaryKeyColumn("ID");
+        foreignKey.setUpdateRule(DatabaseMetaData.importedKeyNoAction);
+        foreignKey.setDeleteRule(deleteRule);
+        snapshot.foreignKeys.add(foreignKey);
+        return foreignKey;
+    }
+
+    private List<Change> createSchemaChanges() {
+        List<Change> changes = new ArrayList<Change>();
+
+        CreateTableChange createPerson = new CreateTableChange();
+        createPerson.setTableName("person");
+        ConstraintsConfig pkConstraints = new ConstraintsConfig();
+        pkConstraints.setPrimaryKey(true);
+        createPerson.addColumn(createColumn("id", "INT", pkConstraints));
+        ConstraintsConfig nameConstraints = new ConstraintsConfig();
+        nameConstraints.setNullable(false);
+        nameConstraints.setUnique(true);
+        nameConstraints.setUniqueConstraintName("uc_person_name");
+        createPerson.addColumn(createColumn("name", "VARCHAR(50)", nameConstraints));
+        changes.add(createPerson);
+
+        CreateTableChange createAddress = new CreateTableChange();
+        createAddress.setTableName("address");
+        createAddress.addColumn(createColumn("id", "INT", null));
+        ConstraintsConfig fkConstraints = new ConstraintsConfig();
+        fkConstraints.setReferences("person(id)");
+        fkConstraints.setForeignKeyName("fk_address_person");
+        createAddress.addColumn(createColumn("person_id", "INT", fkConstraints));
+        createAddress.addColumn(createColumn("street", "VARCHAR(100)", null));
+        changes.add(createAddress);
+
+        CreateIndexChange createIndex = new CreateIndexChange();
+        createIndex.setIndexName("idx_person_name");
+        createIndex.setTableName("person");
+        createIndex.addColumn(createColumn("name", null, null));
+        changes.add(createIndex);
+
+        return changes;
+    }
+
+    private ColumnConfig createColumn(String name, String type, ConstraintsConfig constraints) {
+        ColumnConfig column = new ColumnConfig();
+        column.setName(name);
+        column.setType(type);
+        column.setConstraints(constraints);
+        return column;
+    }
+}
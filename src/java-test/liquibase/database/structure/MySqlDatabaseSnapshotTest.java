@@ -0,0 +1,122 @@
+package liquibase.database.structure;
+
+import liquibase.database.DatabaseConnection;
+import liquibase.database.MySQLDatabase;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MySqlDatabaseSnapshotTest {
+
+    private static final String[] COLUMNS_LABELS = new String[]{"TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "DATA_TYPE", "TYPE_NAME", "COLUMN_SIZE", "DECIMAL_DIGITS", "NULLABLE", "REMARKS", "COLUMN_DEF"};
+    private static final String[] INFORMATION_SCHEMA_LABELS = new String[]{"TABLE_NAME", "COLUMN_NAME", "COLUMN_TYPE", "COLUMN_DEFAULT", "EXTRA"};
+
+    @Test
+    public void columnsReadWithInformationSchema() throws Exception {
+        final List<String> queries = new ArrayList<String>();
+        final ResultSet informationSchemaColumns = resultSet(INFORMATION_SCHEMA_LABELS, new Object[][]{
+                {"person", "id", "int(11)", null, "auto_increment"},
+                {"person", "status", "enum('active','retired')", "active", ""},
+                {"person", "name", "varchar(50)", null, ""},
+        });
+        Statement statement = (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Statement.class}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("executeQuery")) {
+                    queries.add((String) args[0]);
+                    return informationSchemaColumns;
+                }
+                return null;
+            }
+        });
+
+        DatabaseMetaData metaData = createNiceMock(DatabaseMetaData.class);
+        expect(metaData.getURL()).andReturn("jdbc:mysql://localhost/test").anyTimes();
+        expect(metaData.getUserName()).andReturn("test@localhost").anyTimes();
+        expect(metaData.getColumns(null, null, null, null)).andReturn(resultSet(COLUMNS_LABELS, new Object[][]{
+                {null, null, "person", "id", Types.INTEGER, "INT", 11, 0, DatabaseMetaData.columnNoNulls, null, null},
+                {null, null, "person", "status", Types.CHAR, "ENUM", 7, 0, DatabaseMetaData.columnNullable, null, "active"},
+                {null, null, "person", "name", Types.VARCHAR, "VARCHAR", 50, 0, DatabaseMetaData.columnNullable, null, null},
+        }));
+        replay(metaData);
+
+        DatabaseConnection connection = createNiceMock(DatabaseConnection.class);
+        expect(connection.getMetaData()).andReturn(metaData).anyTimes();
+        expect(connection.createStatement()).andReturn(statement).anyTimes();
+        expect(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).andReturn(statement).anyTimes();
+        replay(connection);
+
+        MySQLDatabase database = new MySQLDatabase();
+        database.setConnection(connection);
+
+        MySqlDatabaseSnapshot snapshot = new MySqlDatabaseSnapshot();
+        snapshot.database = database;
+        snapshot.databaseMetaData = metaData;
+        Table person = new Table("person");
+        snapshot.tables.add(person);
+        snapshot.tablesMap.put("person", person);
+
+        snapshot.readColumns(null);
+
+        assertEquals(1, queries.size());
+        assertTrue(queries.get(0).indexOf("FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE()") >= 0);
+
+        Column id = snapshot.columnsMap.get("person.id");
+        assertTrue(id.isAutoIncrement());
+        assertFalse(id.isNullable());
+
+        Column status = snapshot.columnsMap.get("person.status");
+        assertFalse(status.isAutoIncrement());
+        assertTrue(status.isNullable());
+        assertEquals("enum('active','retired')", status.getTypeName());
+        assertEquals("active", status.getDefaultValue());
+
+        Column name = snapshot.columnsMap.get("person.name");
+        assertFalse(name.isAutoIncrement());
+        assertTrue(name.isNullable());
+        assertEquals(3, person.getColumns().size());
+    }
+
+    /**
+     * A result set returning the given rows, with columns read by label.
+     */
+    private ResultSet resultSet(final String[] labels, final Object[][] rows) {
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ResultSet.class}, new InvocationHandler() {
+            private int row = -1;
+
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("next")) {
+                    return ++row < rows.length;
+                } else if (name.equals("getString") || name.equals("getObject")) {
+                    Object value = value((String) args[0]);
+                    return value == null || name.equals("getObject") ? value : value.toString();
+                } else if (name.equals("getInt")) {
+                    Object value = value((String) args[0]);
+                    return value == null ? 0 : ((Number) value).intValue();
+                } else if (name.equals("wasNull") || name.equals("isClosed")) {
+                    return false;
+                }
+                return null;
+            }
+
+            private Object value(String label) {
+                for (int i = 0; i < labels.length; i++) {
+                    if (labels[i].equals(label)) {
+                        return rows[row][i];
+                    }
+                }
+                throw new IllegalArgumentException(label);
+            }
+        });
+    }
+}
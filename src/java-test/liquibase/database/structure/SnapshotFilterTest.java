@@ -0,0 +1,72 @@
+package liquibase.database.structure;
+
+import liquibase.database.MockDatabase;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class SnapshotFilterTest {
+
+    @Test
+    public void everythingIsReadByDefault() {
+        SnapshotFilter filter = new SnapshotFilter();
+        assertTrue(filter.shouldRead(SnapshotFilter.SEQUENCES));
+        assertTrue(filter.shouldRead(SnapshotFilter.INDEXES));
+        assertTrue(filter.matches(SnapshotFilter.TABLES, "PERSON"));
+        assertNull(filter.getNamePattern(SnapshotFilter.TABLES));
+        assertNull(filter.getSqlCondition(SnapshotFilter.TABLES, "TABLE_NAME", new MockDatabase()));
+    }
+
+    @Test
+    public void objectTypesReadWithRequestedTypes() {
+        SnapshotFilter filter = new SnapshotFilter();
+        filter.setObjectTypes(new HashSet<String>(Arrays.asList(SnapshotFilter.TABLES)));
+
+        assertTrue(filter.shouldRead(SnapshotFilter.TABLES));
+        assertTrue(filter.shouldRead(SnapshotFilter.COLUMNS));
+        assertTrue(filter.shouldRead(SnapshotFilter.PRIMARY_KEYS));
+        assertFalse(filter.shouldRead(SnapshotFilter.VIEWS));
+        assertFalse(filter.shouldRead(SnapshotFilter.FOREIGN_KEYS));
+        assertFalse(filter.shouldRead(SnapshotFilter.UNIQUE_CONSTRAINTS));
+        assertFalse(filter.shouldRead(SnapshotFilter.INDEXES));
+        assertFalse(filter.shouldRead(SnapshotFilter.SEQUENCES));
+
+        filter.setObjectTypes(new HashSet<String>(Arrays.asList(SnapshotFilter.INDEXES)));
+        assertTrue(filter.shouldRead(SnapshotFilter.TABLES));
+        assertTrue(filter.shouldRead(SnapshotFilter.FOREIGN_KEYS));
+        assertTrue(filter.shouldRead(SnapshotFilter.UNIQUE_CONSTRAINTS));
+        assertFalse(filter.shouldRead(SnapshotFilter.VIEWS));
+        assertFalse(filter.shouldRead(SnapshotFilter.COLUMNS));
+    }
+
+    @Test
+    public void includeAndExcludePatterns() {
+        SnapshotFilter filter = new SnapshotFilter();
+        filter.include(SnapshotFilter.TABLES, "BILLING_%");
+        filter.exclude(SnapshotFilter.TABLES, "%_AUDIT");
+
+        assertTrue(filter.matches(SnapshotFilter.TABLES, "BILLING_INVOICE"));
+        assertFalse(filter.matches(SnapshotFilter.TABLES, "BILLING_INVOICE_AUDIT"));
+        assertFalse(filter.matches(SnapshotFilter.TABLES, "PERSON"));
+        assertFalse(filter.matches(SnapshotFilter.TABLES, "billing_invoice"));
+        assertTrue(filter.matches(SnapshotFilter.VIEWS, "PERSON"));
+
+        assertEquals("BILLING_%", filter.getNamePattern(SnapshotFilter.TABLES));
+        assertEquals("(TABLE_NAME LIKE 'BILLING_%') AND TABLE_NAME NOT LIKE '%_AUDIT'", filter.getSqlCondition(SnapshotFilter.TABLES, "TABLE_NAME", new MockDatabase()));
+    }
+
+    @Test
+    public void severalIncludePatterns() {
+        SnapshotFilter filter = new SnapshotFilter();
+        filter.include(SnapshotFilter.SEQUENCES, "SEQ_A");
+        filter.include(SnapshotFilter.SEQUENCES, "SEQ_B.X");
+
+        assertTrue(filter.matches(SnapshotFilter.SEQUENCES, "SEQ_A"));
+        assertTrue(filter.matches(SnapshotFilter.SEQUENCES, "SEQ_B.X"));
+        assertFalse(filter.matches(SnapshotFilter.SEQUENCES, "SEQ_BYX"));
+        assertNull(filter.getNamePattern(SnapshotFilter.SEQUENCES));
+        assertEquals("(NAME LIKE 'SEQ_A' OR NAME LIKE 'SEQ_B.X')", filter.getSqlCondition(SnapshotFilter.SEQUENCES, "NAME", new MockDatabase()));
+    }
+}
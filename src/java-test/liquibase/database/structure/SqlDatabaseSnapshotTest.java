@@ -0,0 +1,183 @@
+package liquibase.database.structure;
+
+import liquibase.database.DB2Database;
+import liquibase.database.DB2iDatabase;
+import liquibase.database.HsqlDatabase;
+import liquibase.database.MockDatabase;
+import liquibase.database.PostgresDatabase;
+import liquibase.database.SybaseDatabase;
+import liquibase.exception.JDBCException;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class SqlDatabaseSnapshotTest {
+
+    @Test
+    public void removeKeyIndexes() {
+        SqlDatabaseSnapshot snapshot = new UnsupportedDatabaseSnapshot();
+        Table person = new Table("person");
+        Table address = new Table("address");
+
+        PrimaryKey pk = new PrimaryKey();
+        pk.setTable(new Table("PERSON"));
+        pk.addColumnName(0, "id");
+        snapshot.primaryKeys.add(pk);
+
+        ForeignKey fk = new ForeignKey();
+        fk.setForeignKeyTable(address);
+        fk.addForeignKeyColumn("person_id");
+        snapshot.foreignKeys.add(fk);
+
+        UniqueConstraint uc = new UniqueConstraint();
+        uc.setTable(person);
+        uc.getColumns().add("first_name");
+        uc.getColumns().add("last_name");
+        snapshot.uniqueConstraints.add(uc);
+
+        Index pkIndex = createIndex("pk_person", person, "id");
+        Index fkIndex = createIndex("fk_address_person", address, "person_id");
+        Index ucIndex = createIndex("uc_person_name", person, "first_name", "last_name");
+        Index otherIndex = createIndex("idx_person_name", person, "last_name", "first_name");
+        Index otherTableIndex = createIndex("idx_address_id", address, "id");
+        snapshot.indexes.add(pkIndex);
+        snapshot.indexes.add(fkIndex);
+        snapshot.indexes.add(ucIndex);
+        snapshot.indexes.add(otherIndex);
+        snapshot.indexes.add(otherTableIndex);
+
+        snapshot.removeKeyIndexes();
+
+        assertEquals(2, snapshot.getIndexes().size());
+        assertTrue(snapshot.getIndexes().contains(otherIndex));
+        assertTrue(snapshot.getIndexes().contains(otherTableIndex));
+    }
+
+    @Test
+    public void catalogQueriesOnlyForTheirDialect() throws Exception {
+        MSSQLDatabaseSnapshot sybaseSnapshot = new MSSQLDatabaseSnapshot();
+        sybaseSnapshot.database = new SybaseDatabase();
+        assertNull(sybaseSnapshot.getIndexesQuery("dbo"));
+        assertNull(sybaseSnapshot.getPrimaryKeysQuery("dbo"));
+
+        DB2DatabaseSnapshot db2iSnapshot = new DB2DatabaseSnapshot();
+        db2iSnapshot.database = new DB2iDatabase();
+        assertNull(db2iSnapshot.getIndexesQuery("APP"));
+        assertNull(db2iSnapshot.getPrimaryKeysQuery("APP"));
+
+        DB2DatabaseSnapshot db2Snapshot = new DB2DatabaseSnapshot();
+        db2Snapshot.database = new DB2Database();
+        assertTrue(db2Snapshot.getIndexesQuery("APP").indexOf("SYSCAT.INDEXES") > 0);
+        assertTrue(db2Snapshot.getPrimaryKeysQuery("APP").indexOf("SYSCAT.KEYCOLUSE") > 0);
+    }
+
+    @Test
+    public void nameLookups() {
+        SqlDatabaseSnapshot snapshot = new UnsupportedDatabaseSnapshot();
+        snapshot.database = new PostgresDatabase();
+        Table person = new Table("person");
+        Table address = new Table("Address");
+        snapshot.tables.add(person);
+        snapshot.tables.add(address);
+
+        Column column = new Column();
+        column.setTable(person);
+        column.setName("first_name");
+        snapshot.columnsMap.put("person.first_name", column);
+
+        PrimaryKey pk = new PrimaryKey();
+        pk.setName("pk_person");
+        pk.setTable(person);
+        pk.addColumnName(0, "id");
+        snapshot.primaryKeys.add(pk);
+        snapshot.resetNameIndexes();
+
+        assertSame(person, snapshot.getTable("person"));
+        assertSame(person, snapshot.getTable("PERSON"));
+        assertSame(address, snapshot.getTable("Address"));
+        assertSame(address, snapshot.getTable("ADDRESS"));
+        assertNull(snapshot.getTable("other"));
+        assertSame(column, snapshot.getColumn("Person", "FIRST_NAME"));
+        assertSame(pk, snapshot.getPrimaryKey("PK_PERSON"));
+        assertSame(pk, snapshot.getPrimaryKeyForTable("person"));
+        assertNull(snapshot.getIndex("pk_person"));
+
+        Column idColumn = new Column();
+        idColumn.setTable(person);
+        idColumn.setName("id");
+        assertTrue(snapshot.isPrimaryKey(idColumn));
+        assertFalse(snapshot.isPrimaryKey(column));
+    }
+
+    @Test
+    public void nameLookupsIgnoreDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            SqlDatabaseSnapshot snapshot = new UnsupportedDatabaseSnapshot();
+            snapshot.database = new PostgresDatabase();
+            Table link = new Table("link");
+            snapshot.tables.add(link);
+            snapshot.resetNameIndexes();
+            assertSame(link, snapshot.getTable("LINK"));
+
+            snapshot = new UnsupportedDatabaseSnapshot();
+            snapshot.database = new HsqlDatabase();
+            Table id = new Table("ID");
+            snapshot.tables.add(id);
+            snapshot.resetNameIndexes();
+            assertSame(id, snapshot.getTable("id"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void viewDefinitionsAreReadTogetherWhenFirstNeeded() {
+        final int[] queries = new int[2];
+        SqlDatabaseSnapshot snapshot = new UnsupportedDatabaseSnapshot();
+        snapshot.database = new MockDatabase() {
+            public Map<String, String> getViewDefinitions(String schemaName) throws JDBCException {
+                queries[0]++;
+                Map<String, String> definitions = new HashMap<String, String>();
+                definitions.put("v_person", "select * from person");
+                return definitions;
+            }
+
+            public String getViewDefinition(String schemaName, String name) throws JDBCException {
+                queries[1]++;
+                return "select * from " + name.substring(2);
+            }
+        };
+
+        View person = createView(snapshot, "v_person");
+        View address = createView(snapshot, "v_address");
+        assertEquals(0, queries[0]);
+
+        assertEquals("select * from address", address.getDefinition());
+        assertEquals("select * from person", person.getDefinition());
+        assertEquals(1, queries[0]);
+        assertEquals(1, queries[1]);
+    }
+
+    private View createView(SqlDatabaseSnapshot snapshot, String name) {
+        View view = new View(name);
+        view.setDefinitionLoader(snapshot.viewDefinitionLoader);
+        snapshot.viewsMap.put(name, view);
+        return view;
+    }
+
+    private Index createIndex(String name, Table table, String... columns) {
+        Index index = new Index();
+        index.setName(name);
+        index.setTable(table);
+        index.setUnique(false);
+        for (String column : columns) {
+            index.getColumns().add(column);
+        }
+        return index;
+    }
+}
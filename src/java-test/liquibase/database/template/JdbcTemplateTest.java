@@ -0,0 +1,134 @@
+package liquibase.database.template;
+
+import liquibase.database.Database;
+import liquibase.database.MySQLDatabase;
+import liquibase.database.OracleDatabase;
+import liquibase.database.sql.RawSqlStatement;
+import liquibase.database.sql.SqlStatement;
+import liquibase.database.sql.visitor.SqlVisitor;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class JdbcTemplateTest {
+
+    private static final List<SqlStatement> STATEMENTS = Arrays.asList((SqlStatement) new RawSqlStatement("DROP TABLE A"), new RawSqlStatement("DROP TABLE B"));
+
+    @Test
+    public void batchExecuteSendsOneBatch() throws Exception {
+        Connection connection = createMock(Connection.class);
+        DatabaseMetaData metaData = createMock(DatabaseMetaData.class);
+        Statement statement = createMock(Statement.class);
+
+        connection.setAutoCommit(false);
+        expect(connection.getMetaData()).andReturn(metaData);
+        expect(metaData.supportsBatchUpdates()).andReturn(true);
+        expect(connection.createStatement()).andReturn(statement);
+        statement.addBatch("DROP TABLE A");
+        statement.addBatch("DROP TABLE B");
+        expect(statement.executeBatch()).andReturn(new int[]{0, 0});
+        statement.close();
+        replay(connection, metaData, statement);
+
+        Database database = new OracleDatabase();
+        database.setConnection(connection);
+        new JdbcTemplate(database).batchExecute(STATEMENTS, new ArrayList<SqlVisitor>());
+
+        verify(connection, metaData, statement);
+    }
+
+    @Test
+    public void batchExecuteWithoutDriverSupport() throws Exception {
+        Connection connection = createMock(Connection.class);
+        DatabaseMetaData metaData = createMock(DatabaseMetaData.class);
+        Statement statement = createMock(Statement.class);
+
+        connection.setAutoCommit(false);
+        expect(connection.getMetaData()).andReturn(metaData);
+        expect(metaData.supportsBatchUpdates()).andReturn(false);
+        expect(connection.createStatement()).andReturn(statement).times(2);
+        expect(statement.execute("DROP TABLE A")).andReturn(false);
+        expect(statement.execute("DROP TABLE B")).andReturn(false);
+        statement.close();
+        expectLastCall().times(2);
+        replay(connection, metaData, statement);
+
+        Database database = new OracleDatabase();
+        database.setConnection(connection);
+        new JdbcTemplate(database).batchExecute(STATEMENTS, new ArrayList<SqlVisitor>());
+
+        verify(connection, metaData, statement);
+    }
+
+    @Test
+    public void queryStreamsResults() throws Exception {
+        Connection connection = createMock(Connection.class);
+        Statement statement = createMock(Statement.class);
+        ResultSet resultSet = createMock(ResultSet.class);
+
+        connection.setAutoCommit(false);
+        expect(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).andReturn(statement);
+        statement.setFetchSize(Integer.MIN_VALUE);
+        expect(statement.executeQuery("SELECT COUNT(*) FROM A")).andReturn(resultSet);
+        expect(resultSet.next()).andReturn(true);
+        expect(resultSet.getInt(1)).andReturn(3);
+        resultSet.close();
+        statement.close();
+        replay(connection, statement, resultSet);
+
+        Database database = new MySQLDatabase();
+        database.setConnection(connection);
+        Object count = new JdbcTemplate(database).query(new RawSqlStatement("SELECT COUNT(*) FROM A"), new ResultSetExtractor() {
+            public Object extractData(ResultSet rs) throws SQLException {
+                rs.next();
+                return rs.getInt(1);
+            }
+        });
+        assertEquals(3, count);
+
+        verify(connection, statement, resultSet);
+    }
+
+    @Test
+    public void preparedQueriesAreCached() throws Exception {
+        Connection connection = createMock(Connection.class);
+        PreparedStatement statement = createMock(PreparedStatement.class);
+        ResultSet resultSet = createMock(ResultSet.class);
+
+        connection.setAutoCommit(false);
+        expect(connection.prepareStatement("SELECT COUNT(*) FROM A")).andReturn(statement);
+        statement.setFetchSize(1000);
+        expectLastCall().times(2);
+        expect(statement.executeQuery()).andReturn(resultSet).times(2);
+        expect(resultSet.next()).andReturn(true).times(2);
+        expect(resultSet.getInt(1)).andReturn(3).times(2);
+        resultSet.close();
+        expectLastCall().times(2);
+        replay(connection, statement, resultSet);
+
+        Database database = new OracleDatabase();
+        database.setConnection(connection);
+        JdbcTemplate template = new JdbcTemplate(database);
+        template.setUsePreparedStatements(true);
+        ResultSetExtractor extractor = new ResultSetExtractor() {
+            public Object extractData(ResultSet rs) throws SQLException {
+                rs.next();
+                return rs.getInt(1);
+            }
+        };
+        assertEquals(3, template.query(new RawSqlStatement("SELECT COUNT(*) FROM A"), extractor));
+        assertEquals(3, template.query(new RawSqlStatement("SELECT COUNT(*) FROM A"), extractor));
+
+        verify(connection, statement, resultSet);
+    }
+}
@@ -0,0 +1,54 @@
+package liquibase.dbdoc;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+
+public class PageFingerprintsTest {
+
+    private File outputDir;
+
+    @Before
+    public void createOutputDir() throws Exception {
+        outputDir = File.createTempFile("dbdoc", "");
+        outputDir.delete();
+        new File(outputDir, "tables").mkdirs();
+    }
+
+    @After
+    public void deleteOutputDir() {
+        new File(outputDir, "tables/person.html").delete();
+        new File(outputDir, "tables").delete();
+        new File(outputDir, PageFingerprints.FILE_NAME).delete();
+        outputDir.delete();
+    }
+
+    @Test
+    public void unchangedAfterSave() throws Exception {
+        File page = new File(outputDir, "tables/person.html");
+        new FileWriter(page).close();
+
+        PageFingerprints fingerprints = new PageFingerprints(outputDir);
+        assertFalse(fingerprints.isUnchanged(page, "abc"));
+        fingerprints.save();
+
+        PageFingerprints nextRun = new PageFingerprints(outputDir);
+        assertTrue(nextRun.isUnchanged(page, "abc"));
+        assertFalse(nextRun.isUnchanged(page, "def"));
+    }
+
+    @Test
+    public void missingPageIsRewritten() throws Exception {
+        File page = new File(outputDir, "tables/person.html");
+
+        PageFingerprints fingerprints = new PageFingerprints(outputDir);
+        fingerprints.isUnchanged(page, "abc");
+        fingerprints.save();
+
+        assertFalse(new PageFingerprints(outputDir).isUnchanged(page, "abc"));
+    }
+}
@@ -0,0 +1,287 @@
+package liquibase.diff;
+
+import liquibase.change.Change;
+import liquibase.change.DeleteDataChange;
+import liquibase.change.InsertDataChange;
+import liquibase.change.UpdateDataChange;
+import liquibase.database.DatabaseConnection;
+import liquibase.database.HsqlDatabase;
+import liquibase.database.structure.Column;
+import liquibase.database.structure.DatabaseSnapshot;
+import liquibase.database.structure.PrimaryKey;
+import liquibase.database.structure.Table;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class DataDiffTest {
+
+    @Test
+    public void normalizeNumbersAcrossTypes() {
+        assertEquals(DataDiff.normalize(new Integer(10)), DataDiff.normalize(new BigDecimal("10.00")));
+        assertEquals(DataDiff.normalize(new Long(0)), DataDiff.normalize(new BigDecimal("0.000")));
+        assertEquals("1.5", DataDiff.normalize(new Double(1.5)));
+        assertFalse(DataDiff.normalize(new Integer(10)).equals(DataDiff.normalize(new Integer(1))));
+    }
+
+    @Test
+    public void normalizeDatesAndNulls() {
+        assertNull(DataDiff.normalize(null));
+        assertEquals(DataDiff.normalize(new java.sql.Timestamp(1000)), DataDiff.normalize(new java.util.Date(1000)));
+        assertEquals("abc", DataDiff.normalize("abc"));
+    }
+
+    @Test
+    public void compareKeysAcrossTypes() {
+        assertEquals(0, DataDiff.compareKeys(new Object[]{new Integer(10)}, new Object[]{new BigDecimal("10.0")}, 1));
+        assertTrue(DataDiff.compareKeys(new Object[]{new Integer(9)}, new Object[]{new Long(10)}, 1) < 0);
+        assertTrue(DataDiff.compareKeys(new Object[]{new java.sql.Timestamp(2000)}, new Object[]{new java.util.Date(1000)}, 1) > 0);
+        assertTrue(DataDiff.compareKeys(new Object[]{"a", "b"}, new Object[]{"a", "c"}, 2) < 0);
+        assertEquals(0, DataDiff.compareKeys(new Object[]{"a", "b"}, new Object[]{"a", "c"}, 1));
+    }
+
+    @Test
+    public void chunkedCompare() throws Exception {
+        FakeTable base = new FakeTable(null);
+        base.add("A", "1");
+        base.add("b", "2");
+        base.add("C", "3");
+        base.add("e", "5");
+        FakeTable target = new FakeTable(null);
+        target.add("A", "1");
+        target.add("b", "2");
+        target.add("C", "30");
+        target.add("d", "4");
+
+        assertChanges(compare(base, target, 1));
+        assertChanges(compare(base, target, 2));
+        assertEquals(0, compare(base, base, 1).size());
+    }
+
+    @Test
+    public void chunkedCompareWithDifferentCollation() throws Exception {
+        //the base orders A, C, b: with one row per chunk the target would count b in two ranges and C in none
+        FakeTable base = new FakeTable(null);
+        base.add("A", "1");
+        base.add("b", "2");
+        base.add("C", "3");
+        base.add("e", "5");
+        FakeTable target = new FakeTable(String.CASE_INSENSITIVE_ORDER);
+        target.add("A", "1");
+        target.add("b", "2");
+        target.add("C", "30");
+        target.add("d", "4");
+
+        assertChanges(compare(base, target, 1));
+        assertChanges(compare(base, target, 2));
+
+        FakeTable sameRows = new FakeTable(String.CASE_INSENSITIVE_ORDER);
+        sameRows.rows.addAll(base.rows);
+        assertEquals(0, compare(base, sameRows, 1).size());
+    }
+
+    /**
+     * Checks the changes for the tables in chunkedCompare: C updated, e inserted and d deleted.
+     */
+    private void assertChanges(List<Change> changes) {
+        assertEquals(3, changes.size());
+        Map<Class, Change> byType = new HashMap<Class, Change>();
+        for (Change change : changes) {
+            byType.put(change.getClass(), change);
+        }
+
+        UpdateDataChange update = (UpdateDataChange) byType.get(UpdateDataChange.class);
+        assertTrue(update.getWhereClause().endsWith("= 'C'"));
+        assertEquals(1, update.getColumns().size());
+        assertEquals("3", update.getColumns().get(0).getValue());
+
+        InsertDataChange insert = (InsertDataChange) byType.get(InsertDataChange.class);
+        assertEquals("e", insert.getColumns().get(0).getValue());
+
+        DeleteDataChange delete = (DeleteDataChange) byType.get(DeleteDataChange.class);
+        assertTrue(delete.getWhereClause().endsWith("= 'd'"));
+    }
+
+    private List<Change> compare(FakeTable base, FakeTable target, int chunkSize) throws Exception {
+        DataDiff dataDiff = new DataDiff(createSnapshot(base), createSnapshot(target));
+        dataDiff.setChunkSize(chunkSize);
+        return dataDiff.compare();
+    }
+
+    private DatabaseSnapshot createSnapshot(FakeTable fakeTable) {
+        HsqlDatabase database = new HsqlDatabase();
+        database.setConnection(fakeTable.createConnection());
+
+        Table table = new Table("PERSON");
+        for (String columnName : new String[]{"ID", "NAME"}) {
+            Column column = new Column();
+            column.setName(columnName);
+            column.setTable(table);
+            table.getColumns().add(column);
+        }
+        PrimaryKey primaryKey = new PrimaryKey();
+        primaryKey.setTable(table);
+        primaryKey.addColumnName(0, "ID");
+
+        DatabaseSnapshot snapshot = createNiceMock(DatabaseSnapshot.class);
+        expect(snapshot.getDatabase()).andReturn(database).anyTimes();
+        expect(snapshot.getTables()).andReturn(new HashSet<Table>(Collections.singleton(table))).anyTimes();
+        expect(snapshot.getTable("PERSON")).andReturn(table).anyTimes();
+        expect(snapshot.getPrimaryKeyForTable("PERSON")).andReturn(primaryKey).anyTimes();
+        replay(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * A table of ID and NAME rows answering the queries DataDiff runs, ordering and comparing IDs with its own
+     * collation.
+     */
+    private static class FakeTable {
+        private static final Pattern PARAMETER = Pattern.compile("(>=|<=|=|>|<) \\?");
+
+        private Comparator<String> collation;
+        private List<Object[]> rows = new ArrayList<Object[]>();
+
+        private FakeTable(Comparator<String> collation) {
+            this.collation = collation;
+        }
+
+        private void add(String id, String name) {
+            rows.add(new Object[]{id, name});
+        }
+
+        private int compare(Object id, Object otherId) {
+            if (collation == null) {
+                return ((String) id).compareTo((String) otherId);
+            }
+            return collation.compare((String) id, (String) otherId);
+        }
+
+        private List<Object[]> query(String sql, List<Object> parameters) {
+            List<Object[]> matches = new ArrayList<Object[]>();
+            Matcher matcher = PARAMETER.matcher(sql);
+            for (Object[] row : rows) {
+                boolean match = true;
+                matcher.reset();
+                for (int i = 0; matcher.find(); i++) {
+                    int comparison = compare(row[0], parameters.get(i));
+                    String operator = matcher.group(1);
+                    if (operator.equals(">=")) {
+                        match &= comparison >= 0;
+                    } else if (operator.equals("<")) {
+                        match &= comparison < 0;
+                    } else {
+                        throw new UnsupportedOperationException(sql);
+                    }
+                }
+                if (match) {
+                    matches.add(row);
+                }
+            }
+            if (sql.indexOf(" ORDER BY ") >= 0) {
+                Collections.sort(matches, new Comparator<Object[]>() {
+                    public int compare(Object[] row, Object[] otherRow) {
+                        return FakeTable.this.compare(row[0], otherRow[0]);
+                    }
+                });
+            }
+
+            String selectList = sql.substring("SELECT ".length(), sql.indexOf(" FROM "));
+            if (selectList.equals("COUNT(*)")) {
+                return Collections.singletonList(new Object[]{new Long(matches.size())});
+            }
+            int columnCount = selectList.split(",").length;
+            List<Object[]> results = new ArrayList<Object[]>();
+            for (Object[] row : matches) {
+                Object[] result = new Object[columnCount];
+                System.arraycopy(row, 0, result, 0, columnCount);
+                results.add(result);
+            }
+            return results;
+        }
+
+        private DatabaseConnection createConnection() {
+            return (DatabaseConnection) proxy(DatabaseConnection.class, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if (method.getName().equals("createStatement")) {
+                        return createStatement(Statement.class, null);
+                    } else if (method.getName().equals("prepareStatement")) {
+                        return createStatement(PreparedStatement.class, (String) args[0]);
+                    }
+                    return defaultValue(method);
+                }
+            });
+        }
+
+        private Object createStatement(Class type, final String preparedSql) {
+            final List<Object> parameters = new ArrayList<Object>();
+            return proxy(type, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if (method.getName().equals("setObject")) {
+                        int index = (Integer) args[0];
+                        while (parameters.size() < index) {
+                            parameters.add(null);
+                        }
+                        parameters.set(index - 1, args[1]);
+                        return null;
+                    } else if (method.getName().equals("executeQuery")) {
+                        return createResultSet(query(preparedSql == null ? (String) args[0] : preparedSql, parameters));
+                    }
+                    return defaultValue(method);
+                }
+            });
+        }
+
+        private ResultSet createResultSet(final List<Object[]> results) {
+            return (ResultSet) proxy(ResultSet.class, new InvocationHandler() {
+                private int row = -1;
+
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if (method.getName().equals("next")) {
+                        return ++row < results.size();
+                    } else if (method.getName().equals("getObject")) {
+                        return results.get(row)[(Integer) args[0] - 1];
+                    } else if (method.getName().equals("getLong")) {
+                        return ((Number) results.get(row)[(Integer) args[0] - 1]).longValue();
+                    }
+                    return defaultValue(method);
+                }
+            });
+        }
+
+        private static Object proxy(Class type, InvocationHandler handler) {
+            return Proxy.newProxyInstance(FakeTable.class.getClassLoader(), new Class[]{type}, handler);
+        }
+
+        private static Object defaultValue(Method method) {
+            Class returnType = method.getReturnType();
+            if (returnType.equals(boolean.class)) {
+                return false;
+            } else if (returnType.equals(int.class)) {
+                return 0;
+            } else if (returnType.equals(long.class)) {
+                return 0L;
+            } else if (returnType.isPrimitive() && !returnType.equals(void.class)) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package liquibase.diff;
+
+import liquibase.change.LoadDataChange;
+import liquibase.database.Database;
+import liquibase.database.DatabaseConnection;
+import liquibase.database.structure.Table;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class DataExporterTest {
+
+    private File dataDir;
+
+    @Before
+    public void createDataDir() throws Exception {
+        dataDir = File.createTempFile("data", "");
+        dataDir.delete();
+    }
+
+    @After
+    public void deleteDataDir() {
+        File[] files = dataDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dataDir.delete();
+    }
+
+    @Test
+    public void exportToOneFile() throws Exception {
+        DataExporter exporter = new DataExporter(createDatabase(3), "PUBLIC");
+
+        List<LoadDataChange> changes = exporter.export(Collections.singleton(new Table("PERSON")), dataDir.getPath());
+
+        assertEquals(1, changes.size());
+        assertEquals(new File(dataDir, "PERSON.csv").getPath(), new File(changes.get(0).getFile()).getPath());
+        assertEquals("PERSON", changes.get(0).getTableName());
+        assertEquals("PUBLIC", changes.get(0).getSchemaName());
+        assertEquals("UTF-8", changes.get(0).getEncoding());
+
+        List<String> lines = readLines(new File(dataDir, "PERSON.csv"));
+        assertEquals(4, lines.size());
+        assertEquals("\"ID\",\"NAME\"", lines.get(0));
+        assertEquals("\"1\",\"name1\"", lines.get(1));
+        assertEquals("\"3\",\"name3\"", lines.get(3));
+    }
+
+    @Test
+    public void exportSplitIntoFiles() throws Exception {
+        DataExporter exporter = new DataExporter(createDatabase(5), "PUBLIC");
+        exporter.setMaxRowsPerFile(2);
+
+        List<LoadDataChange> changes = exporter.export(Collections.singleton(new Table("PERSON")), dataDir.getPath());
+
+        assertEquals(3, changes.size());
+        String[] fileNames = new String[]{"PERSON.csv", "PERSON_2.csv", "PERSON_3.csv"};
+        for (int i = 0; i < fileNames.length; i++) {
+            assertEquals(new File(dataDir, fileNames[i]).getPath(), new File(changes.get(i).getFile()).getPath());
+            assertEquals("PERSON", changes.get(i).getTableName());
+        }
+
+        List<String> first = readLines(new File(dataDir, "PERSON.csv"));
+        assertEquals(3, first.size());
+        assertEquals("\"ID\",\"NAME\"", first.get(0));
+        assertEquals("\"2\",\"name2\"", first.get(2));
+
+        List<String> second = readLines(new File(dataDir, "PERSON_2.csv"));
+        assertEquals(3, second.size());
+        assertEquals("\"ID\",\"NAME\"", second.get(0));
+        assertEquals("\"3\",\"name3\"", second.get(1));
+
+        List<String> last = readLines(new File(dataDir, "PERSON_3.csv"));
+        assertEquals(2, last.size());
+        assertEquals("\"5\",\"name5\"", last.get(1));
+    }
+
+    /**
+     * A database whose PERSON table holds the given number of ID and NAME rows.
+     */
+    private Database createDatabase(int rowCount) throws Exception {
+        ResultSetMetaData metaData = createNiceMock(ResultSetMetaData.class);
+        expect(metaData.getColumnCount()).andReturn(2).anyTimes();
+        expect(metaData.getColumnName(1)).andReturn("ID").anyTimes();
+        expect(metaData.getColumnName(2)).andReturn("NAME").anyTimes();
+        expect(metaData.getColumnType(1)).andReturn(Types.INTEGER).anyTimes();
+        expect(metaData.getColumnType(2)).andReturn(Types.VARCHAR).anyTimes();
+        replay(metaData);
+
+        ResultSet rs = createNiceMock(ResultSet.class);
+        expect(rs.getMetaData()).andReturn(metaData).anyTimes();
+        for (int i = 1; i <= rowCount; i++) {
+            expect(rs.next()).andReturn(true);
+            expect(rs.getObject(1)).andReturn(new Integer(i));
+            expect(rs.getObject(2)).andReturn("name" + i);
+        }
+        expect(rs.next()).andReturn(false);
+        replay(rs);
+
+        Statement stmt = createNiceMock(Statement.class);
+        expect(stmt.executeQuery("SELECT * FROM PUBLIC.PERSON")).andReturn(rs);
+        replay(stmt);
+
+        DatabaseConnection connection = createNiceMock(DatabaseConnection.class);
+        expect(connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).andReturn(stmt);
+        replay(connection);
+
+        Database database = createNiceMock(Database.class);
+        expect(database.getConnection()).andReturn(connection).anyTimes();
+        expect(database.escapeTableName("PUBLIC", "PERSON")).andReturn("PUBLIC.PERSON").anyTimes();
+        replay(database);
+        return database;
+    }
+
+    private List<String> readLines(File file) throws Exception {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
@@ -1,10 +1,141 @@
 package liquibase.diff;
 
+import liquibase.change.*;
+import liquibase.database.Database;
+import liquibase.database.MockDatabase;
+import liquibase.database.structure.ChangeLogDatabaseSnapshot;
+import liquibase.database.structure.DatabaseSnapshot;
+import liquibase.database.structure.Table;
+import liquibase.xml.DefaultXmlWriter;
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
 import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 
 public class DiffResultTest {
 	@Test
 	public void dummy() {
 		
 	}
+
+    @Test
+    public void streamedChangeLogMatchesDocument() throws Exception {
+        List<Change> changes = new ArrayList<Change>();
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName("person");
+        ColumnConfig idColumn = new ColumnConfig();
+        idColumn.setName("id");
+        idColumn.setType("INT");
+        createTable.addColumn(idColumn);
+        changes.add(createTable);
+
+        CreateViewChange createView = new CreateViewChange();
+        createView.setViewName("adults");
+        createView.setSelectQuery("SELECT * FROM person WHERE age >= 18 AND name <> '&'");
+        changes.add(createView);
+
+        ChangeLogDatabaseSnapshot baseSnapshot = new ChangeLogDatabaseSnapshot(changes, new MockDatabase());
+        ChangeLogDatabaseSnapshot targetSnapshot = new ChangeLogDatabaseSnapshot(new ArrayList<Change>(), new MockDatabase());
+        DiffResult diffResult = new Diff(baseSnapshot, targetSnapshot).compare();
+        diffResult.setChangeSetAuthor("tester");
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        diffResult.printChangeLog(new PrintStream(streamed), new MockDatabase());
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        diffResult.printChangeLog(new PrintStream(written), new MockDatabase(), new DefaultXmlWriter());
+
+        Element streamedChangeLog = parse(streamed).getDocumentElement();
+        Element writtenChangeLog = parse(written).getDocumentElement();
+        assertEquals("databaseChangeLog", streamedChangeLog.getTagName());
+        assertEquals(writtenChangeLog.getAttribute("xmlns"), streamedChangeLog.getAttribute("xmlns"));
+
+        NodeList streamedChangeSets = streamedChangeLog.getElementsByTagName("changeSet");
+        NodeList writtenChangeSets = writtenChangeLog.getElementsByTagName("changeSet");
+        assertEquals(2, streamedChangeSets.getLength());
+        assertEquals(writtenChangeSets.getLength(), streamedChangeSets.getLength());
+        assertEquals("tester", ((Element) streamedChangeSets.item(0)).getAttribute("author"));
+
+        Element createTableElement = (Element) streamedChangeLog.getElementsByTagName("createTable").item(0);
+        assertEquals("person", createTableElement.getAttribute("tableName"));
+        assertEquals("INT", ((Element) createTableElement.getElementsByTagName("column").item(0)).getAttribute("type"));
+        assertEquals(writtenChangeLog.getElementsByTagName("createView").item(0).getTextContent(),
+                streamedChangeLog.getElementsByTagName("createView").item(0).getTextContent());
+    }
+
+    @Test
+    public void insertDataForEveryRow() throws Exception {
+        ResultSetMetaData metaData = createNiceMock(ResultSetMetaData.class);
+        expect(metaData.getColumnCount()).andReturn(2).anyTimes();
+        expect(metaData.getColumnName(1)).andReturn("ID").anyTimes();
+        expect(metaData.getColumnName(2)).andReturn("NAME").anyTimes();
+        expect(metaData.getColumnType(1)).andReturn(Types.INTEGER).anyTimes();
+        expect(metaData.getColumnType(2)).andReturn(Types.VARCHAR).anyTimes();
+        replay(metaData);
+
+        ResultSet rs = createNiceMock(ResultSet.class);
+        expect(rs.getMetaData()).andReturn(metaData).anyTimes();
+        expect(rs.next()).andReturn(true);
+        expect(rs.getString(1)).andReturn("1");
+        expect(rs.getString(2)).andReturn("first");
+        expect(rs.next()).andReturn(true);
+        expect(rs.getString(1)).andReturn(null);
+        expect(rs.getString(2)).andReturn("second");
+        expect(rs.next()).andReturn(false);
+        replay(rs);
+
+        Statement stmt = createNiceMock(Statement.class);
+        expect(stmt.executeQuery("SELECT * FROM PUBLIC.PERSON")).andReturn(rs);
+        replay(stmt);
+
+        Database database = createNiceMock(Database.class);
+        expect(database.createStreamingStatement()).andReturn(stmt);
+        expect(database.escapeTableName("PUBLIC", "PERSON")).andReturn("PUBLIC.PERSON").anyTimes();
+        replay(database);
+
+        DatabaseSnapshot baseSnapshot = createNiceMock(DatabaseSnapshot.class);
+        expect(baseSnapshot.getDatabase()).andReturn(database).anyTimes();
+        expect(baseSnapshot.getSchema()).andReturn("PUBLIC").anyTimes();
+        expect(baseSnapshot.getTables()).andReturn(new HashSet<Table>(Collections.singleton(new Table("PERSON")))).anyTimes();
+        replay(baseSnapshot);
+        DatabaseSnapshot targetSnapshot = createNiceMock(DatabaseSnapshot.class);
+        replay(targetSnapshot);
+
+        DiffResult diffResult = new DiffResult(baseSnapshot, targetSnapshot);
+        diffResult.setDiffData(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        diffResult.printChangeLog(new PrintStream(out), new MockDatabase());
+
+        NodeList inserts = parse(out).getDocumentElement().getElementsByTagName("insert");
+        assertEquals(2, inserts.getLength());
+
+        NodeList firstColumns = ((Element) inserts.item(0)).getElementsByTagName("column");
+        assertEquals(2, firstColumns.getLength());
+        assertEquals("ID", ((Element) firstColumns.item(0)).getAttribute("name"));
+        assertEquals("1", ((Element) firstColumns.item(0)).getAttribute("valueNumeric"));
+        assertEquals("first", ((Element) firstColumns.item(1)).getAttribute("value"));
+
+        NodeList secondColumns = ((Element) inserts.item(1)).getElementsByTagName("column");
+        assertEquals(2, secondColumns.getLength());
+        assertFalse(((Element) secondColumns.item(0)).hasAttribute("valueNumeric"));
+        assertEquals("second", ((Element) secondColumns.item(1)).getAttribute("value"));
+    }
+
+    private Document parse(ByteArrayOutputStream out) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(out.toByteArray()));
+    }
 }
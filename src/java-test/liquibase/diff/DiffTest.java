@@ -1,10 +1,73 @@
 package liquibase.diff;
 
+import liquibase.change.*;
+import liquibase.database.MockDatabase;
+import liquibase.database.structure.ChangeLogDatabaseSnapshot;
+import liquibase.log.LogFactory;
+import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class DiffTest {
 	@Test
 	public void dummy() {
 		
 	}
+
+    @Test
+    public void diffLargeSnapshots() throws Exception {
+        int tableCount = 10000;
+        List<Change> baseChanges = new ArrayList<Change>();
+        List<Change> targetChanges = new ArrayList<Change>();
+        for (int i = 0; i < tableCount; i++) {
+            baseChanges.add(createTable("table_" + i, true));
+            if (i % 100 != 0) {
+                //the target database keeps table names as upper case
+                targetChanges.add(createTable("TABLE_" + i, i % 1000 != 1));
+            }
+        }
+        AddColumnChange addColumn = new AddColumnChange();
+        addColumn.setTableName("table_5");
+        addColumn.addColumn(createColumn("email", "VARCHAR(100)", null));
+        baseChanges.add(addColumn);
+
+        ChangeLogDatabaseSnapshot baseSnapshot = new ChangeLogDatabaseSnapshot(baseChanges, new MockDatabase());
+        ChangeLogDatabaseSnapshot targetSnapshot = new ChangeLogDatabaseSnapshot(targetChanges, new MockDatabase());
+
+        long start = System.currentTimeMillis();
+        DiffResult diffResult = new Diff(baseSnapshot, targetSnapshot).compare();
+        assertEquals(100, diffResult.getMissingTables().size());
+        assertEquals("table_0", diffResult.getMissingTables().first().getName());
+        assertEquals(0, diffResult.getUnexpectedTables().size());
+        assertEquals(1, diffResult.getMissingColumns().size());
+        assertEquals("email", diffResult.getMissingColumns().first().getName());
+        assertEquals(0, diffResult.getUnexpectedColumns().size());
+        assertEquals(10, diffResult.getChangedColumns().size());
+        assertEquals(100, diffResult.getMissingPrimaryKeys().size());
+        assertEquals(0, diffResult.getUnexpectedPrimaryKeys().size());
+        LogFactory.getLogger().info("Diffed " + tableCount + " tables in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private CreateTableChange createTable(String tableName, boolean nameNullable) {
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName(tableName);
+        ConstraintsConfig pkConstraints = new ConstraintsConfig();
+        pkConstraints.setPrimaryKey(true);
+        change.addColumn(createColumn("id", "INT", pkConstraints));
+        ConstraintsConfig nameConstraints = new ConstraintsConfig();
+        nameConstraints.setNullable(nameNullable);
+        change.addColumn(createColumn("name", "VARCHAR(50)", nameConstraints));
+        change.addColumn(createColumn("created", "DATETIME", null));
+        return change;
+    }
+
+    private ColumnConfig createColumn(String name, String type, ConstraintsConfig constraints) {
+        ColumnConfig column = new ColumnConfig();
+        column.setName(name);
+        column.setType(type);
+        column.setConstraints(constraints);
+        return column;
+    }
 }
@@ -0,0 +1,80 @@
+package liquibase.metrics;
+
+import liquibase.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.HsqlDatabase;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+public class JmxMigrationMetricsTest {
+
+    @Test
+    public void recordsPhasesAndChangeSets() throws Exception {
+        JmxMigrationMetrics metrics = new JmxMigrationMetrics("test");
+        ChangeSet changeSet = new ChangeSet("1", "test", false, false, "file.xml", null, null, null);
+
+        metrics.pendingChangeSets(2);
+        metrics.phaseStarted(MigrationMetrics.Phase.PARSE);
+        assertEquals("PARSE", metrics.getCurrentPhase());
+        metrics.phaseFinished(MigrationMetrics.Phase.PARSE, 15, true);
+        metrics.phaseFinished(MigrationMetrics.Phase.PARSE, 5, false);
+
+        metrics.changeSetStarted(changeSet);
+        assertEquals("file.xml::1::test", metrics.getCurrentChangeSet());
+        metrics.changeSetFinished(changeSet, 7, true);
+
+        assertNull(metrics.getCurrentPhase());
+        assertNull(metrics.getCurrentChangeSet());
+        assertEquals(2L, metrics.getParseCount());
+        assertEquals(20L, metrics.getParseTotalTime());
+        assertEquals(15L, metrics.getParseMaxTime());
+        assertEquals(1L, metrics.getFailureCount());
+        assertEquals(1L, metrics.getChangeSetExecuteCount());
+        assertEquals(1L, metrics.getExecutedChangeSets());
+        assertEquals(1, metrics.getPendingChangeSets());
+
+        metrics.reset();
+        assertEquals(0L, metrics.getParseCount());
+    }
+
+    @Test
+    public void registerAndUnregister() throws Exception {
+        JmxMigrationMetrics metrics = new JmxMigrationMetrics("registerTest");
+        metrics.register();
+        try {
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(metrics.getObjectName()));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(metrics.getObjectName()));
+    }
+
+    @Test
+    public void metricsAreScopedToTheirDatabase() throws Exception {
+        JmxMigrationMetrics firstMetrics = new JmxMigrationMetrics("first");
+        JmxMigrationMetrics secondMetrics = new JmxMigrationMetrics("second");
+        Database first = new HsqlDatabase();
+        first.setMigrationMetrics(firstMetrics);
+        Database second = new HsqlDatabase();
+        second.setMigrationMetrics(secondMetrics);
+        Database unmeasured = new HsqlDatabase();
+
+        ChangeSet changeSet = new ChangeSet("1", "test", false, false, "file.xml", null, null, null);
+        changeSet.getMd5sum(first.getMigrationMetrics());
+        changeSet.getMd5sum(second.getMigrationMetrics());
+
+        PhaseTimer timer = PhaseTimer.start(second.getMigrationMetrics(), MigrationMetrics.Phase.VALIDATE);
+        timer.succeeded();
+        timer.stop();
+        timer.stop();
+        PhaseTimer.start(unmeasured.getMigrationMetrics(), MigrationMetrics.Phase.VALIDATE).stop();
+
+        assertEquals(1L, firstMetrics.getChecksumCount());
+        assertEquals(0L, firstMetrics.getValidateCount());
+        assertEquals("checksum is only computed once", 0L, secondMetrics.getChecksumCount());
+        assertEquals(1L, secondMetrics.getValidateCount());
+        assertNull(unmeasured.getMigrationMetrics());
+    }
+}
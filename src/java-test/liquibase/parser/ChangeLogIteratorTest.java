@@ -69,6 +69,9 @@ public class ChangeLogIteratorTest {
         assertEquals("5", testChangeLogVisitor.visitedChangeSets.get(0).getId());
         assertEquals("4", testChangeLogVisitor.visitedChangeSets.get(1).getId());
         assertEquals("1", testChangeLogVisitor.visitedChangeSets.get(2).getId());
+
+        assertEquals("1", changeLog.getChangeSets().get(0).getId());
+        assertEquals("6", changeLog.getChangeSets().get(5).getId());
     }
 
     private static class TestChangeSetVisitor implements ChangeSetVisitor {
@@ -0,0 +1,95 @@
+package liquibase.parser;
+
+import liquibase.ChangeSet;
+import liquibase.DatabaseChangeLog;
+import liquibase.RanChangeSet;
+import liquibase.exception.RollbackFailedException;
+import liquibase.parser.filter.ContextChangeSetFilter;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class RollbackPlannerTest {
+
+    private DatabaseChangeLog changeLog;
+    private List<RanChangeSet> ranChangeSets;
+
+    @Before
+    public void setUp() {
+        changeLog = new DatabaseChangeLog("path/changelog");
+        changeLog.addChangeSet(new ChangeSet("1", "nvoxland", false, false, "path/changelog", null, null, null));
+        changeLog.addChangeSet(new ChangeSet("2", "nvoxland", false, false, "path/changelog", null, null, null));
+        changeLog.addChangeSet(new ChangeSet("3", "nvoxland", false, false, "path/changelog", null, "test", null));
+        changeLog.addChangeSet(new ChangeSet("4", "nvoxland", false, false, "path/changelog", null, null, null));
+
+        ranChangeSets = new ArrayList<RanChangeSet>();
+        ranChangeSets.add(new RanChangeSet("path/changelog", "1", "nvoxland", "12345", new Date(1000), null));
+        ranChangeSets.add(new RanChangeSet("path/changelog", "2", "nvoxland", "12345", new Date(2000), "tag1"));
+        ranChangeSets.add(new RanChangeSet("path/changelog", "3", "nvoxland", "12345", new Date(3000), null));
+        ranChangeSets.add(new RanChangeSet("path/changelog", "4", "nvoxland", "12345", new Date(4000), null));
+    }
+
+    @Test
+    public void rollbackToTag() throws Exception {
+        RollbackPlanner planner = new RollbackPlanner(ranChangeSets);
+
+        List<ChangeSet> plan = planner.plan(changeLog, planner.getRanAfterTag("TAG1"));
+        assertEquals(2, plan.size());
+        assertEquals("4", plan.get(0).getId());
+        assertEquals("3", plan.get(1).getId());
+    }
+
+    @Test
+    public void rollbackToMissingTag() throws Exception {
+        try {
+            new RollbackPlanner(ranChangeSets).getRanAfterTag("tag2");
+            fail("Did not throw exception");
+        } catch (RollbackFailedException e) {
+            ; //what we wanted
+        }
+    }
+
+    @Test
+    public void rollbackToDate() throws Exception {
+        RollbackPlanner planner = new RollbackPlanner(ranChangeSets);
+
+        assertEquals(4, planner.getRanAfter(new Date(0)).size());
+        assertEquals(2, planner.getRanAfter(new Date(2000)).size());
+        assertEquals(1, planner.getRanAfter(new Date(3500)).size());
+        assertEquals(0, planner.getRanAfter(new Date(4000)).size());
+    }
+
+    @Test
+    public void rollbackToDateOutOfOrder() throws Exception {
+        ranChangeSets.add(new RanChangeSet("path/changelog", "5", "nvoxland", "12345", new Date(1500), null));
+        RollbackPlanner planner = new RollbackPlanner(ranChangeSets);
+
+        List<RanChangeSet> ranAfter = planner.getRanAfter(new Date(1200));
+        assertEquals(4, ranAfter.size());
+        assertEquals("5", ranAfter.get(3).getId());
+    }
+
+    @Test
+    public void planAppliesFilters() throws Exception {
+        RollbackPlanner planner = new RollbackPlanner(ranChangeSets);
+
+        List<ChangeSet> plan = planner.plan(changeLog, planner.getRanAfter(new Date(0)), new ContextChangeSetFilter("other"));
+        assertEquals(3, plan.size());
+        assertEquals("4", plan.get(0).getId());
+        assertEquals("2", plan.get(1).getId());
+        assertEquals("1", plan.get(2).getId());
+    }
+
+    @Test
+    public void planDoesNotReorderChangeLog() throws Exception {
+        RollbackPlanner planner = new RollbackPlanner(ranChangeSets);
+        planner.plan(changeLog, planner.getRanAfter(new Date(0)));
+
+        assertEquals("1", changeLog.getChangeSets().get(0).getId());
+        assertEquals("4", changeLog.getChangeSets().get(3).getId());
+    }
+}
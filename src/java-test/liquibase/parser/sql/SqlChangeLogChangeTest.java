@@ -0,0 +1,81 @@
+package liquibase.parser.sql;
+
+import liquibase.DatabaseChangeLog;
+import liquibase.FileOpener;
+import liquibase.change.RawSQLChange;
+import liquibase.database.HsqlDatabase;
+import liquibase.database.sql.visitor.SqlVisitor;
+import liquibase.util.StreamUtil;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SqlChangeLogChangeTest {
+
+    private FileOpener fileOpener(final String sql) {
+        return new FileOpener() {
+            public InputStream getResourceAsStream(String file) throws IOException {
+                return new ByteArrayInputStream(sql.getBytes());
+            }
+
+            public Enumeration<URL> getResources(String packageName) throws IOException {
+                return null;
+            }
+
+            public ClassLoader toClassLoader() {
+                return null;
+            }
+        };
+    }
+
+    @Test
+    public void md5SumMatchesRawSqlChange() throws Exception {
+        String sql = "\n  CREATE TABLE a (id int);\r\n\r\nINSERT INTO a VALUES (1);\n\n  ";
+
+        SqlChangeLogChange change = new SqlChangeLogChange();
+        change.setPath("changelog.sql");
+        change.setFileOpener(fileOpener(sql));
+
+        assertEquals(new RawSQLChange(sql).getMD5Sum(), change.getMD5Sum());
+        assertEquals(sql, change.getSql());
+    }
+
+    @Test
+    public void changeLogIsNotSplitByDefault() throws Exception {
+        String sql = "CREATE FUNCTION f() RETURNS int AS $$\nBEGIN\n  RETURN 1;\nEND;\n$$ LANGUAGE plpgsql";
+
+        String separator = StreamUtil.getLineSeparator();
+        assertEquals(sql + ";" + separator + separator, saveStatements(sql, new HashMap<String, Object>()));
+    }
+
+    @Test
+    public void changeLogIsSplitIntoStatements() throws Exception {
+        String sql = "CREATE TABLE a (id int);\nINSERT INTO a VALUES (1)\nGO\nINSERT INTO a VALUES (2);\n";
+
+        Map<String, Object> changeLogProperties = new HashMap<String, Object>();
+        changeLogProperties.put(SqlChangeLogGenerator.SPLIT_STATEMENTS_PROPERTY, "true");
+
+        String separator = StreamUtil.getLineSeparator();
+        assertEquals("CREATE TABLE a (id int);" + separator + separator
+                + "INSERT INTO a VALUES (1);" + separator + separator
+                + "INSERT INTO a VALUES (2);" + separator + separator, saveStatements(sql, changeLogProperties));
+    }
+
+    private String saveStatements(String sql, Map<String, Object> changeLogProperties) throws Exception {
+        DatabaseChangeLog changeLog = new SqlChangeLogGenerator().generate("changelog.sql", fileOpener(sql), changeLogProperties);
+        SqlChangeLogChange change = (SqlChangeLogChange) changeLog.getChangeSets().get(0).getChanges().get(0);
+
+        StringWriter output = new StringWriter();
+        change.saveStatements(new HsqlDatabase(), new ArrayList<SqlVisitor>(), output);
+        return output.toString();
+    }
+}
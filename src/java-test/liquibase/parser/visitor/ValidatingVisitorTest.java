@@ -10,6 +10,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 
 public class ValidatingVisitorTest {
 
@@ -78,4 +80,35 @@ public class ValidatingVisitorTest {
 
         assertFalse(handler.validationPassed());
     }
+
+    @Test
+    public void prepare_reportsInChangeLogOrder() throws Exception {
+        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        for (int i = 0; i < 20; i++) {
+            final String message = "Failure " + i;
+            ChangeSet changeSet = new ChangeSet(String.valueOf(i), "testAuthor", false, false, "path/changelog", null, null, null);
+            changeSet.addChange(new CreateTableChange() {
+                public void setUp() throws SetupException {
+                    throw new SetupException(message);
+                }
+            });
+            changeSets.add(changeSet);
+        }
+
+        List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+        ranChangeSets.add(new RanChangeSet("path/changelog", "3", "testAuthor", "not the checksum", new Date(), null));
+
+        ValidatingVisitor handler = new ValidatingVisitor(ranChangeSets);
+        handler.prepare(changeSets, null, 4);
+        for (ChangeSet changeSet : changeSets) {
+            handler.visit(changeSet, null);
+        }
+
+        assertEquals(20, handler.getSetupExceptions().size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("Failure " + i, handler.getSetupExceptions().get(i).getMessage());
+        }
+        assertEquals(1, handler.getInvalidMD5Sums().size());
+        assertSame(changeSets.get(3), handler.getInvalidMD5Sums().get(0));
+    }
 }
@@ -3,6 +3,7 @@ package liquibase.util;
 import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
+import java.io.StringReader;
 
 import org.junit.Test;
 
@@ -24,4 +25,10 @@ public class MD5UtilTest {
 		assertEquals(TEST_STRING_MD5_HASH, hexString);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testComputeMD5Reader() {
+		String text = "SELECT '\u00e9t\u00e9' FROM dual";
+		assertEquals(MD5Util.computeMD5(text), MD5Util.computeMD5(new StringReader(text)));
+	}
+
+}
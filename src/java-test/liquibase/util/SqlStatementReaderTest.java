@@ -0,0 +1,123 @@
+package liquibase.util;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SqlStatementReaderTest {
+
+    private List<String> read(String sql, String delimiter, boolean stripComments) throws Exception {
+        SqlStatementReader reader = new SqlStatementReader(new StringReader(sql), delimiter, stripComments);
+        List<String> statements = new ArrayList<String>();
+        String statement;
+        while ((statement = reader.nextStatement()) != null) {
+            statements.add(statement);
+        }
+        return statements;
+    }
+
+    @Test
+    public void splitsOnDelimiterAtEndOfLine() throws Exception {
+        List<String> statements = read("SELECT 1;\r\nSELECT 2 ;  \r\n\r\nSELECT 3;", ";", false);
+        assertEquals(3, statements.size());
+        assertEquals("SELECT 1", statements.get(0));
+        assertEquals("SELECT 2 ", statements.get(1));
+        assertEquals("SELECT 3", statements.get(2));
+    }
+
+    @Test
+    public void delimiterInsideLineDoesNotSplit() throws Exception {
+        List<String> statements = read("BEGIN x; y; END;", ";", false);
+        assertEquals(1, statements.size());
+        assertEquals("BEGIN x; y; END", statements.get(0));
+    }
+
+    @Test
+    public void delimitersInQuotesAndComments() throws Exception {
+        List<String> statements = read("INSERT INTO t VALUES ('a;\nb;\n', \"c;\n\", 'it''s;\n');\n/* x;\n*/SELECT 1; -- done;\nSELECT 2", ";", false);
+        assertEquals(3, statements.size());
+        assertEquals("INSERT INTO t VALUES ('a;\nb;\n', \"c;\n\", 'it''s;\n')", statements.get(0));
+        assertEquals("/* x;\n*/SELECT 1", statements.get(1));
+        assertEquals("SELECT 2", statements.get(2));
+    }
+
+    @Test
+    public void stripsComments() throws Exception {
+        List<String> statements = read("SELECT '--' /* a ; */ FROM x -- comment;\n;\nSELECT 2", ";", true);
+        assertEquals(2, statements.size());
+        assertEquals("SELECT '--'   FROM x\n", statements.get(0));
+        assertEquals("SELECT 2", statements.get(1));
+    }
+
+    @Test
+    public void dashesOnlyStartCommentsBetweenWhitespace() throws Exception {
+        List<String> statements = read("SELECT a--b, c --d\nFROM x --\n-- all of it\n;", ";", true);
+        assertEquals(1, statements.size());
+        assertEquals("SELECT a--b, c --d\nFROM x\n\n", statements.get(0));
+    }
+
+    @Test
+    public void goLines() throws Exception {
+        List<String> statements = read("SELECT 'x\ngo\n'\nGO\nSELECT * FROM go\n  go  \n", ";", false);
+        assertEquals(2, statements.size());
+        assertEquals("SELECT 'x\ngo\n'", statements.get(0));
+        assertEquals("SELECT * FROM go", statements.get(1));
+    }
+
+    @Test
+    public void customDelimiter() throws Exception {
+        List<String> statements = read("CREATE PROCEDURE p AS\nBEGIN\n  x;\nEND;\n/\nSELECT 1 FROM dual\n/", "/", false);
+        assertEquals(2, statements.size());
+        assertEquals("CREATE PROCEDURE p AS\nBEGIN\n  x;\nEND;\n", statements.get(0));
+        assertEquals("SELECT 1 FROM dual\n", statements.get(1));
+    }
+
+    @Test
+    public void backslashEscapes() throws Exception {
+        SqlStatementReader reader = new SqlStatementReader(new StringReader("SELECT 'it\\'s;\n';\nSELECT 2;"), ";", false);
+        reader.setBackslashEscapes(true);
+        assertEquals("SELECT 'it\\'s;\n'", reader.nextStatement());
+        assertEquals("SELECT 2", reader.nextStatement());
+        assertNull(reader.nextStatement());
+    }
+
+    @Test
+    public void noSplitting() throws Exception {
+        SqlStatementReader reader = new SqlStatementReader(new StringReader("SELECT 1;\ngo\nSELECT 2;"), ";", false);
+        reader.setSplitStatements(false);
+        assertEquals("SELECT 1;\ngo\nSELECT 2;", reader.nextStatement());
+        assertNull(reader.nextStatement());
+    }
+
+    @Test
+    public void statementTooLong() throws Exception {
+        SqlStatementReader reader = new SqlStatementReader(new StringReader("SELECT 1;\nSELECT 22222;\nSELECT 3;"), ";", false);
+        reader.setMaxStatementLength(10);
+        assertEquals("SELECT 1", reader.nextStatement());
+        try {
+            reader.nextStatement();
+            fail("Statement should be too long");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().indexOf("longer than 10 characters") >= 0);
+        }
+
+        reader = new SqlStatementReader(new StringReader("SELECT 1;\nSELECT 2;"), ";", false);
+        reader.setSplitStatements(false);
+        reader.setMaxStatementLength(10);
+        assertEquals("SELECT 1;\nSELECT 2;", reader.nextStatement());
+    }
+
+    @Test
+    public void commentsAfterDelimiter() throws Exception {
+        List<String> statements = read("SELECT 1; /* one */\nSELECT 2;/* two */ -- more\nSELECT '/*';\nSELECT 3 /* ; */\nFROM x;", ";", false);
+        assertEquals(4, statements.size());
+        assertEquals("SELECT 1", statements.get(0));
+        assertEquals("SELECT 2", statements.get(1));
+        assertEquals("SELECT '/*'", statements.get(2));
+        assertEquals("SELECT 3 /* ; */\nFROM x", statements.get(3));
+    }
+}
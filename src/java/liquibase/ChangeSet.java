@@ -4,10 +4,15 @@ import liquibase.change.Change;
 import liquibase.change.RawSQLChange;
 import liquibase.change.EmptyChange;
 import liquibase.database.Database;
+import liquibase.database.SQLiteDatabase;
+import liquibase.database.SQLiteTableRebuildPlanner;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.sql.visitor.SqlVisitor;
+import liquibase.database.sql.visitor.SqlVisitorPipeline;
 import liquibase.exception.*;
 import liquibase.log.LogFactory;
+import liquibase.metrics.MigrationMetrics;
+import liquibase.metrics.PhaseTimer;
 import liquibase.util.MD5Util;
 import liquibase.util.StringUtils;
 import liquibase.util.StreamUtil;
@@ -53,6 +58,7 @@ public class ChangeSet {
     private Preconditions rootPrecondition;
 
     private List<SqlVisitor> sqlVisitors = new ArrayList<SqlVisitor>();
+    private SqlVisitorPipeline compiledSqlVisitors;
 
     public boolean shouldAlwaysRun() {
         return alwaysRun;
@@ -105,13 +111,26 @@ public class ChangeSet {
     }
 
     public String getMd5sum() {
+        return getMd5sum(null);
+    }
+
+    /**
+     * Returns the checksum, reporting the time taken to compute it to the given metrics if it is not known yet.
+     */
+    public String getMd5sum(MigrationMetrics metrics) {
         if (md5sum == null) {
-            StringBuffer stringToMD5 = new StringBuffer();
-            for (Change change : getChanges()) {
-                stringToMD5.append(change.getMD5Sum()).append(":");
-            }
+            PhaseTimer timer = PhaseTimer.start(metrics, MigrationMetrics.Phase.CHECKSUM);
+            try {
+                StringBuffer stringToMD5 = new StringBuffer();
+                for (Change change : getChanges()) {
+                    stringToMD5.append(change.getMD5Sum()).append(":");
+                }
 
-            md5sum = MD5Util.computeMD5(stringToMD5.toString());
+                md5sum = MD5Util.computeMD5(stringToMD5.toString());
+                timer.succeeded();
+            } finally {
+                timer.stop();
+            }
         }
         return md5sum;
     }
@@ -232,10 +251,7 @@ public class ChangeSet {
                 }
 
                 log.finest("Reading ChangeSet: " + toString());
-                for (Change change : getChanges()) {
-                    change.executeStatements(database, sqlVisitors);
-                    log.finest(change.getConfirmationMessage());
-                }
+                executeChanges(database);
 
                 if (runInTransaction) {
                     database.commit();
@@ -272,6 +288,36 @@ public class ChangeSet {
         return markRan;
     }
 
+    /**
+     * Executes the changes in order.  On SQLite, consecutive table rebuilds of the same table are merged into one.
+     */
+    private void executeChanges(Database database) throws JDBCException, UnsupportedChangeException {
+        List<SqlVisitor> compiledSqlVisitors = getCompiledSqlVisitors(database);
+        if (!(database instanceof SQLiteDatabase)) {
+            for (Change change : getChanges()) {
+                change.executeStatements(database, compiledSqlVisitors);
+                log.finest(change.getConfirmationMessage());
+            }
+            return;
+        }
+
+        SQLiteDatabase sqliteDatabase = (SQLiteDatabase) database;
+        SQLiteTableRebuildPlanner rebuildPlanner = new SQLiteTableRebuildPlanner(database);
+        sqliteDatabase.setTableRebuildPlanner(rebuildPlanner);
+        try {
+            for (Change change : getChanges()) {
+                if (!rebuildPlanner.canDefer(change)) {
+                    rebuildPlanner.flush(compiledSqlVisitors);
+                }
+                change.executeStatements(database, compiledSqlVisitors);
+                log.finest(change.getConfirmationMessage());
+            }
+            rebuildPlanner.flush(compiledSqlVisitors);
+        } finally {
+            sqliteDatabase.setTableRebuildPlanner(null);
+        }
+    }
+
     public void rolback(Database database) throws RollbackFailedException {
         try {
             database.getJdbcTemplate().comment("Rolling Back ChangeSet: " + toString());
@@ -279,7 +325,7 @@ public class ChangeSet {
                 for (Change rollback : rollBackChanges) {
                     for (SqlStatement statement : rollback.generateStatements(database)) {
                         try {
-                            database.getJdbcTemplate().execute(statement, sqlVisitors);
+                            database.getJdbcTemplate().execute(statement, getCompiledSqlVisitors(database));
                         } catch (JDBCException e) {
                             throw new RollbackFailedException("Error executing custom SQL [" + statement + "]", e);
                         }
@@ -290,7 +336,7 @@ public class ChangeSet {
                 List<Change> changes = getChanges();
                 for (int i = changes.size() - 1; i >= 0; i--) {
                     Change change = changes.get(i);
-                    change.executeRollbackStatements(database, sqlVisitors);
+                    change.executeRollbackStatements(database, getCompiledSqlVisitors(database));
                     log.finest(change.getConfirmationMessage());
                 }
             }
@@ -506,5 +552,19 @@ public class ChangeSet {
 
     public void addSqlVisitor(SqlVisitor sqlVisitor) {
         sqlVisitors.add(sqlVisitor);
+        compiledSqlVisitors = null;
+    }
+
+    /**
+     * Returns the sql visitors compiled for the given database, compiling them only when the database changes.
+     * A change set, like its changes, is only run by one thread at a time, so the last pipeline is kept unlocked.
+     */
+    private SqlVisitorPipeline getCompiledSqlVisitors(Database database) {
+        SqlVisitorPipeline compiled = compiledSqlVisitors;
+        if (compiled == null || !compiled.isCompiledFor(database)) {
+            compiled = SqlVisitorPipeline.compile(sqlVisitors, database);
+            compiledSqlVisitors = compiled;
+        }
+        return compiled;
     }
 }
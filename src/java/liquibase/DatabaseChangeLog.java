@@ -3,8 +3,11 @@ package liquibase;
 import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.ValidationFailedException;
+import liquibase.metrics.MigrationMetrics;
+import liquibase.metrics.PhaseTimer;
 import liquibase.parser.ChangeLogIterator;
 import liquibase.parser.filter.DbmsChangeSetFilter;
+import liquibase.parser.visitor.ListVisitor;
 import liquibase.parser.visitor.ValidatingVisitor;
 import liquibase.preconditions.AndPrecondition;
 import liquibase.preconditions.Preconditions;
@@ -108,15 +111,25 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog> {
      * Checks changelogs for bad MD5Sums and preconditions before attempting a migration
      */
     public void validate(Database database) throws LiquibaseException {
+        PhaseTimer timer = PhaseTimer.start(database.getMigrationMetrics(), MigrationMetrics.Phase.VALIDATE);
+        try {
+            ChangeLogIterator logIterator = new ChangeLogIterator(this, new DbmsChangeSetFilter(database));
 
-        ChangeLogIterator logIterator = new ChangeLogIterator(this, new DbmsChangeSetFilter(database));
+            ValidatingVisitor validatingVisitor = new ValidatingVisitor(database.getRanChangeSetList());
+            validatingVisitor.validate(database, this);
 
-        ValidatingVisitor validatingVisitor = new ValidatingVisitor(database.getRanChangeSetList());
-        validatingVisitor.validate(database, this);
-        logIterator.run(validatingVisitor, database);
+            ListVisitor listVisitor = new ListVisitor();
+            logIterator.run(listVisitor, database);
+            validatingVisitor.prepare(listVisitor.getSeenChangeSets(), database, Runtime.getRuntime().availableProcessors());
 
-        if (!validatingVisitor.validationPassed()) {
-            throw new ValidationFailedException(validatingVisitor);
+            logIterator.run(validatingVisitor, database);
+
+            if (!validatingVisitor.validationPassed()) {
+                throw new ValidationFailedException(validatingVisitor);
+            }
+            timer.succeeded();
+        } finally {
+            timer.stop();
         }
     }
 
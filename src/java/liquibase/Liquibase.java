@@ -8,6 +8,8 @@ import liquibase.database.Database;
 import liquibase.database.DatabaseFactory;
 import liquibase.database.sql.UpdateStatement;
 import liquibase.database.sql.visitor.SqlVisitor;
+import liquibase.database.structure.ChangeLogDatabaseSnapshot;
+import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.template.JdbcOutputTemplate;
 import liquibase.database.template.JdbcTemplate;
 import liquibase.exception.JDBCException;
@@ -15,8 +17,11 @@ import liquibase.exception.LiquibaseException;
 import liquibase.exception.LockException;
 import liquibase.lock.LockHandler;
 import liquibase.log.LogFactory;
+import liquibase.metrics.MigrationMetrics;
+import liquibase.metrics.PhaseTimer;
 import liquibase.parser.ChangeLogIterator;
 import liquibase.parser.ChangeLogParser;
+import liquibase.parser.RollbackPlanner;
 import liquibase.parser.filter.*;
 import liquibase.parser.visitor.*;
 import liquibase.util.LiquibaseUtil;
@@ -42,6 +47,7 @@ public class Liquibase {
 
     private String changeLogFile;
     private FileOpener fileOpener;
+    private DatabaseChangeLog databaseChangeLog;
 
     private Database database;
     private Logger log;
@@ -84,6 +90,14 @@ public class Liquibase {
         }
     }
 
+    /**
+     * Uses an already parsed change log rather than parsing the change log file.  The change log can be shared by
+     * Liquibase instances updating different databases.
+     */
+    public void setDatabaseChangeLog(DatabaseChangeLog databaseChangeLog) {
+        this.databaseChangeLog = databaseChangeLog;
+    }
+
     public Object getChangeLogParameterValue(String paramter) {
         return changeLogParameters.get(paramter);
     }
@@ -96,20 +110,21 @@ public class Liquibase {
 
     public void update(String contexts) throws LiquibaseException {
 
+        checkOfflineMode();
         LockHandler lockHandler = LockHandler.getInstance(database);
         lockHandler.waitForLock();
 
         try {
             database.checkDatabaseChangeLogTable();
 
-            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            DatabaseChangeLog changeLog = parseChangeLog();
             changeLog.validate(database);
             ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
                     new ShouldRunChangeSetFilter(database),
                     new ContextChangeSetFilter(contexts),
                     new DbmsChangeSetFilter(database));
 
-            logIterator.run(new UpdateVisitor(database), database);
+            runUpdate(logIterator);
         } catch (LiquibaseException e) {
             throw e;
         } finally {
@@ -136,6 +151,7 @@ public class Liquibase {
             update(contexts);
 
             output.flush();
+            saveOfflineHistory();
         } catch (IOException e) {
             throw new LiquibaseException(e);
         } finally {
@@ -147,13 +163,14 @@ public class Liquibase {
 
     public void update(int changesToApply, String contexts) throws LiquibaseException {
 
+        checkOfflineMode();
         LockHandler lockHandler = LockHandler.getInstance(database);
         lockHandler.waitForLock();
 
         try {
             database.checkDatabaseChangeLogTable();
 
-            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            DatabaseChangeLog changeLog = parseChangeLog();
             changeLog.validate(database);
 
             ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
@@ -162,7 +179,7 @@ public class Liquibase {
                     new DbmsChangeSetFilter(database),
                     new CountChangeSetFilter(changesToApply));
 
-            logIterator.run(new UpdateVisitor(database), database);
+            runUpdate(logIterator);
         } finally {
             lockHandler.releaseLock();
         }
@@ -182,17 +199,75 @@ public class Liquibase {
         } catch (IOException e) {
             throw new LiquibaseException(e);
         }
+        saveOfflineHistory();
 
         database.setJdbcTemplate(oldTemplate);
     }
 
+    /**
+     * Determines the change sets to apply before running them so the pending count can be reported.
+     */
+    private void runUpdate(ChangeLogIterator logIterator) throws LiquibaseException {
+        ListVisitor pendingVisitor = new ListVisitor();
+        logIterator.run(pendingVisitor, database);
+        if (database.getMigrationMetrics() != null) {
+            database.getMigrationMetrics().pendingChangeSets(pendingVisitor.getSeenChangeSets().size());
+        }
+
+        UpdateVisitor updateVisitor = new UpdateVisitor(database);
+        for (ChangeSet changeSet : pendingVisitor.getSeenChangeSets()) {
+            updateVisitor.visit(changeSet, database);
+        }
+    }
+
+    /**
+     * An offline database has no connection, so it can only be used to generate SQL.
+     */
+    private void checkOfflineMode() throws LiquibaseException {
+        if (database.getOfflineHistory() != null && database.getJdbcTemplate().executesStatements()) {
+            throw new LiquibaseException("Database " + database.getTypeName() + " uses an offline change log history and can only generate SQL");
+        }
+    }
+
+    /**
+     * Writes the change log history of an offline database so the next run continues where this SQL leaves off.
+     */
+    private void saveOfflineHistory() throws LiquibaseException {
+        if (database.getOfflineHistory() != null && database.getOfflineHistory().getFile() != null) {
+            try {
+                database.getOfflineHistory().save();
+            } catch (IOException e) {
+                throw new LiquibaseException("Cannot save offline change log history", e);
+            }
+        }
+    }
+
+    private DatabaseChangeLog parseChangeLog() throws LiquibaseException {
+        if (databaseChangeLog != null) {
+            return databaseChangeLog;
+        }
+        PhaseTimer timer = PhaseTimer.start(database == null ? null : database.getMigrationMetrics(), MigrationMetrics.Phase.PARSE);
+        try {
+            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            timer.succeeded();
+            return changeLog;
+        } finally {
+            timer.stop();
+        }
+    }
+
     private void outputHeader(String message) throws JDBCException {
         database.getJdbcTemplate().comment("*********************************************************************");
         database.getJdbcTemplate().comment(message);
         database.getJdbcTemplate().comment("*********************************************************************");
         database.getJdbcTemplate().comment("Change Log: " + changeLogFile);
         database.getJdbcTemplate().comment("Ran at: " + DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(new Date()));
-        database.getJdbcTemplate().comment("Against: " + getDatabase().getConnectionUsername() + "@" + getDatabase().getConnectionURL());
+        if (database.getOfflineHistory() != null) {
+            File historyFile = database.getOfflineHistory().getFile();
+            database.getJdbcTemplate().comment("Against: " + database.getTypeName() + " offline history" + (historyFile == null ? "" : " " + historyFile.getPath()));
+        } else {
+            database.getJdbcTemplate().comment("Against: " + getDatabase().getConnectionUsername() + "@" + getDatabase().getConnectionURL());
+        }
         database.getJdbcTemplate().comment("LiquiBase version: " + LiquibaseUtil.getBuildVersion());
         database.getJdbcTemplate().comment("*********************************************************************" + StreamUtil.getLineSeparator());
     }
@@ -210,17 +285,19 @@ public class Liquibase {
         } catch (IOException e) {
             throw new LiquibaseException(e);
         }
+        saveOfflineHistory();
         database.setJdbcTemplate(oldTemplate);
     }
 
     public void rollback(int changesToRollback, String contexts) throws LiquibaseException {
+        checkOfflineMode();
         LockHandler lockHandler = LockHandler.getInstance(database);
         lockHandler.waitForLock();
 
         try {
             database.checkDatabaseChangeLogTable();
 
-            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            DatabaseChangeLog changeLog = parseChangeLog();
             changeLog.validate(database);
 
             ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
@@ -252,25 +329,25 @@ public class Liquibase {
         } catch (IOException e) {
             throw new LiquibaseException(e);
         }
+        saveOfflineHistory();
         database.setJdbcTemplate(oldTemplate);
     }
 
     public void rollback(String tagToRollBackTo, String contexts) throws LiquibaseException {
+        checkOfflineMode();
         LockHandler lockHandler = LockHandler.getInstance(database);
         lockHandler.waitForLock();
 
         try {
             database.checkDatabaseChangeLogTable();
 
-            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            DatabaseChangeLog changeLog = parseChangeLog();
             changeLog.validate(database);
             
-            ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
-                    new AfterTagChangeSetFilter(tagToRollBackTo, database.getRanChangeSetList()),
+            RollbackPlanner planner = new RollbackPlanner(database.getRanChangeSetList());
+            rollback(planner.plan(changeLog, planner.getRanAfterTag(tagToRollBackTo),
                     new ContextChangeSetFilter(contexts),
-                    new DbmsChangeSetFilter(database));
-
-            logIterator.run(new RollbackVisitor(database), database);
+                    new DbmsChangeSetFilter(database)));
         } finally {
             lockHandler.releaseLock();
         }
@@ -289,30 +366,37 @@ public class Liquibase {
         } catch (IOException e) {
             throw new LiquibaseException(e);
         }
+        saveOfflineHistory();
         database.setJdbcTemplate(oldTemplate);
     }
 
     public void rollback(Date dateToRollBackTo, String contexts) throws LiquibaseException {
+        checkOfflineMode();
         LockHandler lockHandler = LockHandler.getInstance(database);
         lockHandler.waitForLock();
 
         try {
             database.checkDatabaseChangeLogTable();
 
-            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            DatabaseChangeLog changeLog = parseChangeLog();
             changeLog.validate(database);
             
-            ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
-                    new ExecutedAfterChangeSetFilter(dateToRollBackTo, database.getRanChangeSetList()),
+            RollbackPlanner planner = new RollbackPlanner(database.getRanChangeSetList());
+            rollback(planner.plan(changeLog, planner.getRanAfter(dateToRollBackTo),
                     new ContextChangeSetFilter(contexts),
-                    new DbmsChangeSetFilter(database));
-
-            logIterator.run(new RollbackVisitor(database), database);
+                    new DbmsChangeSetFilter(database)));
         } finally {
             lockHandler.releaseLock();
         }
     }
 
+    private void rollback(List<ChangeSet> changeSets) throws LiquibaseException {
+        RollbackVisitor visitor = new RollbackVisitor(database);
+        for (ChangeSet changeSet : changeSets) {
+            visitor.visit(changeSet, database);
+        }
+    }
+
     public void changeLogSync(String contexts, Writer output) throws LiquibaseException {
 
         JdbcOutputTemplate outputTemplate = new JdbcOutputTemplate(output, database);
@@ -328,18 +412,20 @@ public class Liquibase {
         } catch (IOException e) {
             throw new LiquibaseException(e);
         }
+        saveOfflineHistory();
 
         database.setJdbcTemplate(oldTemplate);
     }
 
     public void changeLogSync(String contexts) throws LiquibaseException {
+        checkOfflineMode();
         LockHandler lockHandler = LockHandler.getInstance(database);
         lockHandler.waitForLock();
 
         try {
             database.checkDatabaseChangeLogTable();
 
-            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            DatabaseChangeLog changeLog = parseChangeLog();
             changeLog.validate(database);
 
             ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
@@ -368,18 +454,20 @@ public class Liquibase {
         } catch (IOException e) {
             throw new LiquibaseException(e);
         }
+        saveOfflineHistory();
 
         database.setJdbcTemplate(oldTemplate);
     }
 
     public void markNextChangeSetRan(String contexts) throws LiquibaseException {
+        checkOfflineMode();
         LockHandler lockHandler = LockHandler.getInstance(database);
         lockHandler.waitForLock();
 
         try {
             database.checkDatabaseChangeLogTable();
 
-            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            DatabaseChangeLog changeLog = parseChangeLog();
             changeLog.validate(database);
 
             ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
@@ -407,7 +495,7 @@ public class Liquibase {
         try {
             database.checkDatabaseChangeLogTable();
 
-            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            DatabaseChangeLog changeLog = parseChangeLog();
             changeLog.validate(database);
 
             ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
@@ -520,7 +608,7 @@ public class Liquibase {
         try {
             database.checkDatabaseChangeLogTable();
 
-            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            DatabaseChangeLog changeLog = parseChangeLog();
             changeLog.validate(database);
 
             ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
@@ -536,6 +624,15 @@ public class Liquibase {
         }
     }
 
+    /**
+     * Returns the structure the change log creates for the given contexts, built from its changes without running
+     * them, so it can be compared with a database snapshot by {@link liquibase.diff.Diff}.  Does not need the
+     * database to have a connection.
+     */
+    public DatabaseSnapshot createChangeLogSnapshot(String contexts) throws LiquibaseException {
+        return new ChangeLogDatabaseSnapshot(parseChangeLog(), database, contexts);
+    }
+
     public void reportStatus(boolean verbose, String contexts, Writer out) throws LiquibaseException {
         try {
             List<ChangeSet> unrunChangeSets = listUnrunChangeSets(contexts);
@@ -579,6 +676,15 @@ public class Liquibase {
     }
 
     public void generateDocumentation(String outputDirectory) throws LiquibaseException {
+        generateDocumentation(outputDirectory, false);
+    }
+
+    /**
+     * Generates the documentation, writing the table, column and author pages on one thread per processor.
+     *
+     * @param incremental if true, only pages whose content changed since the last run into outputDirectory are written
+     */
+    public void generateDocumentation(String outputDirectory, boolean incremental) throws LiquibaseException {
         log.info("Generating Database Documentation");
         LockHandler lockHandler = LockHandler.getInstance(database);
         lockHandler.waitForLock();
@@ -586,13 +692,15 @@ public class Liquibase {
         try {
             database.checkDatabaseChangeLogTable();
 
-            DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+            DatabaseChangeLog changeLog = parseChangeLog();
             changeLog.validate(database);
 
             ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
                     new DbmsChangeSetFilter(database));
 
             DBDocVisitor visitor = new DBDocVisitor(database);
+            visitor.setIncremental(incremental);
+            visitor.setWriterThreads(Runtime.getRuntime().availableProcessors());
             logIterator.run(visitor, database);
 
             visitor.writeHTML(new File(outputDirectory), fileOpener);
@@ -621,7 +729,7 @@ public class Liquibase {
      */
     public void validate() throws LiquibaseException {
 
-        DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+        DatabaseChangeLog changeLog = parseChangeLog();
         changeLog.validate(database);
     }
 }
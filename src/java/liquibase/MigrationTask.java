@@ -0,0 +1,240 @@
+package liquibase;
+
+import liquibase.exception.LiquibaseException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A migration, usually a call to Liquibase.update, that can be run in a background thread so an application can
+ * start while the database is being updated.  Code depending on the database can check whether the migration
+ * {@link #isReady() is ready} or {@link #await() wait} for it.
+ * <p/>
+ * The migration is only treated as done once its code has returned, so a cancelled migration still holding the
+ * change log lock is reported as running until it lets go of it.
+ */
+public class MigrationTask {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String READY = "READY";
+    public static final String FAILED = "FAILED";
+
+    private FutureTask<Object> future;
+    private CountDownLatch stopped = new CountDownLatch(1);
+    private volatile long startTime;
+    private volatile long endTime;
+
+    public MigrationTask(final Callable<?> migration) {
+        this.future = new FutureTask<Object>(new Callable<Object>() {
+            public Object call() throws Exception {
+                startTime = System.currentTimeMillis();
+                try {
+                    if (future.isCancelled()) {
+                        return null;
+                    }
+                    return migration.call();
+                } finally {
+                    endTime = System.currentTimeMillis();
+                    stopped.countDown();
+                }
+            }
+        }) {
+            protected void done() {
+                //cancelled before the migration started: nothing will run to count down
+                if (startTime == 0) {
+                    stopped.countDown();
+                }
+            }
+        };
+    }
+
+    /**
+     * Runs the migration in the calling thread.  Any failure is recorded rather than thrown.
+     */
+    public void run() {
+        future.run();
+    }
+
+    /**
+     * Runs the migration in a new thread and returns without waiting for it.  The JVM does not exit, even through
+     * System.exit, until the migration has finished and released the change log lock; use {@link #cancel(long)} to
+     * stop it sooner when the application is stopped.
+     */
+    public Thread start(String threadName) {
+        final Thread shutdownHook = new Thread(threadName + "-shutdown") {
+            public void run() {
+                awaitStopped();
+            }
+        };
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        Thread thread = new Thread(threadName) {
+            public void run() {
+                try {
+                    future.run();
+                } finally {
+                    try {
+                        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+                    } catch (IllegalStateException e) {
+                        //the JVM is shutting down and the hook has seen the migration finish
+                    }
+                }
+            }
+        };
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Cancels the migration if it has not finished, interrupting it, and waits at most the given number of
+     * milliseconds for it to stop.
+     *
+     * @return true once the migration has stopped, false if it was still running after the timeout, in which case
+     * its status stays RUNNING until it does stop
+     */
+    public boolean cancel(long timeoutMillis) {
+        future.cancel(true);
+        try {
+            return stopped.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return stopped.getCount() == 0;
+        }
+    }
+
+    private void awaitStopped() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                stopped.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The future completing when the migration finishes.  A cancelled future completes straight away, while the
+     * migration may still be stopping; use {@link #isDone()} to know it has stopped.
+     */
+    public Future<Object> getFuture() {
+        return future;
+    }
+
+    /**
+     * Returns true once the migration has stopped, whether it succeeded, failed or was cancelled.
+     */
+    public boolean isDone() {
+        return future.isDone() && stopped.getCount() == 0;
+    }
+
+    /**
+     * Returns true if the migration finished without failing.
+     */
+    public boolean isReady() {
+        return isDone() && getFailure() == null;
+    }
+
+    /**
+     * Returns what the migration failed with, or null if it has not finished or did not fail.
+     */
+    public Throwable getFailure() {
+        if (!isDone()) {
+            return null;
+        }
+        try {
+            future.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (CancellationException e) {
+            return e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * One of PENDING, RUNNING, READY or FAILED.
+     */
+    public String getStatus() {
+        if (!isDone()) {
+            return startTime == 0 ? PENDING : RUNNING;
+        }
+        return getFailure() == null ? READY : FAILED;
+    }
+
+    /**
+     * When the migration started, or 0 if it has not.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * When the migration finished, or 0 if it has not.
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Waits for the migration to finish, throwing what it failed with.
+     */
+    public void await() throws LiquibaseException {
+        try {
+            stopped.await();
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LiquibaseException("Interrupted while waiting for the migration", e);
+        } catch (ExecutionException e) {
+            throw toLiquibaseException(e.getCause());
+        } catch (CancellationException e) {
+            throw new LiquibaseException("Migration was cancelled", e);
+        }
+    }
+
+    /**
+     * Waits at most the given time for the migration to finish, throwing what it failed with.
+     *
+     * @return false if the migration had not finished in time
+     */
+    public boolean await(long timeout, TimeUnit unit) throws LiquibaseException {
+        try {
+            if (!stopped.await(timeout, unit)) {
+                return false;
+            }
+            future.get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LiquibaseException("Interrupted while waiting for the migration", e);
+        } catch (ExecutionException e) {
+            throw toLiquibaseException(e.getCause());
+        } catch (CancellationException e) {
+            throw new LiquibaseException("Migration was cancelled", e);
+        }
+    }
+
+    private LiquibaseException toLiquibaseException(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause instanceof LiquibaseException) {
+            return (LiquibaseException) cause;
+        }
+        return new LiquibaseException(cause);
+    }
+}
@@ -0,0 +1,131 @@
+package liquibase;
+
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.log.LogFactory;
+import liquibase.parser.ChangeLogParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Updates many databases, such as one per tenant, with the same change log.  The databases are updated concurrently
+ * by a fixed number of threads.  Changes keep state while they run, so a parsed change log is only used by one
+ * thread at a time: it is parsed at most once per thread and reused for the next database.  Each database is locked and
+ * updated as by {@link Liquibase#update(String)}, so a database that fails, or whose lock can not be acquired,
+ * does not stop the others: every outcome is collected in the returned {@link UpdateReport}.
+ * <p/>
+ * Each Database must have its own connection.
+ */
+public class ParallelUpdater {
+
+    private String changeLogFile;
+    private FileOpener fileOpener;
+    private int threads = 4;
+    private Map<String, Object> changeLogParameters = new HashMap<String, Object>();
+    private Logger log = LogFactory.getLogger();
+
+    public ParallelUpdater(String changeLogFile, FileOpener fileOpener) {
+        this.changeLogFile = changeLogFile.replace('\\', '/');
+        this.fileOpener = fileOpener;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * The most databases updated at the same time.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setChangeLogParameterValue(String paramter, Object value) {
+        if (!changeLogParameters.containsKey(paramter)) {
+            changeLogParameters.put(paramter, value);
+        }
+    }
+
+    /**
+     * Updates each database.  Only a change log that can not be parsed makes this throw an exception, failures of
+     * the updates are reported.
+     */
+    public UpdateReport update(List<Database> databases, final String contexts) throws LiquibaseException {
+        //change logs not in use by a thread
+        final Queue<DatabaseChangeLog> idleChangeLogs = new ConcurrentLinkedQueue<DatabaseChangeLog>();
+        idleChangeLogs.add(parseChangeLog());
+
+        List<Callable<UpdateReport.Result>> updates = new ArrayList<Callable<UpdateReport.Result>>();
+        for (final Database database : databases) {
+            updates.add(new Callable<UpdateReport.Result>() {
+                public UpdateReport.Result call() {
+                    long start = System.currentTimeMillis();
+                    DatabaseChangeLog changeLog = idleChangeLogs.poll();
+                    try {
+                        if (changeLog == null) {
+                            changeLog = parseChangeLog();
+                        }
+                        Liquibase liquibase = new Liquibase(changeLogFile, fileOpener, database);
+                        liquibase.setDatabaseChangeLog(changeLog);
+                        liquibase.update(contexts);
+                        return new UpdateReport.Result(database, null, System.currentTimeMillis() - start);
+                    } catch (Exception e) {
+                        UpdateReport.Result result = new UpdateReport.Result(database, e, System.currentTimeMillis() - start);
+                        log.log(Level.SEVERE, "Update failed: " + result, e);
+                        return result;
+                    } finally {
+                        if (changeLog != null) {
+                            idleChangeLogs.add(changeLog);
+                        }
+                    }
+                }
+            });
+        }
+
+        UpdateReport report = new UpdateReport();
+        if (updates.size() == 0) {
+            return report;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, updates.size())));
+        try {
+            for (Future<UpdateReport.Result> future : executor.invokeAll(updates)) {
+                try {
+                    report.addResult(future.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    throw new LiquibaseException(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LiquibaseException("Interrupted updating databases", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info(report.toString());
+        return report;
+    }
+
+    private DatabaseChangeLog parseChangeLog() throws LiquibaseException {
+        DatabaseChangeLog changeLog = new ChangeLogParser(changeLogParameters).parse(changeLogFile, fileOpener);
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            changeSet.getMd5sum(); //computed while the change log is parsed rather than during the update
+        }
+        return changeLog;
+    }
+}
@@ -13,6 +13,17 @@ public class RanChangeSet {
     private final Date dateExecuted;
     private String tag;
 
+    /**
+     * For subclasses that keep the values elsewhere and override the getters.
+     */
+    protected RanChangeSet() {
+        this.changeLog = null;
+        this.id = null;
+        this.author = null;
+        this.md5sum = null;
+        this.dateExecuted = null;
+    }
+
     public RanChangeSet(ChangeSet changeSet) {
         this(changeSet.getFilePath(),
              changeSet.getId(),
@@ -70,21 +81,21 @@ public class RanChangeSet {
         if (this == o) {
             return true;
         }
-        if (o == null || getClass() != o.getClass()) {
+        if (!(o instanceof RanChangeSet)) {
             return false;
         }
 
         final RanChangeSet that = (RanChangeSet) o;
 
-        return author.equals(that.author) && changeLog.equals(that.changeLog) && id.equals(that.id);
+        return getAuthor().equals(that.getAuthor()) && getChangeLog().equals(that.getChangeLog()) && getId().equals(that.getId());
 
     }
 
     public int hashCode() {
         int result;
-        result = changeLog.hashCode();
-        result = 29 * result + id.hashCode();
-        result = 29 * result + author.hashCode();
+        result = getChangeLog().hashCode();
+        result = 29 * result + getId().hashCode();
+        result = 29 * result + getAuthor().hashCode();
         return result;
     }
 
@@ -0,0 +1,281 @@
+package liquibase;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compact list of ran change sets, for databases with a large change log table.  The values are kept in columns
+ * rather than one object per change set: file names and authors, which repeat on most rows, are stored once and
+ * referenced by index, md5sums of up to 32 hex digits are stored as two longs and a length and dates as a long.
+ * Tags, set on few rows, are kept by row.
+ * <p/>
+ * {@link #get(int)} returns a RanChangeSet reading from the columns, so the list can be used wherever a list of
+ * RanChangeSets is.  Rows are never moved, so a RanChangeSet returned before the list was changed stays valid.
+ */
+public class RanChangeSetHistory extends AbstractList<RanChangeSet> {
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private Map<String, Integer> valueIndexes = new HashMap<String, Integer>();
+    private String[] values = new String[16];
+    private int valueCount = 0;
+
+    private int[] fileNames = new int[16];
+    private int[] authors = new int[16];
+    private String[] ids = new String[16];
+    private long[] md5High = new long[16];
+    private long[] md5Low = new long[16];
+    private byte[] md5Lengths = new byte[16];
+    private BitSet binaryMd5sums = new BitSet();
+    private Map<Integer, String> otherMd5sums = new HashMap<Integer, String>();
+    private long[] datesExecuted = new long[16];
+    private Map<Integer, String> tags = new HashMap<Integer, String>();
+    private int rowCount = 0;
+
+    /**
+     * The rows in list order.
+     */
+    private int[] order = new int[16];
+    private int size = 0;
+
+    public RanChangeSet get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new Row(order[index]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(int index, RanChangeSet ranChangeSet) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int row = addRow(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor(), ranChangeSet.getMd5sum(), ranChangeSet.getDateExecuted(), ranChangeSet.getTag());
+        order = ensureCapacity(order, size + 1);
+        System.arraycopy(order, index, order, index + 1, size - index);
+        order[index] = row;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Adds a change set to the end of the list without creating a RanChangeSet for it.
+     */
+    public void add(String changeLog, String id, String author, String md5sum, Date dateExecuted, String tag) {
+        int row = addRow(changeLog, id, author, md5sum, dateExecuted, tag);
+        order = ensureCapacity(order, size + 1);
+        order[size++] = row;
+        modCount++;
+    }
+
+    public RanChangeSet remove(int index) {
+        RanChangeSet removed = get(index);
+        System.arraycopy(order, index + 1, order, index, size - index - 1);
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Returns the ran change set for the given change set, or null if it has not been ran.  Matches as
+     * {@link RanChangeSet#isSameAs(ChangeSet)} does, without creating a RanChangeSet for each row.
+     */
+    public RanChangeSet find(ChangeSet changeSet) {
+        Integer author = valueIndexes.get(changeSet.getAuthor());
+        if (author == null) {
+            return null;
+        }
+
+        String filePath = changeSet.getFilePath().replace('\\', '/');
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            if (authors[row] == author && changeSet.getId().equals(ids[row])
+                    && fileNames[row] >= 0 && values[fileNames[row]].replace('\\', '/').equals(filePath)) {
+                return new Row(row);
+            }
+        }
+        return null;
+    }
+
+    private int addRow(String changeLog, String id, String author, String md5sum, Date dateExecuted, String tag) {
+        int row = rowCount++;
+        fileNames = ensureCapacity(fileNames, rowCount);
+        authors = ensureCapacity(authors, rowCount);
+        ids = ensureCapacity(ids, rowCount);
+        md5High = ensureCapacity(md5High, rowCount);
+        md5Low = ensureCapacity(md5Low, rowCount);
+        md5Lengths = ensureCapacity(md5Lengths, rowCount);
+        datesExecuted = ensureCapacity(datesExecuted, rowCount);
+
+        fileNames[row] = valueIndex(changeLog);
+        authors[row] = valueIndex(author);
+        ids[row] = id;
+        if (isCanonicalMd5sum(md5sum)) {
+            md5High[row] = parseHex(md5sum, 0);
+            md5Low[row] = parseHex(md5sum, 16);
+            md5Lengths[row] = (byte) md5sum.length();
+            binaryMd5sums.set(row);
+        } else if (md5sum != null) {
+            otherMd5sums.put(row, md5sum);
+        }
+        datesExecuted[row] = dateExecuted == null ? NO_DATE : dateExecuted.getTime();
+        if (tag != null) {
+            tags.put(row, tag);
+        }
+        return row;
+    }
+
+    /**
+     * Returns the index of the value, storing it if it has not been seen yet.  Null is stored as -1.
+     */
+    private int valueIndex(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer index = valueIndexes.get(value);
+        if (index == null) {
+            index = valueCount;
+            values = ensureCapacity(values, valueCount + 1);
+            values[valueCount++] = value;
+            valueIndexes.put(value, index);
+        }
+        return index;
+    }
+
+    private String value(int index) {
+        if (index < 0) {
+            return null;
+        }
+        return values[index];
+    }
+
+    /**
+     * Md5sums of up to 32 lower case hex digits are stored as longs.  MD5Util does not pad each byte to two digits,
+     * so most md5sums are shorter than 32; the length is kept so they are turned back into the same string.
+     */
+    private boolean isCanonicalMd5sum(String md5sum) {
+        if (md5sum == null || md5sum.length() == 0 || md5sum.length() > 32) {
+            return false;
+        }
+        for (int i = 0; i < md5sum.length(); i++) {
+            char c = md5sum.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Packs the 16 digits from start into a long, most significant first.  Digits past the end are left as 0.
+     */
+    private long parseHex(String md5sum, int start) {
+        long value = 0;
+        for (int i = start; i < start + 16; i++) {
+            int digit = i < md5sum.length() ? Character.digit(md5sum.charAt(i), 16) : 0;
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private String md5sum(int row) {
+        if (!binaryMd5sums.get(row)) {
+            return otherMd5sums.get(row);
+        }
+        char[] md5sum = new char[md5Lengths[row]];
+        for (int i = 0; i < md5sum.length; i++) {
+            long digits = i < 16 ? md5High[row] : md5Low[row];
+            md5sum[i] = HEX_DIGITS[(int) (digits >>> (60 - 4 * (i % 16))) & 0xF];
+        }
+        return new String(md5sum);
+    }
+
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        if (capacity <= array.length) {
+            return array;
+        }
+        int[] newArray = new int[Math.max(capacity, array.length * 2)];
+        System.arraycopy(array, 0, newArray, 0, array.length);
+        return newArray;
+    }
+
+    private static long[] ensureCapacity(long[] array, int capacity) {
+        if (capacity <= array.length) {
+            return array;
+        }
+        long[] newArray = new long[Math.max(capacity, array.length * 2)];
+        System.arraycopy(array, 0, newArray, 0, array.length);
+        return newArray;
+    }
+
+    private static byte[] ensureCapacity(byte[] array, int capacity) {
+        if (capacity <= array.length) {
+            return array;
+        }
+        byte[] newArray = new byte[Math.max(capacity, array.length * 2)];
+        System.arraycopy(array, 0, newArray, 0, array.length);
+        return newArray;
+    }
+
+    private static String[] ensureCapacity(String[] array, int capacity) {
+        if (capacity <= array.length) {
+            return array;
+        }
+        String[] newArray = new String[Math.max(capacity, array.length * 2)];
+        System.arraycopy(array, 0, newArray, 0, array.length);
+        return newArray;
+    }
+
+    /**
+     * A RanChangeSet reading from a row of the columns.
+     */
+    private class Row extends RanChangeSet {
+        private int row;
+
+        private Row(int row) {
+            this.row = row;
+        }
+
+        public String getChangeLog() {
+            return value(fileNames[row]);
+        }
+
+        public String getId() {
+            return ids[row];
+        }
+
+        public String getAuthor() {
+            return value(authors[row]);
+        }
+
+        public String getMd5sum() {
+            return md5sum(row);
+        }
+
+        public Date getDateExecuted() {
+            if (datesExecuted[row] == NO_DATE) {
+                return null;
+            }
+            return new Date(datesExecuted[row]);
+        }
+
+        public String getTag() {
+            return tags.get(row);
+        }
+
+        public void setTag(String tag) {
+            if (tag == null) {
+                tags.remove(row);
+            } else {
+                tags.put(row, tag);
+            }
+        }
+    }
+}
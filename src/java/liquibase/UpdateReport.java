@@ -0,0 +1,104 @@
+package liquibase;
+
+import liquibase.database.Database;
+import liquibase.exception.JDBCException;
+import liquibase.util.StreamUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of updating several databases with {@link ParallelUpdater}, one result per database in the order
+ * they were given.
+ */
+public class UpdateReport {
+
+    private List<Result> results = new ArrayList<Result>();
+
+    void addResult(Result result) {
+        results.add(result);
+    }
+
+    public List<Result> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    public List<Result> getFailures() {
+        List<Result> failures = new ArrayList<Result>();
+        for (Result result : results) {
+            if (!result.isSuccessful()) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+
+    public boolean hasFailures() {
+        return getFailures().size() > 0;
+    }
+
+    public String toString() {
+        List<Result> failures = getFailures();
+        StringBuffer buffer = new StringBuffer();
+        buffer.append("Updated ").append(results.size() - failures.size()).append(" of ").append(results.size()).append(" databases");
+        if (failures.size() > 0) {
+            buffer.append(", ").append(failures.size()).append(" failed:");
+            for (Result failure : failures) {
+                buffer.append(StreamUtil.getLineSeparator()).append("     ").append(failure);
+            }
+        }
+        return buffer.toString();
+    }
+
+    public static class Result {
+        private Database database;
+        private Exception failure;
+        private long time;
+
+        public Result(Database database, Exception failure, long time) {
+            this.database = database;
+            this.failure = failure;
+            this.time = time;
+        }
+
+        public Database getDatabase() {
+            return database;
+        }
+
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+
+        /**
+         * The exception the update failed with, or null if it succeeded.
+         */
+        public Exception getFailure() {
+            return failure;
+        }
+
+        /**
+         * How long the update took, in milliseconds.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        public String toString() {
+            String name;
+            try {
+                name = database.getConnectionURL();
+            } catch (JDBCException e) {
+                name = database.getTypeName();
+            }
+            if (database.getDefaultSchemaName() != null) {
+                name += " (" + database.getDefaultSchemaName() + ")";
+            }
+
+            if (isSuccessful()) {
+                return name + ": updated in " + time + "ms";
+            }
+            return name + ": " + failure.getMessage();
+        }
+    }
+}
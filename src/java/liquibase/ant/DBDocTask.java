@@ -7,6 +7,7 @@ import org.apache.tools.ant.BuildException;
 public class DBDocTask extends BaseLiquibaseTask {
 
     private String outputDirectory;
+    private boolean incremental = false;
 
     public String getOutputDirectory() {
         return outputDirectory;
@@ -16,6 +17,14 @@ public class DBDocTask extends BaseLiquibaseTask {
         this.outputDirectory = outputDirectory;
     }
 
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
     public void execute() throws BuildException {
         if (StringUtils.trimToNull(getOutputDirectory()) == null) {
             throw new BuildException("dbDoc requires outputDirectory to be set");
@@ -24,7 +33,7 @@ public class DBDocTask extends BaseLiquibaseTask {
         Liquibase liquibase = null;
         try {
             liquibase = createLiquibase();
-            liquibase.generateDocumentation(getOutputDirectory());
+            liquibase.generateDocumentation(getOutputDirectory(), isIncremental());
 
         } catch (Exception e) {
             throw new BuildException(e);
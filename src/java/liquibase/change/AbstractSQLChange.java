@@ -1,12 +1,23 @@
 package liquibase.change;
 
 import liquibase.database.Database;
+import liquibase.database.MySQLDatabase;
 import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
+import liquibase.database.sql.visitor.SqlVisitor;
+import liquibase.exception.JDBCException;
+import liquibase.exception.StatementNotSupportedOnDatabaseException;
 import liquibase.exception.UnsupportedChangeException;
 import liquibase.exception.InvalidChangeDefinitionException;
+import liquibase.log.LogFactory;
+import liquibase.util.SqlStatementReader;
+import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,8 +59,8 @@ public abstract class AbstractSQLChange extends AbstractChange {
     }
 
     /**
-     * If set to true then the sql will be split around any ; and \ngo\n entries in the sql and
-     * each line provided as a separate statement.
+     * If set to true then the sql will be split around any ; (or the end delimiter, if one other than ; is set)
+     * ending a line and \ngo\n entries in the sql and each line provided as a separate statement.
      * 
      * @param splitStatements set true if the SQL should be split, otherwise false
      */
@@ -105,18 +116,78 @@ public abstract class AbstractSQLChange extends AbstractChange {
 
         List<SqlStatement> returnStatements = new ArrayList<SqlStatement>();
 
-        String processedSQL = isStrippingComments() ? StringUtils.stripComments(getSql()) : getSql();
-        processedSQL = processedSQL.replaceAll("\r\n", "\n").replaceAll("\r", "\n");
-        
-        if(isSplittingStatements()) {
-            String[] statements = StringUtils.splitSQL(processedSQL);
-            for (String statement : statements) {
-                returnStatements.add(new RawSqlStatement(statement, getEndDelimiter()));
-            }
-        } else {
+        if (!isSplittingStatements() && !isStrippingComments()) {
+            String processedSQL = getSql().replaceAll("\r\n", "\n").replaceAll("\r", "\n");
             returnStatements.add(new RawSqlStatement(processedSQL, getEndDelimiter()));
+        } else {
+            try {
+                SqlStatementReader statementReader = openStatementReader(database);
+                try {
+                    String statement;
+                    while ((statement = statementReader.nextStatement()) != null) {
+                        returnStatements.add(new RawSqlStatement(statement, getEndDelimiter()));
+                    }
+                } finally {
+                    statementReader.close();
+                }
+            } catch (IOException e) {
+                throw new UnsupportedChangeException("Error reading SQL: " + e.getMessage(), e);
+            }
         }
         
         return returnStatements.toArray(new SqlStatement[returnStatements.size()]);
     }
+
+    /**
+     * Executes each statement as it is read from the SQL, so large scripts are never held in memory.
+     */
+    public void executeStatements(Database database, List<SqlVisitor> sqlVisitors) throws JDBCException, UnsupportedChangeException {
+        try {
+            SqlStatementReader statementReader = openStatementReader(database);
+            try {
+                String statement;
+                while ((statement = statementReader.nextStatement()) != null) {
+                    SqlStatement sqlStatement = new RawSqlStatement(statement, getEndDelimiter());
+                    LogFactory.getLogger().finest("Executing Statement: " + sqlStatement);
+                    database.getJdbcTemplate().execute(sqlStatement, sqlVisitors);
+                }
+            } finally {
+                statementReader.close();
+            }
+        } catch (IOException e) {
+            throw new JDBCException("Error reading SQL: " + e.getMessage(), e);
+        }
+    }
+
+    public void saveStatements(Database database, List<SqlVisitor> sqlVisitors, Writer writer) throws IOException, UnsupportedChangeException, StatementNotSupportedOnDatabaseException {
+        SqlStatementReader statementReader = openStatementReader(database);
+        try {
+            String statement;
+            while ((statement = statementReader.nextStatement()) != null) {
+                writer.append(statement).append(getEndDelimiter()).append(StreamUtil.getLineSeparator()).append(StreamUtil.getLineSeparator());
+            }
+        } finally {
+            statementReader.close();
+        }
+    }
+
+    /**
+     * Opens the SQL text for reading.  Subclasses with SQL stored elsewhere can override this so it is streamed
+     * rather than loaded by {@link #getSql()}.
+     */
+    protected Reader openSqlReader() throws IOException {
+        return new StringReader(getSql());
+    }
+
+    private SqlStatementReader openStatementReader(Database database) throws IOException {
+        String delimiter = StringUtils.trimToNull(getEndDelimiter());
+        if (delimiter == null || delimiter.equalsIgnoreCase("go")) {
+            delimiter = SqlStatementReader.DEFAULT_DELIMITER;
+        }
+
+        SqlStatementReader statementReader = new SqlStatementReader(openSqlReader(), delimiter, isStrippingComments());
+        statementReader.setSplitStatements(isSplittingStatements());
+        statementReader.setBackslashEscapes(database instanceof MySQLDatabase);
+        return statementReader;
+    }
 }
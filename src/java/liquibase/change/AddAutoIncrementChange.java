@@ -27,7 +27,7 @@ import java.util.Set;
  * This change is only valid for databases with auto-increment/identity columns.
  * The current version does not support MS-SQL.
  */
-public class AddAutoIncrementChange extends AbstractChange {
+public class AddAutoIncrementChange extends AbstractChange implements SQLiteDatabase.TableRebuildChange {
 
     private String schemaName;
     private String tableName;
@@ -31,7 +31,7 @@ import java.util.Set;
 /**
  * Sets a new default value to an existing column.
  */
-public class AddDefaultValueChange extends AbstractChange {
+public class AddDefaultValueChange extends AbstractChange implements SQLiteDatabase.TableRebuildChange {
 
     private String schemaName;
     private String tableName;
@@ -26,7 +26,7 @@ import java.util.Set;
 /**
  * Creates a primary key out of an existing column or set of columns.
  */
-public class AddPrimaryKeyChange extends AbstractChange {
+public class AddPrimaryKeyChange extends AbstractChange implements SQLiteDatabase.TableRebuildChange {
 
     private String schemaName;
     private String tableName;
@@ -24,7 +24,7 @@ import java.util.Set;
 /**
  * Adds a unique constraint to an existing column.
  */
-public class AddUniqueConstraintChange extends AbstractChange {
+public class AddUniqueConstraintChange extends AbstractChange implements SQLiteDatabase.TableRebuildChange {
 
     private String schemaName;
     private String tableName;
@@ -61,8 +61,8 @@ public class ColumnConfig {
 			constraints.setNullable(column.getConstraints().isNullable());
 			constraints.setPrimaryKey(column.getConstraints().isPrimaryKey());
 			constraints.setUnique(column.getConstraints().isUnique());
+			setConstraints(constraints);
 		}
-		setConstraints(constraints);
     }
     
     public ColumnConfig() {
@@ -23,7 +23,7 @@ import java.util.*;
 /**
  * Drops an existing column from a table.
  */
-public class DropColumnChange extends AbstractChange
+public class DropColumnChange extends AbstractChange implements SQLiteDatabase.TableRebuildChange
 {
 
     private String schemaName;
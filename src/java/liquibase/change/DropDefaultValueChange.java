@@ -26,7 +26,7 @@ import java.util.Set;
 /**
  * Removes the default value from an existing column.
  */
-public class DropDefaultValueChange extends AbstractChange {
+public class DropDefaultValueChange extends AbstractChange implements SQLiteDatabase.TableRebuildChange {
 
     private String schemaName;
     private String tableName;
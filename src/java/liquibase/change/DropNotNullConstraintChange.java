@@ -25,7 +25,7 @@ import java.util.Set;
 /**
  * Drops a not-null constraint from an existing column.
  */
-public class DropNotNullConstraintChange extends AbstractChange {
+public class DropNotNullConstraintChange extends AbstractChange implements SQLiteDatabase.TableRebuildChange {
 
     private String schemaName;
     private String tableName;
@@ -23,7 +23,7 @@ import java.util.Set;
 /**
  * Removes an existing primary key.
  */
-public class DropPrimaryKeyChange extends AbstractChange {
+public class DropPrimaryKeyChange extends AbstractChange implements SQLiteDatabase.TableRebuildChange {
     private String schemaName;
     private String tableName;
     private String constraintName;
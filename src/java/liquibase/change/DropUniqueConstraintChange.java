@@ -24,7 +24,7 @@ import java.util.Set;
 /**
  * Removes an existing unique constraint.
  */
-public class DropUniqueConstraintChange extends AbstractChange {
+public class DropUniqueConstraintChange extends AbstractChange implements SQLiteDatabase.TableRebuildChange {
     private String schemaName;
     private String tableName;
     private String constraintName;
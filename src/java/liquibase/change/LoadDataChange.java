@@ -1,12 +1,15 @@
 package liquibase.change;
 
 import liquibase.database.Database;
+import liquibase.database.sql.ComputedDateValue;
+import liquibase.database.sql.ComputedNumericValue;
 import liquibase.database.sql.InsertStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseObject;
 import liquibase.exception.UnsupportedChangeException;
 import liquibase.exception.InvalidChangeDefinitionException;
 import liquibase.csv.CSVReader;
+import liquibase.util.ISODateFormat;
 import liquibase.util.MD5Util;
 import liquibase.util.StringUtils;
 import org.w3c.dom.Document;
@@ -15,9 +18,13 @@ import org.w3c.dom.Element;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.text.NumberFormat;
+import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 
 public class LoadDataChange extends AbstractChange implements ChangeWithColumns {
@@ -28,6 +35,8 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns
     private String encoding = null;
     private List<LoadDataColumnConfig> columns = new ArrayList<LoadDataColumnConfig>();
 
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+\\.?\\d*");
+
 
     public LoadDataChange() {
         super("loadData", "Load Data");
@@ -96,43 +105,13 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns
                 throw new UnsupportedChangeException("Data file "+getFile()+" was empty");
             }
 
+            ColumnPlan plan = new ColumnPlan(headers);
             List<SqlStatement> statements = new ArrayList<SqlStatement>();
             String[] line = null;
             while ((line = reader.readNext()) != null) {
                 InsertStatement insertStatement = new InsertStatement(getSchemaName(), getTableName());
                 for (int i=0; i<headers.length; i++) {
-                    String columnName = null;
-                    Object value = line[i];
-
-                    ColumnConfig columnConfig = getColumnConfig(i, headers[i]);
-                    if (columnConfig != null) {
-                        columnName = columnConfig.getName();
-
-                        if (value.toString().equalsIgnoreCase("NULL")) {
-                            value = "NULL";
-                        } else if (columnConfig.getType() != null) {
-                            ColumnConfig valueConfig = new ColumnConfig();
-                            if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
-                                valueConfig.setValueBoolean(Boolean.parseBoolean(value.toString().toLowerCase()));
-                            } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
-                                valueConfig.setValueNumeric(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("DATE")) {
-                                valueConfig.setValueDate(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
-                                valueConfig.setValue(value.toString());
-                            } else {
-                                throw new UnsupportedChangeException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, or STRING");
-                            }
-                            value = valueConfig.getValueObject();
-                        }
-                    }
-
-                    if (columnName == null) {
-                        columnName = headers[i];
-                    }
-
-
-                    insertStatement.addColumnValue(columnName, value);
+                    insertStatement.addColumnValue(plan.getColumnName(i), plan.getValue(i, line[i]));
                 }
                 statements.add(insertStatement);
             }
@@ -155,6 +134,107 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns
         return null;
     }
 
+    /**
+     * The column and type each value of a row is loaded as, worked out once from the headers rather than for every
+     * value.
+     */
+    private class ColumnPlan {
+        private static final int UNTYPED = 0;
+        private static final int BOOLEAN = 1;
+        private static final int NUMERIC = 2;
+        private static final int DATE = 3;
+        private static final int STRING = 4;
+        private static final int UNSUPPORTED = 5;
+
+        private String[] columnNames;
+        private boolean[] configured;
+        private int[] types;
+        private String[] typeNames;
+
+        private NumberFormat numberFormat = NumberFormat.getInstance(Locale.US);
+        private ISODateFormat dateFormat = new ISODateFormat();
+
+        private ColumnPlan(String[] headers) {
+            columnNames = new String[headers.length];
+            configured = new boolean[headers.length];
+            types = new int[headers.length];
+            typeNames = new String[headers.length];
+
+            for (int i = 0; i < headers.length; i++) {
+                ColumnConfig columnConfig = getColumnConfig(i, headers[i]);
+                if (columnConfig != null) {
+                    configured[i] = true;
+                    columnNames[i] = columnConfig.getName();
+                    typeNames[i] = columnConfig.getType();
+                    if (typeNames[i] == null) {
+                        types[i] = UNTYPED;
+                    } else if (typeNames[i].equalsIgnoreCase("BOOLEAN")) {
+                        types[i] = BOOLEAN;
+                    } else if (typeNames[i].equalsIgnoreCase("NUMERIC")) {
+                        types[i] = NUMERIC;
+                    } else if (typeNames[i].equalsIgnoreCase("DATE")) {
+                        types[i] = DATE;
+                    } else if (typeNames[i].equalsIgnoreCase("STRING")) {
+                        types[i] = STRING;
+                    } else {
+                        types[i] = UNSUPPORTED;
+                    }
+                }
+                if (columnNames[i] == null) {
+                    columnNames[i] = headers[i];
+                }
+            }
+        }
+
+        private String getColumnName(int index) {
+            return columnNames[index];
+        }
+
+        /**
+         * Converts the value as {@link ColumnConfig} does for the value attributes.
+         */
+        private Object getValue(int index, String value) throws UnsupportedChangeException {
+            if (!configured[index]) {
+                return value;
+            }
+            if (value.equalsIgnoreCase("NULL")) {
+                return "NULL";
+            }
+
+            switch (types[index]) {
+                case BOOLEAN:
+                    return Boolean.valueOf(value);
+                case NUMERIC:
+                    String number = value;
+                    if (number.startsWith("(")) {
+                        number = number.substring(1);
+                    }
+                    if (number.endsWith(")")) {
+                        number = number.substring(0, number.length() - 1);
+                    }
+                    if (NUMBER_PATTERN.matcher(number).matches()) {
+                        try {
+                            return numberFormat.parse(number);
+                        } catch (ParseException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                    return new ComputedNumericValue(number);
+                case DATE:
+                    try {
+                        return dateFormat.parse(value);
+                    } catch (ParseException e) {
+                        //probably a function
+                        return new ComputedDateValue(value);
+                    }
+                case UNSUPPORTED:
+                    throw new UnsupportedChangeException("loadData type of "+typeNames[index]+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, or STRING");
+                default:
+                    return value;
+            }
+        }
+    }
+
     public String getConfirmationMessage() {
         return "Data loaded from "+getFile()+" into "+getTableName();
     }
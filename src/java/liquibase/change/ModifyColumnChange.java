@@ -24,7 +24,7 @@ import java.util.Set;
 /**
  * Modifies the data type of an existing column.
  */
-public class ModifyColumnChange extends AbstractChange implements ChangeWithColumns {
+public class ModifyColumnChange extends AbstractChange implements ChangeWithColumns, SQLiteDatabase.TableRebuildChange {
 
     private String schemaName;
     private String tableName;
@@ -25,7 +25,7 @@ import java.util.Set;
 /**
  * Renames an existing column.
  */
-public class RenameColumnChange extends AbstractChange {
+public class RenameColumnChange extends AbstractChange implements SQLiteDatabase.TableRebuildChange {
 
     private String schemaName;
     private String tableName;
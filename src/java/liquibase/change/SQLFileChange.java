@@ -4,7 +4,9 @@ import java.io.*;
 import java.util.Set;
 import java.util.logging.Logger;
 import liquibase.FileOpener;
+import liquibase.database.Database;
 import liquibase.database.structure.DatabaseObject;
+import liquibase.exception.InvalidChangeDefinitionException;
 import liquibase.exception.SetupException;
 import liquibase.log.LogFactory;
 import liquibase.util.MD5Util;
@@ -27,12 +29,17 @@ public class SQLFileChange extends AbstractSQLChange {
     private static final Logger log = LogFactory.getLogger();
     private String file;
     private String encoding = null;
+    private String md5sum;
     
     
     public SQLFileChange() {
         super("sqlFile", "SQL From File");
     }
 
+    protected SQLFileChange(String tagName, String changeName) {
+        super(tagName, changeName);
+    }
+
     public String getPath() {
         return file;
     }
@@ -44,6 +51,7 @@ public class SQLFileChange extends AbstractSQLChange {
      */
     public void setPath(String fileName) {
         file = fileName;
+        md5sum = null;
     }
     
     /**
@@ -61,6 +69,7 @@ public class SQLFileChange extends AbstractSQLChange {
 		public void setEncoding(String encoding)
 		{
 			this.encoding = encoding;
+			md5sum = null;
 		}
 
 		public void setUp() throws SetupException {
@@ -68,89 +77,132 @@ public class SQLFileChange extends AbstractSQLChange {
             throw new SetupException("<sqlfile> - No path specified");
         }
         log.fine("SQLFile file:" + file);
-        boolean loaded = loadFromClasspath(file);
-        if(!loaded) {
-            loaded = loadFromFileSystem(file);
+        InputStream in;
+        try {
+            in = openStream();
+        } catch (IOException e) {
+            throw new SetupException("<sqlfile path="+file+"> -Unable to read file", e);
         }
-        
-        if (!loaded) {
+
+        if (in == null) {
             throw new SetupException("<sqlfile path="+file+"> - Could not find file");
         }
-        log.finer("SQLFile file contents is:" + getSql());
+        try {
+            md5sum = MD5Util.computeMD5(createReader(in));
+        } catch (IOException e) {
+            throw new SetupException("<sqlfile path="+file+"> -Unable to read file", e);
+        } catch (RuntimeException e) {
+            throw new SetupException("<sqlfile path="+file+"> -Unable to read file", e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ioe) {//NOPMD
+                // safe to ignore
+            }
+        }
     }
 
     /**
-     * Tries to load the file from the file system.
-     * 
-     * @param file The name of the file to search for
-     * @return True if the file was found, false otherwise.
+     * Opens the file using the FileOpener, falling back to the file system if the FileOpener
+     * can not find it.
+     *
+     * @return The stream, or null if the file can not be found
      */
-    private boolean loadFromFileSystem(String file) throws SetupException {
+    private InputStream openStream() throws IOException {
+        FileOpener fo = getFileOpener();
+        if (fo != null) {
+            InputStream in = fo.getResourceAsStream(file);
+            if (in != null) {
+                return in;
+            }
+        }
 
-        FileInputStream fis = null;
         try {
-            fis = new FileInputStream(file);
-            setSql( StreamUtil.getStreamContents(fis, encoding) );
-            return true;
+            return new FileInputStream(file);
         } catch (FileNotFoundException fnfe) {
-            return false;
-        } catch (IOException e) {
-            throw new SetupException("<sqlfile path="+file+"> -Unable to read file", e);
-        } finally {
-            if (fis != null) {
-                try {
-                    fis.close();
-                } catch (IOException ioe) {//NOPMD
-                    // safe to ignore
-                }
-            }
+            return null;
         }
+    }
 
+    private Reader createReader(InputStream in) throws IOException {
+        return (encoding != null) ? new InputStreamReader(in, encoding) : new InputStreamReader(in);
     }
 
     /**
-     * Tries to load a file using the FileOpener.
-     * 
-     * If the fileOpener can not be found then the attempt to load from the
-     * classpath the return is false.
-     * 
-     * @param file The file name to try and find.
-     * @return True if the file was found and loaded, false otherwise.
+     * The statements are read from the file as they are executed, so it is only loaded into memory
+     * if the SQL is asked for directly.
      */
-    private boolean loadFromClasspath(String file) throws SetupException {
-        InputStream in = null;
-        try {
-            FileOpener fo = getFileOpener();
-            if(fo== null) {
-                return false;
-            }
-            
-            in = fo.getResourceAsStream(file);
-            if (in == null) {
-                return false;
-            }
-            setSql( StreamUtil.getStreamContents(in, encoding));
-            return true;
-        } catch (IOException ioe) {
-            throw new SetupException("<sqlfile path="+file+"> -Unable to read file", ioe);
-        } finally {
-            if (in != null) {
+    public String getSql() {
+        String sql = super.getSql();
+        if (sql == null && file != null) {
+            try {
+                InputStream in = openStream();
+                if (in == null) {
+                    return null;
+                }
                 try {
+                    sql = StreamUtil.getStreamContents(in, encoding);
+                } finally {
                     in.close();
-                } catch (IOException ioe) {//NOPMD
-                    // safe to ignore
                 }
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to read " + file, e);
             }
         }
+        return sql;
     }
-    
+
+    public void setSql(String sql) {
+        super.setSql(sql);
+        md5sum = null;
+    }
+
+    protected Reader openSqlReader() throws IOException {
+        if (super.getSql() != null) {
+            return super.openSqlReader();
+        }
+
+        InputStream in = openStream();
+        if (in == null) {
+            throw new FileNotFoundException(file);
+        }
+        return createReader(in);
+    }
+
+    public void validate(Database database) throws InvalidChangeDefinitionException {
+        if (super.getSql() != null || file == null) {
+            super.validate(database);
+            return;
+        }
+
+        try {
+            Reader reader = openSqlReader();
+            try {
+                int c;
+                while ((c = reader.read()) != -1) {
+                    if (c > ' ') {
+                        return;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new InvalidChangeDefinitionException("Unable to read " + file + ": " + e.getMessage(), this);
+        }
+        throw new InvalidChangeDefinitionException("sql text is required", this);
+    }
+
     /**
      * Calculates an MD5 from the contents of the file.
      * 
      * @see liquibase.change.AbstractChange#getMD5Sum()
      */
     public String getMD5Sum() {
-        return MD5Util.computeMD5(getSql());
+        if (super.getSql() != null || md5sum == null) {
+            return MD5Util.computeMD5(getSql());
+        }
+        return md5sum;
     }
 
     public Element createNode(Document currentChangeLogDOM) {
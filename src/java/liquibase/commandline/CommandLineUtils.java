@@ -18,6 +18,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import liquibase.database.Database;
 import liquibase.database.DatabaseFactory;
 import liquibase.database.HibernateDatabase;
+import liquibase.database.OfflineChangeLogHistory;
 import liquibase.diff.Diff;
 import liquibase.diff.DiffResult;
 import liquibase.diff.DiffStatusListener;
@@ -98,6 +99,33 @@ public class CommandLineUtils {
         }
     }
 
+    /**
+     * Creates a database without a connection whose change log history is read from and saved to the given
+     * CSV file.  The database type is either a liquibase.database.Database class name or a type name such as "oracle".
+     */
+    public static Database createOfflineDatabaseObject(ClassLoader classLoader,
+                                                       String databaseClass,
+                                                       String defaultSchemaName,
+                                                       String offlineHistory) throws JDBCException {
+        try {
+            Database database = null;
+            for (Database implementedDatabase : DatabaseFactory.getInstance().getImplementedDatabases()) {
+                if (implementedDatabase.getTypeName().equalsIgnoreCase(databaseClass)) {
+                    database = implementedDatabase.getClass().newInstance();
+                    break;
+                }
+            }
+            if (database == null) {
+                database = (Database) Class.forName(databaseClass, true, classLoader).newInstance();
+            }
+            database.setDefaultSchemaName(StringUtils.trimToNull(defaultSchemaName));
+            database.setOfflineHistory(new OfflineChangeLogHistory(new File(offlineHistory)));
+            return database;
+        } catch (Exception e) {
+            throw new JDBCException(e);
+        }
+    }
+
     private static Database createHibernateDatabase(ClassLoader classLoader, String url) throws InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
         return (Database) Class.forName(HibernateDatabase.class.getName(), true, classLoader).getConstructor(String.class).newInstance(url.substring("hibernate:".length()));
     }
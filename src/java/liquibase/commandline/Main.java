@@ -43,6 +43,7 @@ public class Main {
     protected String changeSetAuthor;
     protected String changeSetContext;
     protected String dataDir;
+    protected String offlineHistory;
 
     protected String currentDateTimeFunction;
 
@@ -166,7 +167,14 @@ public class Main {
         } else if (!isCommand(command)) {
             messages.add("Unknown command: " + command);
         } else {
-            if (url == null) {
+            if (offlineHistory != null) {
+                if (databaseClass == null) {
+                    messages.add("--databaseClass is required with --offlineHistory");
+                }
+                if (!isOfflineCommand(command)) {
+                    messages.add(command + " cannot be used with --offlineHistory");
+                }
+            } else if (url == null) {
                 messages.add("--url is required");
             }
 
@@ -183,6 +191,17 @@ public class Main {
                 || "validate".equals(command);
     }
 
+    private boolean isOfflineCommand(String command) {
+        return "updateSQL".equalsIgnoreCase(command)
+                || "updateCountSQL".equalsIgnoreCase(command)
+                || "rollbackSQL".equalsIgnoreCase(command)
+                || "rollbackToDateSQL".equalsIgnoreCase(command)
+                || "rollbackCountSQL".equalsIgnoreCase(command)
+                || "futureRollbackSQL".equalsIgnoreCase(command)
+                || "changelogSyncSQL".equalsIgnoreCase(command)
+                || "markNextChangeSetRanSQL".equalsIgnoreCase(command);
+    }
+
     private boolean isCommand(String arg) {
         return "migrate".equals(arg)
                 || "migrateSQL".equalsIgnoreCase(arg)
@@ -291,8 +310,10 @@ public class Main {
         stream.println("                                 to the target database to standard out");
         stream.println("");
         stream.println("Documentation Commands");
-        stream.println(" dbDoc <outputDirectory>         Generates Javadoc-like documentation");
-        stream.println("                                 based on current database and change log");
+        stream.println(" dbDoc <outputDirectory> [--incremental]");
+        stream.println("                                 Generates Javadoc-like documentation");
+        stream.println("                                 based on current database and change log.");
+        stream.println("                                 --incremental only rewrites changed pages");
         stream.println("");
         stream.println("Maintenance Commands");
         stream.println(" tag <tag string>          'Tags' the current database state for future rollback");
@@ -325,6 +346,11 @@ public class Main {
         stream.println(" --databaseClass=<database.ClassName>       custom liquibase.database.Database");
         stream.println("                                            implementation to use");
         stream.println(" --defaultSchemaName=<name>                 Default database schema to use");
+        stream.println(" --offlineHistory=<file>                    Generate SQL without a connection,");
+        stream.println("                                            reading and updating the change log");
+        stream.println("                                            history in a CSV export of the");
+        stream.println("                                            DATABASECHANGELOG table.  Requires");
+        stream.println("                                            --databaseClass (class or type name)");
         stream.println(" --contexts=<value>                         ChangeSet contexts to execute");
         stream.println(" --defaultsFile=</path/to/file.properties>  File with default option values");
         stream.println("                                            (default: ./liquibase.properties)");
@@ -575,7 +601,12 @@ public class Main {
 
         FileSystemFileOpener fsOpener = new FileSystemFileOpener();
         CommandLineFileOpener clOpener = new CommandLineFileOpener(classLoader);
-        Database database = CommandLineUtils.createDatabaseObject(classLoader, this.url, this.username, this.password, this.driver, this.defaultSchemaName, this.databaseClass);
+        Database database;
+        if (offlineHistory != null) {
+            database = CommandLineUtils.createOfflineDatabaseObject(classLoader, this.databaseClass, this.defaultSchemaName, this.offlineHistory);
+        } else {
+            database = CommandLineUtils.createDatabaseObject(classLoader, this.url, this.username, this.password, this.driver, this.defaultSchemaName, this.databaseClass);
+        }
         try {
 
 
@@ -634,13 +665,19 @@ public class Main {
                 liquibase.clearCheckSums();
                 return;
             } else if ("dbdoc".equalsIgnoreCase(command)) {
-                if (commandParams.size() == 0) {
+                String outputDirectory = null;
+                for (String param : commandParams) {
+                    if (!param.startsWith("--")) {
+                        outputDirectory = param;
+                    }
+                }
+                if (outputDirectory == null) {
                     throw new CommandLineParsingException("dbdoc requires an output directory");
                 }
                 if (changeLogFile == null) {
                     throw new CommandLineParsingException("dbdoc requires a changeLog parameter");
                 }
-                liquibase.generateDocumentation(commandParams.iterator().next());
+                liquibase.generateDocumentation(outputDirectory, commandParams.contains("--incremental"));
                 return;
             }
 
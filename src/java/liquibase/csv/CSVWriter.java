@@ -57,6 +57,18 @@ public class CSVWriter extends liquibase.csv.opencsv.CSVWriter {
         }
     }
 
+    /**
+     * Writes the row the ResultSet is currently positioned on.  The line array is reused between rows
+     * so large exports do not allocate a new one for every row.
+     */
+    public void writeCurrentRow(ResultSet rs, int[] columnTypes, String[] line) throws SQLException, IOException {
+        for (int i = 0; i < line.length; i++) {
+            line[i] = getColumnValue(rs, columnTypes[i], i + 1);
+        }
+
+        writeNext(line);
+    }
+
     private String getColumnValue(ResultSet rs, int colType, int colIndex) throws SQLException, IOException {
 
         Object value = rs.getObject(colIndex);
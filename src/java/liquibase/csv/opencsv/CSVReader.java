@@ -30,7 +30,25 @@ import java.util.List;
  */
 public class CSVReader {
 
-    private BufferedReader br;
+    private Reader in;
+
+    /*
+     * The buffers are reused for every line, so only the elements themselves
+     * are allocated as the file is read.
+     */
+    private char[] buffer = new char[8192];
+    private int bufferPosition;
+    private int bufferLength;
+    private boolean skipLineFeed;
+
+    private char[] line = new char[256];
+    private int lineLength;
+
+    private char[] token = new char[64];
+    private int tokenLength;
+
+    private String[] tokens = new String[16];
+    private int tokenCount;
 
     private boolean hasNext = true;
 
@@ -107,7 +125,7 @@ public class CSVReader {
      *            the line number to skip for start reading 
      */
     public CSVReader(Reader reader, char separator, char quotechar, int line) {
-        this.br = new BufferedReader(reader);
+        this.in = reader;
         this.separator = separator;
         this.quotechar = quotechar;
         this.skipLines = line;
@@ -146,100 +164,152 @@ public class CSVReader {
      */
     public String[] readNext() throws IOException {
 
-        String nextLine = getNextLine();
-        return hasNext ? parseLine(nextLine) : null;
+        boolean found = getNextLine();
+        return hasNext && found ? parseLine() : null;
     }
 
     /**
-     * Reads the next line from the file.
+     * Reads the next line from the file into the line buffer, without the
+     * trailing newline.  Lines end as in {@link BufferedReader#readLine()}.
      * 
-     * @return the next line from the file without trailing newline
+     * @return false if there are no more lines
      * @throws IOException
      *             if bad things happen during the read
      */
-    private String getNextLine() throws IOException {
+    private boolean getNextLine() throws IOException {
     	if (!this.linesSkiped) {
             for (int i = 0; i < skipLines; i++) {
-                br.readLine();
+                readLine();
             }
             this.linesSkiped = true;
         }
-        String nextLine = br.readLine();
-        if (nextLine == null) {
+        if (!readLine()) {
             hasNext = false;
         }
-        return hasNext ? nextLine : null;
+        return hasNext;
+    }
+
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        boolean read = false;
+        while (true) {
+            if (bufferPosition >= bufferLength) {
+                bufferLength = in.read(buffer);
+                bufferPosition = 0;
+                if (bufferLength <= 0) {
+                    bufferLength = 0;
+                    return read;
+                }
+            }
+            char c = buffer[bufferPosition++];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            read = true;
+
+            if (c == '\n') {
+                return true;
+            } else if (c == '\r') {
+                skipLineFeed = true;
+                return true;
+            }
+
+            if (lineLength == line.length) {
+                char[] newLine = new char[line.length * 2];
+                System.arraycopy(line, 0, newLine, 0, lineLength);
+                line = newLine;
+            }
+            line[lineLength++] = c;
+        }
     }
 
     /**
-     * Parses an incoming String and returns an array of elements.
+     * Parses the line in the line buffer, and the following lines if a quoted
+     * element spans lines, and returns an array of elements.
      * 
-     * @param nextLine
-     *            the string to parse
-     * @return the comma-tokenized list of elements, or null if nextLine is null
+     * @return the comma-tokenized list of elements
      * @throws IOException if bad things happen during the read
      */
-    private String[] parseLine(String nextLine) throws IOException {
+    private String[] parseLine() throws IOException {
 
-        if (nextLine == null) {
-            return null;
-        }
-
-        List tokensOnThisLine = new ArrayList();
-        StringBuffer sb = new StringBuffer();
+        tokenCount = 0;
+        tokenLength = 0;
         boolean inQuotes = false;
         do {
         	if (inQuotes) {
                 // continuing a quoted section, reappend newline
-                sb.append("\n");
-                nextLine = getNextLine();
-                if (nextLine == null)
+                appendToToken('\n');
+                if (!getNextLine())
                     break;
             }
-            for (int i = 0; i < nextLine.length(); i++) {
+            for (int i = 0; i < lineLength; i++) {
 
-                char c = nextLine.charAt(i);
+                char c = line[i];
                 if (c == quotechar) {
                 	// this gets complex... the quote may end a quoted block, or escape another quote.
                 	// do a 1-char lookahead:
                 	if( inQuotes  // we are in quotes, therefore there can be escaped quotes in here.
-                	    && nextLine.length() > (i+1)  // there is indeed another character to check.
-                	    && nextLine.charAt(i+1) == quotechar ){ // ..and that char. is a quote also.
+                	    && lineLength > (i+1)  // there is indeed another character to check.
+                	    && line[i+1] == quotechar ){ // ..and that char. is a quote also.
                 		// we have two quote chars in a row == one quote char, so consume them both and
                 		// put one on the token. we do *not* exit the quoted text.
-                		sb.append(nextLine.charAt(i+1));
+                		appendToToken(line[i+1]);
                 		i++;
                 	}else{
                 		inQuotes = !inQuotes;
                 		// the tricky case of an embedded quote in the middle: a,bc"d"ef,g
                 		if(i>2 //not on the begining of the line
-                				&& nextLine.charAt(i-1) != this.separator //not at the begining of an escape sequence 
-                				&& nextLine.length()>(i+1) &&
-                				nextLine.charAt(i+1) != this.separator //not at the	end of an escape sequence
+                				&& line[i-1] != this.separator //not at the begining of an escape sequence 
+                				&& lineLength>(i+1) &&
+                				line[i+1] != this.separator //not at the	end of an escape sequence
                 		){
-                			sb.append(c);
+                			appendToToken(c);
                 		}
                 	}
                 } else if (c == separator && !inQuotes) {
-                    tokensOnThisLine.add(sb.toString());
-                    sb = new StringBuffer(); // start work on next token
+                    endToken(); // start work on next token
                 } else {
-                    sb.append(c);
+                    appendToToken(c);
                 }
             }
         } while (inQuotes);
-        tokensOnThisLine.add(sb.toString());
-        return (String[]) tokensOnThisLine.toArray(new String[0]);
+        endToken();
+
+        String[] tokensOnThisLine = new String[tokenCount];
+        System.arraycopy(tokens, 0, tokensOnThisLine, 0, tokenCount);
+        return tokensOnThisLine;
 
     }
 
+    private void appendToToken(char c) {
+        if (tokenLength == token.length) {
+            char[] newToken = new char[token.length * 2];
+            System.arraycopy(token, 0, newToken, 0, tokenLength);
+            token = newToken;
+        }
+        token[tokenLength++] = c;
+    }
+
+    private void endToken() {
+        if (tokenCount == tokens.length) {
+            String[] newTokens = new String[tokens.length * 2];
+            System.arraycopy(tokens, 0, newTokens, 0, tokenCount);
+            tokens = newTokens;
+        }
+        tokens[tokenCount++] = new String(token, 0, tokenLength);
+        tokenLength = 0;
+    }
+
     /**
      * Closes the underlying reader.
      * 
      * @throws IOException if the close fails
      */
     public void close() throws IOException{
-    	br.close();
+    	in.close();
     }
     
 }
@@ -13,15 +13,20 @@ import java.sql.Types;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
 
 import liquibase.ChangeSet;
 import liquibase.RanChangeSet;
+import liquibase.RanChangeSetHistory;
 import liquibase.change.Change;
 import liquibase.change.ColumnConfig;
 import liquibase.change.DropForeignKeyConstraintChange;
@@ -42,17 +47,21 @@ import liquibase.database.sql.visitor.SqlVisitor;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.ForeignKey;
 import liquibase.database.structure.Sequence;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.database.structure.Table;
 import liquibase.database.structure.View;
 import liquibase.database.template.JdbcOutputTemplate;
 import liquibase.database.template.JdbcTemplate;
+import liquibase.database.template.RowMapper;
 import liquibase.diff.DiffStatusListener;
 import liquibase.exception.DatabaseHistoryException;
 import liquibase.exception.DateParseException;
 import liquibase.exception.JDBCException;
+import liquibase.exception.LockException;
 import liquibase.exception.UnsupportedChangeException;
 import liquibase.lock.LockHandler;
 import liquibase.log.LogFactory;
+import liquibase.metrics.MigrationMetrics;
 import liquibase.util.ISODateFormat;
 import liquibase.util.LiquibaseUtil;
 import liquibase.util.StringUtils;
@@ -73,7 +82,11 @@ public abstract class AbstractDatabase implements Database
     protected String currentDateTimeFunction;
 
     private JdbcTemplate jdbcTemplate = new JdbcTemplate(this);
+
+    private Integer fetchSize;
+    private MigrationMetrics migrationMetrics;
     private List<RanChangeSet> ranChangeSetList;
+    private OfflineChangeLogHistory offlineHistory;
     private static final DataType DATE_TYPE = new DataType("DATE", false);
     private static final DataType TIME_TYPE = new DataType("TIME", false);
     private static final DataType BIGINT_TYPE = new DataType("BIGINT", true);
@@ -84,6 +97,11 @@ public abstract class AbstractDatabase implements Database
     private static final DataType INT_TYPE = new DataType("INT", true);
     private static final DataType TINYINT_TYPE = new DataType("TINYINT", true);
 
+    /**
+     * Rows fetched at a time by internal queries unless a database or the user says otherwise.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
     private static Pattern CREATE_VIEW_AS_PATTERN = Pattern.compile("^CREATE\\s+.*?VIEW\\s+.*?AS\\s+", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
 
     protected String databaseChangeLogTableName = "DatabaseChangeLog".toUpperCase();
@@ -240,6 +258,10 @@ public abstract class AbstractDatabase implements Database
     @Override
     public String getConnectionURL() throws JDBCException
     {
+        if (connection == null)
+        {
+            return null;
+        }
         try
         {
             return connection.getMetaData().getURL();
@@ -253,6 +275,10 @@ public abstract class AbstractDatabase implements Database
     @Override
     public String getConnectionUsername() throws JDBCException
     {
+        if (connection == null)
+        {
+            return null;
+        }
         try
         {
             return connection.getMetaData().getUserName();
@@ -866,6 +892,16 @@ public abstract class AbstractDatabase implements Database
             }
         }
 
+        if (offlineHistory != null)
+        {
+            if (!offlineHistory.isTablePresent())
+            {
+                getJdbcTemplate().comment("Create Database Change Log Table");
+                this.getJdbcTemplate().execute(getCreateChangeLogSQL(), new ArrayList<SqlVisitor>());
+            }
+            return;
+        }
+
         DatabaseConnection connection = getConnection();
         ResultSet checkColumnsRS = null;
         List<SqlStatement> statementsToExecute = new ArrayList<SqlStatement>();
@@ -1015,6 +1051,11 @@ public abstract class AbstractDatabase implements Database
     @Override
     public void checkDatabaseChangeLogLockTable() throws JDBCException
     {
+        if (offlineHistory != null)
+        {
+            return;
+        }
+
         boolean knowMustInsertIntoLockTable = false;
 
         if (!doesChangeLogLockTableExist())
@@ -1067,6 +1108,11 @@ public abstract class AbstractDatabase implements Database
 
     /**
      * Drops all objects owned by the connected user.
+     * <p/>
+     * If the database can drop the whole schema at once, that is done instead of dropping the objects one by one.
+     * When the schema held the LiquiBase tables they are created again empty, and a change log lock held through
+     * {@link LockHandler} is taken again on the new lock table.  Otherwise the drops run as a single batch, without
+     * the foreign key pass when dropping the tables already removes their foreign keys.
      *
      * @param schema
      */
@@ -1075,6 +1121,18 @@ public abstract class AbstractDatabase implements Database
     {
         try
         {
+            SqlStatement[] dropSchemaStatements = getDropSchemaStatements(schema);
+            if (dropSchemaStatements != null)
+            {
+                boolean heldLiquibaseTables = containsLiquibaseTables(schema);
+                this.getJdbcTemplate().batchExecute(Arrays.asList(dropSchemaStatements), new ArrayList<SqlVisitor>());
+                if (heldLiquibaseTables)
+                {
+                    recreateLiquibaseTables();
+                }
+                return;
+            }
+
             DatabaseSnapshot snapshot = createDatabaseSnapshot(schema, new HashSet<DiffStatusListener>());
 
             List<Change> dropChanges = new ArrayList<Change>();
@@ -1088,14 +1146,17 @@ public abstract class AbstractDatabase implements Database
                 dropChanges.add(dropChange);
             }
 
-            for (ForeignKey fk : snapshot.getForeignKeys())
+            if (!dropTableCascadesForeignKeys())
             {
-                DropForeignKeyConstraintChange dropFK = new DropForeignKeyConstraintChange();
-                dropFK.setBaseTableSchemaName(schema);
-                dropFK.setBaseTableName(fk.getForeignKeyTable().getName());
-                dropFK.setConstraintName(fk.getName());
+                for (ForeignKey fk : snapshot.getForeignKeys())
+                {
+                    DropForeignKeyConstraintChange dropFK = new DropForeignKeyConstraintChange();
+                    dropFK.setBaseTableSchemaName(schema);
+                    dropFK.setBaseTableName(fk.getForeignKeyTable().getName());
+                    dropFK.setConstraintName(fk.getName());
 
-                dropChanges.add(dropFK);
+                    dropChanges.add(dropFK);
+                }
             }
 
             // for (Index index : snapshot.getIndexes()) {
@@ -1137,20 +1198,19 @@ public abstract class AbstractDatabase implements Database
                 dropChanges.add(clearChangeLogChange);
             }
 
+            List<SqlStatement> dropStatements = new ArrayList<SqlStatement>();
             try
             {
                 for (Change change : dropChanges)
                 {
-                    for (SqlStatement statement : change.generateStatements(this))
-                    {
-                        this.getJdbcTemplate().execute(statement, new ArrayList<SqlVisitor>());
-                    }
+                    dropStatements.addAll(Arrays.asList(change.generateStatements(this)));
                 }
             }
             catch (UnsupportedChangeException e)
             {
                 throw new JDBCException(e);
             }
+            this.getJdbcTemplate().batchExecute(dropStatements, new ArrayList<SqlVisitor>());
 
         }
         finally
@@ -1159,6 +1219,92 @@ public abstract class AbstractDatabase implements Database
         }
     }
 
+    /**
+     * Returns the statements dropping the schema with everything in it and creating it again empty, or null if the
+     * database cannot do that for the given schema.
+     */
+    protected SqlStatement[] getDropSchemaStatements(String schema) throws JDBCException
+    {
+        return null;
+    }
+
+    /**
+     * Returns true if dropping a table with cascadeConstraints also drops the foreign keys referencing it, so
+     * dropDatabaseObjects does not need to drop them first.
+     */
+    protected boolean dropTableCascadesForeignKeys()
+    {
+        return false;
+    }
+
+    /**
+     * Creates the LiquiBase tables dropped with their schema and takes back the change log lock if this database held
+     * it, so nothing else can start updating while the tables were gone.
+     */
+    private void recreateLiquibaseTables() throws JDBCException
+    {
+        this.commit();
+        ranChangeSetList = null;
+
+        checkDatabaseChangeLogTable();
+        checkDatabaseChangeLogLockTable();
+
+        LockHandler lockHandler = LockHandler.getInstance(this);
+        if (lockHandler.hasChangeLogLock())
+        {
+            try
+            {
+                if (!lockHandler.acquireLock())
+                {
+                    throw new JDBCException("Could not take the change log lock again after dropping the schema");
+                }
+            }
+            catch (LockException e)
+            {
+                throw new JDBCException(e);
+            }
+        }
+    }
+
+    private boolean containsLiquibaseTables(String schema) throws JDBCException
+    {
+        ResultSet rs = null;
+        try
+        {
+            rs = getConnection().getMetaData().getTables(convertRequestedSchemaToCatalog(schema), convertRequestedSchemaToSchema(schema), null,
+                    new String[]
+                    {
+                        "TABLE"
+                    });
+            while (rs.next())
+            {
+                if (isLiquibaseTable(rs.getString("TABLE_NAME")))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+        catch (SQLException e)
+        {
+            throw new JDBCException(e);
+        }
+        finally
+        {
+            if (rs != null)
+            {
+                try
+                {
+                    rs.close();
+                }
+                catch (SQLException e)
+                {
+                    log.warning("Error closing result set: " + e.getMessage());
+                }
+            }
+        }
+    }
+
     @Override
     public boolean isSystemTable(String catalogName, String schemaName, String tableName)
     {
@@ -1206,6 +1352,16 @@ public abstract class AbstractDatabase implements Database
     @Override
     public void tag(String tagString) throws JDBCException
     {
+        if (offlineHistory != null)
+        {
+            if (!offlineHistory.tag(tagString))
+            {
+                throw new JDBCException("Cannot tag an empty database");
+            }
+            this.getJdbcTemplate().update(new TagDatabaseStatement(tagString), new ArrayList<SqlVisitor>());
+            return;
+        }
+
         try
         {
             int totalRows = this.getJdbcTemplate().queryForInt(
@@ -1240,6 +1396,10 @@ public abstract class AbstractDatabase implements Database
     @Override
     public boolean doesTagExist(String tag) throws JDBCException
     {
+        if (offlineHistory != null)
+        {
+            return offlineHistory.doesTagExist(tag);
+        }
         int count = this.getJdbcTemplate().queryForInt(
                 new RawSqlStatement("SELECT COUNT(*) FROM " + escapeTableName(getDefaultSchemaName(), getDatabaseChangeLogTableName())
                         + " WHERE TAG='" + tag + "'"), new ArrayList<SqlVisitor>());
@@ -1283,6 +1443,52 @@ public abstract class AbstractDatabase implements Database
         {
             return null;
         }
+        return cleanViewDefinition(definition);
+    }
+
+    public Map<String, String> getViewDefinitions(String schemaName) throws JDBCException
+    {
+        if (schemaName == null)
+        {
+            schemaName = convertRequestedSchemaToSchema(null);
+        }
+        SqlStatement sql = getViewDefinitionsSql(schemaName);
+        if (sql == null)
+        {
+            return null;
+        }
+        List rows = this.getJdbcTemplate().query(sql, new RowMapper()
+        {
+            public Object mapRow(ResultSet rs, int rowNum) throws SQLException
+            {
+                return new String[]{rs.getString(1), rs.getString(2)};
+            }
+        }, new ArrayList<SqlVisitor>());
+
+        Map<String, String> definitions = new HashMap<String, String>();
+        for (Object row : rows)
+        {
+            String[] nameAndDefinition = (String[]) row;
+            String definition = nameAndDefinition[1];
+            definitions.put(nameAndDefinition[0], definition == null ? null : cleanViewDefinition(definition));
+        }
+        return definitions;
+    }
+
+    /**
+     * Returns a query selecting the name and definition of every view in the schema, or null if the database does
+     * not support reading them all at once.
+     */
+    protected SqlStatement getViewDefinitionsSql(String schemaName) throws JDBCException
+    {
+        return null;
+    }
+
+    /**
+     * Removes the CREATE VIEW ... AS prefix some databases return with the view definition.
+     */
+    protected String cleanViewDefinition(String definition)
+    {
         return CREATE_VIEW_AS_PATTERN.matcher(definition).replaceFirst("");
     }
 
@@ -1690,6 +1896,18 @@ public abstract class AbstractDatabase implements Database
         {
             if (foundRan.getMd5sum() == null)
             {
+                if (offlineHistory != null)
+                {
+                    log.info("Updating NULL md5sum for " + changeSet.toString());
+                    String sql = "UPDATE " + escapeTableName(getDefaultSchemaName(), getDatabaseChangeLogTableName())
+                            + " SET MD5SUM='" + escapeStringForDatabase(changeSet.getMd5sum()) + "' WHERE ID='"
+                            + escapeStringForDatabase(changeSet.getId()) + "' AND AUTHOR='" + escapeStringForDatabase(changeSet.getAuthor())
+                            + "' AND FILENAME='" + escapeStringForDatabase(changeSet.getFilePath()) + "'";
+                    this.getJdbcTemplate().execute(new RawSqlStatement(sql), new ArrayList<SqlVisitor>());
+                    offlineHistory.updateMd5sum(foundRan, changeSet.getMd5sum());
+                    return ChangeSet.RunStatus.ALREADY_RAN;
+                }
+
                 try
                 {
                     log.info("Updating NULL md5sum for " + changeSet.toString());
@@ -1744,8 +1962,14 @@ public abstract class AbstractDatabase implements Database
             throw new DatabaseHistoryException("Database change table does not exist");
         }
 
+        List<RanChangeSet> ranChangeSets = getRanChangeSetList();
+        if (ranChangeSets instanceof RanChangeSetHistory)
+        {
+            return ((RanChangeSetHistory) ranChangeSets).find(changeSet);
+        }
+
         RanChangeSet foundRan = null;
-        for (RanChangeSet ranChange : getRanChangeSetList())
+        for (RanChangeSet ranChange : ranChangeSets)
         {
             if (ranChange.isSameAs(changeSet))
             {
@@ -1762,6 +1986,11 @@ public abstract class AbstractDatabase implements Database
     @Override
     public List<RanChangeSet> getRanChangeSetList() throws JDBCException
     {
+        if (offlineHistory != null)
+        {
+            return offlineHistory.getRanChangeSets();
+        }
+
         if (this.ranChangeSetList != null)
         {
             return this.ranChangeSetList;
@@ -1770,23 +1999,17 @@ public abstract class AbstractDatabase implements Database
         try
         {
             String databaseChangeLogTableName = escapeTableName(getDefaultSchemaName(), getDatabaseChangeLogTableName());
-            ranChangeSetList = new ArrayList<RanChangeSet>();
+            RanChangeSetHistory history = new RanChangeSetHistory();
+            ranChangeSetList = history;
             if (doesChangeLogTableExist())
             {
                 log.info("Reading from " + databaseChangeLogTableName);
-                String sql = "SELECT * FROM " + databaseChangeLogTableName + " ORDER BY DATEEXECUTED ASC".toUpperCase();
-                Statement statement = getConnection().createStatement();
+                String sql = "SELECT FILENAME, AUTHOR, ID, MD5SUM, DATEEXECUTED, TAG FROM " + databaseChangeLogTableName + " ORDER BY DATEEXECUTED ASC".toUpperCase();
+                Statement statement = createStreamingStatement();
                 ResultSet rs = statement.executeQuery(sql);
                 while (rs.next())
                 {
-                    String fileName = rs.getString("FILENAME");
-                    String author = rs.getString("AUTHOR");
-                    String id = rs.getString("ID");
-                    String md5sum = rs.getString("MD5SUM");
-                    Date dateExecuted = rs.getTimestamp("DATEEXECUTED");
-                    String tag = rs.getString("TAG");
-                    RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, md5sum, dateExecuted, tag);
-                    ranChangeSetList.add(ranChangeSet);
+                    history.add(rs.getString(1), rs.getString(3), rs.getString(2), rs.getString(4), rs.getTimestamp(5), rs.getString(6));
                 }
                 rs.close();
                 statement.close();
@@ -1858,6 +2081,11 @@ public abstract class AbstractDatabase implements Database
 
         this.getJdbcTemplate().execute(new RawSqlStatement(sql), new ArrayList<SqlVisitor>());
         this.commit();
+
+        if (offlineHistory != null)
+        {
+            offlineHistory.markReRan(changeSet);
+        }
     }
 
     @Override
@@ -1875,12 +2103,41 @@ public abstract class AbstractDatabase implements Database
         getRanChangeSetList().remove(new RanChangeSet(changeSet));
     }
 
+    @Override
+    public OfflineChangeLogHistory getOfflineHistory()
+    {
+        return offlineHistory;
+    }
+
+    @Override
+    public void setOfflineHistory(OfflineChangeLogHistory offlineHistory)
+    {
+        this.offlineHistory = offlineHistory;
+    }
+
+    /**
+     * True if the database works from an offline history without any connection.
+     */
+    protected boolean isDisconnected()
+    {
+        return connection == null && offlineHistory != null;
+    }
+
     @Override
     public String escapeStringForDatabase(String string)
     {
         return string.replaceAll("'", "''");
     }
 
+    public String foldIdentifierCase(String identifier)
+    {
+        if (identifier == null)
+        {
+            return null;
+        }
+        return identifier.toUpperCase(Locale.ENGLISH);
+    }
+
     private String limitSize(String string)
     {
         int maxLength = 255;
@@ -1894,6 +2151,11 @@ public abstract class AbstractDatabase implements Database
     @Override
     public void commit() throws JDBCException
     {
+        if (isDisconnected())
+        {
+            return;
+        }
+
         try
         {
             getConnection().commit();
@@ -1907,6 +2169,11 @@ public abstract class AbstractDatabase implements Database
     @Override
     public void rollback() throws JDBCException
     {
+        if (isDisconnected())
+        {
+            return;
+        }
+
         try
         {
             getConnection().rollback();
@@ -1934,6 +2201,61 @@ public abstract class AbstractDatabase implements Database
         this.jdbcTemplate = template;
     }
 
+    @Override
+    public int getFetchSize()
+    {
+        if (fetchSize == null)
+        {
+            return getDefaultFetchSize();
+        }
+        return fetchSize;
+    }
+
+    @Override
+    public void setFetchSize(int fetchSize)
+    {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public MigrationMetrics getMigrationMetrics()
+    {
+        return migrationMetrics;
+    }
+
+    @Override
+    public void setMigrationMetrics(MigrationMetrics migrationMetrics)
+    {
+        this.migrationMetrics = migrationMetrics;
+    }
+
+    /**
+     * Fetch size used unless one is set.  Databases whose drivers stream results some other way override this.
+     */
+    protected int getDefaultFetchSize()
+    {
+        return DEFAULT_FETCH_SIZE;
+    }
+
+    @Override
+    public Statement createStreamingStatement() throws SQLException
+    {
+        Statement statement = getConnection().createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        int fetchSize = getFetchSize();
+        if (fetchSize != 0)
+        {
+            try
+            {
+                statement.setFetchSize(fetchSize);
+            }
+            catch (SQLException e)
+            {
+                log.fine("Fetch size not supported: " + e.getMessage());
+            }
+        }
+        return statement;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -1944,6 +2266,8 @@ public abstract class AbstractDatabase implements Database
 
         AbstractDatabase that = (AbstractDatabase) o;
 
+        if (offlineHistory != that.offlineHistory)
+            return false;
         return !(connection != null ? !connection.equals(that.connection) : that.connection != null);
 
     }
@@ -1951,7 +2275,8 @@ public abstract class AbstractDatabase implements Database
     @Override
     public int hashCode()
     {
-        return (connection != null ? connection.hashCode() : 0);
+        int result = (connection != null ? connection.hashCode() : 0);
+        return 31 * result + (offlineHistory != null ? offlineHistory.hashCode() : 0);
     }
 
     @Override
@@ -1971,8 +2296,11 @@ public abstract class AbstractDatabase implements Database
         }
     }
 
-    @Override
-    public abstract DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException;
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
+        return createDatabaseSnapshot(schema, statusListeners, null);
+    }
+
+    public abstract DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException;
 
     @Override
     public boolean supportsRestrictForeignKeys()
@@ -1983,6 +2311,11 @@ public abstract class AbstractDatabase implements Database
     @Override
     public boolean isAutoCommit() throws JDBCException
     {
+        if (isDisconnected())
+        {
+            return getAutoCommitMode();
+        }
+
         try
         {
             return getConnection().getAutoCommit();
@@ -1996,6 +2329,11 @@ public abstract class AbstractDatabase implements Database
     @Override
     public void setAutoCommit(boolean b) throws JDBCException
     {
+        if (isDisconnected())
+        {
+            return;
+        }
+
         try
         {
             getConnection().setAutoCommit(b);
@@ -2017,4 +2355,13 @@ public abstract class AbstractDatabase implements Database
         String url = getConnectionURL();
         return (url.indexOf("localhost") >= 0) || (url.indexOf("127.0.0.1") >= 0);
     }
+
+    /**
+     * Default implementation, rows are hashed by the client
+     */
+    @Override
+    public String getRowHashExpression(List<String> escapedColumnNames)
+    {
+        return null;
+    }
 }
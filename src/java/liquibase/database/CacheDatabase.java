@@ -3,6 +3,7 @@ package liquibase.database;
 import liquibase.exception.JDBCException;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.CacheDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.diff.DiffStatusListener;
 
 import java.sql.Connection;
@@ -119,7 +120,7 @@ public class CacheDatabase extends AbstractDatabase {
         return null;
     }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new CacheDatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new CacheDatabaseSnapshot(this, statusListeners, schema, filter);
     }
 }
@@ -4,6 +4,7 @@ import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.DB2DatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.exception.DateParseException;
 import liquibase.exception.JDBCException;
 import liquibase.diff.DiffStatusListener;
@@ -146,8 +147,12 @@ public class DB2Database extends AbstractDatabase {
         return new RawSqlStatement("select view_definition from SYSIBM.VIEWS where TABLE_NAME='" + name + "' and TABLE_SCHEMA='" + convertRequestedSchemaToSchema(schemaName) + "'");
     }
 
-    public String getViewDefinition(String schemaName, String name) throws JDBCException {
-        return super.getViewDefinition(schemaName, name).replaceFirst("CREATE VIEW \\w+ AS ", ""); //db2 returns "create view....as select
+    protected SqlStatement getViewDefinitionsSql(String schemaName) throws JDBCException {
+        return new RawSqlStatement("select TABLE_NAME, view_definition from SYSIBM.VIEWS where TABLE_SCHEMA='" + convertRequestedSchemaToSchema(schemaName) + "'");
+    }
+
+    protected String cleanViewDefinition(String definition) {
+        return super.cleanViewDefinition(definition).replaceFirst("CREATE VIEW \\w+ AS ", ""); //db2 returns "create view....as select
     }
 
     public Object convertDatabaseValueToJavaObject(Object defaultValue, int dataType, int columnSize, int decimalDigits) throws ParseException {
@@ -238,7 +243,12 @@ public class DB2Database extends AbstractDatabase {
         return autoIncrement;
     }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new DB2DatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new DB2DatabaseSnapshot(this, statusListeners, schema, filter);
+    }
+
+    @Override
+    protected boolean dropTableCascadesForeignKeys() {
+        return true;
     }
 }
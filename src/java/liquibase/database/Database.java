@@ -6,15 +6,19 @@ import liquibase.diff.DiffStatusListener;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseObject;
 import liquibase.database.structure.DatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.database.template.JdbcTemplate;
 import liquibase.exception.DatabaseHistoryException;
 import liquibase.exception.JDBCException;
+import liquibase.metrics.MigrationMetrics;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface Database extends DatabaseObject {
@@ -154,6 +158,12 @@ public interface Database extends DatabaseObject {
 
     String getViewDefinition(String schemaName, String name) throws JDBCException;
 
+    /**
+     * Returns the definitions of all views in the schema by view name, or null if the database can only return them
+     * one view at a time through getViewDefinition.
+     */
+    Map<String, String> getViewDefinitions(String schemaName) throws JDBCException;
+
     int getDatabaseType(int type);
 
     String getDatabaseProductName(Connection conn) throws JDBCException;
@@ -305,6 +315,19 @@ public interface Database extends DatabaseObject {
 
     void removeRanStatus(ChangeSet changeSet) throws JDBCException;
 
+    /**
+     * Returns the file based change log history used instead of the DATABASECHANGELOG table, or null if the
+     * history is read from the database.
+     */
+    OfflineChangeLogHistory getOfflineHistory();
+
+    /**
+     * Reads and records the change log history in the given file instead of the database.  Together with a
+     * JdbcOutputTemplate this allows generating SQL without a connection: no lock is taken and the history
+     * table is never queried.
+     */
+    void setOfflineHistory(OfflineChangeLogHistory offlineHistory);
+
     void commit() throws JDBCException;
 
     void rollback() throws JDBCException;
@@ -313,14 +336,47 @@ public interface Database extends DatabaseObject {
 
     JdbcTemplate getJdbcTemplate();
 
+    /**
+     * Returns the number of rows drivers should fetch at a time for queries LiquiBase reads through once, such as
+     * the change log history, snapshot queries and data exports.  0 leaves it to the driver.
+     */
+    int getFetchSize();
+
+    void setFetchSize(int fetchSize);
+
+    /**
+     * Creates a forward-only, read-only statement using the fetch size, so drivers that would otherwise buffer
+     * the whole result set stream it instead.  No other statement may be run on the connection while results of
+     * the statement are being read.
+     */
+    Statement createStreamingStatement() throws SQLException;
+
+    /**
+     * Returns the metrics operations on this database report to, or null if none are recorded.
+     */
+    MigrationMetrics getMigrationMetrics();
+
+    void setMigrationMetrics(MigrationMetrics migrationMetrics);
+
     void setJdbcTemplate(JdbcTemplate template);
 
     String escapeStringForDatabase(String string);
 
+    /**
+     * Returns the identifier in the case the database stores unquoted identifiers in, so object names can be
+     * matched the way the database matches them.
+     */
+    String foldIdentifierCase(String identifier);
+
     void close() throws JDBCException;
 
     DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException;
 
+    /**
+     * Creates a snapshot of the objects selected by the filter, or of all objects if it is null.
+     */
+    DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException;
+
     boolean supportsRestrictForeignKeys();
 
     String escapeConstraintName(String constraintName);
@@ -330,4 +386,10 @@ public interface Database extends DatabaseObject {
     void setAutoCommit(boolean b) throws JDBCException;
     
     boolean isLocalDatabase() throws JDBCException;
+
+    /**
+     * Returns a SQL expression computing a numeric hash of one row from the given escaped column names, or null if
+     * the database cannot hash rows itself.  The expression must be safe to SUM() over many rows.
+     */
+    String getRowHashExpression(List<String> escapedColumnNames);
 }
@@ -60,6 +60,12 @@ public interface DatabaseConnection {
             int resultSetConcurrency, int resultSetHoldability)
             throws SQLException;
 
+    /**
+     * Returns a prepared statement for the SQL, reusing one prepared earlier on this connection if it is still
+     * cached.  The statement belongs to the connection and must not be closed by the caller.
+     */
+    public PreparedStatement prepareCachedStatement(String sql) throws SQLException;
+
 
     public void rollback() throws SQLException;
 
@@ -2,7 +2,6 @@ package liquibase.database;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 public class DerbyConnectionDelegate extends SQLConnectionDelegate {
 
@@ -23,15 +22,10 @@ public class DerbyConnectionDelegate extends SQLConnectionDelegate {
         checkPoint();
     }
 
+    /**
+     * Runs after every commit and rollback, so the call is prepared once and kept in the statement cache.
+     */
     private void checkPoint() throws SQLException {
-        Statement st = null;
-        try {
-            st = createStatement();            
-            st.execute("CALL SYSCS_UTIL.SYSCS_CHECKPOINT_DATABASE()");
-        } finally {
-            if (st != null) {
-                st.close();
-            }
-        }
+        prepareCachedStatement("CALL SYSCS_UTIL.SYSCS_CHECKPOINT_DATABASE()").execute();
     }
 }
\ No newline at end of file
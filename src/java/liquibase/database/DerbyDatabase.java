@@ -4,6 +4,7 @@ import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.DerbyDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.exception.JDBCException;
 import liquibase.diff.DiffStatusListener;
 
@@ -117,8 +118,12 @@ public class DerbyDatabase extends AbstractDatabase {
     }
 
 
-    public String getViewDefinition(String schemaName, String name) throws JDBCException {
-        return super.getViewDefinition(schemaName, name).replaceFirst("CREATE VIEW \\w+ AS ", "");
+    protected SqlStatement getViewDefinitionsSql(String schemaName) throws JDBCException {
+        return new RawSqlStatement("select T.TABLENAME, V.VIEWDEFINITION from SYS.SYSVIEWS V, SYS.SYSTABLES T, SYS.SYSSCHEMAS S WHERE  V.TABLEID=T.TABLEID AND T.SCHEMAID=S.SCHEMAID AND T.TABLETYPE='V' AND S.SCHEMANAME='"+convertRequestedSchemaToSchema(schemaName)+"'");
+    }
+
+    protected String cleanViewDefinition(String definition) {
+        return super.cleanViewDefinition(definition).replaceFirst("CREATE VIEW \\w+ AS ", "");
     }
 
     public void setConnection(Connection conn) {
@@ -138,7 +143,7 @@ public class DerbyDatabase extends AbstractDatabase {
         return super.convertDatabaseValueToJavaObject(defaultValue, dataType, columnSize, decimalDigits);
     }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new DerbyDatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new DerbyDatabaseSnapshot(this, statusListeners, schema, filter);
     }
 }
@@ -4,6 +4,7 @@ import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.FirebirdDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.exception.JDBCException;
 import liquibase.diff.DiffStatusListener;
 
@@ -144,7 +145,7 @@ public class FirebirdDatabase extends AbstractDatabase {
         }
     }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new FirebirdDatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new FirebirdDatabaseSnapshot(this, statusListeners, schema, filter);
     }
 }
@@ -72,8 +72,12 @@ public class H2Database extends HsqlDatabase {
         return false;
     }
 
-    public String getViewDefinition(String schemaName, String name) throws JDBCException {
-        return super.getViewDefinition(schemaName, name).replaceFirst(".*?\n", ""); //h2 returns "create view....as\nselect
+    protected String cleanViewDefinition(String definition) {
+        return super.cleanViewDefinition(definition).replaceFirst(".*?\n", ""); //h2 returns "create view....as\nselect
+    }
+
+    protected SqlStatement getViewDefinitionsSql(String schemaName) throws JDBCException {
+        return new RawSqlStatement("SELECT TABLE_NAME, VIEW_DEFINITION FROM INFORMATION_SCHEMA.VIEWS WHERE TABLE_SCHEMA='"+convertRequestedSchemaToSchema(schemaName)+"'");
     }
 
     public SqlStatement getViewDefinitionSql(String schemaName, String name) throws JDBCException {
@@ -130,4 +134,12 @@ public class H2Database extends HsqlDatabase {
 //        return super.convertRequestedSchemaToSchema(requestedSchema).toLowerCase();
 //    }
 
+    /**
+     * DROP ALL OBJECTS drops every schema, not just the given one, and DROP SCHEMA differs between H2 versions, so
+     * objects are dropped one by one.
+     */
+    @Override
+    protected SqlStatement[] getDropSchemaStatements(String schema) throws JDBCException {
+        return null;
+    }
 }
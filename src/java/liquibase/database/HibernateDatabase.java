@@ -6,9 +6,11 @@ import liquibase.database.sql.SqlStatement;
 import liquibase.database.template.JdbcTemplate;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.HibernateDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.ChangeSet;
 import liquibase.RanChangeSet;
 import liquibase.diff.DiffStatusListener;
+import liquibase.metrics.MigrationMetrics;
 
 import java.sql.*;
 import java.sql.Date;
@@ -36,6 +38,10 @@ public class HibernateDatabase implements Database {
         return new HibernateDatabaseSnapshot(this);
     }
 
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return createDatabaseSnapshot(schema, statusListeners);
+    }
+
     public boolean isCorrectDatabaseImplementation(Connection conn) throws JDBCException {
         return false;
     }
@@ -242,6 +248,10 @@ public class HibernateDatabase implements Database {
         return null;
     }
 
+    public Map<String, String> getViewDefinitions(String schemaName) throws JDBCException {
+        return null;
+    }
+
     public int getDatabaseType(int type) {
         return 0;
     }
@@ -415,6 +425,14 @@ public class HibernateDatabase implements Database {
 
     }
 
+    public OfflineChangeLogHistory getOfflineHistory() {
+        return null;
+    }
+
+    public void setOfflineHistory(OfflineChangeLogHistory offlineHistory) {
+
+    }
+
     public void commit() throws JDBCException {
 
     }
@@ -439,6 +457,13 @@ public class HibernateDatabase implements Database {
         return null;
     }
 
+    public String foldIdentifierCase(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        return identifier.toUpperCase(Locale.ENGLISH);
+    }
+
     public void close() throws JDBCException {
 
     }
@@ -461,4 +486,26 @@ public class HibernateDatabase implements Database {
     public boolean isLocalDatabase() throws JDBCException {
     	return false;
     }
+
+    public String getRowHashExpression(List<String> escapedColumnNames) {
+        return null;
+    }
+
+    public int getFetchSize() {
+        return 0;
+    }
+
+    public void setFetchSize(int fetchSize) {
+    }
+
+    public Statement createStreamingStatement() throws SQLException {
+        return null;
+    }
+
+    public MigrationMetrics getMigrationMetrics() {
+        return null;
+    }
+
+    public void setMigrationMetrics(MigrationMetrics migrationMetrics) {
+    }
 }
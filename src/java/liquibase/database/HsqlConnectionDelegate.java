@@ -2,7 +2,6 @@ package liquibase.database;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 public class HsqlConnectionDelegate extends SQLConnectionDelegate {
 
@@ -14,28 +13,19 @@ public class HsqlConnectionDelegate extends SQLConnectionDelegate {
     public void commit() throws SQLException {
         super.commit();
 
-        Statement st = null;
-        try {
-            st = createStatement();
-            st.execute("CHECKPOINT");
-        } finally {
-            if (st != null) {
-                st.close();
-            }
-        }
+        checkPoint();
     }
 
     public void rollback() throws SQLException {
         super.rollback();
 
-        Statement st = null;
-        try {
-            st = createStatement();
-            st.execute("CHECKPOINT");
-        } finally {
-            if (st != null) {
-                st.close();
-            }
-        }
+        checkPoint();
+    }
+
+    /**
+     * Runs after every commit and rollback, so the statement is prepared once and kept in the statement cache.
+     */
+    private void checkPoint() throws SQLException {
+        prepareCachedStatement("CHECKPOINT").execute();
     }
 }
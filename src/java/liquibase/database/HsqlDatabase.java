@@ -4,6 +4,7 @@ import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.HsqlDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.exception.DateParseException;
 import liquibase.exception.JDBCException;
 import liquibase.util.ISODateFormat;
@@ -165,12 +166,16 @@ public class HsqlDatabase extends AbstractDatabase {
         return new RawSqlStatement("SELECT VIEW_DEFINITION FROM INFORMATION_SCHEMA.SYSTEM_VIEWS WHERE TABLE_NAME = '" + name + "' AND TABLE_SCHEMA='" + convertRequestedSchemaToSchema(schemaName) + "'");
     }
 
+    protected SqlStatement getViewDefinitionsSql(String schemaName) throws JDBCException {
+        return new RawSqlStatement("SELECT TABLE_NAME, VIEW_DEFINITION FROM INFORMATION_SCHEMA.SYSTEM_VIEWS WHERE TABLE_SCHEMA='" + convertRequestedSchemaToSchema(schemaName) + "'");
+    }
+
     public String convertRequestedSchemaToSchema(String requestedSchema) throws JDBCException {
         return super.convertRequestedSchemaToSchema(requestedSchema).toUpperCase();
     }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new HsqlDatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new HsqlDatabaseSnapshot(this, statusListeners, schema, filter);
     }
 
     @Override
@@ -485,4 +490,26 @@ public class HsqlDatabase extends AbstractDatabase {
             "ROLE",
             "DOW",
             "INITIAL");
+
+    @Override
+    protected boolean dropTableCascadesForeignKeys() {
+        return true;
+    }
+
+    @Override
+    protected SqlStatement[] getDropSchemaStatements(String schema) throws JDBCException {
+        String schemaName = convertRequestedSchemaToSchema(schema);
+        if ("PUBLIC".equals(schemaName)) {
+            //hsql re-creates the default schema empty
+            return new SqlStatement[]{new RawSqlStatement("DROP SCHEMA PUBLIC CASCADE")};
+        }
+        return new SqlStatement[]{
+                new RawSqlStatement("DROP SCHEMA " + quoteIdentifier(schemaName) + " CASCADE"),
+                new RawSqlStatement("CREATE SCHEMA " + quoteIdentifier(schemaName) + " AUTHORIZATION DBA")
+        };
+    }
+
+    private String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replaceAll("\"", "\"\"") + "\"";
+    }
 }
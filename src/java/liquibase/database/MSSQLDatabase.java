@@ -4,13 +4,16 @@ import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.MSSQLDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.exception.JDBCException;
 import liquibase.diff.DiffStatusListener;
+import liquibase.util.StringUtils;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.text.ParseException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -272,6 +275,11 @@ public class MSSQLDatabase extends AbstractDatabase {
         return new RawSqlStatement(sql);
     }
 
+    protected SqlStatement getViewDefinitionsSql(String schemaName) throws JDBCException {
+        return new RawSqlStatement("select table_name, view_definition from INFORMATION_SCHEMA.VIEWS where table_schema='" + convertRequestedSchemaToSchema(schemaName) + "'"
+                + " and table_catalog='" + getDefaultCatalogName() + "'");
+    }
+
     public String getColumnType(String columnType, Boolean autoIncrement) {
         String type = super.getColumnType(columnType, autoIncrement);
         if (autoIncrement != null && autoIncrement) {
@@ -284,8 +292,8 @@ public class MSSQLDatabase extends AbstractDatabase {
         return super.getDateLiteral(isoDate).replace(' ', 'T');
     }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new MSSQLDatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new MSSQLDatabaseSnapshot(this, statusListeners, schema, filter);
     }
 
     public boolean supportsRestrictForeignKeys() {
@@ -296,4 +304,9 @@ public class MSSQLDatabase extends AbstractDatabase {
     public String escapeColumnName(String schemaName, String tableName, String columnName) {
         return "["+columnName+"]";
     }
+
+    @Override
+    public String getRowHashExpression(List<String> escapedColumnNames) {
+        return "CAST(BINARY_CHECKSUM(" + StringUtils.join(escapedColumnNames, ", ") + ") AS BIGINT)";
+    }
 }
@@ -5,6 +5,7 @@ import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.MaxDBDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.exception.JDBCException;
 import liquibase.diff.DiffStatusListener;
 
@@ -216,6 +217,10 @@ public class MaxDBDatabase extends AbstractDatabase {
                 + "' AND OWNER='" + convertRequestedSchemaToSchema(schemaName) + "'");
     }
 
+    protected SqlStatement getViewDefinitionsSql(String schemaName) throws JDBCException {
+        return new RawSqlStatement("SELECT VIEWNAME, DEFINITION FROM DOMAIN.VIEWDEFS WHERE OWNER='" + convertRequestedSchemaToSchema(schemaName) + "'");
+    }
+
     public boolean supportsAutoIncrement() {
         return false;
     }
@@ -232,7 +237,7 @@ public class MaxDBDatabase extends AbstractDatabase {
         }
     }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new MaxDBDatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new MaxDBDatabaseSnapshot(this, statusListeners, schema, filter);
     }
 }
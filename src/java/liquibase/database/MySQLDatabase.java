@@ -4,11 +4,14 @@ import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.MySqlDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.diff.DiffStatusListener;
 import liquibase.exception.JDBCException;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 /**
@@ -47,6 +50,14 @@ public class MySQLDatabase extends AbstractDatabase {
         return null;
     }
 
+    /**
+     * Connector/J reads whole result sets into memory unless the fetch size is Integer.MIN_VALUE, which streams them
+     * row by row.
+     */
+    protected int getDefaultFetchSize() {
+        return Integer.MIN_VALUE;
+    }
+
 
     public DataType getBooleanType() {
         return BOOLEAN_TYPE;
@@ -135,6 +146,20 @@ public class MySQLDatabase extends AbstractDatabase {
         return new RawSqlStatement("select view_definition from information_schema.views where table_name='" + viewName + "' AND table_schema='" + schemaName + "'");
     }
 
+    protected SqlStatement getViewDefinitionsSql(String schemaName) throws JDBCException {
+        return new RawSqlStatement("select table_name, view_definition from information_schema.views where table_schema='" + schemaName + "'");
+    }
+
+    /**
+     * MySQL keeps identifiers as written and, with lower_case_table_names set, compares them in lower case.
+     */
+    public String foldIdentifierCase(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        return identifier.toLowerCase(Locale.ENGLISH);
+    }
+
     public String escapeTableName(String schemaName, String tableName) {
         if(schemaName != null) {
             return "`" + schemaName + "`.`" + tableName + "`";
@@ -165,7 +190,17 @@ public class MySQLDatabase extends AbstractDatabase {
         return sb.toString();
     }
     
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new MySqlDatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new MySqlDatabaseSnapshot(this, statusListeners, schema, filter);
+    }
+
+    public String getRowHashExpression(List<String> escapedColumnNames) {
+        StringBuffer sb = new StringBuffer("CRC32(CONCAT_WS('|'");
+        for (String columnName : escapedColumnNames) {
+            //suffixing non-null values keeps NULL and '' apart
+            sb.append(", IFNULL(CONCAT(").append(columnName).append(", 'v'), 'n')");
+        }
+        sb.append("))");
+        return sb.toString();
     }
 }
@@ -0,0 +1,219 @@
+package liquibase.database;
+
+import liquibase.ChangeSet;
+import liquibase.RanChangeSet;
+import liquibase.csv.CSVReader;
+import liquibase.csv.CSVWriter;
+import liquibase.util.ISODateFormat;
+import liquibase.util.StringUtils;
+
+import java.io.*;
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Change log history kept in a CSV file instead of the DATABASECHANGELOG table.
+ * The file has a header row and may be a plain export of the table: columns are matched by name and
+ * unknown columns are ignored.  A Database with an offline history generates SQL without a connection.
+ *
+ * @see Database#setOfflineHistory(OfflineChangeLogHistory)
+ */
+public class OfflineChangeLogHistory {
+
+    public static final String[] COLUMNS = new String[]{"ID", "AUTHOR", "FILENAME", "DATEEXECUTED", "MD5SUM", "TAG"};
+
+    private static final String ENCODING = "UTF-8";
+
+    private File file;
+    private boolean tablePresent;
+    private List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+
+    /**
+     * Reads the history from the given file.  A missing file is treated as a database without a change log table.
+     */
+    public OfflineChangeLogHistory(File file) throws IOException {
+        this.file = file;
+        if (file.exists()) {
+            Reader reader = new InputStreamReader(new FileInputStream(file), ENCODING);
+            try {
+                read(reader);
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the history from the given reader.  The history can only be written back with {@link #write(Writer)}.
+     */
+    public OfflineChangeLogHistory(Reader reader) throws IOException {
+        read(reader);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns true if the history was read from an existing export, i.e. the DATABASECHANGELOG table exists.
+     */
+    public boolean isTablePresent() {
+        return tablePresent;
+    }
+
+    /**
+     * Returns the ran change sets in execution order.  The list is live: changes to it are saved with the history.
+     */
+    public List<RanChangeSet> getRanChangeSets() {
+        return ranChangeSets;
+    }
+
+    /**
+     * Replaces the stored md5sum and execution date of a change set that was run again.
+     */
+    public void markReRan(ChangeSet changeSet) {
+        RanChangeSet reRan = new RanChangeSet(changeSet);
+        int index = ranChangeSets.indexOf(reRan);
+        if (index < 0) {
+            ranChangeSets.add(reRan);
+        } else {
+            reRan.setTag(ranChangeSets.get(index).getTag());
+            ranChangeSets.remove(index);
+            ranChangeSets.add(reRan);
+        }
+    }
+
+    /**
+     * Stores a calculated md5sum for a change set that was ran before md5sums were recorded.
+     */
+    public void updateMd5sum(RanChangeSet ranChangeSet, String md5sum) {
+        int index = ranChangeSets.indexOf(ranChangeSet);
+        if (index >= 0) {
+            ranChangeSets.set(index, new RanChangeSet(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor(), md5sum, ranChangeSet.getDateExecuted(), ranChangeSet.getTag()));
+        }
+    }
+
+    /**
+     * Tags the last ran change set.  Returns false if nothing has been ran.
+     */
+    public boolean tag(String tag) {
+        if (ranChangeSets.size() == 0) {
+            return false;
+        }
+        ranChangeSets.get(ranChangeSets.size() - 1).setTag(tag);
+        return true;
+    }
+
+    public boolean doesTagExist(String tag) {
+        for (RanChangeSet ranChangeSet : ranChangeSets) {
+            if (tag.equals(ranChangeSet.getTag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the history back to the file it was read from.  The file is replaced only once it is written completely.
+     */
+    public void save() throws IOException {
+        if (file == null) {
+            throw new IOException("Offline history was not read from a file");
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), ENCODING));
+        try {
+            write(writer);
+        } finally {
+            writer.close();
+        }
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Cannot replace " + file.getAbsolutePath());
+        }
+        if (!tempFile.renameTo(file)) {
+            throw new IOException("Cannot rename " + tempFile.getAbsolutePath() + " to " + file.getAbsolutePath());
+        }
+        tablePresent = true;
+    }
+
+    public void write(Writer writer) throws IOException {
+        ISODateFormat dateFormat = new ISODateFormat();
+        CSVWriter csvWriter = new CSVWriter(writer);
+        csvWriter.writeNext(COLUMNS);
+        for (RanChangeSet ranChangeSet : ranChangeSets) {
+            Date dateExecuted = ranChangeSet.getDateExecuted();
+            csvWriter.writeNext(new String[]{
+                    ranChangeSet.getId(),
+                    ranChangeSet.getAuthor(),
+                    ranChangeSet.getChangeLog(),
+                    dateExecuted == null ? null : dateFormat.format(new Timestamp(dateExecuted.getTime())),
+                    ranChangeSet.getMd5sum(),
+                    ranChangeSet.getTag()
+            });
+        }
+        csvWriter.flush();
+    }
+
+    private void read(Reader reader) throws IOException {
+        CSVReader csvReader = new CSVReader(reader);
+        String[] header = csvReader.readNext();
+        if (header == null) {
+            return;
+        }
+        tablePresent = true;
+
+        Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+        for (int i = 0; i < header.length; i++) {
+            columnIndexes.put(header[i].trim().toUpperCase(), i);
+        }
+        for (String column : new String[]{"ID", "AUTHOR", "FILENAME"}) {
+            if (!columnIndexes.containsKey(column)) {
+                throw new IOException("Change log history is missing the " + column + " column");
+            }
+        }
+
+        ISODateFormat dateFormat = new ISODateFormat();
+        String[] line;
+        while ((line = csvReader.readNext()) != null) {
+            if (line.length == 1 && StringUtils.trimToNull(line[0]) == null) {
+                continue;
+            }
+            String dateExecuted = getValue(line, columnIndexes, "DATEEXECUTED");
+            ranChangeSets.add(new RanChangeSet(getValue(line, columnIndexes, "FILENAME"),
+                    getValue(line, columnIndexes, "ID"),
+                    getValue(line, columnIndexes, "AUTHOR"),
+                    getValue(line, columnIndexes, "MD5SUM"),
+                    dateExecuted == null ? null : parseDate(dateFormat, dateExecuted),
+                    getValue(line, columnIndexes, "TAG")));
+        }
+    }
+
+    private String getValue(String[] line, Map<String, Integer> columnIndexes, String column) {
+        Integer index = columnIndexes.get(column);
+        if (index == null || index >= line.length) {
+            return null;
+        }
+        String value = StringUtils.trimToNull(line[index]);
+        if (value == null || "NULL".equals(value)) {
+            return null;
+        }
+        return value;
+    }
+
+    private Date parseDate(ISODateFormat dateFormat, String value) throws IOException {
+        try {
+            return dateFormat.parse(value);
+        } catch (ParseException e) {
+            try {
+                return Timestamp.valueOf(value);
+            } catch (IllegalArgumentException e1) {
+                throw new IOException("Unexpected DATEEXECUTED value: " + value);
+            }
+        }
+    }
+}
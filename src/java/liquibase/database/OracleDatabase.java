@@ -4,6 +4,7 @@ import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.OracleDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.exception.JDBCException;
 import liquibase.diff.DiffStatusListener;
 
@@ -196,6 +197,10 @@ public class OracleDatabase extends AbstractDatabase {
         return new RawSqlStatement("SELECT TEXT FROM ALL_VIEWS WHERE upper(VIEW_NAME)='"+name.toUpperCase()+"' AND OWNER='"+convertRequestedSchemaToSchema(schemaName)+"'" );
     }
 
+    protected SqlStatement getViewDefinitionsSql(String schemaName) throws JDBCException {
+        return new RawSqlStatement("SELECT VIEW_NAME, TEXT FROM ALL_VIEWS WHERE OWNER='"+convertRequestedSchemaToSchema(schemaName)+"'" );
+    }
+
     public boolean supportsAutoIncrement() {
         return false;
     }
@@ -238,11 +243,16 @@ public class OracleDatabase extends AbstractDatabase {
 //        return returnSet;
 //    }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new OracleDatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new OracleDatabaseSnapshot(this, statusListeners, schema, filter);
     }
 
     public boolean supportsRestrictForeignKeys() {
         return false;
     }
+
+    @Override
+    protected boolean dropTableCascadesForeignKeys() {
+        return true;
+    }
 }
@@ -4,6 +4,7 @@ import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.PostgresDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.exception.JDBCException;
 import liquibase.util.StringUtils;
 import liquibase.diff.DiffStatusListener;
@@ -13,6 +14,7 @@ import java.text.ParseException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.List;
+import java.util.Locale;
 import java.util.ArrayList;
 import java.util.logging.Level;
 
@@ -110,6 +112,18 @@ public class PostgresDatabase extends AbstractDatabase {
         return null;
     }
 
+    /**
+     * The PostgreSQL driver only reads results through a cursor, fetch size rows at a time, when auto-commit is
+     * off, which it is for the LiquiBase connection as DDL runs in transactions here.  With auto-commit on the whole
+     * result set is read into memory.
+     */
+    public Statement createStreamingStatement() throws SQLException {
+        if (getConnection().getAutoCommit()) {
+            log.fine("Auto-commit is on, query results will not be read through a cursor");
+        }
+        return super.createStreamingStatement();
+    }
+
     public DataType getBooleanType() {
         return BOOLEAN_TYPE;
     }
@@ -239,6 +253,10 @@ public class PostgresDatabase extends AbstractDatabase {
         return new RawSqlStatement("select definition from pg_views where viewname='" + name + "' AND schemaname='" + convertRequestedSchemaToSchema(schemaName) + "'");
     }
 
+    protected SqlStatement getViewDefinitionsSql(String schemaName) throws JDBCException {
+        return new RawSqlStatement("select viewname, definition from pg_views where schemaname='" + convertRequestedSchemaToSchema(schemaName) + "'");
+    }
+
 
     public String getColumnType(String columnType, Boolean autoIncrement) {
         if (columnType.startsWith("java.sql.Types.VARCHAR")) { //returns "name" for type
@@ -304,6 +322,17 @@ public class PostgresDatabase extends AbstractDatabase {
         return super.convertRequestedSchemaToCatalog(requestedSchema);
     }
 
+    /**
+     * Postgres folds unquoted identifiers to lower case.
+     */
+    @Override
+    public String foldIdentifierCase(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        return identifier.toLowerCase(Locale.ENGLISH);
+    }
+
     /**
      * @see liquibase.database.AbstractDatabase#escapeTableName(java.lang.String, java.lang.String)
      */
@@ -443,8 +472,8 @@ public class PostgresDatabase extends AbstractDatabase {
         return false;
     }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new PostgresDatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new PostgresDatabaseSnapshot(this, statusListeners, schema, filter);
     }
 
 
@@ -481,4 +510,44 @@ public class PostgresDatabase extends AbstractDatabase {
         return sb.toString();
     }
 
+    public String getRowHashExpression(List<String> escapedColumnNames) {
+        StringBuffer sb = new StringBuffer();
+        for (String columnName : escapedColumnNames) {
+            if (sb.length() > 0) {
+                sb.append(" || '|' || ");
+            }
+            //suffixing non-null values keeps NULL and '' apart
+            sb.append("COALESCE(CAST(").append(columnName).append(" AS TEXT) || 'v', 'n')");
+        }
+        return "CAST(('x' || SUBSTR(MD5(" + sb + "), 1, 8))::bit(32)::int AS BIGINT)";
+    }
+
+    @Override
+    protected boolean dropTableCascadesForeignKeys() {
+        return true;
+    }
+
+    /**
+     * Drops and re-creates the schema when the connected user owns it and has granted nothing on it, so creating it
+     * again gives the same schema back.
+     */
+    @Override
+    protected SqlStatement[] getDropSchemaStatements(String schema) throws JDBCException {
+        String schemaName = convertRequestedSchemaToSchema(schema);
+        int ownedSchemas = getJdbcTemplate().queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM pg_namespace " +
+                "WHERE nspname = '" + escapeStringForDatabase(schemaName) + "' " +
+                "AND pg_get_userbyid(nspowner) = CURRENT_USER " +
+                "AND nspacl IS NULL"));
+        if (ownedSchemas != 1) {
+            return null;
+        }
+        return new SqlStatement[]{
+                new RawSqlStatement("DROP SCHEMA " + quoteIdentifier(schemaName) + " CASCADE"),
+                new RawSqlStatement("CREATE SCHEMA " + quoteIdentifier(schemaName))
+        };
+    }
+
+    private String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replaceAll("\"", "\"\"") + "\"";
+    }
 }
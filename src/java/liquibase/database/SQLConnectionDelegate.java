@@ -1,6 +1,8 @@
 package liquibase.database;
 
 import java.sql.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -10,8 +12,17 @@ import java.util.Map;
  * @author <a href="mailto:csuml@yahoo.co.uk">Paul Keeble</a>
  */
 public class SQLConnectionDelegate implements DatabaseConnection {
+
+    /**
+     * Number of prepared statements kept open by {@link #prepareCachedStatement(String)} unless set otherwise.
+     */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 20;
+
     java.sql.Connection con;
 
+    private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+    private Map<String, PreparedStatement> statementCache = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true);
+
     public SQLConnectionDelegate(java.sql.Connection connection) {
         this.con = connection;
     }
@@ -31,7 +42,11 @@ public class SQLConnectionDelegate implements DatabaseConnection {
 
     public void close() throws SQLException {
         rollback();
-        con.close();
+        try {
+            clearStatementCache();
+        } finally {
+            con.close();
+        }
     }
 
     public void commit() throws SQLException {
@@ -143,6 +158,65 @@ public class SQLConnectionDelegate implements DatabaseConnection {
         return con.prepareStatement(sql);
     }
 
+    /**
+     * Statements are cached by SQL text and the least recently used one is closed when the cache is full.
+     */
+    public PreparedStatement prepareCachedStatement(String sql) throws SQLException {
+        PreparedStatement statement = statementCache.get(sql);
+        if (statement != null) {
+            return statement;
+        }
+
+        statement = con.prepareStatement(sql);
+        statementCache.put(sql, statement);
+        if (statementCache.size() > statementCacheSize) {
+            Iterator<PreparedStatement> leastRecentlyUsed = statementCache.values().iterator();
+            PreparedStatement evicted = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            evicted.close();
+        }
+        return statement;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Sets the number of prepared statements kept open for reuse, which must be at least one.  Statements over the new
+     * size are closed.
+     */
+    public void setStatementCacheSize(int statementCacheSize) throws SQLException {
+        if (statementCacheSize < 1) {
+            throw new IllegalArgumentException("Statement cache size must be at least 1, not " + statementCacheSize);
+        }
+        this.statementCacheSize = statementCacheSize;
+        Iterator<PreparedStatement> leastRecentlyUsed = statementCache.values().iterator();
+        while (statementCache.size() > statementCacheSize) {
+            PreparedStatement evicted = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            evicted.close();
+        }
+    }
+
+    /**
+     * Closes all cached prepared statements.
+     */
+    public void clearStatementCache() throws SQLException {
+        SQLException closeException = null;
+        for (PreparedStatement statement : statementCache.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                closeException = e;
+            }
+        }
+        statementCache.clear();
+        if (closeException != null) {
+            throw closeException;
+        }
+    }
+
     public void releaseSavepoint(Savepoint savepoint) throws SQLException {
         con.releaseSavepoint(savepoint);
     }
@@ -5,20 +5,13 @@ import java.sql.SQLException;
 import java.util.*;
 
 import liquibase.change.ColumnConfig;
-import liquibase.change.CreateTableChange;
 //import liquibase.database.sql.CopyRowsStatement;
-import liquibase.database.sql.CopyRowsStatement;
-import liquibase.database.sql.CreateIndexStatement;
-import liquibase.database.sql.DropTableStatement;
-import liquibase.database.sql.ReindexStatement;
 //import liquibase.database.sql.ReindexStatement;
-import liquibase.database.sql.RenameTableStatement;
 import liquibase.database.sql.SqlStatement;
-import liquibase.database.structure.Column;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.Index;
 import liquibase.database.structure.SQLiteDatabaseSnapshot;
-import liquibase.database.structure.Table;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.diff.DiffStatusListener;
 import liquibase.exception.JDBCException;
 import liquibase.exception.UnsupportedChangeException;
@@ -28,6 +21,8 @@ public class SQLiteDatabase extends AbstractDatabase {
 
     private Set<String> systemTables = new HashSet<String>();
 
+    private SQLiteTableRebuildPlanner tableRebuildPlanner;
+
     {
         systemTables.add("sqlite_sequence");
     }
@@ -157,78 +152,27 @@ public class SQLiteDatabase extends AbstractDatabase {
         return type;
     }
 
+    /**
+     * Returns the statements rebuilding the table with the given alteration, or defers the rebuild to the table
+     * rebuild planner when one is set.
+     */
     public static Collection<SqlStatement> getAlterTableStatements(
             AlterTableVisitor alterTableVisitor,
             Database database, String schemaName, String tableName)
             throws UnsupportedChangeException, JDBCException {
 
-        Collection<SqlStatement> statements = new Vector<SqlStatement>();
-
-        DatabaseSnapshot snapshot = new SQLiteDatabaseSnapshot(database);
-        Table table = snapshot.getTable(tableName);
-
-        List<ColumnConfig> createColumns = new Vector<ColumnConfig>();
-        List<ColumnConfig> copyColumns = new Vector<ColumnConfig>();
-        if (table != null) {
-            for (Column column : table.getColumns()) {
-                ColumnConfig new_column = new ColumnConfig(column);
-                if (alterTableVisitor.createThisColumn(new_column)) {
-                    createColumns.add(new_column);
-                }
-                ColumnConfig copy_column = new ColumnConfig(column);
-                if (alterTableVisitor.copyThisColumn(copy_column)) {
-                    copyColumns.add(copy_column);
-                }
-            }
-        }
-        for (ColumnConfig column : alterTableVisitor.getColumnsToAdd()) {
-            ColumnConfig new_column = new ColumnConfig(column);
-            if (alterTableVisitor.createThisColumn(new_column)) {
-                createColumns.add(new_column);
-            }
-            ColumnConfig copy_column = new ColumnConfig(column);
-            if (alterTableVisitor.copyThisColumn(copy_column)) {
-                copyColumns.add(copy_column);
-            }
-        }
-
-        List<Index> newIndices = new Vector<Index>();
-        for (Index index : snapshot.getIndexes()) {
-            if (index.getTable().getName().equalsIgnoreCase(tableName)) {
-                if (alterTableVisitor.createThisIndex(index)) {
-                    newIndices.add(index);
-                }
-            }
+        if (database instanceof SQLiteDatabase && ((SQLiteDatabase) database).getTableRebuildPlanner() != null) {
+            return ((SQLiteDatabase) database).getTableRebuildPlanner().defer(alterTableVisitor, schemaName, tableName);
         }
+        return SQLiteTableRebuildPlanner.generateStatements(database, schemaName, tableName, Arrays.asList(alterTableVisitor));
+    }
 
-        // rename table
-        String temp_table_name = tableName + "_temporary";
-        statements.add(new RenameTableStatement(schemaName, tableName, temp_table_name));
-        // create temporary table
-        CreateTableChange ct_change_tmp = new CreateTableChange();
-        ct_change_tmp.setSchemaName(schemaName);
-        ct_change_tmp.setTableName(tableName);
-        for (ColumnConfig column : createColumns) {
-            ct_change_tmp.addColumn(column);
-        }
-        statements.addAll(Arrays.asList(ct_change_tmp.generateStatements(database)));
-        // copy rows to temporary table
-        statements.add(new CopyRowsStatement(temp_table_name, tableName, copyColumns));
-        // delete original table
-        statements.add(new DropTableStatement(schemaName, temp_table_name, false));
-        // validate indices
-        statements.add(new ReindexStatement(schemaName, tableName));
-        // add remaining indices
-        for (Index index_config : newIndices) {
-            statements.add(new CreateIndexStatement(
-                    index_config.getName(),
-                    schemaName, tableName,
-                    index_config.isUnique(),
-                    index_config.getColumns().
-                            toArray(new String[index_config.getColumns().size()])));
-        }
+    public SQLiteTableRebuildPlanner getTableRebuildPlanner() {
+        return tableRebuildPlanner;
+    }
 
-        return statements;
+    public void setTableRebuildPlanner(SQLiteTableRebuildPlanner tableRebuildPlanner) {
+        this.tableRebuildPlanner = tableRebuildPlanner;
     }
 
     public String getConnectionUsername() throws JDBCException {
@@ -262,7 +206,17 @@ public class SQLiteDatabase extends AbstractDatabase {
         public boolean createThisIndex(Index index);
     }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
+    /**
+     * A change that on SQLite only rebuilds its table, so its rebuild can be merged with the rebuilds of the
+     * changes before it on the same table.
+     */
+    public interface TableRebuildChange {
+        public String getSchemaName();
+
+        public String getTableName();
+    }
+
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
         return new SQLiteDatabaseSnapshot(this);
     }
 
@@ -0,0 +1,189 @@
+package liquibase.database;
+
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.CreateTableChange;
+import liquibase.database.sql.*;
+import liquibase.database.sql.visitor.SqlVisitor;
+import liquibase.database.structure.Column;
+import liquibase.database.structure.DatabaseSnapshot;
+import liquibase.database.structure.Index;
+import liquibase.database.structure.SQLiteDatabaseSnapshot;
+import liquibase.database.structure.Table;
+import liquibase.exception.JDBCException;
+import liquibase.exception.UnsupportedChangeException;
+
+import java.util.*;
+
+/**
+ * SQLite cannot alter most of a table, so changes rebuild it: rename, create, copy all rows, drop.  The planner
+ * collects the alterations of consecutive changes on the same table and rebuilds the table once, from one snapshot,
+ * with all of them applied.
+ * <p/>
+ * While a planner is set on the SQLiteDatabase, {@link SQLiteDatabase#getAlterTableStatements} defers the rebuild
+ * to the planner.  The caller must {@link #flush(List)} before any change that is not a
+ * {@link SQLiteDatabase.TableRebuildChange} on the pending table, and after the last change.
+ */
+public class SQLiteTableRebuildPlanner {
+
+    private Database database;
+
+    private String pendingSchemaName;
+    private String pendingTableName;
+    private List<SQLiteDatabase.AlterTableVisitor> pendingVisitors = new ArrayList<SQLiteDatabase.AlterTableVisitor>();
+
+    public SQLiteTableRebuildPlanner(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Returns true if the change can run without flushing the pending rebuild first.
+     */
+    public boolean canDefer(Change change) {
+        if (pendingVisitors.size() == 0) {
+            return true;
+        }
+        if (!(change instanceof SQLiteDatabase.TableRebuildChange)) {
+            return false;
+        }
+        SQLiteDatabase.TableRebuildChange rebuildChange = (SQLiteDatabase.TableRebuildChange) change;
+        return isPendingTable(rebuildChange.getSchemaName(), rebuildChange.getTableName());
+    }
+
+    /**
+     * Adds the alteration to the pending rebuild.  If another table is pending, its rebuild statements are returned
+     * so they run first.
+     */
+    public Collection<SqlStatement> defer(SQLiteDatabase.AlterTableVisitor alterTableVisitor, String schemaName, String tableName) throws UnsupportedChangeException, JDBCException {
+        Collection<SqlStatement> statements = new ArrayList<SqlStatement>();
+        if (pendingVisitors.size() > 0 && !isPendingTable(schemaName, tableName)) {
+            statements.addAll(generatePendingStatements());
+        }
+
+        pendingSchemaName = schemaName;
+        pendingTableName = tableName;
+        pendingVisitors.add(alterTableVisitor);
+        return statements;
+    }
+
+    /**
+     * Runs the pending rebuild, if any.
+     */
+    public void flush(List<SqlVisitor> sqlVisitors) throws UnsupportedChangeException, JDBCException {
+        for (SqlStatement statement : generatePendingStatements()) {
+            database.getJdbcTemplate().execute(statement, sqlVisitors);
+        }
+    }
+
+    private Collection<SqlStatement> generatePendingStatements() throws UnsupportedChangeException, JDBCException {
+        if (pendingVisitors.size() == 0) {
+            return new ArrayList<SqlStatement>();
+        }
+        List<SQLiteDatabase.AlterTableVisitor> visitors = new ArrayList<SQLiteDatabase.AlterTableVisitor>(pendingVisitors);
+        pendingVisitors.clear();
+        return generateStatements(database, pendingSchemaName, pendingTableName, visitors);
+    }
+
+    private boolean isPendingTable(String schemaName, String tableName) {
+        return pendingTableName.equalsIgnoreCase(tableName)
+                && (pendingSchemaName == null ? schemaName == null : pendingSchemaName.equalsIgnoreCase(schemaName));
+    }
+
+    /**
+     * Returns the statements rebuilding the table with all the alterations applied in order.
+     */
+    public static Collection<SqlStatement> generateStatements(Database database, String schemaName, String tableName, List<SQLiteDatabase.AlterTableVisitor> alterTableVisitors) throws UnsupportedChangeException, JDBCException {
+        DatabaseSnapshot snapshot = new SQLiteDatabaseSnapshot(database);
+        Table table = snapshot.getTable(tableName);
+
+        // each column remembers the column of the existing table its rows are copied from
+        List<PlannedColumn> columns = new ArrayList<PlannedColumn>();
+        if (table != null) {
+            for (Column column : table.getColumns()) {
+                columns.add(new PlannedColumn(column.getName(), new ColumnConfig(column)));
+            }
+        }
+
+        List<Index> indexes = new ArrayList<Index>();
+        for (Index index : snapshot.getIndexes()) {
+            if (index.getTable().getName().equalsIgnoreCase(tableName)) {
+                indexes.add(index);
+            }
+        }
+
+        for (SQLiteDatabase.AlterTableVisitor alterTableVisitor : alterTableVisitors) {
+            List<PlannedColumn> alteredColumns = new ArrayList<PlannedColumn>();
+            for (PlannedColumn column : columns) {
+                ColumnConfig newColumn = new ColumnConfig(column.config);
+                if (alterTableVisitor.createThisColumn(newColumn)) {
+                    String source = alterTableVisitor.copyThisColumn(new ColumnConfig(column.config)) ? column.source : null;
+                    alteredColumns.add(new PlannedColumn(source, newColumn));
+                }
+            }
+            for (ColumnConfig column : alterTableVisitor.getColumnsToAdd()) {
+                ColumnConfig newColumn = new ColumnConfig(column);
+                if (alterTableVisitor.createThisColumn(newColumn)) {
+                    alteredColumns.add(new PlannedColumn(null, newColumn));
+                }
+            }
+            columns = alteredColumns;
+
+            for (Iterator<Index> iterator = indexes.iterator(); iterator.hasNext();) {
+                if (!alterTableVisitor.createThisIndex(iterator.next())) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        List<ColumnConfig> copyColumns = new ArrayList<ColumnConfig>();
+        List<ColumnConfig> targetColumns = new ArrayList<ColumnConfig>();
+        for (PlannedColumn column : columns) {
+            if (column.source != null) {
+                ColumnConfig copyColumn = new ColumnConfig();
+                copyColumn.setName(column.source);
+                copyColumns.add(copyColumn);
+                targetColumns.add(column.config);
+            }
+        }
+
+        Collection<SqlStatement> statements = new ArrayList<SqlStatement>();
+        // rename table
+        String temp_table_name = tableName + "_temporary";
+        statements.add(new RenameTableStatement(schemaName, tableName, temp_table_name));
+        // create temporary table
+        CreateTableChange ct_change_tmp = new CreateTableChange();
+        ct_change_tmp.setSchemaName(schemaName);
+        ct_change_tmp.setTableName(tableName);
+        for (PlannedColumn column : columns) {
+            ct_change_tmp.addColumn(column.config);
+        }
+        statements.addAll(Arrays.asList(ct_change_tmp.generateStatements(database)));
+        // copy rows to temporary table
+        statements.add(new CopyRowsStatement(temp_table_name, tableName, copyColumns, targetColumns));
+        // delete original table
+        statements.add(new DropTableStatement(schemaName, temp_table_name, false));
+        // validate indices
+        statements.add(new ReindexStatement(schemaName, tableName));
+        // add remaining indices
+        for (Index index_config : indexes) {
+            statements.add(new CreateIndexStatement(
+                    index_config.getName(),
+                    schemaName, tableName,
+                    index_config.isUnique(),
+                    index_config.getColumns().
+                            toArray(new String[index_config.getColumns().size()])));
+        }
+
+        return statements;
+    }
+
+    private static class PlannedColumn {
+        private String source;
+        private ColumnConfig config;
+
+        private PlannedColumn(String source, ColumnConfig config) {
+            this.source = source;
+            this.config = config;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import liquibase.database.sql.RawSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.SybaseASADatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.diff.DiffStatusListener;
 import liquibase.exception.JDBCException;
 
@@ -132,13 +133,13 @@ public class SybaseASADatabase extends AbstractDatabase {
 	}
 
 	/* (non-Javadoc)
-	 * @see liquibase.database.AbstractDatabase#createDatabaseSnapshot(java.lang.String, java.util.Set)
+	 * @see liquibase.database.AbstractDatabase#createDatabaseSnapshot(java.lang.String, java.util.Set, liquibase.database.structure.SnapshotFilter)
 	 */
 	@Override
 	public DatabaseSnapshot createDatabaseSnapshot(String schema,
-			Set<DiffStatusListener> statusListeners) throws JDBCException {
+			Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
 		
-		return new SybaseASADatabaseSnapshot(this, statusListeners, schema);
+		return new SybaseASADatabaseSnapshot(this, statusListeners, schema, filter);
 	}
 
 	@Override
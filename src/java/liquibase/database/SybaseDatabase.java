@@ -5,6 +5,7 @@ import liquibase.database.sql.SqlStatement;
 import liquibase.exception.JDBCException;
 
 import java.sql.Connection;
+import java.util.List;
 
 public class SybaseDatabase extends MSSQLDatabase {
 
@@ -101,4 +102,10 @@ public class SybaseDatabase extends MSSQLDatabase {
         return true;
     }
 
+    /**
+     * Sybase has no BINARY_CHECKSUM, rows are hashed by the client
+     */
+    public String getRowHashExpression(List<String> escapedColumnNames) {
+        return null;
+    }
 }
@@ -3,6 +3,7 @@ package liquibase.database;
 import liquibase.exception.JDBCException;
 import liquibase.database.structure.DatabaseSnapshot;
 import liquibase.database.structure.UnsupportedDatabaseSnapshot;
+import liquibase.database.structure.SnapshotFilter;
 import liquibase.diff.DiffStatusListener;
 
 import java.sql.Connection;
@@ -182,7 +183,7 @@ public class UnsupportedDatabase extends AbstractDatabase {
         return false;
     }
 
-    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners) throws JDBCException {
-        return new UnsupportedDatabaseSnapshot(this, statusListeners, schema);
+    public DatabaseSnapshot createDatabaseSnapshot(String schema, Set<DiffStatusListener> statusListeners, SnapshotFilter filter) throws JDBCException {
+        return new UnsupportedDatabaseSnapshot(this, statusListeners, schema, filter);
     }
 }
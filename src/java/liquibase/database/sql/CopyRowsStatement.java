@@ -12,13 +12,24 @@ public class CopyRowsStatement implements SqlStatement {
 	private String sourceTable;
 	private String targetTable;
 	private List<ColumnConfig> copyColumns;
+	private List<ColumnConfig> targetColumns;
 	
 	
 	public CopyRowsStatement(String sourceTable, String targetTable, 
 			List<ColumnConfig> copyColumns) {
+		this(sourceTable, targetTable, copyColumns, null);
+	}
+
+	/**
+	 * Copies the copyColumns of the source table into the targetColumns at the same positions, which allows
+	 * copying into renamed columns and leaving new columns to their defaults.
+	 */
+	public CopyRowsStatement(String sourceTable, String targetTable, 
+			List<ColumnConfig> copyColumns, List<ColumnConfig> targetColumns) {
 		this.sourceTable = sourceTable;
 		this.targetTable = targetTable;
 		this.copyColumns = copyColumns;
+		this.targetColumns = targetColumns;
 	}
 	
 	public String getSourceTable() {
@@ -33,6 +44,10 @@ public class CopyRowsStatement implements SqlStatement {
 		return this.copyColumns;
 	}
 
+	public List<ColumnConfig> getTargetColumns() {
+		return this.targetColumns;
+	}
+
 	public String getEndDelimiter(Database database) {
 		return ";";
 	}
@@ -44,7 +59,18 @@ public class CopyRowsStatement implements SqlStatement {
 		}
 		StringBuffer sql = new StringBuffer();
 		if (database instanceof SQLiteDatabase) {
-			sql.append("INSERT INTO `"+getTargetTable()+"` SELECT ");
+			sql.append("INSERT INTO `"+getTargetTable()+"` ");
+			if (getTargetColumns() != null) {
+				sql.append("(");
+				for (int i=0;i<getTargetColumns().size();i++) {
+					if (i>0) {
+						sql.append(",");
+					}
+					sql.append("`"+getTargetColumns().get(i).getName()+"`");
+				}
+				sql.append(") ");
+			}
+			sql.append("SELECT ");
 			for (int i=0;i<getCopyColumns().size();i++) {
 				ColumnConfig column = getCopyColumns().get(i);
 				if (i>0) {
@@ -2,10 +2,13 @@ package liquibase.database.sql.visitor;
 
 import liquibase.database.Database;
 
+import java.util.regex.Pattern;
+
 public class RegExpReplaceSqlVisitor extends AbstractSqlVisitor {
 
     private String replace;
     private String with;
+    private Pattern pattern;
 
     public String getTagName() {
         return "regExpReplace";
@@ -17,6 +20,7 @@ public class RegExpReplaceSqlVisitor extends AbstractSqlVisitor {
 
     public void setReplace(String replace) {
         this.replace = replace;
+        this.pattern = null;
     }
 
     public String getWith() {
@@ -28,6 +32,18 @@ public class RegExpReplaceSqlVisitor extends AbstractSqlVisitor {
     }
 
     public String modifySql(String sql, Database database) {
-        return sql.replaceAll(getReplace(), getWith());
+        return getPattern().matcher(sql).replaceAll(getWith());
+    }
+
+    /**
+     * Returns the compiled replace expression, compiling it the first time it is used.
+     */
+    public Pattern getPattern() {
+        Pattern pattern = this.pattern;
+        if (pattern == null) {
+            pattern = Pattern.compile(getReplace());
+            this.pattern = pattern;
+        }
+        return pattern;
     }
 }
@@ -0,0 +1,208 @@
+package liquibase.database.sql.visitor;
+
+import liquibase.database.Database;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The SqlVisitors of a change set compiled for one database.  Visitors that do not apply to the database are
+ * dropped up front, and runs of literal replace/append/prepend visitors are applied to a statement in a single
+ * scan instead of once per visitor.
+ * <p/>
+ * A pipeline is an immutable list of the applicable visitors, so it can be passed anywhere a visitor list is
+ * expected.  JdbcTemplate recognizes it and does not compile the visitors again for each statement.
+ */
+public final class SqlVisitorPipeline extends AbstractList<SqlVisitor> {
+
+    private final Database database;
+    private final List<SqlVisitor> visitors;
+    private final Step[] steps;
+
+    private SqlVisitorPipeline(Database database, List<SqlVisitor> visitors) {
+        this.database = database;
+        this.visitors = Collections.unmodifiableList(visitors);
+
+        List<Step> steps = new ArrayList<Step>();
+        LiteralStep literalStep = null;
+        for (SqlVisitor visitor : visitors) {
+            if (isLiteral(visitor)) {
+                if (literalStep == null || !literalStep.add(visitor)) {
+                    literalStep = new LiteralStep();
+                    literalStep.add(visitor);
+                    steps.add(literalStep);
+                }
+            } else {
+                literalStep = null;
+                steps.add(new VisitorStep(visitor));
+            }
+        }
+        this.steps = steps.toArray(new Step[steps.size()]);
+    }
+
+    /**
+     * Returns the pipeline for the given visitors on the given database.  A pipeline already compiled for the
+     * database is returned as-is.
+     */
+    public static SqlVisitorPipeline compile(List<SqlVisitor> sqlVisitors, Database database) {
+        if (sqlVisitors instanceof SqlVisitorPipeline && ((SqlVisitorPipeline) sqlVisitors).isCompiledFor(database)) {
+            return (SqlVisitorPipeline) sqlVisitors;
+        }
+
+        List<SqlVisitor> applicable = new ArrayList<SqlVisitor>();
+        if (sqlVisitors != null) {
+            for (SqlVisitor visitor : sqlVisitors) {
+                if (visitor.isApplicable(database)) {
+                    applicable.add(visitor);
+                }
+            }
+        }
+        return new SqlVisitorPipeline(database, applicable);
+    }
+
+    public boolean isCompiledFor(Database database) {
+        return this.database == database;
+    }
+
+    /**
+     * Runs the statement through every visitor, in order.
+     */
+    public String apply(String sql) {
+        String returnSql = sql;
+        for (Step step : steps) {
+            returnSql = step.apply(returnSql, database);
+        }
+        return returnSql;
+    }
+
+    public SqlVisitor get(int index) {
+        return visitors.get(index);
+    }
+
+    public int size() {
+        return visitors.size();
+    }
+
+    private static boolean isLiteral(SqlVisitor visitor) {
+        if (visitor instanceof ReplaceSqlVisitor) {
+            ReplaceSqlVisitor replaceVisitor = (ReplaceSqlVisitor) visitor;
+            return replaceVisitor.getReplace() != null && replaceVisitor.getReplace().length() > 0 && replaceVisitor.getWith() != null;
+        }
+        return (visitor instanceof AppendSqlVisitor && ((AppendSqlVisitor) visitor).getValue() != null)
+                || (visitor instanceof PrependSqlVisitor && ((PrependSqlVisitor) visitor).getValue() != null);
+    }
+
+    /**
+     * Returns true if the two strings can be part of each other's match: one contains the other or the end of one
+     * is the start of the other.
+     */
+    private static boolean overlaps(String a, String b) {
+        if (a.indexOf(b) >= 0 || b.indexOf(a) >= 0) {
+            return true;
+        }
+        int length = Math.min(a.length(), b.length());
+        for (int i = 1; i < length; i++) {
+            if (a.endsWith(b.substring(0, i)) || b.endsWith(a.substring(0, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private interface Step {
+        String apply(String sql, Database database);
+    }
+
+    private static class VisitorStep implements Step {
+        private final SqlVisitor visitor;
+
+        private VisitorStep(SqlVisitor visitor) {
+            this.visitor = visitor;
+        }
+
+        public String apply(String sql, Database database) {
+            return visitor.modifySql(sql, database);
+        }
+    }
+
+    /**
+     * Literal replacements followed by prepends/appends, done in one scan of the statement.  Replacements are only
+     * combined when no replacement can create, hide or overlap a match of another one, so the result is the same
+     * as applying the visitors one after another.
+     */
+    private static class LiteralStep implements Step {
+        private final List<String> targets = new ArrayList<String>();
+        private final List<String> replacements = new ArrayList<String>();
+        private String prefix = "";
+        private String suffix = "";
+
+        private String[] targetArray;
+        private String[] replacementArray;
+
+        /**
+         * Adds the visitor to this step, or returns false if it has to go in a step of its own.
+         */
+        private boolean add(SqlVisitor visitor) {
+            if (visitor instanceof AppendSqlVisitor) {
+                suffix = suffix + ((AppendSqlVisitor) visitor).getValue();
+            } else if (visitor instanceof PrependSqlVisitor) {
+                prefix = ((PrependSqlVisitor) visitor).getValue() + prefix;
+            } else {
+                ReplaceSqlVisitor replaceVisitor = (ReplaceSqlVisitor) visitor;
+                String target = replaceVisitor.getReplace();
+                String replacement = replaceVisitor.getWith();
+                if (prefix.length() > 0 || suffix.length() > 0) {
+                    return false;
+                }
+                for (int i = 0; i < targets.size(); i++) {
+                    if (overlaps(targets.get(i), target) || overlaps(replacements.get(i), target)) {
+                        return false;
+                    }
+                }
+                targets.add(target);
+                replacements.add(replacement);
+            }
+            targetArray = targets.toArray(new String[targets.size()]);
+            replacementArray = replacements.toArray(new String[replacements.size()]);
+            return true;
+        }
+
+        public String apply(String sql, Database database) {
+            StringBuffer buffer = new StringBuffer(prefix.length() + sql.length() + suffix.length());
+            buffer.append(prefix);
+
+            int[] nextMatch = new int[targetArray.length];
+            for (int i = 0; i < targetArray.length; i++) {
+                nextMatch[i] = sql.indexOf(targetArray[i]);
+            }
+
+            int position = 0;
+            while (true) {
+                int matched = -1;
+                for (int i = 0; i < nextMatch.length; i++) {
+                    if (nextMatch[i] >= 0 && (matched < 0 || nextMatch[i] < nextMatch[matched])) {
+                        matched = i;
+                    }
+                }
+                if (matched < 0) {
+                    break;
+                }
+
+                int matchStart = nextMatch[matched];
+                buffer.append(sql, position, matchStart).append(replacementArray[matched]);
+                position = matchStart + targetArray[matched].length();
+                for (int i = 0; i < nextMatch.length; i++) {
+                    if (nextMatch[i] >= 0 && nextMatch[i] < position) {
+                        nextMatch[i] = sql.indexOf(targetArray[i], position);
+                    }
+                }
+            }
+            buffer.append(sql, position, sql.length());
+
+            buffer.append(suffix);
+            return buffer.toString();
+        }
+    }
+}
@@ -25,4 +25,8 @@ public class CacheDatabaseSnapshot extends SqlDatabaseSnapshot {
     public CacheDatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema) throws JDBCException {
         super(database, statusListeners, requestedSchema);
     }
+
+    public CacheDatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema, SnapshotFilter filter) throws JDBCException {
+        super(database, statusListeners, requestedSchema, filter);
+    }
 }
\ No newline at end of file
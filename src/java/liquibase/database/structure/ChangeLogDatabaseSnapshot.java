@@ -0,0 +1,757 @@
+package liquibase.database.structure;
+
+import liquibase.ChangeSet;
+import liquibase.DatabaseChangeLog;
+import liquibase.change.*;
+import liquibase.change.custom.CustomChangeWrapper;
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.log.LogFactory;
+import liquibase.parser.ChangeLogIterator;
+import liquibase.parser.filter.ContextChangeSetFilter;
+import liquibase.parser.filter.DbmsChangeSetFilter;
+import liquibase.parser.visitor.ChangeSetVisitor;
+import liquibase.util.StringUtils;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Types;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * A snapshot of the structure a change log creates, built by applying its changes to an in-memory model instead of
+ * running them against a database.  Lets a change log be compared with a database, or with another change log,
+ * without creating and updating a database first.
+ * <p/>
+ * Only changes to tables, columns, views, keys, indexes and sequences are modeled.  Data changes are skipped, and
+ * changes the structure can not be known from, such as sql, sqlFile and custom changes, are skipped with a warning.
+ * Column types are kept as written in the change log, so they are not compared with the types a database reports.
+ * Views are modeled without their columns, and foreign key rules not given in the change log are left unknown, so
+ * {@link liquibase.diff.Diff} does not compare those.
+ */
+public class ChangeLogDatabaseSnapshot implements DatabaseSnapshot {
+
+    private static final Logger log = LogFactory.getLogger();
+
+    private Database database;
+
+    private Map<String, Table> tablesMap = new LinkedHashMap<String, Table>();
+    private Map<String, View> viewsMap = new LinkedHashMap<String, View>();
+    private Map<String, PrimaryKey> primaryKeysMap = new LinkedHashMap<String, PrimaryKey>();
+    private Map<String, Sequence> sequencesMap = new LinkedHashMap<String, Sequence>();
+    private List<ForeignKey> foreignKeyList = new ArrayList<ForeignKey>();
+    private List<Index> indexList = new ArrayList<Index>();
+    private List<UniqueConstraint> uniqueConstraintList = new ArrayList<UniqueConstraint>();
+
+    private Set<Table> tables;
+    private Set<View> views;
+    private Set<Column> columns;
+    private Set<ForeignKey> foreignKeys;
+    private Set<Index> indexes;
+    private Set<PrimaryKey> primaryKeys;
+    private Set<Sequence> sequences;
+    private Set<UniqueConstraint> uniqueConstraints;
+
+    private NameIndex<Table> tableIndex;
+    private NameIndex<View> viewIndex;
+    private NameIndex<Column> columnIndex;
+    private NameIndex<ForeignKey> foreignKeyIndex;
+    private NameIndex<Index> indexIndex;
+    private NameIndex<PrimaryKey> primaryKeyIndex;
+    private NameIndex<PrimaryKey> primaryKeyTableIndex;
+    private NameIndex<Sequence> sequenceIndex;
+    private NameIndex<UniqueConstraint> uniqueConstraintIndex;
+
+    /**
+     * Creates a snapshot of the structure the change sets of the change log for the given contexts create.
+     *
+     * @param database the database the change log is written for, which does not need a connection.  Change sets
+     * for other databases are skipped.
+     */
+    public ChangeLogDatabaseSnapshot(DatabaseChangeLog changeLog, Database database, String contexts) throws LiquibaseException {
+        this.database = database;
+
+        ChangeLogIterator iterator = new ChangeLogIterator(changeLog, new ContextChangeSetFilter(contexts), new DbmsChangeSetFilter(database));
+        iterator.run(new ChangeSetVisitor() {
+            public Direction getDirection() {
+                return Direction.FORWARD;
+            }
+
+            public void visit(ChangeSet changeSet, Database database) throws LiquibaseException {
+                for (Change change : changeSet.getChanges()) {
+                    apply(change);
+                }
+            }
+        }, database);
+
+        buildSnapshot();
+    }
+
+    /**
+     * Creates a snapshot of the structure the given changes create, applied in order.
+     */
+    public ChangeLogDatabaseSnapshot(List<Change> changes, Database database) {
+        this.database = database;
+        for (Change change : changes) {
+            apply(change);
+        }
+        buildSnapshot();
+    }
+
+    private void apply(Change change) {
+        if (change instanceof CreateTableChange) {
+            CreateTableChange createTable = (CreateTableChange) change;
+            Table table = new Table(createTable.getTableName());
+            table.setSchema(createTable.getSchemaName());
+            table.setRemarks(createTable.getRemarks());
+            table.setDatabase(database);
+            tablesMap.put(key(table.getName()), table);
+            addColumns(table, createTable.getColumns());
+        } else if (change instanceof AddColumnChange) {
+            AddColumnChange addColumn = (AddColumnChange) change;
+            Table table = findTable(addColumn.getTableName(), change);
+            if (table != null) {
+                addColumns(table, addColumn.getColumns());
+            }
+        } else if (change instanceof DropColumnChange) {
+            DropColumnChange dropColumn = (DropColumnChange) change;
+            dropColumn(dropColumn.getTableName(), dropColumn.getColumnName(), change);
+        } else if (change instanceof RenameColumnChange) {
+            RenameColumnChange renameColumn = (RenameColumnChange) change;
+            Column column = findColumn(renameColumn.getTableName(), renameColumn.getOldColumnName(), change);
+            if (column != null) {
+                renameColumnReferences(column.getTable(), column.getName(), renameColumn.getNewColumnName());
+                column.setName(renameColumn.getNewColumnName());
+            }
+        } else if (change instanceof ModifyColumnChange) {
+            ModifyColumnChange modifyColumn = (ModifyColumnChange) change;
+            for (ColumnConfig columnConfig : modifyColumn.getColumns()) {
+                Column column = findColumn(modifyColumn.getTableName(), columnConfig.getName(), change);
+                if (column != null && columnConfig.getType() != null) {
+                    setType(column, columnConfig.getType());
+                }
+            }
+        } else if (change instanceof AddNotNullConstraintChange) {
+            AddNotNullConstraintChange addNotNull = (AddNotNullConstraintChange) change;
+            Column column = findColumn(addNotNull.getTableName(), addNotNull.getColumnName(), change);
+            if (column != null) {
+                column.setNullable(false);
+            }
+        } else if (change instanceof DropNotNullConstraintChange) {
+            DropNotNullConstraintChange dropNotNull = (DropNotNullConstraintChange) change;
+            Column column = findColumn(dropNotNull.getTableName(), dropNotNull.getColumnName(), change);
+            if (column != null) {
+                column.setNullable(true);
+            }
+        } else if (change instanceof AddDefaultValueChange) {
+            AddDefaultValueChange addDefault = (AddDefaultValueChange) change;
+            Column column = findColumn(addDefault.getTableName(), addDefault.getColumnName(), change);
+            if (column != null) {
+                column.setDefaultValue(getDefaultValue(addDefault));
+            }
+        } else if (change instanceof DropDefaultValueChange) {
+            DropDefaultValueChange dropDefault = (DropDefaultValueChange) change;
+            Column column = findColumn(dropDefault.getTableName(), dropDefault.getColumnName(), change);
+            if (column != null) {
+                column.setDefaultValue(null);
+            }
+        } else if (change instanceof AddAutoIncrementChange) {
+            AddAutoIncrementChange addAutoIncrement = (AddAutoIncrementChange) change;
+            Column column = findColumn(addAutoIncrement.getTableName(), addAutoIncrement.getColumnName(), change);
+            if (column != null) {
+                column.setAutoIncrement(true);
+            }
+        } else if (change instanceof MergeColumnChange) {
+            MergeColumnChange mergeColumns = (MergeColumnChange) change;
+            Table table = findTable(mergeColumns.getTableName(), change);
+            if (table != null) {
+                addColumn(table, mergeColumns.getFinalColumnName(), mergeColumns.getFinalColumnType());
+                dropColumn(mergeColumns.getTableName(), mergeColumns.getColumn1Name(), change);
+                dropColumn(mergeColumns.getTableName(), mergeColumns.getColumn2Name(), change);
+            }
+        } else if (change instanceof RenameTableChange) {
+            RenameTableChange renameTable = (RenameTableChange) change;
+            Table table = findTable(renameTable.getOldTableName(), change);
+            if (table != null) {
+                renameTable(table, renameTable.getNewTableName());
+            }
+        } else if (change instanceof DropTableChange) {
+            DropTableChange dropTable = (DropTableChange) change;
+            Table table = findTable(dropTable.getTableName(), change);
+            if (table != null) {
+                dropTable(table);
+            }
+        } else if (change instanceof CreateViewChange) {
+            CreateViewChange createView = (CreateViewChange) change;
+            View view = new View(createView.getViewName());
+            view.setSchema(createView.getSchemaName());
+            view.setDatabase(database);
+            view.setDefinition(createView.getSelectQuery());
+            viewsMap.put(key(view.getName()), view);
+        } else if (change instanceof RenameViewChange) {
+            RenameViewChange renameView = (RenameViewChange) change;
+            View view = viewsMap.remove(key(renameView.getOldViewName()));
+            if (view == null) {
+                warnMissing(change, "view " + renameView.getOldViewName());
+            } else {
+                view.setName(renameView.getNewViewName());
+                viewsMap.put(key(view.getName()), view);
+            }
+        } else if (change instanceof DropViewChange) {
+            DropViewChange dropView = (DropViewChange) change;
+            if (viewsMap.remove(key(dropView.getViewName())) == null) {
+                warnMissing(change, "view " + dropView.getViewName());
+            }
+        } else if (change instanceof AddPrimaryKeyChange) {
+            AddPrimaryKeyChange addPrimaryKey = (AddPrimaryKeyChange) change;
+            Table table = findTable(addPrimaryKey.getTableName(), change);
+            if (table != null) {
+                addPrimaryKey(table, addPrimaryKey.getConstraintName(), StringUtils.splitAndTrim(addPrimaryKey.getColumnNames(), ","));
+            }
+        } else if (change instanceof DropPrimaryKeyChange) {
+            DropPrimaryKeyChange dropPrimaryKey = (DropPrimaryKeyChange) change;
+            PrimaryKey primaryKey = primaryKeysMap.remove(key(dropPrimaryKey.getTableName()));
+            if (primaryKey == null) {
+                warnMissing(change, "primary key on " + dropPrimaryKey.getTableName());
+            } else {
+                for (String columnName : primaryKey.getColumnNamesAsList()) {
+                    Column column = primaryKey.getTable().getColumn(columnName);
+                    if (column != null) {
+                        column.setPrimaryKey(false);
+                    }
+                }
+            }
+        } else if (change instanceof AddForeignKeyConstraintChange) {
+            AddForeignKeyConstraintChange addForeignKey = (AddForeignKeyConstraintChange) change;
+            Table baseTable = findTable(addForeignKey.getBaseTableName(), change);
+            Table referencedTable = findTable(addForeignKey.getReferencedTableName(), change);
+            if (baseTable != null && referencedTable != null) {
+                ForeignKey foreignKey = addForeignKey(addForeignKey.getConstraintName(), baseTable, addForeignKey.getBaseColumnNames(), referencedTable, addForeignKey.getReferencedColumnNames());
+                if (addForeignKey.getDeferrable() != null) {
+                    foreignKey.setDeferrable(addForeignKey.getDeferrable());
+                }
+                if (addForeignKey.getInitiallyDeferred() != null) {
+                    foreignKey.setInitiallyDeferred(addForeignKey.getInitiallyDeferred());
+                }
+                foreignKey.setUpdateRule(addForeignKey.getUpdateRule());
+                foreignKey.setDeleteRule(addForeignKey.getDeleteRule());
+            }
+        } else if (change instanceof DropForeignKeyConstraintChange) {
+            DropForeignKeyConstraintChange dropForeignKey = (DropForeignKeyConstraintChange) change;
+            if (!removeNamed(foreignKeyList, dropForeignKey.getConstraintName())) {
+                warnMissing(change, "foreign key " + dropForeignKey.getConstraintName());
+            }
+        } else if (change instanceof DropAllForeignKeyConstraintsChange) {
+            DropAllForeignKeyConstraintsChange dropForeignKeys = (DropAllForeignKeyConstraintsChange) change;
+            for (Iterator<ForeignKey> iterator = foreignKeyList.iterator(); iterator.hasNext();) {
+                if (iterator.next().getForeignKeyTable().getName().equalsIgnoreCase(dropForeignKeys.getBaseTableName())) {
+                    iterator.remove();
+                }
+            }
+        } else if (change instanceof AddLookupTableChange) {
+            AddLookupTableChange addLookupTable = (AddLookupTableChange) change;
+            Column existingColumn = findColumn(addLookupTable.getExistingTableName(), addLookupTable.getExistingColumnName(), change);
+            if (existingColumn != null) {
+                Table lookupTable = new Table(addLookupTable.getNewTableName());
+                lookupTable.setSchema(addLookupTable.getNewTableSchemaName());
+                lookupTable.setDatabase(database);
+                tablesMap.put(key(lookupTable.getName()), lookupTable);
+
+                String type = addLookupTable.getNewColumnDataType();
+                Column lookupColumn = addColumn(lookupTable, addLookupTable.getNewColumnName(), type == null ? existingColumn.getTypeName() : type);
+                lookupColumn.setNullable(false);
+                addPrimaryKey(lookupTable, null, Arrays.asList(lookupColumn.getName()));
+                addForeignKey(addLookupTable.getFinalConstraintName(), existingColumn.getTable(), existingColumn.getName(), lookupTable, lookupColumn.getName());
+            }
+        } else if (change instanceof AddUniqueConstraintChange) {
+            AddUniqueConstraintChange addUniqueConstraint = (AddUniqueConstraintChange) change;
+            Table table = findTable(addUniqueConstraint.getTableName(), change);
+            if (table != null) {
+                addUniqueConstraint(table, addUniqueConstraint.getConstraintName(), StringUtils.splitAndTrim(addUniqueConstraint.getColumnNames(), ","));
+            }
+        } else if (change instanceof DropUniqueConstraintChange) {
+            DropUniqueConstraintChange dropUniqueConstraint = (DropUniqueConstraintChange) change;
+            if (!removeNamed(uniqueConstraintList, dropUniqueConstraint.getConstraintName())) {
+                warnMissing(change, "unique constraint " + dropUniqueConstraint.getConstraintName());
+            }
+        } else if (change instanceof CreateIndexChange) {
+            CreateIndexChange createIndex = (CreateIndexChange) change;
+            Table table = findTable(createIndex.getTableName(), change);
+            if (table != null) {
+                Index index = new Index();
+                index.setName(createIndex.getIndexName());
+                index.setTable(table);
+                index.setUnique(createIndex.isUnique() != null && createIndex.isUnique());
+                for (ColumnConfig columnConfig : createIndex.getColumns()) {
+                    index.getColumns().add(columnConfig.getName());
+                }
+                indexList.add(index);
+            }
+        } else if (change instanceof DropIndexChange) {
+            DropIndexChange dropIndex = (DropIndexChange) change;
+            if (!removeNamed(indexList, dropIndex.getIndexName())) {
+                warnMissing(change, "index " + dropIndex.getIndexName());
+            }
+        } else if (change instanceof CreateSequenceChange) {
+            CreateSequenceChange createSequence = (CreateSequenceChange) change;
+            Sequence sequence = new Sequence();
+            sequence.setName(createSequence.getSequenceName());
+            sequence.setSchema(createSequence.getSchemaName());
+            sequencesMap.put(key(sequence.getName()), sequence);
+        } else if (change instanceof DropSequenceChange) {
+            DropSequenceChange dropSequence = (DropSequenceChange) change;
+            if (sequencesMap.remove(key(dropSequence.getSequenceName())) == null) {
+                warnMissing(change, "sequence " + dropSequence.getSequenceName());
+            }
+        } else if (change instanceof AbstractSQLChange || change instanceof CustomChangeWrapper) {
+            log.warning("Cannot tell what " + change.getChangeName() + " changes, the change log snapshot may not match the database");
+        }
+    }
+
+    private void addColumns(Table table, List<ColumnConfig> columnConfigs) {
+        for (ColumnConfig columnConfig : columnConfigs) {
+            Column column = addColumn(table, columnConfig.getName(), columnConfig.getType());
+            column.setDefaultValue(columnConfig.getDefaultValueObject());
+            column.setRemarks(columnConfig.getRemarks());
+            if (columnConfig.isAutoIncrement() != null) {
+                column.setAutoIncrement(columnConfig.isAutoIncrement());
+            }
+
+            ConstraintsConfig constraints = columnConfig.getConstraints();
+            if (constraints == null) {
+                continue;
+            }
+            if (constraints.isNullable() != null) {
+                column.setNullable(constraints.isNullable());
+            }
+            if (constraints.isPrimaryKey() != null && constraints.isPrimaryKey()) {
+                PrimaryKey primaryKey = primaryKeysMap.get(key(table.getName()));
+                if (primaryKey == null) {
+                    addPrimaryKey(table, constraints.getPrimaryKeyName(), Arrays.asList(column.getName()));
+                } else {
+                    primaryKey.getColumnNamesAsList().add(column.getName());
+                    column.setPrimaryKey(true);
+                    column.setNullable(false);
+                }
+            }
+            if (constraints.isUnique() != null && constraints.isUnique()) {
+                column.setUnique(true);
+                addUniqueConstraint(table, constraints.getUniqueConstraintName(), Arrays.asList(column.getName()));
+            }
+            String references = StringUtils.trimToNull(constraints.getReferences());
+            if (references != null && references.indexOf("(") > 0 && references.endsWith(")")) {
+                Table referencedTable = tablesMap.get(key(references.substring(0, references.indexOf("(")).trim()));
+                if (referencedTable != null) {
+                    ForeignKey foreignKey = addForeignKey(constraints.getForeignKeyName(), table, column.getName(), referencedTable, references.substring(references.indexOf("(") + 1, references.length() - 1).trim());
+                    if (constraints.isDeferrable() != null) {
+                        foreignKey.setDeferrable(constraints.isDeferrable());
+                    }
+                    if (constraints.isInitiallyDeferred() != null) {
+                        foreignKey.setInitiallyDeferred(constraints.isInitiallyDeferred());
+                    }
+                    if (constraints.isDeleteCascade() != null && constraints.isDeleteCascade()) {
+                        foreignKey.setDeleteRule(DatabaseMetaData.importedKeyCascade);
+                    }
+                }
+            }
+        }
+    }
+
+    private Column addColumn(Table table, String columnName, String type) {
+        Column column = new Column();
+        column.setName(columnName);
+        column.setTable(table);
+        column.setNullable(true);
+        setType(column, type);
+        table.getColumns().add(column);
+        return column;
+    }
+
+    /**
+     * The type is kept as written, so it is written back unchanged to change logs generated from the snapshot.
+     */
+    private void setType(Column column, String type) {
+        column.setTypeName(type);
+        column.setDataType(Types.OTHER);
+        column.setCertainDataType(false);
+    }
+
+    private Object getDefaultValue(AddDefaultValueChange change) {
+        if (change.getDefaultValue() != null) {
+            return change.getDefaultValue();
+        } else if (change.getDefaultValueNumeric() != null) {
+            return change.getDefaultValueNumeric();
+        } else if (change.getDefaultValueDate() != null) {
+            return change.getDefaultValueDate();
+        }
+        return change.getDefaultValueBoolean();
+    }
+
+    private void dropColumn(String tableName, String columnName, Change change) {
+        Column column = findColumn(tableName, columnName, change);
+        if (column == null) {
+            return;
+        }
+        Table table = column.getTable();
+        table.getColumns().remove(column);
+
+        PrimaryKey primaryKey = primaryKeysMap.get(key(table.getName()));
+        if (primaryKey != null && containsIgnoreCase(primaryKey.getColumnNamesAsList(), columnName)) {
+            primaryKeysMap.remove(key(table.getName()));
+        }
+        for (Iterator<Index> iterator = indexList.iterator(); iterator.hasNext();) {
+            Index index = iterator.next();
+            if (index.getTable() == table && containsIgnoreCase(index.getColumns(), columnName)) {
+                iterator.remove();
+            }
+        }
+        for (Iterator<UniqueConstraint> iterator = uniqueConstraintList.iterator(); iterator.hasNext();) {
+            UniqueConstraint uniqueConstraint = iterator.next();
+            if (uniqueConstraint.getTable() == table && containsIgnoreCase(uniqueConstraint.getColumns(), columnName)) {
+                iterator.remove();
+            }
+        }
+        for (Iterator<ForeignKey> iterator = foreignKeyList.iterator(); iterator.hasNext();) {
+            ForeignKey foreignKey = iterator.next();
+            if ((foreignKey.getForeignKeyTable() == table && containsIgnoreCase(StringUtils.splitAndTrim(foreignKey.getForeignKeyColumns(), ","), columnName))
+                    || (foreignKey.getPrimaryKeyTable() == table && containsIgnoreCase(StringUtils.splitAndTrim(foreignKey.getPrimaryKeyColumns(), ","), columnName))) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void renameColumnReferences(Table table, String oldName, String newName) {
+        PrimaryKey primaryKey = primaryKeysMap.get(key(table.getName()));
+        if (primaryKey != null) {
+            replaceIgnoreCase(primaryKey.getColumnNamesAsList(), oldName, newName);
+        }
+        for (Index index : indexList) {
+            if (index.getTable() == table) {
+                replaceIgnoreCase(index.getColumns(), oldName, newName);
+            }
+        }
+        for (UniqueConstraint uniqueConstraint : uniqueConstraintList) {
+            if (uniqueConstraint.getTable() == table) {
+                replaceIgnoreCase(uniqueConstraint.getColumns(), oldName, newName);
+            }
+        }
+        for (ForeignKey foreignKey : foreignKeyList) {
+            if (foreignKey.getForeignKeyTable() == table) {
+                List<String> columnNames = StringUtils.splitAndTrim(foreignKey.getForeignKeyColumns(), ",");
+                replaceIgnoreCase(columnNames, oldName, newName);
+                foreignKey.setForeignKeyColumns(StringUtils.join(columnNames, ", "));
+            }
+            if (foreignKey.getPrimaryKeyTable() == table) {
+                List<String> columnNames = StringUtils.splitAndTrim(foreignKey.getPrimaryKeyColumns(), ",");
+                replaceIgnoreCase(columnNames, oldName, newName);
+                foreignKey.setPrimaryKeyColumns(StringUtils.join(columnNames, ", "));
+            }
+        }
+    }
+
+    /**
+     * Tables can not be renamed, so a new table takes the place of the old one in every object referencing it.
+     */
+    private void renameTable(Table table, String newName) {
+        Table renamed = new Table(newName);
+        renamed.setSchema(table.getSchema());
+        renamed.setRemarks(table.getRemarks());
+        renamed.setDatabase(table.getDatabase());
+        for (Column column : table.getColumns()) {
+            column.setTable(renamed);
+            renamed.getColumns().add(column);
+        }
+
+        tablesMap.remove(key(table.getName()));
+        tablesMap.put(key(newName), renamed);
+
+        PrimaryKey primaryKey = primaryKeysMap.remove(key(table.getName()));
+        if (primaryKey != null) {
+            primaryKey.setTable(renamed);
+            primaryKeysMap.put(key(newName), primaryKey);
+        }
+        for (Index index : indexList) {
+            if (index.getTable() == table) {
+                index.setTable(renamed);
+            }
+        }
+        for (UniqueConstraint uniqueConstraint : uniqueConstraintList) {
+            if (uniqueConstraint.getTable() == table) {
+                uniqueConstraint.setTable(renamed);
+            }
+        }
+        for (ForeignKey foreignKey : foreignKeyList) {
+            if (foreignKey.getForeignKeyTable() == table) {
+                foreignKey.setForeignKeyTable(renamed);
+            }
+            if (foreignKey.getPrimaryKeyTable() == table) {
+                foreignKey.setPrimaryKeyTable(renamed);
+            }
+        }
+    }
+
+    private void dropTable(Table table) {
+        tablesMap.remove(key(table.getName()));
+        primaryKeysMap.remove(key(table.getName()));
+        for (Iterator<Index> iterator = indexList.iterator(); iterator.hasNext();) {
+            if (iterator.next().getTable() == table) {
+                iterator.remove();
+            }
+        }
+        for (Iterator<UniqueConstraint> iterator = uniqueConstraintList.iterator(); iterator.hasNext();) {
+            if (iterator.next().getTable() == table) {
+                iterator.remove();
+            }
+        }
+        for (Iterator<ForeignKey> iterator = foreignKeyList.iterator(); iterator.hasNext();) {
+            ForeignKey foreignKey = iterator.next();
+            if (foreignKey.getForeignKeyTable() == table || foreignKey.getPrimaryKeyTable() == table) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void addPrimaryKey(Table table, String name, List<String> columnNames) {
+        PrimaryKey primaryKey = new PrimaryKey();
+        primaryKey.setName(name);
+        primaryKey.setCertainName(name != null);
+        primaryKey.setTable(table);
+        for (String columnName : columnNames) {
+            primaryKey.getColumnNamesAsList().add(columnName);
+            Column column = table.getColumn(columnName);
+            if (column != null) {
+                column.setPrimaryKey(true);
+                column.setNullable(false);
+            }
+        }
+        primaryKeysMap.put(key(table.getName()), primaryKey);
+    }
+
+    private ForeignKey addForeignKey(String name, Table baseTable, String baseColumnNames, Table referencedTable, String referencedColumnNames) {
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName(name);
+        foreignKey.setForeignKeyTable(baseTable);
+        foreignKey.setForeignKeyColumns(StringUtils.join(StringUtils.splitAndTrim(baseColumnNames, ","), ", "));
+        foreignKey.setPrimaryKeyTable(referencedTable);
+        foreignKey.setPrimaryKeyColumns(StringUtils.join(StringUtils.splitAndTrim(referencedColumnNames, ","), ", "));
+        foreignKeyList.add(foreignKey);
+        return foreignKey;
+    }
+
+    private void addUniqueConstraint(Table table, String name, List<String> columnNames) {
+        UniqueConstraint uniqueConstraint = new UniqueConstraint();
+        uniqueConstraint.setName(name);
+        uniqueConstraint.setTable(table);
+        uniqueConstraint.getColumns().addAll(columnNames);
+        uniqueConstraintList.add(uniqueConstraint);
+    }
+
+    private Table findTable(String tableName, Change change) {
+        Table table = tablesMap.get(key(tableName));
+        if (table == null) {
+            warnMissing(change, "table " + tableName);
+        }
+        return table;
+    }
+
+    private Column findColumn(String tableName, String columnName, Change change) {
+        Table table = findTable(tableName, change);
+        if (table == null) {
+            return null;
+        }
+        Column column = table.getColumn(columnName);
+        if (column == null) {
+            warnMissing(change, "column " + tableName + "." + columnName);
+        }
+        return column;
+    }
+
+    private void warnMissing(Change change, String objectDescription) {
+        log.warning(change.getChangeName() + " refers to " + objectDescription + ", which the change log does not create.  Ignoring.");
+    }
+
+    private boolean removeNamed(List<? extends DatabaseObject> objects, String name) {
+        for (Iterator<? extends DatabaseObject> iterator = objects.iterator(); iterator.hasNext();) {
+            String objectName = getName(iterator.next());
+            if (objectName != null && objectName.equalsIgnoreCase(name)) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getName(DatabaseObject object) {
+        if (object instanceof ForeignKey) {
+            return ((ForeignKey) object).getName();
+        } else if (object instanceof Index) {
+            return ((Index) object).getName();
+        } else if (object instanceof UniqueConstraint) {
+            return ((UniqueConstraint) object).getName();
+        }
+        return null;
+    }
+
+    private boolean containsIgnoreCase(List<String> names, String name) {
+        for (String existing : names) {
+            if (existing != null && existing.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void replaceIgnoreCase(List<String> names, String oldName, String newName) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i) != null && names.get(i).equalsIgnoreCase(oldName)) {
+                names.set(i, newName);
+            }
+        }
+    }
+
+    private String key(String name) {
+        if (name == null) {
+            return null;
+        }
+        return name.toUpperCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Builds the sets and name indexes once every change has been applied, as renaming objects changes their hash
+     * codes.
+     */
+    private void buildSnapshot() {
+        tables = new HashSet<Table>(tablesMap.values());
+        views = new HashSet<View>(viewsMap.values());
+        primaryKeys = new HashSet<PrimaryKey>(primaryKeysMap.values());
+        sequences = new HashSet<Sequence>(sequencesMap.values());
+        foreignKeys = new HashSet<ForeignKey>(foreignKeyList);
+        indexes = new HashSet<Index>(indexList);
+        uniqueConstraints = new HashSet<UniqueConstraint>(uniqueConstraintList);
+
+        columns = new HashSet<Column>();
+        tableIndex = new NameIndex<Table>(database);
+        columnIndex = new NameIndex<Column>(database);
+        for (Table table : tablesMap.values()) {
+            tableIndex.put(table.getName(), table);
+            for (Column column : table.getColumns()) {
+                columns.add(column);
+                columnIndex.put(table.getName() + "." + column.getName(), column);
+            }
+        }
+        viewIndex = new NameIndex<View>(database);
+        for (View view : viewsMap.values()) {
+            viewIndex.put(view.getName(), view);
+        }
+        primaryKeyIndex = new NameIndex<PrimaryKey>(database);
+        primaryKeyTableIndex = new NameIndex<PrimaryKey>(database);
+        for (PrimaryKey primaryKey : primaryKeysMap.values()) {
+            primaryKeyIndex.put(primaryKey.getName(), primaryKey);
+            primaryKeyTableIndex.put(primaryKey.getTable().getName(), primaryKey);
+        }
+        sequenceIndex = new NameIndex<Sequence>(database);
+        for (Sequence sequence : sequencesMap.values()) {
+            sequenceIndex.put(sequence.getName(), sequence);
+        }
+        foreignKeyIndex = new NameIndex<ForeignKey>(database);
+        for (ForeignKey foreignKey : foreignKeyList) {
+            foreignKeyIndex.put(foreignKey.getName(), foreignKey);
+        }
+        indexIndex = new NameIndex<Index>(database);
+        for (Index index : indexList) {
+            indexIndex.put(index.getName(), index);
+        }
+        uniqueConstraintIndex = new NameIndex<UniqueConstraint>(database);
+        for (UniqueConstraint uniqueConstraint : uniqueConstraintList) {
+            uniqueConstraintIndex.put(uniqueConstraint.getName(), uniqueConstraint);
+        }
+    }
+
+    public Database getDatabase() {
+        return database;
+    }
+
+    public Set<Table> getTables() {
+        return tables;
+    }
+
+    public Set<View> getViews() {
+        return views;
+    }
+
+    public Column getColumn(Column column) {
+        if (column.getTable() == null) {
+            return getColumn(column.getView().getName(), column.getName());
+        } else {
+            return getColumn(column.getTable().getName(), column.getName());
+        }
+    }
+
+    public Column getColumn(String tableName, String columnName) {
+        return columnIndex.get(tableName + "." + columnName);
+    }
+
+    public Set<Column> getColumns() {
+        return columns;
+    }
+
+    public Set<ForeignKey> getForeignKeys() {
+        return foreignKeys;
+    }
+
+    public Set<Index> getIndexes() {
+        return indexes;
+    }
+
+    public Set<PrimaryKey> getPrimaryKeys() {
+        return primaryKeys;
+    }
+
+    public Set<Sequence> getSequences() {
+        return sequences;
+    }
+
+    public Set<UniqueConstraint> getUniqueConstraints() {
+        return uniqueConstraints;
+    }
+
+    public Table getTable(String tableName) {
+        return tableIndex.get(tableName);
+    }
+
+    public ForeignKey getForeignKey(String foreignKeyName) {
+        return foreignKeyIndex.get(foreignKeyName);
+    }
+
+    public Sequence getSequence(String sequenceName) {
+        return sequenceIndex.get(sequenceName);
+    }
+
+    public Index getIndex(String indexName) {
+        return indexIndex.get(indexName);
+    }
+
+    public View getView(String viewName) {
+        return viewIndex.get(viewName);
+    }
+
+    public PrimaryKey getPrimaryKey(String pkName) {
+        return primaryKeyIndex.get(pkName);
+    }
+
+    public PrimaryKey getPrimaryKeyForTable(String tableName) {
+        return primaryKeyTableIndex.get(tableName);
+    }
+
+    public UniqueConstraint getUniqueConstraint(String ucName) {
+        return uniqueConstraintIndex.get(ucName);
+    }
+
+    public String getSchema() {
+        return null;
+    }
+
+    public boolean hasDatabaseChangeLogTable() {
+        return false;
+    }
+}
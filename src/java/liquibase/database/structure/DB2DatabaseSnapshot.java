@@ -1,5 +1,6 @@
 package liquibase.database.structure;
 
+import liquibase.database.DB2Database;
 import liquibase.database.Database;
 import liquibase.exception.JDBCException;
 import liquibase.diff.DiffStatusListener;
@@ -25,4 +26,40 @@ public class DB2DatabaseSnapshot extends SqlDatabaseSnapshot {
     public DB2DatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema) throws JDBCException {
         super(database, statusListeners, requestedSchema);
     }
-}
\ No newline at end of file
+
+    public DB2DatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema, SnapshotFilter filter) throws JDBCException {
+        super(database, statusListeners, requestedSchema, filter);
+    }
+
+    /**
+     * Reads the indexes from the SYSCAT views of DB2 for Linux, Unix and Windows.  DB2 for i does not have them and
+     * reads indexes through DatabaseMetaData.
+     */
+    protected String getIndexesQuery(String schema) throws JDBCException {
+        if (!isDB2Luw()) {
+            return null;
+        }
+        return "SELECT I.INDNAME AS INDEX_NAME, 3 AS TYPE, I.TABNAME AS TABLE_NAME, CASE WHEN I.UNIQUERULE = 'D' THEN 1 ELSE 0 END AS NON_UNIQUE, " +
+                "C.COLNAME AS COLUMN_NAME, C.COLSEQ AS ORDINAL_POSITION, CAST(NULL AS VARCHAR(1)) AS FILTER_CONDITION " +
+                "FROM SYSCAT.INDEXES I, SYSCAT.INDEXCOLUSE C " +
+                "WHERE C.INDSCHEMA = I.INDSCHEMA AND C.INDNAME = I.INDNAME " +
+                "AND I.TABSCHEMA = '" + database.escapeStringForDatabase(database.convertRequestedSchemaToSchema(schema)) + "'" + getTableFilterCondition("I.TABNAME");
+    }
+
+    protected String getPrimaryKeysQuery(String schema) throws JDBCException {
+        if (!isDB2Luw()) {
+            return null;
+        }
+        return "SELECT K.TABNAME AS TABLE_NAME, K.COLNAME AS COLUMN_NAME, K.COLSEQ AS KEY_SEQ, K.CONSTNAME AS PK_NAME " +
+                "FROM SYSCAT.KEYCOLUSE K, SYSCAT.TABCONST T " +
+                "WHERE T.TABSCHEMA = K.TABSCHEMA AND T.TABNAME = K.TABNAME AND T.CONSTNAME = K.CONSTNAME AND T.TYPE = 'P' " +
+                "AND K.TABSCHEMA = '" + database.escapeStringForDatabase(database.convertRequestedSchemaToSchema(schema)) + "'" + getTableFilterCondition("K.TABNAME");
+    }
+
+    /**
+     * The SYSCAT queries are only valid for DB2Database itself, not for databases extending it.
+     */
+    private boolean isDB2Luw() {
+        return database.getClass().equals(DB2Database.class);
+    }
+}
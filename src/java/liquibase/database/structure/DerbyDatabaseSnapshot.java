@@ -25,4 +25,8 @@ public class DerbyDatabaseSnapshot extends SqlDatabaseSnapshot {
     public DerbyDatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema) throws JDBCException {
         super(database, statusListeners, requestedSchema);
     }
+
+    public DerbyDatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema, SnapshotFilter filter) throws JDBCException {
+        super(database, statusListeners, requestedSchema, filter);
+    }
 }
\ No newline at end of file
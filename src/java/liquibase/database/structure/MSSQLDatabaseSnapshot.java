@@ -1,6 +1,7 @@
 package liquibase.database.structure;
 
 import liquibase.database.Database;
+import liquibase.database.MSSQLDatabase;
 import liquibase.exception.JDBCException;
 import liquibase.diff.DiffStatusListener;
 
@@ -25,4 +26,40 @@ public class MSSQLDatabaseSnapshot extends SqlDatabaseSnapshot {
     public MSSQLDatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema) throws JDBCException {
         super(database, statusListeners, requestedSchema);
     }
-}
\ No newline at end of file
+
+    public MSSQLDatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema, SnapshotFilter filter) throws JDBCException {
+        super(database, statusListeners, requestedSchema, filter);
+    }
+
+    /**
+     * Reads the indexes from the catalog views of SQL Server 2005 and later.  Subclasses such as Sybase do not have
+     * them and read indexes through DatabaseMetaData.
+     */
+    protected String getIndexesQuery(String schema) throws JDBCException {
+        if (!isSqlServer() || database.getDatabaseMajorVersion() < 9) {
+            return null;
+        }
+        return "SELECT I.NAME AS INDEX_NAME, 3 AS TYPE, T.NAME AS TABLE_NAME, CASE WHEN I.IS_UNIQUE = 1 THEN 0 ELSE 1 END AS NON_UNIQUE, " +
+                "C.NAME AS COLUMN_NAME, IC.KEY_ORDINAL AS ORDINAL_POSITION, NULL AS FILTER_CONDITION " +
+                "FROM SYS.INDEXES I " +
+                "JOIN SYS.TABLES T ON T.OBJECT_ID = I.OBJECT_ID " +
+                "JOIN SYS.SCHEMAS S ON S.SCHEMA_ID = T.SCHEMA_ID " +
+                "JOIN SYS.INDEX_COLUMNS IC ON IC.OBJECT_ID = I.OBJECT_ID AND IC.INDEX_ID = I.INDEX_ID " +
+                "JOIN SYS.COLUMNS C ON C.OBJECT_ID = IC.OBJECT_ID AND C.COLUMN_ID = IC.COLUMN_ID " +
+                "WHERE I.TYPE > 0 AND IC.KEY_ORDINAL > 0 AND S.NAME = '" + database.escapeStringForDatabase(database.convertRequestedSchemaToSchema(schema)) + "'" + getTableFilterCondition("T.NAME");
+    }
+
+    protected String getPrimaryKeysQuery(String schema) throws JDBCException {
+        if (!isSqlServer()) {
+            return null;
+        }
+        return getInformationSchemaPrimaryKeysQuery("'" + database.escapeStringForDatabase(database.convertRequestedSchemaToSchema(schema)) + "'");
+    }
+
+    /**
+     * The catalog queries are only valid for SQL Server itself, not for databases extending MSSQLDatabase.
+     */
+    private boolean isSqlServer() {
+        return database.getClass().equals(MSSQLDatabase.class);
+    }
+}
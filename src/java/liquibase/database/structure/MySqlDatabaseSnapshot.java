@@ -4,9 +4,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.text.ParseException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -15,13 +13,14 @@ import liquibase.diff.DiffStatusListener;
 import liquibase.exception.JDBCException;
 
 public class MySqlDatabaseSnapshot extends SqlDatabaseSnapshot {
-	
-	/**
-	 * Table schema cache 
-	 */
-	private static Map<String, Map<String, List<String>>> schemaCache = new HashMap<String, Map<String, List<String>>>();
-	
-	/**
+
+    /**
+     * COLUMN_TYPE, COLUMN_DEFAULT and EXTRA by table and column name, read for the whole schema the first time it is
+     * needed.  Not initialized here as it is used while the superclass constructor runs.
+     */
+    private Map<String, Map<String, String[]>> columnMetaData;
+
+    /**
      * Creates an empty database snapshot
      */
     public MySqlDatabaseSnapshot () {
@@ -54,7 +53,14 @@ public class MySqlDatabaseSnapshot extends SqlDatabaseSnapshot {
     public MySqlDatabaseSnapshot  (Database database, Set<DiffStatusListener> statusListeners, String requestedSchema) throws JDBCException {
     	super (database, statusListeners, requestedSchema);
     }
-    
+
+    /**
+     * Creates a snapshot of the objects of the given database selected by the filter.
+     */
+    public MySqlDatabaseSnapshot (Database database, Set<DiffStatusListener> statusListeners, String requestedSchema, SnapshotFilter filter) throws JDBCException {
+        super(database, statusListeners, requestedSchema, filter);
+    }
+
     /**
      * MySQL specific implementation
      */
@@ -63,36 +69,21 @@ public class MySqlDatabaseSnapshot extends SqlDatabaseSnapshot {
     	String columnTypeName = rs.getString("TYPE_NAME");
         String columnName     = rs.getString("COLUMN_NAME");
         String tableName      = rs.getString("TABLE_NAME");
-        String schemaName     = rs.getString("TABLE_CAT");
-        
-        Map<String, List<String>> tableSchema = new HashMap<String, List<String>>();
-        
-        if (!schemaCache.containsKey(tableName)) {
-        	
-        	Statement selectStatement = database.getConnection().createStatement();
-            ResultSet rsColumnType = selectStatement.executeQuery("DESC "+database.escapeTableName(schemaName, tableName));
-            
-            while(rsColumnType.next()) {
-            	List<String> colSchema = new ArrayList<String>();
-            	colSchema.add(rsColumnType.getString("Type"));
-            	colSchema.add(rsColumnType.getString("Default"));
-            	tableSchema.put(rsColumnType.getString("Field"), colSchema);
-            }
-            
-            rsColumnType.close();
-            
-            schemaCache.put(tableName, tableSchema);
-        	
+
+        String[] columnSchema = getColumnMetaData(tableName, columnName);
+        if (columnSchema == null) {
+            super.getColumnTypeAndDefValue(columnInfo, rs, database);
+            return;
         }
-        
-        tableSchema = schemaCache.get(tableName);
-        
+        String columnType = columnSchema[0];
+        String columnDefault = columnSchema[1];
+
         // Parse ENUM and SET column types correctly
-        if (columnTypeName.toLowerCase().startsWith("enum") || columnTypeName.toLowerCase().startsWith("set")) {       	
+        if (columnTypeName.toLowerCase().startsWith("enum") || columnTypeName.toLowerCase().startsWith("set")) {
 
-        	columnInfo.setTypeName(tableSchema.get(columnName).get(0));
+        	columnInfo.setTypeName(columnType);
         	try {
-        		String tmpDefaultValue = (String)database.convertDatabaseValueToJavaObject(tableSchema.get(columnName).get(1), columnInfo.getDataType(), columnInfo.getColumnSize(), columnInfo.getDecimalDigits());
+        		String tmpDefaultValue = (String)database.convertDatabaseValueToJavaObject(columnDefault, columnInfo.getDataType(), columnInfo.getColumnSize(), columnInfo.getDecimalDigits());
         		if ("".equals(tmpDefaultValue)) {
         			columnInfo.setDefaultValue(null);
         		} else {
@@ -101,22 +92,84 @@ public class MySqlDatabaseSnapshot extends SqlDatabaseSnapshot {
         	} catch (ParseException e) {
         		throw new JDBCException(e);
         	}
-        	
-        // TEXT and BLOB column types always have null as default value 
+
+        // TEXT and BLOB column types always have null as default value
         } else if (columnTypeName.toLowerCase().equals("text") || columnTypeName.toLowerCase().equals("blob")) {
         	columnInfo.setTypeName(columnTypeName);
         	columnInfo.setDefaultValue(null);
-        	
+
         // Parsing TIMESTAMP database.convertDatabaseValueToJavaObject() produces incorrect results
         // eg. for default value 0000-00-00 00:00:00 we have 0002-11-30T00:00:00.0 as parsing result
-        } else if (columnTypeName.toLowerCase().equals("timestamp") && !"CURRENT_TIMESTAMP".equals(tableSchema.get(columnName).get(1))) {
+        } else if (columnTypeName.toLowerCase().equals("timestamp") && !"CURRENT_TIMESTAMP".equals(columnDefault)) {
         	columnInfo.setTypeName(columnTypeName);
-        	columnInfo.setDefaultValue(tableSchema.get(columnName).get(1));
+        	columnInfo.setDefaultValue(columnDefault);
         } else {
         	super.getColumnTypeAndDefValue(columnInfo, rs, database);
         }
     }
 
+    /**
+     * Uses the EXTRA column of INFORMATION_SCHEMA.COLUMNS rather than a query per column.
+     */
+    protected boolean isColumnAutoIncrement(String schema, String tableName, String columnName) throws SQLException, JDBCException {
+        String[] columnSchema = getColumnMetaData(tableName, columnName);
+        if (columnSchema == null) {
+            return super.isColumnAutoIncrement(schema, tableName, columnName);
+        }
+        return columnSchema[2] != null && columnSchema[2].toLowerCase().indexOf("auto_increment") >= 0;
+    }
+
+    /**
+     * Returns the COLUMN_TYPE, COLUMN_DEFAULT and EXTRA values of the column, or null if it was not found.
+     */
+    private String[] getColumnMetaData(String tableName, String columnName) throws SQLException, JDBCException {
+        if (columnMetaData == null) {
+            columnMetaData = readColumnMetaData();
+        }
+        Map<String, String[]> tableSchema = columnMetaData.get(tableName);
+        if (tableSchema == null) {
+            return null;
+        }
+        return tableSchema.get(columnName);
+    }
+
+    private Map<String, Map<String, String[]>> readColumnMetaData() throws SQLException, JDBCException {
+        Map<String, Map<String, String[]>> metaData = new HashMap<String, Map<String, String[]>>();
+
+        Statement selectStatement = database.createStreamingStatement();
+        try {
+            ResultSet rs = selectStatement.executeQuery("SELECT TABLE_NAME, COLUMN_NAME, COLUMN_TYPE, COLUMN_DEFAULT, EXTRA FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = " + getTableSchema(getSchema()) + getTableFilterCondition("TABLE_NAME"));
+            try {
+                while (rs.next()) {
+                    String tableName = rs.getString("TABLE_NAME");
+                    Map<String, String[]> tableSchema = metaData.get(tableName);
+                    if (tableSchema == null) {
+                        tableSchema = new HashMap<String, String[]>();
+                        metaData.put(tableName, tableSchema);
+                    }
+                    tableSchema.put(rs.getString("COLUMN_NAME"), new String[]{rs.getString("COLUMN_TYPE"), rs.getString("COLUMN_DEFAULT"), rs.getString("EXTRA")});
+                }
+            } finally {
+                rs.close();
+            }
+        } finally {
+            selectStatement.close();
+        }
+        return metaData;
+    }
+
+    /**
+     * Returns the INFORMATION_SCHEMA TABLE_SCHEMA value to query for the requested schema, which is the current
+     * database if no schema was requested.
+     */
+    private String getTableSchema(String schema) throws JDBCException {
+        String catalog = database.convertRequestedSchemaToCatalog(schema);
+        if (catalog == null) {
+            return "DATABASE()";
+        }
+        return "'" + database.escapeStringForDatabase(catalog) + "'";
+    }
+
     protected String convertPrimaryKeyName(String pkName) throws SQLException {
         if (pkName.equals("PRIMARY")) {
             return null;
@@ -124,4 +177,13 @@ public class MySqlDatabaseSnapshot extends SqlDatabaseSnapshot {
             return pkName;
         }
     }
-}
\ No newline at end of file
+
+    protected String getIndexesQuery(String schema) throws JDBCException {
+        return "SELECT INDEX_NAME, 3 AS TYPE, TABLE_NAME, NON_UNIQUE, COLUMN_NAME, SEQ_IN_INDEX AS ORDINAL_POSITION, NULL AS FILTER_CONDITION " +
+                "FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = " + getTableSchema(schema) + getTableFilterCondition("TABLE_NAME");
+    }
+
+    protected String getPrimaryKeysQuery(String schema) throws JDBCException {
+        return getInformationSchemaPrimaryKeysQuery(getTableSchema(schema));
+    }
+}
@@ -0,0 +1,54 @@
+package liquibase.database.structure;
+
+import liquibase.database.Database;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds database objects by name.  A name matching exactly is preferred, otherwise names are matched after being
+ * folded to the case the database stores unquoted identifiers in.  When several objects have the same name, the
+ * first one added is returned.
+ */
+class NameIndex<T> {
+
+    private Database database;
+    private Map<String, T> exactNames = new HashMap<String, T>();
+    private Map<String, T> foldedNames = new HashMap<String, T>();
+
+    NameIndex(Database database) {
+        this.database = database;
+    }
+
+    void put(String name, T object) {
+        if (name == null) {
+            return;
+        }
+        if (!exactNames.containsKey(name)) {
+            exactNames.put(name, object);
+        }
+        String foldedName = fold(name);
+        if (!foldedNames.containsKey(foldedName)) {
+            foldedNames.put(foldedName, object);
+        }
+    }
+
+    T get(String name) {
+        if (name == null) {
+            return null;
+        }
+        T object = exactNames.get(name);
+        if (object == null) {
+            object = foldedNames.get(fold(name));
+        }
+        return object;
+    }
+
+    private String fold(String name) {
+        if (database == null) {
+            return name.toUpperCase(Locale.ENGLISH);
+        }
+        return database.foldIdentifierCase(name);
+    }
+}
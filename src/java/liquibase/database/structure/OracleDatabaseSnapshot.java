@@ -33,6 +33,10 @@ public class OracleDatabaseSnapshot extends SqlDatabaseSnapshot {
     public OracleDatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema) throws JDBCException {
         super(database, statusListeners, requestedSchema);
     }
+
+    public OracleDatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema, SnapshotFilter filter) throws JDBCException {
+        super(database, statusListeners, requestedSchema, filter);
+    }
     
     /**
      * Oracle specific implementation
@@ -50,5 +54,22 @@ public class OracleDatabaseSnapshot extends SqlDatabaseSnapshot {
             columnInfo.setLengthSemantics(Column.LengthSemantics.CHAR);            
           }
         }
-    }    
+    }
+
+    /**
+     * Oracle getIndexInfo is buggy and slow, see Issue 1824548 and
+     * http://forums.oracle.com/forums/thread.jspa?messageID=578383&#578383
+     */
+    protected String getIndexesQuery(String schema) throws JDBCException {
+        return "SELECT INDEX_NAME, 3 AS TYPE, TABLE_NAME, COLUMN_NAME, COLUMN_POSITION AS ORDINAL_POSITION, null AS FILTER_CONDITION " +
+                "FROM ALL_IND_COLUMNS WHERE TABLE_OWNER='" + database.escapeStringForDatabase(database.convertRequestedSchemaToSchema(schema)) + "'" + getTableFilterCondition("TABLE_NAME") + " " +
+                "ORDER BY TABLE_NAME, INDEX_NAME, ORDINAL_POSITION";
+    }
+
+    protected String getPrimaryKeysQuery(String schema) throws JDBCException {
+        return "SELECT C.TABLE_NAME, CC.COLUMN_NAME, CC.POSITION AS KEY_SEQ, C.CONSTRAINT_NAME AS PK_NAME " +
+                "FROM ALL_CONSTRAINTS C, ALL_CONS_COLUMNS CC " +
+                "WHERE CC.OWNER = C.OWNER AND CC.CONSTRAINT_NAME = C.CONSTRAINT_NAME AND C.CONSTRAINT_TYPE = 'P' " +
+                "AND C.OWNER='" + database.escapeStringForDatabase(database.convertRequestedSchemaToSchema(schema)) + "'" + getTableFilterCondition("C.TABLE_NAME");
+    }
 }
@@ -35,6 +35,10 @@ public class PostgresDatabaseSnapshot extends SqlDatabaseSnapshot {
     super(database, statusListeners, requestedSchema);
   }
 
+  public PostgresDatabaseSnapshot (Database database, Set<DiffStatusListener> statusListeners, String requestedSchema, SnapshotFilter filter) throws JDBCException {
+    super(database, statusListeners, requestedSchema, filter);
+  }
+
   protected String convertFromDatabaseName (String objectName) {
     if (objectName == null) {
       return null;
@@ -51,7 +55,8 @@ public class PostgresDatabaseSnapshot extends SqlDatabaseSnapshot {
     PreparedStatement statement = null;
     ResultSet rs = null;
     try {
-      statement = this.database.getConnection().prepareStatement("select pgc.conname, pgc.conrelid, pgc.conkey, pgcl.relname from pg_constraint pgc inner join pg_class pgcl on pgcl.oid = pgc.conrelid and pgcl.relkind ='r' where contype = 'u'");
+      statement = this.database.getConnection().prepareStatement("select pgc.conname, pgc.conrelid, pgc.conkey, pgcl.relname from pg_constraint pgc inner join pg_class pgcl on pgcl.oid = pgc.conrelid and pgcl.relkind ='r' where contype = 'u'" + getTableFilterCondition("pgcl.relname"));
+      statement.setFetchSize(database.getFetchSize());
       rs = statement.executeQuery();
       while (rs.next())
       {
@@ -99,4 +104,20 @@ public class PostgresDatabaseSnapshot extends SqlDatabaseSnapshot {
         stmt.close();
     }
   }
+
+  protected String getIndexesQuery (String schema) throws JDBCException {
+    return "select ci.relname as INDEX_NAME, 3 as TYPE, ct.relname as TABLE_NAME, not i.indisunique as NON_UNIQUE, a.attname as COLUMN_NAME, " +
+        "k.n as ORDINAL_POSITION, pg_get_expr(i.indpred, i.indrelid) as FILTER_CONDITION " +
+        "from pg_index i " +
+        "join pg_class ct on ct.oid = i.indrelid " +
+        "join pg_class ci on ci.oid = i.indexrelid " +
+        "join pg_namespace n on n.oid = ct.relnamespace " +
+        "cross join generate_series(1, i.indnatts) as k(n) " +
+        "join pg_attribute a on a.attrelid = ct.oid and a.attnum = i.indkey[k.n - 1] " +
+        "where ct.relkind = 'r' and n.nspname = '" + database.escapeStringForDatabase(database.convertRequestedSchemaToSchema(schema)) + "'" + getTableFilterCondition("ct.relname");
+  }
+
+  protected String getPrimaryKeysQuery (String schema) throws JDBCException {
+    return getInformationSchemaPrimaryKeysQuery("'" + database.escapeStringForDatabase(database.convertRequestedSchemaToSchema(schema)) + "'");
+  }
 }
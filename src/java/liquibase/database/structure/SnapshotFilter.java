@@ -0,0 +1,225 @@
+package liquibase.database.structure;
+
+import liquibase.database.Database;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Limits what a database snapshot reads: which object types are wanted and which tables, views and sequences by
+ * name.  Snapshots push the filter into their DatabaseMetaData calls and catalog queries where they can, so reading a
+ * few tables of a large schema does not read the whole schema.
+ * <p/>
+ * Name patterns use the DatabaseMetaData pattern syntax, % matching any characters and _ any single character, and
+ * match names as the database stores them.  A name is included if it matches any include pattern, or there are none,
+ * and matches no exclude pattern.  Columns, keys and indexes belong to their table and are filtered with it; foreign
+ * keys are only read when both of their tables are included.
+ * <p/>
+ * Object types that other types are read with are read even if not requested, for example primary keys are read with
+ * columns and tables with their columns, as a missing table is written to a change log with its columns.
+ */
+public class SnapshotFilter {
+
+    public static final String TABLES = "tables";
+    public static final String VIEWS = "views";
+    public static final String COLUMNS = "columns";
+    public static final String PRIMARY_KEYS = "primaryKeys";
+    public static final String FOREIGN_KEYS = "foreignKeys";
+    public static final String UNIQUE_CONSTRAINTS = "uniqueConstraints";
+    public static final String INDEXES = "indexes";
+    public static final String SEQUENCES = "sequences";
+
+    private Set<String> objectTypes;
+    private Map<String, List<String>> includes = new HashMap<String, List<String>>();
+    private Map<String, List<String>> excludes = new HashMap<String, List<String>>();
+    private Map<String, Pattern> compiledPatterns = new HashMap<String, Pattern>();
+
+    /**
+     * Creates a filter reading everything.
+     */
+    public SnapshotFilter() {
+    }
+
+    /**
+     * Returns the requested object types, or null if all are.
+     */
+    public Set<String> getObjectTypes() {
+        return objectTypes;
+    }
+
+    /**
+     * Sets the object types wanted, null for all.
+     */
+    public void setObjectTypes(Set<String> objectTypes) {
+        if (objectTypes == null) {
+            this.objectTypes = null;
+        } else {
+            this.objectTypes = new HashSet<String>(objectTypes);
+        }
+    }
+
+    public boolean isRequested(String objectType) {
+        return objectTypes == null || objectTypes.contains(objectType);
+    }
+
+    /**
+     * Returns whether objects of the type have to be read, because they were requested or are needed to read
+     * something requested.
+     */
+    public boolean shouldRead(String objectType) {
+        if (objectTypes == null) {
+            return true;
+        }
+        if (TABLES.equals(objectType)) {
+            return isRequested(TABLES) || isRequested(COLUMNS) || isRequested(PRIMARY_KEYS) || isRequested(FOREIGN_KEYS)
+                    || isRequested(UNIQUE_CONSTRAINTS) || isRequested(INDEXES);
+        } else if (VIEWS.equals(objectType)) {
+            return isRequested(VIEWS) || isRequested(COLUMNS);
+        } else if (COLUMNS.equals(objectType)) {
+            return isRequested(COLUMNS) || isRequested(TABLES);
+        } else if (PRIMARY_KEYS.equals(objectType)) {
+            return isRequested(PRIMARY_KEYS) || isRequested(INDEXES) || shouldRead(COLUMNS);
+        } else if (FOREIGN_KEYS.equals(objectType)) {
+            return isRequested(FOREIGN_KEYS) || isRequested(INDEXES);
+        } else if (UNIQUE_CONSTRAINTS.equals(objectType)) {
+            return isRequested(UNIQUE_CONSTRAINTS) || isRequested(INDEXES);
+        }
+        return isRequested(objectType);
+    }
+
+    /**
+     * Includes tables, views or sequences with a name matching the pattern.
+     */
+    public void include(String objectType, String namePattern) {
+        addPattern(includes, objectType, namePattern);
+    }
+
+    /**
+     * Excludes tables, views or sequences with a name matching the pattern.
+     */
+    public void exclude(String objectType, String namePattern) {
+        addPattern(excludes, objectType, namePattern);
+    }
+
+    private void addPattern(Map<String, List<String>> patterns, String objectType, String namePattern) {
+        List<String> typePatterns = patterns.get(objectType);
+        if (typePatterns == null) {
+            typePatterns = new ArrayList<String>();
+            patterns.put(objectType, typePatterns);
+        }
+        typePatterns.add(namePattern);
+    }
+
+    /**
+     * Returns true if there are name patterns for the object type.
+     */
+    public boolean hasNamePatterns(String objectType) {
+        return includes.containsKey(objectType) || excludes.containsKey(objectType);
+    }
+
+    /**
+     * Returns whether a table, view or sequence of the given name is included.
+     */
+    public boolean matches(String objectType, String name) {
+        List<String> typeIncludes = includes.get(objectType);
+        if (typeIncludes != null) {
+            boolean included = false;
+            for (String pattern : typeIncludes) {
+                if (matchesPattern(pattern, name)) {
+                    included = true;
+                    break;
+                }
+            }
+            if (!included) {
+                return false;
+            }
+        }
+
+        List<String> typeExcludes = excludes.get(objectType);
+        if (typeExcludes != null) {
+            for (String pattern : typeExcludes) {
+                if (matchesPattern(pattern, name)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a DatabaseMetaData name pattern selecting the included objects of the type, or null if they can not be
+     * selected with a single pattern.  Objects returned for the pattern still have to be checked with
+     * {@link #matches(String, String)} for the exclude patterns.
+     */
+    public String getNamePattern(String objectType) {
+        List<String> typeIncludes = includes.get(objectType);
+        if (typeIncludes == null || typeIncludes.size() != 1) {
+            return null;
+        }
+        return typeIncludes.get(0);
+    }
+
+    /**
+     * Returns a SQL condition selecting the included objects of the type, or null if all are.
+     *
+     * @param nameExpression SQL expression for the object name
+     */
+    public String getSqlCondition(String objectType, String nameExpression, Database database) {
+        StringBuffer condition = new StringBuffer();
+        List<String> typeIncludes = includes.get(objectType);
+        if (typeIncludes != null) {
+            condition.append("(");
+            for (Iterator<String> iterator = typeIncludes.iterator(); iterator.hasNext();) {
+                condition.append(nameExpression).append(" LIKE '").append(database.escapeStringForDatabase(iterator.next())).append("'");
+                if (iterator.hasNext()) {
+                    condition.append(" OR ");
+                }
+            }
+            condition.append(")");
+        }
+
+        List<String> typeExcludes = excludes.get(objectType);
+        if (typeExcludes != null) {
+            for (String pattern : typeExcludes) {
+                if (condition.length() > 0) {
+                    condition.append(" AND ");
+                }
+                condition.append(nameExpression).append(" NOT LIKE '").append(database.escapeStringForDatabase(pattern)).append("'");
+            }
+        }
+
+        if (condition.length() == 0) {
+            return null;
+        }
+        return condition.toString();
+    }
+
+    private boolean matchesPattern(String pattern, String name) {
+        if (name == null) {
+            return false;
+        }
+        Pattern compiled = compiledPatterns.get(pattern);
+        if (compiled == null) {
+            StringBuffer regex = new StringBuffer();
+            StringBuffer literal = new StringBuffer();
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '%' || c == '_') {
+                    if (literal.length() > 0) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(c == '%' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+            compiled = Pattern.compile(regex.toString(), Pattern.DOTALL);
+            compiledPatterns.put(pattern, compiled);
+        }
+        return compiled.matcher(name).matches();
+    }
+}
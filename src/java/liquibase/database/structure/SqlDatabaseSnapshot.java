@@ -2,11 +2,12 @@ package liquibase.database.structure;
 
 import liquibase.database.AbstractDatabase;
 import liquibase.database.Database;
-import liquibase.database.OracleDatabase;
 import liquibase.database.sql.visitor.SqlVisitor;
 import liquibase.diff.DiffStatusListener;
 import liquibase.exception.JDBCException;
 import liquibase.log.LogFactory;
+import liquibase.metrics.MigrationMetrics;
+import liquibase.metrics.PhaseTimer;
 import liquibase.util.StringUtils;
 
 import java.sql.DatabaseMetaData;
@@ -37,6 +38,27 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
     protected Map<String, Column> columnsMap = new HashMap<String, Column>();
 
     private Set<DiffStatusListener> statusListeners;
+    private SnapshotFilter filter = new SnapshotFilter();
+
+    View.DefinitionLoader viewDefinitionLoader = new View.DefinitionLoader() {
+        public void loadDefinitions() {
+            try {
+                readViewDefinitions();
+            } catch (JDBCException e) {
+                throw new RuntimeException("Cannot read view definitions", e);
+            }
+        }
+    };
+
+    private NameIndex<Table> tableIndex;
+    private NameIndex<View> viewIndex;
+    private NameIndex<Column> columnIndex;
+    private NameIndex<ForeignKey> foreignKeyIndex;
+    private NameIndex<Index> indexIndex;
+    private NameIndex<PrimaryKey> primaryKeyIndex;
+    private NameIndex<PrimaryKey> primaryKeyTableIndex;
+    private NameIndex<Sequence> sequenceIndex;
+    private NameIndex<UniqueConstraint> uniqueConstraintIndex;
 
     protected static final Logger log = LogFactory.getLogger();
     private String schema;
@@ -75,29 +97,58 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
      * Creates a snapshot of the given database.
      */
     public SqlDatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema) throws JDBCException {
+        this(database, statusListeners, requestedSchema, null);
+    }
+
+    /**
+     * Creates a snapshot of the objects of the given database selected by the filter.
+     */
+    public SqlDatabaseSnapshot(Database database, Set<DiffStatusListener> statusListeners, String requestedSchema, SnapshotFilter filter) throws JDBCException {
         if (requestedSchema == null) {
             requestedSchema = database.getDefaultSchemaName();
         }
 
+        PhaseTimer timer = PhaseTimer.start(database.getMigrationMetrics(), MigrationMetrics.Phase.SNAPSHOT);
         try {
             this.schema = requestedSchema;
             this.database = database;
             this.databaseMetaData = database.getConnection().getMetaData();
             this.statusListeners = statusListeners;
+            if (filter != null) {
+                this.filter = filter;
+            }
 
-            readTablesAndViews(requestedSchema);
-            readForeignKeyInformation(requestedSchema);
-            readPrimaryKeys(requestedSchema);
-            readColumns(requestedSchema);
-            readUniqueConstraints(requestedSchema);
-            readIndexes(requestedSchema);
-            readSequences(requestedSchema);
+            if (this.filter.shouldRead(SnapshotFilter.TABLES) || this.filter.shouldRead(SnapshotFilter.VIEWS)) {
+                readTablesAndViews(requestedSchema);
+            }
+            if (this.filter.shouldRead(SnapshotFilter.FOREIGN_KEYS)) {
+                readForeignKeyInformation(requestedSchema);
+            }
+            if (this.filter.shouldRead(SnapshotFilter.PRIMARY_KEYS)) {
+                readPrimaryKeys(requestedSchema);
+            }
+            if (this.filter.shouldRead(SnapshotFilter.COLUMNS)) {
+                readColumns(requestedSchema);
+            }
+            if (this.filter.shouldRead(SnapshotFilter.UNIQUE_CONSTRAINTS)) {
+                readUniqueConstraints(requestedSchema);
+            }
+            if (this.filter.shouldRead(SnapshotFilter.INDEXES)) {
+                readIndexes(requestedSchema);
+            }
+            if (this.filter.shouldRead(SnapshotFilter.SEQUENCES)) {
+                readSequences(requestedSchema);
+            }
 
             this.tables = new HashSet<Table>(tablesMap.values());
             this.views = new HashSet<View>(viewsMap.values());
             this.columns = new HashSet<Column>(columnsMap.values());
+            resetNameIndexes();
+            timer.succeeded();
         } catch (SQLException e) {
             throw new JDBCException(e);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -105,6 +156,45 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
         return database;
     }
 
+    /**
+     * The filter selecting the objects read into this snapshot.
+     */
+    public SnapshotFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns " AND " followed by a SQL condition selecting the tables included by the filter, or an empty string if
+     * all are, for appending to the WHERE clause of catalog queries.
+     *
+     * @param tableNameExpression SQL expression for the table name
+     */
+    protected String getTableFilterCondition(String tableNameExpression) {
+        String condition = filter.getSqlCondition(SnapshotFilter.TABLES, tableNameExpression, database);
+        if (condition == null) {
+            return "";
+        }
+        return " AND " + condition;
+    }
+
+    /**
+     * Returns the DatabaseMetaData table name pattern selecting every table and view read, or null for all.
+     */
+    private String getTableNamePattern() {
+        boolean readTables = filter.shouldRead(SnapshotFilter.TABLES);
+        boolean readViews = filter.shouldRead(SnapshotFilter.VIEWS);
+        String tablePattern = filter.getNamePattern(SnapshotFilter.TABLES);
+        String viewPattern = filter.getNamePattern(SnapshotFilter.VIEWS);
+        if (!readViews) {
+            return tablePattern;
+        } else if (!readTables) {
+            return viewPattern;
+        } else if (tablePattern != null && tablePattern.equals(viewPattern)) {
+            return tablePattern;
+        }
+        return null;
+    }
+
     public Set<Table> getTables() {
         return tables;
     }
@@ -122,16 +212,8 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
     }
 
     public Column getColumn(String tableName, String columnName) {
-        String tableAndColumn = tableName + "." + columnName;
-        Column returnColumn = columnsMap.get(tableAndColumn);
-        if (returnColumn == null) {
-            for (String key : columnsMap.keySet()) {
-                if (key.equalsIgnoreCase(tableAndColumn)) {
-                    return columnsMap.get(key);
-                }
-            }
-        }
-        return returnColumn;
+        buildNameIndexes();
+        return columnIndex.get(tableName + "." + columnName);
     }
 
     public Set<Column> getColumns() {
@@ -161,7 +243,15 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
 
     protected void readTablesAndViews(String schema) throws SQLException, JDBCException {
         updateListeners("Reading tables for " + database.toString() + " ...");
-        ResultSet rs = databaseMetaData.getTables(database.convertRequestedSchemaToCatalog(schema), database.convertRequestedSchemaToSchema(schema), null, new String[]{"TABLE", "VIEW", "ALIAS"});
+        List<String> types = new ArrayList<String>();
+        if (filter.shouldRead(SnapshotFilter.TABLES)) {
+            types.add("TABLE");
+            types.add("ALIAS");
+        }
+        if (filter.shouldRead(SnapshotFilter.VIEWS)) {
+            types.add("VIEW");
+        }
+        ResultSet rs = databaseMetaData.getTables(database.convertRequestedSchemaToCatalog(schema), database.convertRequestedSchemaToSchema(schema), getTableNamePattern(), types.toArray(new String[types.size()]));
         while (rs.next()) {
             String type = rs.getString("TABLE_TYPE");
             String name = convertFromDatabaseName(rs.getString("TABLE_NAME"));
@@ -176,22 +266,17 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
                 continue;
             }
 
-            if ("TABLE".equals(type) || "ALIAS".equals(type)) {
+            if (("TABLE".equals(type) || "ALIAS".equals(type)) && filter.matches(SnapshotFilter.TABLES, name)) {
                 Table table = new Table(name);
                 table.setRemarks(StringUtils.trimToNull(remarks));
                 table.setDatabase(database);
                 table.setSchema(schemaName);
                 tablesMap.put(name, table);
-            } else if ("VIEW".equals(type)) {
+            } else if ("VIEW".equals(type) && filter.matches(SnapshotFilter.VIEWS, name)) {
                 View view = new View();
                 view.setName(name);
                 view.setSchema(schemaName);
-                try {
-                    view.setDefinition(database.getViewDefinition(schema, name));
-                } catch (JDBCException e) {
-                    System.out.println("Error getting " + database.getConnectionURL() + " view with " + ((AbstractDatabase) database).getViewDefinitionSql(schema, name));
-                    throw e;
-                }
+                view.setDefinitionLoader(viewDefinitionLoader);
 
                 viewsMap.put(name, view);
 
@@ -228,6 +313,37 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
 //        }
     }
 
+    /**
+     * Reads the definitions of the views whose definition has not been read yet.  Definitions are read when the
+     * first one is needed, so snapshots used without views do not query them.  Databases able to return every view
+     * definition of the schema at once are queried once, others once per view.
+     */
+    protected void readViewDefinitions() throws JDBCException {
+        Map<String, String> definitions = null;
+        for (View view : viewsMap.values()) {
+            if (view.isDefinitionLoaded()) {
+                continue;
+            }
+            if (definitions == null) {
+                definitions = database.getViewDefinitions(schema);
+                if (definitions == null) {
+                    definitions = new HashMap<String, String>();
+                }
+            }
+
+            if (definitions.containsKey(view.getName())) {
+                view.setDefinition(definitions.get(view.getName()));
+            } else {
+                try {
+                    view.setDefinition(database.getViewDefinition(schema, view.getName()));
+                } catch (JDBCException e) {
+                    System.out.println("Error getting " + database.getConnectionURL() + " view with " + ((AbstractDatabase) database).getViewDefinitionSql(schema, view.getName()));
+                    throw e;
+                }
+            }
+        }
+    }
+
     protected String convertFromDatabaseName(String objectName) {
         if (objectName == null) {
             return null;
@@ -239,7 +355,7 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
         updateListeners("Reading columns for " + database.toString() + " ...");
 
         Statement selectStatement = database.getConnection().createStatement();
-        ResultSet rs = databaseMetaData.getColumns(database.convertRequestedSchemaToCatalog(schema), database.convertRequestedSchemaToSchema(schema), null, null);
+        ResultSet rs = databaseMetaData.getColumns(database.convertRequestedSchemaToCatalog(schema), database.convertRequestedSchemaToSchema(schema), getTableNamePattern(), null);
         while (rs.next()) {
             Column columnInfo = new Column();
 
@@ -257,7 +373,9 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
             if (table == null) {
                 View view = viewsMap.get(tableName);
                 if (view == null) {
-                    log.info("Could not find table or view " + tableName + " for column " + columnName);
+                    if (filter.getObjectTypes() == null && filter.matches(SnapshotFilter.TABLES, tableName) && filter.matches(SnapshotFilter.VIEWS, tableName)) {
+                        log.info("Could not find table or view " + tableName + " for column " + columnName);
+                    }
                     continue;
                 } else {
                     columnInfo.setView(view);
@@ -282,7 +400,7 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
 
             columnInfo.setPrimaryKey(isPrimaryKey(columnInfo));
 
-            columnInfo.setAutoIncrement(database.isColumnAutoIncrement(schema, tableName, columnName));
+            columnInfo.setAutoIncrement(isColumnAutoIncrement(schema, tableName, columnName));
 
             getColumnTypeAndDefValue(columnInfo, rs, database);
             columnInfo.setRemarks(remarks);
@@ -293,6 +411,14 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
         selectStatement.close();
     }
 
+    /**
+     * Returns whether the column is auto-increment.  Snapshots reading this with the rest of the column metadata
+     * override it to save a query per column.
+     */
+    protected boolean isColumnAutoIncrement(String schema, String tableName, String columnName) throws SQLException, JDBCException {
+        return database.isColumnAutoIncrement(schema, tableName, columnName);
+    }
+
     /**
      * Method assigns correct column type and default value to Column object.
      * <p/>
@@ -318,18 +444,11 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
     } // end of method getColumnTypeAndDefValue()
 
     protected boolean isPrimaryKey(Column columnInfo) {
-        for (PrimaryKey pk : getPrimaryKeys()) {
-            if (columnInfo.getTable() == null) {
-                continue;
-            }
-            if (pk.getTable().getName().equalsIgnoreCase(columnInfo.getTable().getName())) {
-                if (pk.getColumnNamesAsList().contains(columnInfo.getName())) {
-                    return true;
-                }
-            }
+        if (columnInfo.getTable() == null) {
+            return false;
         }
-
-        return false;
+        PrimaryKey pk = getPrimaryKeyForTable(columnInfo.getTable().getName());
+        return pk != null && pk.getColumnNamesAsList().contains(columnInfo.getName());
     }
 
     protected void readForeignKeyInformation(String schema) throws JDBCException, SQLException {
@@ -352,6 +471,17 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
                     continue;
                 }
                 int keySeq = rs.getInt("KEY_SEQ");
+                String fkTableName = convertFromDatabaseName(rs.getString("FKTABLE_NAME"));
+                if (!filter.matches(SnapshotFilter.TABLES, fkTableName)) {
+                    //the rest of the key's rows are skipped with it
+                    if (keySeq == 1) {
+                        fkInfo = null;
+                    }
+                    continue;
+                }
+                if (fkInfo == null && keySeq > 1) {
+                    continue;
+                }
                 //Simple (non-composite) keys have KEY_SEQ=1, so create the ForeignKey.
                 //In case of subsequent parts of composite keys (KEY_SEQ>1) don't create new instance, just reuse the one from previous call.
                 //According to #getExportedKeys() contract, the result set rows are properly sorted, so the reuse of previous FK instance is safe.
@@ -362,7 +492,6 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
                 fkInfo.setPrimaryKeyTable(pkTable);
                 fkInfo.addPrimaryKeyColumn(pkColumn);
 
-                String fkTableName = convertFromDatabaseName(rs.getString("FKTABLE_NAME"));
                 String fkSchema = convertFromDatabaseName(rs.getString("FKTABLE_SCHEM"));
                 String fkColumn = convertFromDatabaseName(rs.getString("FKCOLUMN_NAME"));
                 Table fkTable = tablesMap.get(fkTableName);
@@ -415,129 +544,205 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
     protected void readIndexes(String schema) throws JDBCException, SQLException {
         updateListeners("Reading indexes for " + database.toString() + " ...");
 
-        for (Table table : tablesMap.values()) {
-            ResultSet rs;
-            Statement statement = null;
-            if (database instanceof OracleDatabase) {
-                //oracle getIndexInfo is buggy and slow.  See Issue 1824548 and http://forums.oracle.com/forums/thread.jspa?messageID=578383&#578383  
-                statement = database.getConnection().createStatement();
-                String sql = "SELECT INDEX_NAME, 3 AS TYPE, TABLE_NAME, COLUMN_NAME, COLUMN_POSITION AS ORDINAL_POSITION, null AS FILTER_CONDITION FROM ALL_IND_COLUMNS WHERE TABLE_OWNER='" + database.convertRequestedSchemaToSchema(schema) + "' AND TABLE_NAME='" + table.getName() + "' ORDER BY INDEX_NAME, ORDINAL_POSITION";
-                rs = statement.executeQuery(sql);
-            } else {
-                rs = databaseMetaData.getIndexInfo(database.convertRequestedSchemaToCatalog(schema), database.convertRequestedSchemaToSchema(schema), table.getName(), false, true);
+        //keyed by table and index name, columns are added as they are read so indexes are only added to the set at the end
+        Map<String, Index> indexMap = new HashMap<String, Index>();
+        String sql = getIndexesQuery(schema);
+        if (sql == null) {
+            for (Table table : tablesMap.values()) {
+                ResultSet rs = databaseMetaData.getIndexInfo(database.convertRequestedSchemaToCatalog(schema), database.convertRequestedSchemaToSchema(schema), table.getName(), false, true);
+                try {
+                    readIndexColumns(rs, table, indexMap);
+                } finally {
+                    rs.close();
+                }
             }
-            Map<String, Index> indexMap = new HashMap<String, Index>();
-            while (rs.next()) {
-                String indexName = convertFromDatabaseName(rs.getString("INDEX_NAME"));
-                short type = rs.getShort("TYPE");
-//                String tableName = rs.getString("TABLE_NAME");
-                boolean nonUnique = true;
+        } else {
+            Statement statement = database.createStreamingStatement();
+            try {
+                ResultSet rs = statement.executeQuery(sql);
                 try {
-                    nonUnique = rs.getBoolean("NON_UNIQUE");
-                } catch (SQLException e) {
-                    //doesn't exist in all databases
+                    readIndexColumns(rs, null, indexMap);
+                } finally {
+                    rs.close();
                 }
-                String columnName = convertFromDatabaseName(rs.getString("COLUMN_NAME"));
-                short position = rs.getShort("ORDINAL_POSITION");
-                String filterCondition = rs.getString("FILTER_CONDITION");
+            } finally {
+                statement.close();
+            }
+        }
+        indexes.addAll(indexMap.values());
 
-                if (type == DatabaseMetaData.tableIndexStatistic) {
-                    continue;
-                }
+        removeKeyIndexes();
+    }
+
+    /**
+     * Returns a query reading the indexes of every table in the schema at once, or null to read them table by table
+     * through DatabaseMetaData.getIndexInfo.  The query must return the INDEX_NAME, TYPE, TABLE_NAME, COLUMN_NAME,
+     * ORDINAL_POSITION and FILTER_CONDITION columns of getIndexInfo, and NON_UNIQUE if it is known.
+     */
+    protected String getIndexesQuery(String schema) throws JDBCException {
+        return null;
+    }
+
+    /**
+     * Adds the index columns in the result set to the indexes in the map.  If table is null, the table is looked up
+     * from the TABLE_NAME column and rows for tables not in the snapshot are skipped.
+     */
+    private void readIndexColumns(ResultSet rs, Table table, Map<String, Index> indexMap) throws SQLException {
+        while (rs.next()) {
+            String indexName = convertFromDatabaseName(rs.getString("INDEX_NAME"));
+            short type = rs.getShort("TYPE");
+            boolean nonUnique = true;
+            try {
+                nonUnique = rs.getBoolean("NON_UNIQUE");
+            } catch (SQLException e) {
+                //doesn't exist in all databases
+            }
+            String columnName = convertFromDatabaseName(rs.getString("COLUMN_NAME"));
+            short position = rs.getShort("ORDINAL_POSITION");
+            String filterCondition = rs.getString("FILTER_CONDITION");
+
+            if (type == DatabaseMetaData.tableIndexStatistic) {
+                continue;
+            }
 //                if (type == DatabaseMetaData.tableIndexOther) {
 //                    continue;
 //                }
 
-                if (columnName == null) {
-                    //nothing to index, not sure why these come through sometimes
-                    continue;
-                }
-                Index indexInformation;
-                if (indexMap.containsKey(indexName)) {
-                    indexInformation = indexMap.get(indexName);
-                } else {
-                    indexInformation = new Index();
-                    indexInformation.setTable(table);
-                    indexInformation.setName(indexName);
-                    indexInformation.setUnique(!nonUnique);
-                    indexInformation.setFilterCondition(filterCondition);
-                    indexMap.put(indexName, indexInformation);
-                }
+            if (columnName == null) {
+                //nothing to index, not sure why these come through sometimes
+                continue;
+            }
 
-                for (int i = indexInformation.getColumns().size(); i < position; i++) {
-                    indexInformation.getColumns().add(null);
+            Table indexTable = table;
+            if (indexTable == null) {
+                indexTable = tablesMap.get(convertFromDatabaseName(rs.getString("TABLE_NAME")));
+                if (indexTable == null) {
+                    continue;
                 }
-                indexInformation.getColumns().set(position-1, columnName);
             }
-            for (Map.Entry<String, Index> entry : indexMap.entrySet()) {
-                indexes.add(entry.getValue());
+
+            String key = indexTable.getName() + "." + indexName;
+            Index indexInformation = indexMap.get(key);
+            if (indexInformation == null) {
+                indexInformation = new Index();
+                indexInformation.setTable(indexTable);
+                indexInformation.setName(indexName);
+                indexInformation.setUnique(!nonUnique);
+                indexInformation.setFilterCondition(filterCondition);
+                indexMap.put(key, indexInformation);
             }
-            rs.close();
-            if (statement != null) {
-                statement.close();
+
+            for (int i = indexInformation.getColumns().size(); i < position; i++) {
+                indexInformation.getColumns().add(null);
             }
+            indexInformation.getColumns().set(position - 1, columnName);
         }
+    }
 
-        Set<Index> indexesToRemove = new HashSet<Index>();
-        //remove PK indexes
-        for (Index index : indexes) {
-            for (PrimaryKey pk : primaryKeys) {
-                if (index.getTable().getName().equalsIgnoreCase(pk.getTable().getName()) && index.getColumnNames().equals(pk.getColumnNames())) {
-                    indexesToRemove.add(index);
-                }
-            }
-            for (ForeignKey fk : foreignKeys) {
-                if (index.getTable().getName().equalsIgnoreCase(fk.getForeignKeyTable().getName()) && index.getColumnNames().equals(fk.getForeignKeyColumns())) {
-                    indexesToRemove.add(index);
-                }
-            }
-            for (UniqueConstraint uc : uniqueConstraints) {
-                if (index.getTable().getName().equalsIgnoreCase(uc.getTable().getName()) && index.getColumnNames().equals(uc.getColumnNames())) {
-                    indexesToRemove.add(index);
-                }
-            }
+    /**
+     * Removes the indexes backing primary keys, foreign keys and unique constraints, matching them on table and
+     * column list.
+     */
+    protected void removeKeyIndexes() {
+        Set<String> keyColumns = new HashSet<String>();
+        for (PrimaryKey pk : primaryKeys) {
+            keyColumns.add(createKeyColumnsKey(pk.getTable(), pk.getColumnNames()));
+        }
+        for (ForeignKey fk : foreignKeys) {
+            keyColumns.add(createKeyColumnsKey(fk.getForeignKeyTable(), fk.getForeignKeyColumns()));
+        }
+        for (UniqueConstraint uc : uniqueConstraints) {
+            keyColumns.add(createKeyColumnsKey(uc.getTable(), uc.getColumnNames()));
+        }
 
+        for (Iterator<Index> iterator = indexes.iterator(); iterator.hasNext();) {
+            Index index = iterator.next();
+            if (keyColumns.contains(createKeyColumnsKey(index.getTable(), index.getColumnNames()))) {
+                iterator.remove();
+            }
         }
-        indexes.removeAll(indexesToRemove);
+    }
+
+    private String createKeyColumnsKey(Table table, String columnNames) {
+        return (table == null ? null : table.getName().toUpperCase(Locale.ENGLISH)) + ":" + columnNames;
     }
 
     protected void readPrimaryKeys(String schema) throws JDBCException, SQLException {
         updateListeners("Reading primary keys for " + database.toString() + " ...");
 
         //we can't add directly to the this.primaryKeys hashSet because adding columns to an exising PK changes the hashCode and .contains() fails
-        List<PrimaryKey> foundPKs = new ArrayList<PrimaryKey>();
+        Map<String, PrimaryKey> foundPKs = new HashMap<String, PrimaryKey>();
 
-        for (Table table : tablesMap.values()) {
-            ResultSet rs = databaseMetaData.getPrimaryKeys(database.convertRequestedSchemaToCatalog(schema), database.convertRequestedSchemaToSchema(schema), table.getName());
+        String sql = getPrimaryKeysQuery(schema);
+        if (sql == null) {
+            for (Table table : tablesMap.values()) {
+                ResultSet rs = databaseMetaData.getPrimaryKeys(database.convertRequestedSchemaToCatalog(schema), database.convertRequestedSchemaToSchema(schema), table.getName());
+                try {
+                    readPrimaryKeyColumns(rs, table, foundPKs);
+                } finally {
+                    rs.close();
+                }
+            }
+        } else {
+            Statement statement = database.createStreamingStatement();
+            try {
+                ResultSet rs = statement.executeQuery(sql);
+                try {
+                    readPrimaryKeyColumns(rs, null, foundPKs);
+                } finally {
+                    rs.close();
+                }
+            } finally {
+                statement.close();
+            }
+        }
 
-            while (rs.next()) {
-                String tableName = convertFromDatabaseName(rs.getString("TABLE_NAME"));
-                String columnName = convertFromDatabaseName(rs.getString("COLUMN_NAME"));
-                short position = rs.getShort("KEY_SEQ");
+        this.primaryKeys.addAll(foundPKs.values());
+    }
 
-                boolean foundExistingPK = false;
-                for (PrimaryKey pk : foundPKs) {
-                    if (pk.getTable().getName().equals(tableName)) {
-                        pk.addColumnName(position - 1, columnName);
+    /**
+     * Returns a query reading the primary keys of every table in the schema at once, or null to read them table by
+     * table through DatabaseMetaData.getPrimaryKeys.  The query must return the TABLE_NAME, COLUMN_NAME, KEY_SEQ and
+     * PK_NAME columns of getPrimaryKeys.
+     */
+    protected String getPrimaryKeysQuery(String schema) throws JDBCException {
+        return null;
+    }
 
-                        foundExistingPK = true;
-                    }
-                }
+    /**
+     * A primary key query over INFORMATION_SCHEMA, for databases providing it.
+     *
+     * @param tableSchema SQL expression for the TABLE_SCHEMA to read
+     */
+    protected String getInformationSchemaPrimaryKeysQuery(String tableSchema) {
+        return "SELECT TC.TABLE_NAME AS TABLE_NAME, KCU.COLUMN_NAME AS COLUMN_NAME, KCU.ORDINAL_POSITION AS KEY_SEQ, TC.CONSTRAINT_NAME AS PK_NAME " +
+                "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS TC " +
+                "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE KCU ON KCU.CONSTRAINT_SCHEMA = TC.CONSTRAINT_SCHEMA AND KCU.CONSTRAINT_NAME = TC.CONSTRAINT_NAME AND KCU.TABLE_NAME = TC.TABLE_NAME " +
+                "WHERE TC.CONSTRAINT_TYPE = 'PRIMARY KEY' AND TC.TABLE_SCHEMA = " + tableSchema + getTableFilterCondition("TC.TABLE_NAME");
+    }
 
-                if (!foundExistingPK) {
-                    PrimaryKey primaryKey = new PrimaryKey();
-                    primaryKey.setTable(table);
-                    primaryKey.addColumnName(position - 1, columnName);
-                    primaryKey.setName(convertPrimaryKeyName(rs.getString("PK_NAME")));
+    private void readPrimaryKeyColumns(ResultSet rs, Table table, Map<String, PrimaryKey> foundPKs) throws SQLException {
+        while (rs.next()) {
+            String tableName = convertFromDatabaseName(rs.getString("TABLE_NAME"));
+            String columnName = convertFromDatabaseName(rs.getString("COLUMN_NAME"));
+            short position = rs.getShort("KEY_SEQ");
 
-                    foundPKs.add(primaryKey);
+            PrimaryKey primaryKey = foundPKs.get(tableName);
+            if (primaryKey == null) {
+                Table pkTable = table;
+                if (pkTable == null) {
+                    pkTable = tablesMap.get(tableName);
+                    if (pkTable == null) {
+                        continue;
+                    }
                 }
+                primaryKey = new PrimaryKey();
+                primaryKey.setTable(pkTable);
+                primaryKey.setName(convertPrimaryKeyName(rs.getString("PK_NAME")));
+                foundPKs.put(tableName, primaryKey);
             }
-
-            rs.close();
+            primaryKey.addColumnName(position - 1, columnName);
         }
-
-        this.primaryKeys.addAll(foundPKs);
     }
 
     protected String convertPrimaryKeyName(String pkName) throws SQLException {
@@ -574,6 +779,9 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
 
             if (sequenceNames != null) {
                 for (String sequenceName : sequenceNames) {
+                    if (!filter.matches(SnapshotFilter.SEQUENCES, sequenceName.trim())) {
+                        continue;
+                    }
                     Sequence seq = new Sequence();
                     seq.setName(sequenceName.trim());
                     seq.setSchema(convertedSchemaName);
@@ -594,76 +802,95 @@ public abstract class SqlDatabaseSnapshot implements DatabaseSnapshot {
         }
     }
 
-    public Table getTable(String tableName) {
+    /**
+     * Discards the name indexes so they are rebuilt from the current objects on the next lookup.  Must be called
+     * after objects are added to or removed from the snapshot once lookups have been made.
+     */
+    protected void resetNameIndexes() {
+        tableIndex = null;
+    }
+
+    private void buildNameIndexes() {
+        if (tableIndex != null) {
+            return;
+        }
+
+        viewIndex = new NameIndex<View>(database);
+        for (View view : getViews()) {
+            viewIndex.put(view.getName(), view);
+        }
+        columnIndex = new NameIndex<Column>(database);
+        for (Map.Entry<String, Column> entry : columnsMap.entrySet()) {
+            columnIndex.put(entry.getKey(), entry.getValue());
+        }
+        foreignKeyIndex = new NameIndex<ForeignKey>(database);
+        for (ForeignKey fk : getForeignKeys()) {
+            foreignKeyIndex.put(fk.getName(), fk);
+        }
+        indexIndex = new NameIndex<Index>(database);
+        for (Index index : getIndexes()) {
+            indexIndex.put(index.getName(), index);
+        }
+        primaryKeyIndex = new NameIndex<PrimaryKey>(database);
+        primaryKeyTableIndex = new NameIndex<PrimaryKey>(database);
+        for (PrimaryKey pk : getPrimaryKeys()) {
+            primaryKeyIndex.put(pk.getName(), pk);
+            primaryKeyTableIndex.put(pk.getTable().getName(), pk);
+        }
+        sequenceIndex = new NameIndex<Sequence>(database);
+        for (Sequence sequence : getSequences()) {
+            sequenceIndex.put(sequence.getName(), sequence);
+        }
+        uniqueConstraintIndex = new NameIndex<UniqueConstraint>(database);
+        for (UniqueConstraint uc : getUniqueConstraints()) {
+            uniqueConstraintIndex.put(uc.getName(), uc);
+        }
+
+        NameIndex<Table> tableIndex = new NameIndex<Table>(database);
         for (Table table : getTables()) {
-            if (table.getName().equalsIgnoreCase(tableName)) {
-                return table;
-            }
+            tableIndex.put(table.getName(), table);
         }
-        return null;
+        this.tableIndex = tableIndex;
+    }
+
+    public Table getTable(String tableName) {
+        buildNameIndexes();
+        return tableIndex.get(tableName);
     }
 
     public ForeignKey getForeignKey(String foreignKeyName) {
-        for (ForeignKey fk : getForeignKeys()) {
-            if (fk.getName().equalsIgnoreCase(foreignKeyName)) {
-                return fk;
-            }
-        }
-        return null;
+        buildNameIndexes();
+        return foreignKeyIndex.get(foreignKeyName);
     }
 
     public Sequence getSequence(String sequenceName) {
-        for (Sequence sequence : getSequences()) {
-            if (sequence.getName().equalsIgnoreCase(sequenceName)) {
-                return sequence;
-            }
-        }
-        return null;
+        buildNameIndexes();
+        return sequenceIndex.get(sequenceName);
     }
 
     public Index getIndex(String indexName) {
-        for (Index index : getIndexes()) {
-            if (index.getName().equalsIgnoreCase(indexName)) {
-                return index;
-            }
-        }
-        return null;
+        buildNameIndexes();
+        return indexIndex.get(indexName);
     }
 
     public View getView(String viewName) {
-        for (View view : getViews()) {
-            if (view.getName().equalsIgnoreCase(viewName)) {
-                return view;
-            }
-        }
-        return null;
+        buildNameIndexes();
+        return viewIndex.get(viewName);
     }
 
     public PrimaryKey getPrimaryKey(String pkName) {
-        for (PrimaryKey pk : getPrimaryKeys()) {
-            if (pk.getName().equalsIgnoreCase(pkName)) {
-                return pk;
-            }
-        }
-        return null;
+        buildNameIndexes();
+        return primaryKeyIndex.get(pkName);
     }
 
     public PrimaryKey getPrimaryKeyForTable(String tableName) {
-        for (PrimaryKey pk : getPrimaryKeys()) {
-            if (pk.getTable().getName().equalsIgnoreCase(tableName)) {
-                return pk;
-            }
-        }
-        return null;
+        buildNameIndexes();
+        return primaryKeyTableIndex.get(tableName);
     }
 
     public UniqueConstraint getUniqueConstraint(String ucName) {
-        for (UniqueConstraint uc : getUniqueConstraints()) {
-            if (uc.getName().equalsIgnoreCase(ucName)) {
-                return uc;
-            }
-        }
-        return null;
+        buildNameIndexes();
+        return uniqueConstraintIndex.get(ucName);
     }
 
     public String getSchema() {
@@ -66,4 +66,17 @@ public class SybaseASADatabaseSnapshot extends SqlDatabaseSnapshot {
 		// TODO Auto-generated constructor stub
 	}
 
+	/**
+	 * @param database
+	 * @param statusListeners
+	 * @param requestedSchema
+	 * @param filter
+	 * @throws JDBCException
+	 */
+	public SybaseASADatabaseSnapshot(Database database,
+			Set<DiffStatusListener> statusListeners, String requestedSchema,
+			SnapshotFilter filter) throws JDBCException {
+		super(database, statusListeners, requestedSchema, filter);
+	}
+
 }
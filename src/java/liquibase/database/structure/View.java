@@ -11,6 +11,7 @@ public class View implements DatabaseObject, Comparable<View> {
     private String schema;
     private List<Column> columns = new ArrayList<Column>();
     private String definition;
+    private DefinitionLoader definitionLoader;
 
 
     public View(String name) {
@@ -49,11 +50,33 @@ public class View implements DatabaseObject, Comparable<View> {
 
 
     public String getDefinition() {
+        if (definitionLoader != null) {
+            definitionLoader.loadDefinitions();
+        }
         return definition;
     }
 
     public void setDefinition(String definition) {
         this.definition = definition;
+        this.definitionLoader = null;
+    }
+
+    /**
+     * Sets what reads the definition the first time it is needed.
+     */
+    void setDefinitionLoader(DefinitionLoader definitionLoader) {
+        this.definitionLoader = definitionLoader;
+    }
+
+    boolean isDefinitionLoaded() {
+        return definitionLoader == null;
+    }
+
+    /**
+     * Reads the definitions of the views of a snapshot, all at once where the database allows it.
+     */
+    interface DefinitionLoader {
+        void loadDefinitions();
     }
 
     public boolean equals(Object o) {
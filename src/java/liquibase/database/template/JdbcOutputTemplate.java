@@ -48,6 +48,13 @@ public class JdbcOutputTemplate extends JdbcTemplate {
         outputStatement(sql, sqlVisitors);
     }
 
+    @Override
+    public void batchExecute(List<SqlStatement> statements, List<SqlVisitor> sqlVisitors) throws JDBCException {
+        for (SqlStatement sql : statements) {
+            outputStatement(sql, sqlVisitors);
+        }
+    }
+
     @Override
     public int update(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws JDBCException {
         outputStatement(sql, sqlVisitors);
@@ -5,12 +5,15 @@ import liquibase.database.DatabaseConnection;
 import liquibase.database.sql.CallableSqlStatement;
 import liquibase.database.sql.SqlStatement;
 import liquibase.database.sql.visitor.SqlVisitor;
+import liquibase.database.sql.visitor.SqlVisitorPipeline;
 import liquibase.exception.JDBCException;
 import liquibase.exception.StatementNotSupportedOnDatabaseException;
 import liquibase.log.LogFactory;
 import liquibase.util.JdbcUtils;
 
+import java.sql.BatchUpdateException;
 import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -26,10 +29,24 @@ public class JdbcTemplate {
 
     protected Database database;
 
+    private boolean usePreparedStatements = false;
+
     public JdbcTemplate(Database database) {
         this.database = database;
     }
 
+    /**
+     * Returns whether queries are run as prepared statements from the connection's statement cache, so repeated
+     * queries are only parsed by the database once.
+     */
+    public boolean isUsePreparedStatements() {
+        return usePreparedStatements;
+    }
+
+    public void setUsePreparedStatements(boolean usePreparedStatements) {
+        this.usePreparedStatements = usePreparedStatements;
+    }
+
     public boolean executesStatements() {
         return true;
     }
@@ -39,10 +56,19 @@ public class JdbcTemplate {
     //-------------------------------------------------------------------------
 
     public Object execute(StatementCallback action, List<SqlVisitor> sqlVisitors) throws JDBCException {
+        if (usePreparedStatements && action instanceof QueryStatementCallback) {
+            return executeCachedQuery((QueryStatementCallback) action, sqlVisitors);
+        }
+
         DatabaseConnection con = database.getConnection();
         Statement stmt = null;
         try {
-            stmt = con.createStatement();
+            if (action instanceof QueryStatementCallback) {
+                //results are read once, so let the driver stream them with the database's fetch size
+                stmt = database.createStreamingStatement();
+            } else {
+                stmt = con.createStatement();
+            }
             Statement stmtToUse = stmt;
 
             return action.doInStatement(stmtToUse);
@@ -59,6 +85,28 @@ public class JdbcTemplate {
         }
     }
 
+    /**
+     * Runs the query as a cached prepared statement.  The statement is left open in the cache.
+     */
+    private Object executeCachedQuery(QueryStatementCallback action, List<SqlVisitor> sqlVisitors) throws JDBCException {
+        String sql = applyVisitors(action.getStatement(), sqlVisitors);
+        ResultSet rs = null;
+        try {
+            PreparedStatement stmt = database.getConnection().prepareCachedStatement(sql);
+            if (database.getFetchSize() != 0) {
+                stmt.setFetchSize(database.getFetchSize());
+            }
+            rs = stmt.executeQuery();
+            return action.extractData(rs);
+        }
+        catch (SQLException ex) {
+            throw new JDBCException("Error executing SQL " + sql, ex);
+        }
+        finally {
+            JdbcUtils.closeResultSet(rs);
+        }
+    }
+
     public void execute(final SqlStatement sql) throws JDBCException {
         execute(sql, new ArrayList<SqlVisitor>());
     }
@@ -86,14 +134,62 @@ public class JdbcTemplate {
         execute(new ExecuteStatementCallback(), sqlVisitors);
     }
 
+    /**
+     * Executes the statements in order as one JDBC batch, saving a round trip per statement.  Falls back to
+     * executing them one at a time if the driver does not support batches or a statement is callable.
+     */
+    public void batchExecute(final List<SqlStatement> statements, final List<SqlVisitor> sqlVisitors) throws JDBCException {
+        boolean batch = statements.size() > 1;
+        for (SqlStatement statement : statements) {
+            if (statement instanceof CallableSqlStatement) {
+                batch = false;
+            }
+        }
+
+        DatabaseConnection con = database.getConnection();
+        Statement stmt = null;
+        String[] sql = new String[statements.size()];
+        try {
+            if (!batch || !con.getMetaData().supportsBatchUpdates()) {
+                for (SqlStatement statement : statements) {
+                    execute(statement, sqlVisitors);
+                }
+                return;
+            }
+
+            stmt = con.createStatement();
+            for (int i = 0; i < sql.length; i++) {
+                sql[i] = applyVisitors(statements.get(i), sqlVisitors);
+                stmt.addBatch(sql[i]);
+            }
+            stmt.executeBatch();
+        }
+        catch (BatchUpdateException ex) {
+            // drivers either stop at the failed statement or mark it and go on
+            int[] updateCounts = ex.getUpdateCounts();
+            int failed = updateCounts == null ? 0 : updateCounts.length;
+            for (int i = 0; updateCounts != null && i < updateCounts.length; i++) {
+                if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    failed = i;
+                    break;
+                }
+            }
+            throw new JDBCException("Error executing SQL " + (failed < sql.length ? sql[failed] : "batch"), ex);
+        }
+        catch (SQLException ex) {
+            throw new JDBCException("Error executing SQL batch", ex);
+        }
+        finally {
+            JdbcUtils.closeStatement(stmt);
+        }
+    }
+
     protected String applyVisitors(SqlStatement sql, List<SqlVisitor> sqlVisitors) throws StatementNotSupportedOnDatabaseException {
         String returnSql = sql.getSqlStatement(database);
-        for (SqlVisitor visitor : sqlVisitors) {
-            if (visitor.isApplicable(database)) {
-                returnSql = visitor.modifySql(returnSql, database);
-            }
+        if (sqlVisitors == null || sqlVisitors.isEmpty()) {
+            return returnSql;
         }
-        return returnSql;
+        return SqlVisitorPipeline.compile(sqlVisitors, database).apply(returnSql);
     }
 
     public Object query(final SqlStatement sql, final ResultSetExtractor rse) throws JDBCException {
@@ -105,25 +201,7 @@ public class JdbcTemplate {
             throw new JDBCException("Direct query using CallableSqlStatement not currently implemented");
         }
 
-        class QueryStatementCallback implements StatementCallback {
-            public Object doInStatement(Statement stmt) throws SQLException, JDBCException {
-                ResultSet rs = null;
-                try {
-                    rs = stmt.executeQuery(applyVisitors(sql, sqlVisitors));
-                    ResultSet rsToUse = rs;
-                    return rse.extractData(rsToUse);
-                }
-                finally {
-                    JdbcUtils.closeResultSet(rs);
-                }
-            }
-
-
-            public SqlStatement getStatement() {
-                return sql;
-            }
-        }
-        return execute(new QueryStatementCallback(), sqlVisitors);
+        return execute(new QueryStatementCallback(sql, rse, sqlVisitors), sqlVisitors);
     }
 
     public List query(SqlStatement sql, RowMapper rowMapper) throws JDBCException {
@@ -274,6 +352,42 @@ public class JdbcTemplate {
         LogFactory.getLogger().info(message);
     }
 
+    /**
+     * Runs a query and extracts its results.  Statements for it are created as streaming statements, or taken from
+     * the statement cache if prepared statements are used.
+     */
+    private class QueryStatementCallback implements StatementCallback {
+        private final SqlStatement sql;
+        private final ResultSetExtractor rse;
+        private final List<SqlVisitor> sqlVisitors;
+
+        public QueryStatementCallback(SqlStatement sql, ResultSetExtractor rse, List<SqlVisitor> sqlVisitors) {
+            this.sql = sql;
+            this.rse = rse;
+            this.sqlVisitors = sqlVisitors;
+        }
+
+        public Object doInStatement(Statement stmt) throws SQLException, JDBCException {
+            ResultSet rs = null;
+            try {
+                rs = stmt.executeQuery(applyVisitors(sql, sqlVisitors));
+                ResultSet rsToUse = rs;
+                return rse.extractData(rsToUse);
+            }
+            finally {
+                JdbcUtils.closeResultSet(rs);
+            }
+        }
+
+        public Object extractData(ResultSet rs) throws SQLException {
+            return rse.extractData(rs);
+        }
+
+        public SqlStatement getStatement() {
+            return sql;
+        }
+    }
+
     /**
      * Adapter to enable use of a RowCallbackHandler inside a ResultSetExtractor.
      * <p>Uses a regular ResultSet, so we have to be careful when using it:
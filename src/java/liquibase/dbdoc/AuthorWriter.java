@@ -4,7 +4,7 @@ import liquibase.change.Change;
 import liquibase.database.Database;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.Writer;
 import java.io.IOException;
 import java.util.List;
 
@@ -18,6 +18,6 @@ public class AuthorWriter extends HTMLWriter {
         return "Changes created by author "+object.toString();
     }
 
-    protected void writeCustomHTML(FileWriter fileWriter, Object object, List<Change> changes, Database database) throws IOException {
+    protected void writeCustomHTML(Writer fileWriter, Object object, List<Change> changes, Database database) throws IOException {
     }
 }
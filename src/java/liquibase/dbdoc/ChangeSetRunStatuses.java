@@ -0,0 +1,76 @@
+package liquibase.dbdoc;
+
+import liquibase.ChangeSet;
+import liquibase.RanChangeSet;
+import liquibase.database.Database;
+import liquibase.exception.DatabaseHistoryException;
+import liquibase.exception.JDBCException;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Run status and ran date of each change set, worked out once from a single read of the change log table instead
+ * of a scan of the ran change sets every time a page lists the change set.
+ */
+public class ChangeSetRunStatuses {
+
+    private Database database;
+    private Map<String, RanChangeSet> ranChangeSets;
+    private Map<ChangeSet, ChangeSet.RunStatus> runStatuses = new HashMap<ChangeSet, ChangeSet.RunStatus>();
+
+    public ChangeSetRunStatuses(Database database) {
+        this.database = database;
+    }
+
+    public synchronized ChangeSet.RunStatus getRunStatus(ChangeSet changeSet) throws JDBCException, DatabaseHistoryException {
+        ChangeSet.RunStatus runStatus = runStatuses.get(changeSet);
+        if (runStatus == null) {
+            RanChangeSet ranChangeSet = getRanChangeSet(changeSet);
+            if (ranChangeSet == null) {
+                runStatus = ChangeSet.RunStatus.NOT_RAN;
+            } else if (ranChangeSet.getMd5sum() == null) {
+                //let the database store the md5sum
+                runStatus = database.getRunStatus(changeSet);
+            } else if (ranChangeSet.getMd5sum().equals(changeSet.getMd5sum())) {
+                runStatus = ChangeSet.RunStatus.ALREADY_RAN;
+            } else if (changeSet.shouldRunOnChange()) {
+                runStatus = ChangeSet.RunStatus.RUN_AGAIN;
+            } else {
+                runStatus = ChangeSet.RunStatus.INVALID_MD5SUM;
+            }
+            runStatuses.put(changeSet, runStatus);
+        }
+        return runStatus;
+    }
+
+    public synchronized Date getRanDate(ChangeSet changeSet) throws JDBCException {
+        RanChangeSet ranChangeSet = getRanChangeSet(changeSet);
+        if (ranChangeSet == null) {
+            return null;
+        }
+        return ranChangeSet.getDateExecuted();
+    }
+
+    private RanChangeSet getRanChangeSet(ChangeSet changeSet) throws JDBCException {
+        if (ranChangeSets == null) {
+            ranChangeSets = new HashMap<String, RanChangeSet>();
+            if (database.doesChangeLogTableExist()) {
+                List<RanChangeSet> ranChangeSetList = database.getRanChangeSetList();
+                for (RanChangeSet ranChangeSet : ranChangeSetList) {
+                    String key = createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+                    if (!ranChangeSets.containsKey(key)) {
+                        ranChangeSets.put(key, ranChangeSet);
+                    }
+                }
+            }
+        }
+        return ranChangeSets.get(createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+    }
+
+    private String createKey(String filePath, String id, String author) {
+        return filePath.replace('\\', '/') + "::" + id + "::" + author;
+    }
+}
@@ -4,7 +4,7 @@ import liquibase.change.Change;
 import liquibase.database.Database;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.Writer;
 import java.io.IOException;
 import java.util.List;
 
@@ -19,6 +19,6 @@ public class ColumnWriter extends HTMLWriter {
         return "Changes affecting column \""+object.toString() + "\"";
     }
 
-    protected void writeCustomHTML(FileWriter fileWriter, Object object, List<Change> changes, Database database) throws IOException {
+    protected void writeCustomHTML(Writer fileWriter, Object object, List<Change> changes, Database database) throws IOException {
     }
 }
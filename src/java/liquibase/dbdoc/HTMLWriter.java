@@ -6,11 +6,14 @@ import liquibase.database.Database;
 import liquibase.exception.DatabaseHistoryException;
 import liquibase.exception.JDBCException;
 import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
 import liquibase.util.StringUtils;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.text.DateFormat;
 import java.util.Date;
 import java.util.List;
@@ -18,6 +21,8 @@ import java.util.List;
 public abstract class HTMLWriter {
     protected File outputDir;
     protected Database database;
+    private ChangeSetRunStatuses runStatuses;
+    private PageFingerprints fingerprints;
 
     public HTMLWriter(File outputDir, Database database) {
         this.outputDir = outputDir;
@@ -27,26 +32,50 @@ public abstract class HTMLWriter {
         }
     }
 
-    protected abstract void writeCustomHTML(FileWriter fileWriter, Object object, List<Change> changes, Database database) throws IOException;
+    protected abstract void writeCustomHTML(Writer fileWriter, Object object, List<Change> changes, Database database) throws IOException;
 
-    private FileWriter createFileWriter(Object object) throws IOException {
-        return new FileWriter(new File(outputDir, object.toString().toLowerCase() + ".html"));
+    /**
+     * Run statuses to list the changes with, instead of looking each change set up in the database.
+     */
+    public void setRunStatuses(ChangeSetRunStatuses runStatuses) {
+        this.runStatuses = runStatuses;
+    }
+
+    /**
+     * Fingerprints of the pages already written.  When set, a page is only written if its content changed.
+     */
+    public void setFingerprints(PageFingerprints fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+
+    private File getFile(Object object) {
+        return new File(outputDir, object.toString().toLowerCase() + ".html");
     }
 
     public void writeHTML(Object object, List<Change> ranChanges, List<Change> changesToRun, String changeLog) throws IOException, DatabaseHistoryException, JDBCException {
-        FileWriter fileWriter = createFileWriter(object);
+        StringWriter content = new StringWriter();
+        content.append("<html>");
+        writeHeader(object, content);
+        content.append("<body BGCOLOR=\"white\" onload=\"windowTitle();\">");
 
+        content.append("<H2>").append(createTitle(object)).append("</H2>\n");
 
-        try {
-            fileWriter.append("<html>");
-            writeHeader(object, fileWriter);
-            fileWriter.append("<body BGCOLOR=\"white\" onload=\"windowTitle();\">");
+        writeBody(content, object, ranChanges, changesToRun);
 
-            fileWriter.append("<H2>").append(createTitle(object)).append("</H2>\n");
+        StringWriter footer = new StringWriter();
+        writeFooter(footer, changeLog);
 
-            writeBody(fileWriter, object, ranChanges, changesToRun);
+        File file = getFile(object);
+        if (fingerprints != null && fingerprints.isUnchanged(file, MD5Util.computeMD5(content.toString() + footer.toString()))) {
+            return;
+        }
 
-            writeFooter(fileWriter, changeLog);
+        FileWriter fileWriter = new FileWriter(file);
+        try {
+            fileWriter.append(content.toString());
+            fileWriter.append("<hr>Generated: ");
+            fileWriter.append(DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(new Date()));
+            fileWriter.append(footer.toString());
 
             fileWriter.append("</body>");
             fileWriter.append("</html>");
@@ -56,9 +85,7 @@ public abstract class HTMLWriter {
 
     }
 
-    private void writeFooter(FileWriter fileWriter, String changeLog) throws IOException {
-        fileWriter.append("<hr>Generated: ");
-        fileWriter.append(DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(new Date()));
+    private void writeFooter(Writer fileWriter, String changeLog) throws IOException {
         fileWriter.append("<BR>Against: ");
         fileWriter.append(database.toString());
         fileWriter.append("<BR>Change Log: ");
@@ -67,13 +94,13 @@ public abstract class HTMLWriter {
         fileWriter.append("<a href='http://www.liquibase.org' target='_TOP'>LiquiBase ").append(LiquibaseUtil.getBuildVersion()).append("</a>");
     }
 
-    protected void writeBody(FileWriter fileWriter, Object object, List<Change> ranChanges, List<Change> changesToRun) throws IOException, DatabaseHistoryException, JDBCException {
+    protected void writeBody(Writer fileWriter, Object object, List<Change> ranChanges, List<Change> changesToRun) throws IOException, DatabaseHistoryException, JDBCException {
         writeCustomHTML(fileWriter, object, ranChanges, database);
         writeChanges("Pending Changes", fileWriter, changesToRun);
         writeChanges("Past Changes", fileWriter, ranChanges);
     }
 
-    protected void writeTable(String title, List<List<String>> cells, FileWriter fileWriter) throws IOException {
+    protected void writeTable(String title, List<List<String>> cells, Writer fileWriter) throws IOException {
         fileWriter.append("<P>");
         int colspan = 0;
         if (cells.size() == 0) {
@@ -95,13 +122,13 @@ public abstract class HTMLWriter {
         fileWriter.append("</TABLE>\n");
     }
 
-    private void writeTD(FileWriter fileWriter, String filePath) throws IOException {
+    private void writeTD(Writer fileWriter, String filePath) throws IOException {
         fileWriter.append("<TD VALIGN=\"top\">\n");
         fileWriter.append(filePath);
         fileWriter.append("</TD>\n");
     }
 
-    private void writeHeader(Object object, FileWriter fileWriter) throws IOException {
+    private void writeHeader(Object object, Writer fileWriter) throws IOException {
         String title = createTitle(object);
         fileWriter.append("<head>")
                 .append("<title>").append(title).append("</title>")
@@ -116,7 +143,7 @@ public abstract class HTMLWriter {
 
     protected abstract String createTitle(Object object);
 
-    protected void writeChanges(String title, FileWriter fileWriter, List<Change> changes) throws IOException, DatabaseHistoryException, JDBCException {
+    protected void writeChanges(String title, Writer fileWriter, List<Change> changes) throws IOException, DatabaseHistoryException, JDBCException {
         fileWriter.append("<p><TABLE BORDER=\"1\" WIDTH=\"100%\" CELLPADDING=\"3\" CELLSPACING=\"0\" SUMMARY=\"\">\n");
         fileWriter.append("<TR BGCOLOR=\"#CCCCFF\" CLASS=\"TableHeadingColor\">\n");
         fileWriter.append("<TD COLSPAN='4'><FONT SIZE=\"+2\">\n");
@@ -137,14 +164,14 @@ public abstract class HTMLWriter {
                     writeTD(fileWriter, change.getChangeSet().getId());
                     writeTD(fileWriter, "<a href='../authors/"+change.getChangeSet().getAuthor().toLowerCase()+".html'>"+change.getChangeSet().getAuthor().toLowerCase()+"</a>");
 
-                    ChangeSet.RunStatus runStatus = database.getRunStatus(change.getChangeSet());
+                    ChangeSet.RunStatus runStatus = getRunStatus(change.getChangeSet());
                     if (runStatus.equals(ChangeSet.RunStatus.NOT_RAN)) {
                         String anchor = change.getChangeSet().toString(false).replaceAll("\\W","_");
                         writeTD(fileWriter, "NOT YET RAN [<a href='../pending/sql.html#"+ anchor +"'>SQL</a>]");
                     } else if (runStatus.equals(ChangeSet.RunStatus.INVALID_MD5SUM)) {
                         writeTD(fileWriter, "INVALID MD5SUM");
                     } else if (runStatus.equals(ChangeSet.RunStatus.ALREADY_RAN)) {
-                        writeTD(fileWriter, "Executed "+ DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(database.getRanDate(change.getChangeSet())));
+                        writeTD(fileWriter, "Executed "+ DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(getRanDate(change.getChangeSet())));
                     } else if (runStatus.equals(ChangeSet.RunStatus.RUN_AGAIN)) {
                         writeTD(fileWriter, "Executed, WILL RUN AGAIN");
                     } else {
@@ -168,4 +195,18 @@ public abstract class HTMLWriter {
         fileWriter.append("&nbsp;</P>");        
 
     }
+
+    private ChangeSet.RunStatus getRunStatus(ChangeSet changeSet) throws JDBCException, DatabaseHistoryException {
+        if (runStatuses == null) {
+            return database.getRunStatus(changeSet);
+        }
+        return runStatuses.getRunStatus(changeSet);
+    }
+
+    private Date getRanDate(ChangeSet changeSet) throws JDBCException, DatabaseHistoryException {
+        if (runStatuses == null) {
+            return database.getRanDate(changeSet);
+        }
+        return runStatuses.getRanDate(changeSet);
+    }
 }
@@ -0,0 +1,66 @@
+package liquibase.dbdoc;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Fingerprints of the generated pages, kept in the output directory between runs so an incremental run only
+ * rewrites the pages whose content changed.
+ */
+public class PageFingerprints {
+
+    public static final String FILE_NAME = "dbdoc.fingerprints";
+
+    private File rootOutputDir;
+    private Properties previous = new Properties();
+    private Properties current = new Properties();
+
+    public PageFingerprints(File rootOutputDir) throws IOException {
+        this.rootOutputDir = rootOutputDir;
+
+        File file = new File(rootOutputDir, FILE_NAME);
+        if (file.exists()) {
+            InputStream in = new FileInputStream(file);
+            try {
+                previous.load(in);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Records the fingerprint of the page and returns true if the page was already written with it.
+     */
+    public boolean isUnchanged(File page, String fingerprint) {
+        String key = getKey(page);
+        current.setProperty(key, fingerprint);
+        return page.exists() && fingerprint.equals(previous.getProperty(key));
+    }
+
+    /**
+     * Stores the fingerprints recorded in this run, dropping those of pages no longer generated.
+     */
+    public void save() throws IOException {
+        OutputStream out = new FileOutputStream(new File(rootOutputDir, FILE_NAME), false);
+        try {
+            current.store(out, "LiquiBase dbDoc page fingerprints");
+        } finally {
+            out.close();
+        }
+    }
+
+    private String getKey(File page) {
+        String rootPath = rootOutputDir.getAbsolutePath();
+        String pagePath = page.getAbsolutePath();
+        if (pagePath.startsWith(rootPath)) {
+            pagePath = pagePath.substring(rootPath.length() + 1);
+        }
+        return pagePath.replace('\\', '/');
+    }
+}
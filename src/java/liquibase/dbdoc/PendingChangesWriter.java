@@ -6,7 +6,7 @@ import liquibase.exception.DatabaseHistoryException;
 import liquibase.exception.JDBCException;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.Writer;
 import java.io.IOException;
 import java.util.List;
 
@@ -20,11 +20,11 @@ public class PendingChangesWriter extends HTMLWriter {
         return "Pending Changes";
     }
 
-    protected void writeBody(FileWriter fileWriter, Object object, List<Change> ranChanges, List<Change> changesToRun) throws IOException, DatabaseHistoryException, JDBCException {
+    protected void writeBody(Writer fileWriter, Object object, List<Change> ranChanges, List<Change> changesToRun) throws IOException, DatabaseHistoryException, JDBCException {
         writeCustomHTML(fileWriter, object, ranChanges, database);
         writeChanges("Pending Changes", fileWriter, changesToRun);
     }
 
-    protected void writeCustomHTML(FileWriter fileWriter, Object object, List<Change> changes, Database database) throws IOException {
+    protected void writeCustomHTML(Writer fileWriter, Object object, List<Change> changes, Database database) throws IOException {
     }
 }
\ No newline at end of file
@@ -7,7 +7,7 @@ import liquibase.exception.MigrationFailedException;
 import liquibase.Liquibase;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.Writer;
 import java.io.IOException;
 import java.util.List;
 
@@ -21,7 +21,7 @@ public class PendingSQLWriter extends HTMLWriter {
         return "Pending SQL";
     }
 
-    protected void writeBody(FileWriter fileWriter, Object object, List<Change> ranChanges, List<Change> changesToRun, Liquibase liquibase) throws IOException{
+    protected void writeBody(Writer fileWriter, Object object, List<Change> ranChanges, List<Change> changesToRun, Liquibase liquibase) throws IOException{
         if (changesToRun.size() == 0) {
             fileWriter.append("<b>NONE</b>");
         }
@@ -47,6 +47,6 @@ public class PendingSQLWriter extends HTMLWriter {
         fileWriter.append("</pre></code>");
     }
 
-    protected void writeCustomHTML(FileWriter fileWriter, Object object, List<Change> changes, Database database) throws IOException {
+    protected void writeCustomHTML(Writer fileWriter, Object object, List<Change> changes, Database database) throws IOException {
     }
 }
@@ -6,7 +6,7 @@ import liquibase.exception.DatabaseHistoryException;
 import liquibase.exception.JDBCException;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.Writer;
 import java.io.IOException;
 import java.util.List;
 
@@ -20,11 +20,11 @@ public class RecentChangesWriter extends HTMLWriter {
         return "Recent Changes";
     }
 
-    protected void writeBody(FileWriter fileWriter, Object object, List<Change> ranChanges, List<Change> changesToRun) throws IOException, DatabaseHistoryException, JDBCException {
+    protected void writeBody(Writer fileWriter, Object object, List<Change> ranChanges, List<Change> changesToRun) throws IOException, DatabaseHistoryException, JDBCException {
         writeCustomHTML(fileWriter, object, ranChanges, database);
         writeChanges("Most Recent Changes", fileWriter, ranChanges);
     }
 
-    protected void writeCustomHTML(FileWriter fileWriter, Object object, List<Change> changes, Database database) throws IOException {
+    protected void writeCustomHTML(Writer fileWriter, Object object, List<Change> changes, Database database) throws IOException {
     }
 }
@@ -6,7 +6,7 @@ import liquibase.database.structure.Column;
 import liquibase.database.structure.Table;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.Writer;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -22,11 +22,11 @@ public class TableWriter extends HTMLWriter {
         return "Changes affecting table \""+object.toString() + "\"";
     }
 
-    protected void writeCustomHTML(FileWriter fileWriter, Object object, List<Change> changes, Database database) throws IOException {
+    protected void writeCustomHTML(Writer fileWriter, Object object, List<Change> changes, Database database) throws IOException {
         writeColumns(fileWriter, ((Table) object), database);
     }
 
-    private void writeColumns(FileWriter fileWriter, Table table, Database database) throws IOException {
+    private void writeColumns(Writer fileWriter, Table table, Database database) throws IOException {
         List<List<String>> cells = new ArrayList<List<String>>();
 
         for (Column column : table.getColumns()) {
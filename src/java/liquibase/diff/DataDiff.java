@@ -0,0 +1,661 @@
+package liquibase.diff;
+
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.DeleteDataChange;
+import liquibase.change.InsertDataChange;
+import liquibase.change.UpdateDataChange;
+import liquibase.database.Database;
+import liquibase.database.structure.Column;
+import liquibase.database.structure.DatabaseSnapshot;
+import liquibase.database.structure.PrimaryKey;
+import liquibase.database.structure.Table;
+import liquibase.exception.JDBCException;
+import liquibase.log.LogFactory;
+import liquibase.util.JdbcUtils;
+import liquibase.util.MD5Util;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+/**
+ * Compares the rows of tables that exist in both the base and target databases and produces the insert, update and
+ * delete changes needed to make the target data match the base.
+ * <p>
+ * Tables are split into primary key ranges of {@link #getChunkSize()} rows.  Each range is hashed on both sides,
+ * inside the database when both are the same type and support it ({@link Database#getRowHashExpression}), and rows
+ * are only read and compared for ranges whose hashes differ.  Tables without a primary key are skipped.
+ * <p>
+ * The ranges are taken from the base database's key order.  If the target database collates the keys differently,
+ * so that the ranges would count some of its rows twice or not at all, the table is instead read in key order from
+ * both sides and the rows are matched by comparing their keys on the client.
+ */
+public class DataDiff {
+
+    public static final int DEFAULT_CHUNK_SIZE = 10000;
+
+    private static final Logger log = LogFactory.getLogger();
+
+    private DatabaseSnapshot baseSnapshot;
+    private DatabaseSnapshot targetSnapshot;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int fetchSize = DataExporter.DEFAULT_FETCH_SIZE;
+
+    public DataDiff(DatabaseSnapshot baseSnapshot, DatabaseSnapshot targetSnapshot) {
+        this.baseSnapshot = baseSnapshot;
+        this.targetSnapshot = targetSnapshot;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public List<Change> compare() throws JDBCException {
+        List<Change> changes = new ArrayList<Change>();
+        for (Table baseTable : new TreeSet<Table>(baseSnapshot.getTables())) {
+            PrimaryKey primaryKey = baseSnapshot.getPrimaryKeyForTable(baseTable.getName());
+            if (primaryKey == null) {
+                log.warning("Not comparing data in " + baseTable.getName() + ": it has no primary key");
+                continue;
+            }
+
+            Table targetTable = targetSnapshot.getTable(baseTable.getName());
+            try {
+                compareTable(baseTable, targetTable, primaryKey, changes);
+            } catch (SQLException e) {
+                throw new JDBCException("Error comparing data in " + baseTable.getName(), e);
+            }
+        }
+        return changes;
+    }
+
+    private void compareTable(Table baseTable, Table targetTable, PrimaryKey primaryKey, List<Change> changes) throws SQLException, JDBCException {
+        List<String> keyColumns = new ArrayList<String>(primaryKey.getColumnNamesAsList());
+        List<String> columns = new ArrayList<String>(keyColumns);
+        for (Column column : baseTable.getColumns()) {
+            if (indexOfIgnoreCase(columns, column.getName()) < 0
+                    && (targetTable == null || targetTable.getColumn(column.getName()) != null)) {
+                columns.add(column.getName());
+            }
+        }
+
+        TableQuery base = new TableQuery(baseSnapshot, baseTable.getName(), keyColumns, columns);
+        if (targetTable == null) {
+            RowReader reader = base.openRows(null, null);
+            try {
+                while (reader.next()) {
+                    changes.add(createInsert(baseTable.getName(), columns, reader.values));
+                }
+            } finally {
+                reader.close();
+            }
+            return;
+        }
+        TableQuery target = new TableQuery(targetSnapshot, targetTable.getName(), keyColumns, columns);
+
+        boolean hashInDatabase = baseSnapshot.getDatabase().getClass().equals(targetSnapshot.getDatabase().getClass())
+                && base.getRowHashExpression() != null;
+
+        //rows missing from one side of a range are held until the end of the table in case the other database
+        //sorted them into a different range
+        Map<String, Object[]> unmatchedBase = new LinkedHashMap<String, Object[]>();
+        Map<String, Object[]> unmatchedTarget = new LinkedHashMap<String, Object[]>();
+
+        List<Object[]> boundaries = base.readChunkBoundaries(chunkSize);
+        if (target.isSplitBy(boundaries)) {
+            int mismatchedChunks = 0;
+            for (int i = 0; i <= boundaries.size(); i++) {
+                Object[] lower = i == 0 ? null : boundaries.get(i - 1);
+                Object[] upper = i == boundaries.size() ? null : boundaries.get(i);
+
+                String baseHash;
+                String targetHash;
+                if (hashInDatabase) {
+                    baseHash = base.readDatabaseHash(lower, upper);
+                    targetHash = target.readDatabaseHash(lower, upper);
+                } else {
+                    baseHash = base.readClientHash(lower, upper);
+                    targetHash = target.readClientHash(lower, upper);
+                }
+                if (baseHash.equals(targetHash)) {
+                    continue;
+                }
+
+                mismatchedChunks++;
+                compareRows(base, target, lower, upper, unmatchedBase, unmatchedTarget, changes);
+            }
+            log.fine("Compared data in " + baseTable.getName() + ": " + mismatchedChunks + " of " + (boundaries.size() + 1) + " chunks differ");
+        } else {
+            log.info("Comparing all data in " + baseTable.getName() + ": the target database orders its primary key differently");
+            mergeRows(base, target, unmatchedBase, unmatchedTarget, changes);
+        }
+
+        for (Map.Entry<String, Object[]> entry : unmatchedBase.entrySet()) {
+            Object[] targetValues = unmatchedTarget.remove(entry.getKey());
+            if (targetValues == null) {
+                changes.add(createInsert(baseTable.getName(), columns, entry.getValue()));
+            } else {
+                addUpdateIfChanged(baseTable.getName(), keyColumns, columns, entry.getValue(), targetValues, changes);
+            }
+        }
+        for (Object[] targetValues : unmatchedTarget.values()) {
+            changes.add(createDelete(baseTable.getName(), keyColumns, targetValues));
+        }
+    }
+
+    /**
+     * Reads the whole table from both sides in key order, matching rows by comparing their keys on the client.  Rows
+     * a database returns out of the client's order are held in the unmatched maps until their match is read.
+     */
+    private void mergeRows(TableQuery base, TableQuery target,
+                           Map<String, Object[]> unmatchedBase, Map<String, Object[]> unmatchedTarget,
+                           List<Change> changes) throws SQLException, JDBCException {
+        RowReader baseReader = base.openOrderedRows();
+        RowReader targetReader = null;
+        try {
+            targetReader = target.openOrderedRows();
+            boolean hasBase = baseReader.next();
+            boolean hasTarget = targetReader.next();
+            while (hasBase || hasTarget) {
+                int comparison;
+                if (!hasTarget) {
+                    comparison = -1;
+                } else if (!hasBase) {
+                    comparison = 1;
+                } else {
+                    comparison = compareKeys(baseReader.values, targetReader.values, base.keyColumns.size());
+                }
+
+                if (comparison == 0) {
+                    addUpdateIfChanged(base.tableName, base.keyColumns, base.columns, baseReader.values, targetReader.values, changes);
+                    hasBase = baseReader.next();
+                    hasTarget = targetReader.next();
+                } else if (comparison < 0) {
+                    String key = baseReader.key();
+                    Object[] targetValues = unmatchedTarget.remove(key);
+                    if (targetValues == null) {
+                        unmatchedBase.put(key, baseReader.values.clone());
+                    } else {
+                        addUpdateIfChanged(base.tableName, base.keyColumns, base.columns, baseReader.values, targetValues, changes);
+                    }
+                    hasBase = baseReader.next();
+                } else {
+                    String key = targetReader.key();
+                    Object[] baseValues = unmatchedBase.remove(key);
+                    if (baseValues == null) {
+                        unmatchedTarget.put(key, targetReader.values.clone());
+                    } else {
+                        addUpdateIfChanged(base.tableName, base.keyColumns, base.columns, baseValues, targetReader.values, changes);
+                    }
+                    hasTarget = targetReader.next();
+                }
+            }
+        } finally {
+            baseReader.close();
+            if (targetReader != null) {
+                targetReader.close();
+            }
+        }
+    }
+
+    private void compareRows(TableQuery base, TableQuery target, Object[] lower, Object[] upper,
+                             Map<String, Object[]> unmatchedBase, Map<String, Object[]> unmatchedTarget,
+                             List<Change> changes) throws SQLException, JDBCException {
+        Map<String, Object[]> targetRows = new HashMap<String, Object[]>();
+        RowReader targetReader = target.openRows(lower, upper);
+        try {
+            while (targetReader.next()) {
+                targetRows.put(targetReader.key(), targetReader.values.clone());
+            }
+        } finally {
+            targetReader.close();
+        }
+
+        RowReader baseReader = base.openRows(lower, upper);
+        try {
+            while (baseReader.next()) {
+                String key = baseReader.key();
+                Object[] targetValues = targetRows.remove(key);
+                if (targetValues == null) {
+                    targetValues = unmatchedTarget.remove(key);
+                }
+                if (targetValues == null) {
+                    unmatchedBase.put(key, baseReader.values.clone());
+                } else {
+                    addUpdateIfChanged(base.tableName, base.keyColumns, base.columns, baseReader.values, targetValues, changes);
+                }
+            }
+        } finally {
+            baseReader.close();
+        }
+
+        for (Map.Entry<String, Object[]> entry : targetRows.entrySet()) {
+            Object[] baseValues = unmatchedBase.remove(entry.getKey());
+            if (baseValues == null) {
+                unmatchedTarget.put(entry.getKey(), entry.getValue());
+            } else {
+                addUpdateIfChanged(base.tableName, base.keyColumns, base.columns, baseValues, entry.getValue(), changes);
+            }
+        }
+    }
+
+    private void addUpdateIfChanged(String tableName, List<String> keyColumns, List<String> columns, Object[] baseValues, Object[] targetValues, List<Change> changes) {
+        UpdateDataChange change = null;
+        for (int i = keyColumns.size(); i < columns.size(); i++) {
+            String baseValue = normalize(baseValues[i]);
+            String targetValue = normalize(targetValues[i]);
+            if (baseValue == null ? targetValue == null : baseValue.equals(targetValue)) {
+                continue;
+            }
+            if (change == null) {
+                change = new UpdateDataChange();
+                change.setSchemaName(targetSnapshot.getSchema());
+                change.setTableName(tableName);
+                change.setWhereClause(getWhereClause(tableName, keyColumns, targetValues));
+            }
+            change.addColumn(createColumnConfig(columns.get(i), baseValues[i]));
+        }
+        if (change != null) {
+            changes.add(change);
+        }
+    }
+
+    private InsertDataChange createInsert(String tableName, List<String> columns, Object[] values) {
+        InsertDataChange change = new InsertDataChange();
+        change.setSchemaName(targetSnapshot.getSchema());
+        change.setTableName(tableName);
+        for (int i = 0; i < columns.size(); i++) {
+            change.addColumn(createColumnConfig(columns.get(i), values[i]));
+        }
+        return change;
+    }
+
+    private DeleteDataChange createDelete(String tableName, List<String> keyColumns, Object[] values) {
+        DeleteDataChange change = new DeleteDataChange();
+        change.setSchemaName(targetSnapshot.getSchema());
+        change.setTableName(tableName);
+        change.setWhereClause(getWhereClause(tableName, keyColumns, values));
+        return change;
+    }
+
+    private ColumnConfig createColumnConfig(String columnName, Object value) {
+        ColumnConfig column = new ColumnConfig();
+        column.setName(columnName);
+        if (value instanceof Number) {
+            column.setValueNumeric((Number) value);
+        } else if (value instanceof Boolean) {
+            column.setValueBoolean((Boolean) value);
+        } else if (value instanceof java.util.Date) {
+            column.setValueDate((java.util.Date) value);
+        } else if (value != null) {
+            column.setValue(value.toString());
+        }
+        return column;
+    }
+
+    private String getWhereClause(String tableName, List<String> keyColumns, Object[] values) {
+        Database database = targetSnapshot.getDatabase();
+        StringBuffer where = new StringBuffer();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                where.append(" AND ");
+            }
+            where.append(database.escapeColumnName(targetSnapshot.getSchema(), tableName, keyColumns.get(i))).append(" = ");
+            Object value = values[i];
+            if (value instanceof Number) {
+                where.append(normalize(value));
+            } else if (value instanceof java.sql.Timestamp) {
+                where.append(database.getDateLiteral((java.sql.Timestamp) value));
+            } else if (value instanceof java.sql.Time) {
+                where.append(database.getDateLiteral((java.sql.Time) value));
+            } else if (value instanceof java.sql.Date) {
+                where.append(database.getDateLiteral((java.sql.Date) value));
+            } else if (value instanceof Boolean) {
+                where.append((Boolean) value ? database.getTrueBooleanValue() : database.getFalseBooleanValue());
+            } else {
+                where.append("'").append(database.escapeStringForDatabase(String.valueOf(value))).append("'");
+            }
+        }
+        return where.toString();
+    }
+
+    /**
+     * Converts a value to a form that compares equal across drivers and databases.
+     */
+    protected static String normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            BigDecimal number = new BigDecimal(value.toString());
+            if (number.signum() == 0) {
+                return "0";
+            }
+            return number.stripTrailingZeros().toPlainString();
+        }
+        if (value instanceof java.util.Date) {
+            return String.valueOf(((java.util.Date) value).getTime());
+        }
+        if (value instanceof byte[]) {
+            return MD5Util.computeMD5(new java.io.ByteArrayInputStream((byte[]) value));
+        }
+        return value.toString();
+    }
+
+    /**
+     * Orders primary keys on the client.  Keys comparing equal have the same {@link RowReader#key()}.
+     */
+    protected static int compareKeys(Object[] values, Object[] otherValues, int keySize) {
+        for (int i = 0; i < keySize; i++) {
+            int comparison = compareValues(values[i], otherValues[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private static int compareValues(Object value, Object otherValue) {
+        if (value == null || otherValue == null) {
+            return value == null ? (otherValue == null ? 0 : -1) : 1;
+        }
+        if (value instanceof Number && otherValue instanceof Number) {
+            return new BigDecimal(value.toString()).compareTo(new BigDecimal(otherValue.toString()));
+        }
+        if (value instanceof java.util.Date && otherValue instanceof java.util.Date) {
+            long time = ((java.util.Date) value).getTime();
+            long otherTime = ((java.util.Date) otherValue).getTime();
+            return time < otherTime ? -1 : (time == otherTime ? 0 : 1);
+        }
+        return normalize(value).compareTo(normalize(otherValue));
+    }
+
+    private static int indexOfIgnoreCase(List<String> list, String value) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).equalsIgnoreCase(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builds and runs the queries for one table on one side of the comparison.
+     */
+    private class TableQuery {
+        private DatabaseSnapshot snapshot;
+        private Database database;
+        private String tableName;
+        private List<String> keyColumns;
+        private List<String> columns;
+        private String escapedKeyList;
+        private List<String> escapedColumns = new ArrayList<String>();
+
+        private TableQuery(DatabaseSnapshot snapshot, String tableName, List<String> keyColumns, List<String> columns) {
+            this.snapshot = snapshot;
+            this.database = snapshot.getDatabase();
+            this.tableName = tableName;
+            this.keyColumns = keyColumns;
+            this.columns = columns;
+            for (String column : columns) {
+                escapedColumns.add(database.escapeColumnName(snapshot.getSchema(), tableName, column));
+            }
+            this.escapedKeyList = join(escapedColumns.subList(0, keyColumns.size()));
+        }
+
+        private String getRowHashExpression() {
+            return database.getRowHashExpression(escapedColumns);
+        }
+
+        private String from() {
+            return " FROM " + database.escapeTableName(snapshot.getSchema(), tableName);
+        }
+
+        /**
+         * Returns the primary key of every chunkSize-th row, in key order.
+         */
+        private List<Object[]> readChunkBoundaries(int chunkSize) throws SQLException {
+            List<Object[]> boundaries = new ArrayList<Object[]>();
+            Statement stmt = DataExporter.createStreamingStatement(database, database.getConnection(), fetchSize);
+            ResultSet rs = null;
+            try {
+                rs = stmt.executeQuery("SELECT " + escapedKeyList + from() + " ORDER BY " + escapedKeyList);
+                int row = 0;
+                while (rs.next()) {
+                    if (row > 0 && row % chunkSize == 0) {
+                        Object[] key = new Object[keyColumns.size()];
+                        for (int i = 0; i < key.length; i++) {
+                            key[i] = JdbcUtils.getResultSetValue(rs, i + 1);
+                        }
+                        boundaries.add(key);
+                    }
+                    row++;
+                }
+            } finally {
+                JdbcUtils.closeResultSet(rs);
+                JdbcUtils.closeStatement(stmt);
+            }
+            return boundaries;
+        }
+
+        /**
+         * Returns true if each row falls in exactly one of the ranges between the boundaries.  The boundaries are in
+         * the base database's order; where this database orders two of them the other way round, the rows between
+         * them would be counted in two ranges or in none.
+         */
+        private boolean isSplitBy(List<Object[]> boundaries) throws SQLException {
+            for (int i = 1; i < boundaries.size(); i++) {
+                //rows from the later boundary that are before the earlier one
+                if (countRows(boundaries.get(i), boundaries.get(i - 1)) > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long countRows(Object[] lower, Object[] upper) throws SQLException {
+            List<Object> parameters = new ArrayList<Object>();
+            String where = getRangeCondition(lower, upper, parameters);
+            PreparedStatement stmt = database.getConnection().prepareStatement("SELECT COUNT(*)" + from() + where);
+            ResultSet rs = null;
+            try {
+                setParameters(stmt, parameters);
+                rs = stmt.executeQuery();
+                rs.next();
+                return rs.getLong(1);
+            } finally {
+                JdbcUtils.closeResultSet(rs);
+                JdbcUtils.closeStatement(stmt);
+            }
+        }
+
+        private String readDatabaseHash(Object[] lower, Object[] upper) throws SQLException {
+            List<Object> parameters = new ArrayList<Object>();
+            String where = getRangeCondition(lower, upper, parameters);
+            PreparedStatement stmt = database.getConnection().prepareStatement("SELECT COUNT(*), SUM(" + getRowHashExpression() + ")" + from() + where);
+            ResultSet rs = null;
+            try {
+                setParameters(stmt, parameters);
+                rs = stmt.executeQuery();
+                rs.next();
+                return rs.getLong(1) + ":" + normalize(rs.getBigDecimal(2));
+            } finally {
+                JdbcUtils.closeResultSet(rs);
+                JdbcUtils.closeStatement(stmt);
+            }
+        }
+
+        private String readClientHash(Object[] lower, Object[] upper) throws SQLException {
+            RowReader reader = openRows(lower, upper);
+            long count = 0;
+            long hash = 0;
+            try {
+                StringBuffer row = new StringBuffer();
+                while (reader.next()) {
+                    row.setLength(0);
+                    for (Object value : reader.values) {
+                        String normalized = normalize(value);
+                        row.append(normalized == null ? "n" : normalized + "v").append('|');
+                    }
+                    //summing keeps the chunk hash independent of the order each database returns rows in
+                    hash += Long.parseLong(MD5Util.computeMD5(row.toString()).substring(0, 15), 16);
+                    count++;
+                }
+            } finally {
+                reader.close();
+            }
+            return count + ":" + hash;
+        }
+
+        private RowReader openRows(Object[] lower, Object[] upper) throws SQLException {
+            List<Object> parameters = new ArrayList<Object>();
+            String where = getRangeCondition(lower, upper, parameters);
+            PreparedStatement stmt = database.getConnection().prepareStatement("SELECT " + join(escapedColumns) + from() + where, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try {
+                stmt.setFetchSize(fetchSize);
+                setParameters(stmt, parameters);
+                return new RowReader(stmt, stmt.executeQuery(), columns.size(), keyColumns.size());
+            } catch (SQLException e) {
+                JdbcUtils.closeStatement(stmt);
+                throw e;
+            }
+        }
+
+        /**
+         * Reads the whole table in this database's key order.
+         */
+        private RowReader openOrderedRows() throws SQLException {
+            Statement stmt = DataExporter.createStreamingStatement(database, database.getConnection(), fetchSize);
+            try {
+                return new RowReader(stmt, stmt.executeQuery("SELECT " + join(escapedColumns) + from() + " ORDER BY " + escapedKeyList), columns.size(), keyColumns.size());
+            } catch (SQLException e) {
+                JdbcUtils.closeStatement(stmt);
+                throw e;
+            }
+        }
+
+        /**
+         * Builds "key >= lower AND key < upper", expanding to a lexicographic comparison for compound keys.
+         */
+        private String getRangeCondition(Object[] lower, Object[] upper, List<Object> parameters) {
+            List<String> conditions = new ArrayList<String>();
+            if (lower != null) {
+                conditions.add(getBoundCondition(lower, ">", ">=", parameters));
+            }
+            if (upper != null) {
+                conditions.add(getBoundCondition(upper, "<", "<", parameters));
+            }
+            if (conditions.size() == 0) {
+                return "";
+            }
+            return " WHERE " + join(conditions, " AND ");
+        }
+
+        private String getBoundCondition(Object[] bound, String strictOperator, String lastOperator, List<Object> parameters) {
+            List<String> escapedKeys = escapedColumns.subList(0, keyColumns.size());
+            StringBuffer condition = new StringBuffer("(");
+            for (int i = 0; i < bound.length; i++) {
+                if (i > 0) {
+                    condition.append(" OR ");
+                }
+                condition.append("(");
+                for (int j = 0; j < i; j++) {
+                    condition.append(escapedKeys.get(j)).append(" = ? AND ");
+                    parameters.add(bound[j]);
+                }
+                condition.append(escapedKeys.get(i)).append(" ").append(i == bound.length - 1 ? lastOperator : strictOperator).append(" ?)");
+                parameters.add(bound[i]);
+            }
+            return condition.append(")").toString();
+        }
+
+        private void setParameters(PreparedStatement stmt, List<Object> parameters) throws SQLException {
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
+        }
+
+        private String join(List<String> values) {
+            return join(values, ", ");
+        }
+
+        private String join(List<String> values, String delimiter) {
+            StringBuffer sb = new StringBuffer();
+            for (Iterator<String> iterator = values.iterator(); iterator.hasNext();) {
+                sb.append(iterator.next());
+                if (iterator.hasNext()) {
+                    sb.append(delimiter);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Reads rows into a reused value array.
+     */
+    private static class RowReader {
+        private Statement stmt;
+        private ResultSet rs;
+        private Object[] values;
+        private int keySize;
+
+        private RowReader(Statement stmt, ResultSet rs, int columnCount, int keySize) {
+            this.stmt = stmt;
+            this.rs = rs;
+            this.values = new Object[columnCount];
+            this.keySize = keySize;
+        }
+
+        private boolean next() throws SQLException {
+            if (!rs.next()) {
+                return false;
+            }
+            for (int i = 0; i < values.length; i++) {
+                values[i] = JdbcUtils.getResultSetValue(rs, i + 1);
+            }
+            return true;
+        }
+
+        private String key() {
+            if (keySize == 1) {
+                return normalize(values[0]);
+            }
+            String[] key = new String[keySize];
+            for (int i = 0; i < keySize; i++) {
+                key[i] = normalize(values[i]);
+            }
+            return Arrays.asList(key).toString();
+        }
+
+        private void close() {
+            JdbcUtils.closeResultSet(rs);
+            JdbcUtils.closeStatement(stmt);
+        }
+    }
+}
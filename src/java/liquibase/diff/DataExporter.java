@@ -0,0 +1,220 @@
+package liquibase.diff;
+
+import liquibase.change.LoadDataChange;
+import liquibase.change.LoadDataColumnConfig;
+import liquibase.csv.CSVWriter;
+import liquibase.database.Database;
+import liquibase.database.DatabaseConnection;
+import liquibase.database.PostgresDatabase;
+import liquibase.database.structure.Table;
+import liquibase.exception.JDBCException;
+import liquibase.log.LogFactory;
+import liquibase.util.JdbcUtils;
+import liquibase.util.SqlUtil;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes table data to CSV files as it is read, for use with loadData.
+ * Rows are never held in memory: the query uses a streaming fetch size and each row is written as soon as it is read.
+ * Large tables can be split into several files.
+ */
+public class DataExporter {
+
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private Database database;
+    private String schema;
+
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private int maxRowsPerFile = 0;
+
+    public DataExporter(Database database, String schema) {
+        this.database = database;
+        this.schema = schema;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Number of rows the driver should fetch per round trip.  Ignored on MySQL, which only streams row by row.
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getMaxRowsPerFile() {
+        return maxRowsPerFile;
+    }
+
+    /**
+     * Splits tables with more rows than this into several files, each loaded by its own loadData change.
+     * Zero or less means one file per table.
+     */
+    public void setMaxRowsPerFile(int maxRowsPerFile) {
+        this.maxRowsPerFile = maxRowsPerFile;
+    }
+
+    /**
+     * Exports the given tables into dataDir, returning the loadData changes in the same order as the tables.
+     */
+    public List<LoadDataChange> export(Collection<Table> tables, String dataDir) throws JDBCException {
+        File parentDir = new File(dataDir);
+        if (!parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+        if (!parentDir.isDirectory()) {
+            throw new RuntimeException(parentDir + " is not a directory");
+        }
+
+        List<LoadDataChange> changes = new ArrayList<LoadDataChange>();
+        for (Table table : tables) {
+            changes.addAll(exportTable(database.getConnection(), table, dataDir));
+        }
+        return changes;
+    }
+
+    protected List<LoadDataChange> exportTable(DatabaseConnection connection, Table table, String dataDir) throws JDBCException {
+        List<LoadDataChange> changes = new ArrayList<LoadDataChange>();
+        boolean restoreAutoCommit = false;
+        Statement stmt = null;
+        ResultSet rs = null;
+        CSVWriter outputFile = null;
+        try {
+            if (database instanceof PostgresDatabase && connection.getAutoCommit()) {
+                //postgres only uses a cursor inside a transaction
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+
+            stmt = createStreamingStatement(database, connection, fetchSize);
+            rs = stmt.executeQuery("SELECT * FROM " + database.escapeTableName(schema, table.getName()));
+
+            ResultSetMetaData columnData = rs.getMetaData();
+            int columnCount = columnData.getColumnCount();
+            int[] columnTypes = new int[columnCount];
+            String[] header = new String[columnCount];
+            for (int col = 0; col < columnCount; col++) {
+                columnTypes[col] = columnData.getColumnType(col + 1);
+                header[col] = columnData.getColumnName(col + 1);
+            }
+            String[] line = new String[columnCount];
+
+            int fileNumber = 1;
+            int rowsInFile = 0;
+            String fileName = getFileName(dataDir, table, fileNumber);
+            outputFile = openFile(fileName, header);
+            changes.add(createLoadDataChange(table, fileName, columnData));
+            while (rs.next()) {
+                if (maxRowsPerFile > 0 && rowsInFile >= maxRowsPerFile) {
+                    outputFile.close();
+                    fileName = getFileName(dataDir, table, ++fileNumber);
+                    outputFile = openFile(fileName, header);
+                    changes.add(createLoadDataChange(table, fileName, columnData));
+                    rowsInFile = 0;
+                }
+                outputFile.writeCurrentRow(rs, columnTypes, line);
+                rowsInFile++;
+            }
+            outputFile.close();
+            outputFile = null;
+
+            LogFactory.getLogger().fine("Exported data for " + table.getName() + " to " + fileNumber + " file(s)");
+            return changes;
+        } catch (SQLException e) {
+            throw new JDBCException(e);
+        } catch (IOException e) {
+            throw new JDBCException(e);
+        } finally {
+            JdbcUtils.closeResultSet(rs);
+            JdbcUtils.closeStatement(stmt);
+            if (outputFile != null) {
+                try {
+                    outputFile.close();
+                } catch (IOException e) {
+                    //nothing to do
+                }
+            }
+            if (restoreAutoCommit) {
+                try {
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    LogFactory.getLogger().warning("Could not restore auto-commit: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private String getFileName(String dataDir, Table table, int fileNumber) {
+        if (fileNumber == 1) {
+            return dataDir + "/" + table.getName() + ".csv";
+        }
+        return dataDir + "/" + table.getName() + "_" + fileNumber + ".csv";
+    }
+
+    private CSVWriter openFile(String fileName, String[] header) throws IOException {
+        CSVWriter outputFile = new CSVWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), "UTF-8")));
+        outputFile.writeNext(header);
+        return outputFile;
+    }
+
+    private LoadDataChange createLoadDataChange(Table table, String fileName, ResultSetMetaData columnData) throws SQLException {
+        LoadDataChange change = new LoadDataChange();
+        change.setFile(fileName);
+        change.setEncoding("UTF-8");
+        change.setSchemaName(schema);
+        change.setTableName(table.getName());
+
+        for (int col = 1; col <= columnData.getColumnCount(); col++) {
+            String colName = columnData.getColumnName(col);
+            int dataType = columnData.getColumnType(col);
+            String typeString = "STRING";
+            if (SqlUtil.isNumeric(dataType)) {
+                typeString = "NUMERIC";
+            } else if (SqlUtil.isBoolean(dataType)) {
+                typeString = "BOOLEAN";
+            } else if (SqlUtil.isDate(dataType)) {
+                typeString = "DATE";
+            }
+
+            LoadDataColumnConfig columnConfig = new LoadDataColumnConfig();
+            columnConfig.setHeader(colName);
+            columnConfig.setType(typeString);
+
+            change.addColumn(columnConfig);
+        }
+        return change;
+    }
+
+    /**
+     * Creates a forward-only statement on the given connection that streams its results rather than buffering them
+     * in the driver.  The fetch size is used unless the database streams with a special negative fetch size, and the
+     * database's own fetch size is used if it is not positive.
+     *
+     * @see Database#createStreamingStatement()
+     */
+    public static Statement createStreamingStatement(Database database, DatabaseConnection connection, int fetchSize) throws SQLException {
+        Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        int databaseFetchSize = database.getFetchSize();
+        if (databaseFetchSize < 0 || (fetchSize <= 0 && databaseFetchSize > 0)) {
+            stmt.setFetchSize(databaseFetchSize);
+        } else if (fetchSize > 0) {
+            stmt.setFetchSize(fetchSize);
+        }
+        return stmt;
+    }
+}
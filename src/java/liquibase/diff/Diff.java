@@ -5,7 +5,11 @@ import liquibase.database.structure.*;
 import liquibase.exception.JDBCException;
 import liquibase.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Arrays;
 
@@ -28,6 +32,11 @@ public class Diff {
     private boolean diffForeignKeys = true;
     private boolean diffSequences = true;
     private boolean diffData = false;
+    private int dataChunkSize = DataDiff.DEFAULT_CHUNK_SIZE;
+    private SnapshotFilter snapshotFilter = new SnapshotFilter();
+
+    private Set<String> missingTableKeys = new HashSet<String>();
+    private Set<String> unexpectedTableKeys = new HashSet<String>();
 
 
     public Diff(Database baseDatabase, Database targetDatabase) {
@@ -58,19 +67,22 @@ public class Diff {
     }
 
     public DiffResult compare() throws JDBCException {
+        snapshotFilter.setObjectTypes(getSnapshotObjectTypes());
         if (baseSnapshot == null) {
-            baseSnapshot = baseDatabase.createDatabaseSnapshot(null, statusListeners);
+            baseSnapshot = baseDatabase.createDatabaseSnapshot(null, statusListeners, snapshotFilter);
         }
 
         if (targetSnapshot == null) {
             if (targetDatabase == null) {
                 targetSnapshot = new UnsupportedDatabaseSnapshot();
             } else {
-                targetSnapshot = targetDatabase.createDatabaseSnapshot(null, statusListeners);
+                targetSnapshot = targetDatabase.createDatabaseSnapshot(null, statusListeners, snapshotFilter);
             }
         }
 
         DiffResult diffResult = new DiffResult(baseSnapshot, targetSnapshot);
+        missingTableKeys.clear();
+        unexpectedTableKeys.clear();
         checkVersionInfo(diffResult);
         if (shouldDiffTables()) {
             checkTables(diffResult);
@@ -96,12 +108,80 @@ public class Diff {
         if (shouldDiffSequences()) {
             checkSequences(diffResult);
         }
+        if (shouldDiffData() && baseSnapshot.getDatabase() != null && targetSnapshot.getDatabase() != null) {
+            checkData(diffResult);
+        }
         diffResult.setDiffData(shouldDiffData());
 
         return diffResult;
     }
 
 
+    private void checkData(DiffResult diffResult) throws JDBCException {
+        for (DiffStatusListener listener : statusListeners) {
+            listener.statusUpdate("Comparing data...");
+        }
+        DataDiff dataDiff = new DataDiff(baseSnapshot, targetSnapshot);
+        dataDiff.setChunkSize(getDataChunkSize());
+        diffResult.setDataChanges(dataDiff.compare());
+    }
+
+    public int getDataChunkSize() {
+        return dataChunkSize;
+    }
+
+    /**
+     * Number of rows hashed together when comparing data.  Rows are only transferred for chunks whose hashes differ.
+     */
+    public void setDataChunkSize(int dataChunkSize) {
+        this.dataChunkSize = dataChunkSize;
+    }
+
+    public SnapshotFilter getSnapshotFilter() {
+        return snapshotFilter;
+    }
+
+    /**
+     * Limits the compared tables, views and sequences to those matching the filter's name patterns.  The object types
+     * read are set from what is diffed when comparing, so snapshots do not read objects which are not compared.
+     */
+    public void setSnapshotFilter(SnapshotFilter snapshotFilter) {
+        this.snapshotFilter = snapshotFilter;
+    }
+
+    private Set<String> getSnapshotObjectTypes() {
+        Set<String> types = new HashSet<String>();
+        if (shouldDiffTables()) {
+            types.add(SnapshotFilter.TABLES);
+        }
+        if (shouldDiffColumns()) {
+            types.add(SnapshotFilter.COLUMNS);
+        }
+        if (shouldDiffViews()) {
+            types.add(SnapshotFilter.VIEWS);
+        }
+        if (shouldDiffPrimaryKeys()) {
+            types.add(SnapshotFilter.PRIMARY_KEYS);
+        }
+        if (shouldDiffUniqueConstraints()) {
+            types.add(SnapshotFilter.UNIQUE_CONSTRAINTS);
+        }
+        if (shouldDiffIndexes()) {
+            types.add(SnapshotFilter.INDEXES);
+        }
+        if (shouldDiffForeignKeys()) {
+            types.add(SnapshotFilter.FOREIGN_KEYS);
+        }
+        if (shouldDiffSequences()) {
+            types.add(SnapshotFilter.SEQUENCES);
+        }
+        if (shouldDiffData()) {
+            types.add(SnapshotFilter.TABLES);
+            types.add(SnapshotFilter.COLUMNS);
+        }
+        return types;
+    }
+
     public void setDiffTypes(String diffTypes) {
         if (StringUtils.trimToNull(diffTypes) != null) {
             Set<String> types = new HashSet<String>(Arrays.asList(diffTypes.toLowerCase().split("\\s*,\\s*")));
@@ -200,53 +280,98 @@ public class Diff {
     }
 
     private void checkTables(DiffResult diffResult) {
+        Set<String> baseKeys = new HashSet<String>();
         for (Table baseTable : baseSnapshot.getTables()) {
-            if (!targetSnapshot.getTables().contains(baseTable)) {
+            baseKeys.add(getKey(baseTable));
+        }
+        Set<String> targetKeys = new HashSet<String>();
+        for (Table targetTable : targetSnapshot.getTables()) {
+            targetKeys.add(getKey(targetTable));
+        }
+
+        for (Table baseTable : baseSnapshot.getTables()) {
+            String key = getKey(baseTable);
+            if (!targetKeys.contains(key)) {
                 diffResult.addMissingTable(baseTable);
+                missingTableKeys.add(key);
             }
         }
 
         for (Table targetTable : targetSnapshot.getTables()) {
-            if (!baseSnapshot.getTables().contains(targetTable)) {
+            String key = getKey(targetTable);
+            if (!baseKeys.contains(key)) {
                 diffResult.addUnexpectedTable(targetTable);
+                unexpectedTableKeys.add(key);
             }
         }
     }
 
     private void checkViews(DiffResult diffResult) {
+        Set<String> baseKeys = new HashSet<String>();
+        for (View baseView : baseSnapshot.getViews()) {
+            baseKeys.add(getKey(baseView));
+        }
+        Set<String> targetKeys = new HashSet<String>();
+        for (View targetView : targetSnapshot.getViews()) {
+            targetKeys.add(getKey(targetView));
+        }
+
         for (View baseView : baseSnapshot.getViews()) {
-            if (!targetSnapshot.getViews().contains(baseView)) {
+            String key = getKey(baseView);
+            if (!targetKeys.contains(key)) {
                 diffResult.addMissingView(baseView);
             }
         }
 
         for (View targetView : targetSnapshot.getViews()) {
-            if (!baseSnapshot.getViews().contains(targetView)) {
+            String key = getKey(targetView);
+            if (!baseKeys.contains(key)) {
                 diffResult.addUnexpectedView(targetView);
             }
         }
     }
 
+    /**
+     * Columns of a view are only compared when both snapshots have columns for it, as some snapshots, such as one of a
+     * change log, do not model view columns.
+     */
     private void checkColumns(DiffResult diffResult) {
+        Map<String, Column> baseColumns = new HashMap<String, Column>();
+        Set<String> baseViewKeys = new HashSet<String>();
         for (Column baseColumn : baseSnapshot.getColumns()) {
-            if (!targetSnapshot.getColumns().contains(baseColumn)
-                    && (baseColumn.getTable() == null || !diffResult.getMissingTables().contains(baseColumn.getTable()))
-                    && (baseColumn.getView() == null || !diffResult.getMissingViews().contains(baseColumn.getView()))
+            baseColumns.put(getKey(baseColumn), baseColumn);
+            if (baseColumn.getView() != null) {
+                baseViewKeys.add(getKey(baseColumn.getView()));
+            }
+        }
+        Set<String> targetKeys = new HashSet<String>();
+        Set<String> targetViewKeys = new HashSet<String>();
+        for (Column targetColumn : targetSnapshot.getColumns()) {
+            targetKeys.add(getKey(targetColumn));
+            if (targetColumn.getView() != null) {
+                targetViewKeys.add(getKey(targetColumn.getView()));
+            }
+        }
+
+        for (Column baseColumn : baseSnapshot.getColumns()) {
+            if (!targetKeys.contains(getKey(baseColumn))
+                    && (baseColumn.getTable() == null || !missingTableKeys.contains(getKey(baseColumn.getTable())))
+                    && (baseColumn.getView() == null || targetViewKeys.contains(getKey(baseColumn.getView())))
                     ) {
                 diffResult.addMissingColumn(baseColumn);
             }
         }
 
         for (Column targetColumn : targetSnapshot.getColumns()) {
-            if (!baseSnapshot.getColumns().contains(targetColumn)
-                    && (targetColumn.getTable() == null || !diffResult.getUnexpectedTables().contains(targetColumn.getTable()))
-                    && (targetColumn.getView() == null || !diffResult.getUnexpectedViews().contains(targetColumn.getView()))
+            boolean tableUnexpected = targetColumn.getTable() != null && unexpectedTableKeys.contains(getKey(targetColumn.getTable()));
+            Column baseColumn = baseColumns.get(getKey(targetColumn));
+            if (baseColumn == null
+                    && !tableUnexpected
+                    && (targetColumn.getView() == null || baseViewKeys.contains(getKey(targetColumn.getView())))
                     ) {
                 diffResult.addUnexpectedColumn(targetColumn);
             } else
-            if (targetColumn.getTable() != null && !diffResult.getUnexpectedTables().contains(targetColumn.getTable())) {
-                Column baseColumn = baseSnapshot.getColumn(targetColumn.getTable().getName(), targetColumn.getName());
-
+            if (targetColumn.getTable() != null && !tableUnexpected) {
                 if (baseColumn == null || targetColumn.isDifferent(baseColumn)) {
                     diffResult.addChangedColumn(targetColumn);
                 }
@@ -255,28 +380,75 @@ public class Diff {
     }
 
     private void checkForeignKeys(DiffResult diffResult) {
+        Map<String, List<ForeignKey>> baseFKs = groupByKey(baseSnapshot.getForeignKeys());
+        Map<String, List<ForeignKey>> targetFKs = groupByKey(targetSnapshot.getForeignKeys());
+
         for (ForeignKey baseFK : baseSnapshot.getForeignKeys()) {
-            if (!targetSnapshot.getForeignKeys().contains(baseFK)) {
+            if (!containsMatch(targetFKs, baseFK)) {
                 diffResult.addMissingForeignKey(baseFK);
             }
         }
 
         for (ForeignKey targetFK : targetSnapshot.getForeignKeys()) {
-            if (!baseSnapshot.getForeignKeys().contains(targetFK)) {
+            if (!containsMatch(baseFKs, targetFK)) {
                 diffResult.addUnexpectedForeignKey(targetFK);
             }
         }
     }
 
+    private static Map<String, List<ForeignKey>> groupByKey(Set<ForeignKey> foreignKeys) {
+        Map<String, List<ForeignKey>> grouped = new HashMap<String, List<ForeignKey>>();
+        for (ForeignKey foreignKey : foreignKeys) {
+            List<ForeignKey> sameKey = grouped.get(getKey(foreignKey));
+            if (sameKey == null) {
+                sameKey = new ArrayList<ForeignKey>();
+                grouped.put(getKey(foreignKey), sameKey);
+            }
+            sameKey.add(foreignKey);
+        }
+        return grouped;
+    }
+
+    /**
+     * A changed rule drops and re-adds the foreign key, but a rule one side does not know, such as one not given in a
+     * change log, matches any rule.
+     */
+    private static boolean containsMatch(Map<String, List<ForeignKey>> foreignKeys, ForeignKey foreignKey) {
+        List<ForeignKey> sameKey = foreignKeys.get(getKey(foreignKey));
+        if (sameKey == null) {
+            return false;
+        }
+        for (ForeignKey candidate : sameKey) {
+            if (rulesMatch(foreignKey.getUpdateRule(), candidate.getUpdateRule())
+                    && rulesMatch(foreignKey.getDeleteRule(), candidate.getDeleteRule())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean rulesMatch(Integer rule, Integer otherRule) {
+        return rule == null || otherRule == null || rule.equals(otherRule);
+    }
+
     private void checkUniqueConstraints (DiffResult diffResult) {
+      Set<String> baseKeys = new HashSet<String>();
+      for (UniqueConstraint baseIndex : baseSnapshot.getUniqueConstraints()) {
+        baseKeys.add(getKey(baseIndex));
+      }
+      Set<String> targetKeys = new HashSet<String>();
+      for (UniqueConstraint targetIndex : targetSnapshot.getUniqueConstraints()) {
+        targetKeys.add(getKey(targetIndex));
+      }
+
       for (UniqueConstraint baseIndex : baseSnapshot.getUniqueConstraints()) {
-        if (!targetSnapshot.getUniqueConstraints().contains(baseIndex)) {
+        if (!targetKeys.contains(getKey(baseIndex))) {
           diffResult.addMissingUniqueConstraint(baseIndex);
         }
       }
 
       for (UniqueConstraint targetIndex : targetSnapshot.getUniqueConstraints()) {
-        if (!baseSnapshot.getUniqueConstraints().contains(targetIndex)) {
+        if (!baseKeys.contains(getKey(targetIndex))) {
           diffResult.addUnexpectedUniqueConstraint(targetIndex);
         }
       }
@@ -284,44 +456,127 @@ public class Diff {
     
     
     private void checkIndexes(DiffResult diffResult) {
+        Set<String> baseKeys = new HashSet<String>();
         for (Index baseIndex : baseSnapshot.getIndexes()) {
-            if (!targetSnapshot.getIndexes().contains(baseIndex)) {
+            baseKeys.add(getKey(baseIndex));
+        }
+        Set<String> targetKeys = new HashSet<String>();
+        for (Index targetIndex : targetSnapshot.getIndexes()) {
+            targetKeys.add(getKey(targetIndex));
+        }
+
+        for (Index baseIndex : baseSnapshot.getIndexes()) {
+            if (!targetKeys.contains(getKey(baseIndex))) {
                 diffResult.addMissingIndex(baseIndex);
             }
         }
 
         for (Index targetIndex : targetSnapshot.getIndexes()) {
-            if (!baseSnapshot.getIndexes().contains(targetIndex)) {
+            if (!baseKeys.contains(getKey(targetIndex))) {
                 diffResult.addUnexpectedIndex(targetIndex);
             }
         }
     }
 
     private void checkPrimaryKeys(DiffResult diffResult) {
+        Set<String> baseKeys = new HashSet<String>();
         for (PrimaryKey basePrimaryKey : baseSnapshot.getPrimaryKeys()) {
-            if (!targetSnapshot.getPrimaryKeys().contains(basePrimaryKey)) {
+            baseKeys.add(getKey(basePrimaryKey));
+        }
+        Set<String> targetKeys = new HashSet<String>();
+        for (PrimaryKey targetPrimaryKey : targetSnapshot.getPrimaryKeys()) {
+            targetKeys.add(getKey(targetPrimaryKey));
+        }
+
+        for (PrimaryKey basePrimaryKey : baseSnapshot.getPrimaryKeys()) {
+            if (!targetKeys.contains(getKey(basePrimaryKey))) {
                 diffResult.addMissingPrimaryKey(basePrimaryKey);
             }
         }
 
         for (PrimaryKey targetPrimaryKey : targetSnapshot.getPrimaryKeys()) {
-            if (!baseSnapshot.getPrimaryKeys().contains(targetPrimaryKey)) {
+            if (!baseKeys.contains(getKey(targetPrimaryKey))) {
                 diffResult.addUnexpectedPrimaryKey(targetPrimaryKey);
             }
         }
     }
 
     private void checkSequences(DiffResult diffResult) {
+        Set<String> baseKeys = new HashSet<String>();
+        for (Sequence baseSequence : baseSnapshot.getSequences()) {
+            baseKeys.add(getKey(baseSequence));
+        }
+        Set<String> targetKeys = new HashSet<String>();
+        for (Sequence targetSequence : targetSnapshot.getSequences()) {
+            targetKeys.add(getKey(targetSequence));
+        }
+
         for (Sequence baseSequence : baseSnapshot.getSequences()) {
-            if (!targetSnapshot.getSequences().contains(baseSequence)) {
+            if (!targetKeys.contains(getKey(baseSequence))) {
                 diffResult.addMissingSequence(baseSequence);
             }
         }
 
         for (Sequence targetSequence : targetSnapshot.getSequences()) {
-            if (!baseSnapshot.getSequences().contains(targetSequence)) {
+            if (!baseKeys.contains(getKey(targetSequence))) {
                 diffResult.addUnexpectedSequence(targetSequence);
             }
         }
     }
+
+    /*
+     * Objects of the two snapshots are matched by these keys.  Names are upper cased as the structure classes compare
+     * them ignoring case, and the schema is left out so snapshots of two different schemas can be compared.
+     */
+
+    private static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        return name.toUpperCase();
+    }
+
+    private static String getKey(Table table) {
+        return normalize(table.getName());
+    }
+
+    private static String getKey(View view) {
+        return normalize(view.getName());
+    }
+
+    private static String getKey(Column column) {
+        StringBuffer key = new StringBuffer();
+        if (column.getTable() != null) {
+            key.append("T:").append(getKey(column.getTable()));
+        }
+        if (column.getView() != null) {
+            key.append("V:").append(getKey(column.getView()));
+        }
+        return key.append(".").append(normalize(column.getName())).toString();
+    }
+
+    private static String getKey(ForeignKey foreignKey) {
+        if (foreignKey.getForeignKeyColumns() == null) {
+            return normalize(foreignKey.getName());
+        }
+        //the rules are matched separately, see containsMatch
+        return normalize(foreignKey.getForeignKeyTable().getName()) + "(" + normalize(foreignKey.getForeignKeyColumns()) + ")"
+                + normalize(foreignKey.getPrimaryKeyTable().getName()) + "(" + normalize(foreignKey.getPrimaryKeyColumns()) + ")";
+    }
+
+    private static String getKey(UniqueConstraint uniqueConstraint) {
+        return normalize(uniqueConstraint.getTable().getName()) + "." + normalize(uniqueConstraint.getName()) + "(" + uniqueConstraint.getColumnNames() + ")";
+    }
+
+    private static String getKey(Index index) {
+        return normalize(index.getTable().getName()) + "(" + StringUtils.join(index.getColumns(), ", ") + ")" + (index.isUnique() == null || index.isUnique());
+    }
+
+    private static String getKey(PrimaryKey primaryKey) {
+        return normalize(primaryKey.getTable().getName()) + "(" + normalize(primaryKey.getColumnNames()) + ")";
+    }
+
+    private static String getKey(Sequence sequence) {
+        return normalize(sequence.getName());
+    }
 }
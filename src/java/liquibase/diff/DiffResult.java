@@ -5,7 +5,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.RandomAccessFile;
@@ -22,16 +21,16 @@ import javax.xml.parsers.ParserConfigurationException;
 
 import liquibase.change.*;
 
-import liquibase.csv.CSVWriter;
 import liquibase.database.Database;
 import liquibase.database.structure.*;
 import liquibase.exception.JDBCException;
 import liquibase.log.LogFactory;
 import liquibase.parser.LiquibaseSchemaResolver;
 import liquibase.parser.xml.XMLChangeLogParser;
+import liquibase.util.JdbcUtils;
 import liquibase.util.SqlUtil;
 import liquibase.util.StringUtils;
-import liquibase.xml.DefaultXmlWriter;
+import liquibase.xml.StreamingXmlWriter;
 import liquibase.xml.XmlWriter;
 
 import org.w3c.dom.Document;
@@ -51,35 +50,41 @@ public class DiffResult {
     private DiffComparison productName;
     private DiffComparison productVersion;
 
-    private SortedSet<Table> missingTables = new TreeSet<Table>();
-    private SortedSet<Table> unexpectedTables = new TreeSet<Table>();
+    /*
+     * Differences are collected as the diff finds them and only sorted when first read, rather than kept in sorted
+     * sets while a large schema is being compared.
+     */
+    private DiffObjects<Table> missingTables = new DiffObjects<Table>();
+    private DiffObjects<Table> unexpectedTables = new DiffObjects<Table>();
 
-    private SortedSet<View> missingViews = new TreeSet<View>();
-    private SortedSet<View> unexpectedViews = new TreeSet<View>();
+    private DiffObjects<View> missingViews = new DiffObjects<View>();
+    private DiffObjects<View> unexpectedViews = new DiffObjects<View>();
 
-    private SortedSet<Column> missingColumns = new TreeSet<Column>();
-    private SortedSet<Column> unexpectedColumns = new TreeSet<Column>();
-    private SortedSet<Column> changedColumns = new TreeSet<Column>();
+    private DiffObjects<Column> missingColumns = new DiffObjects<Column>();
+    private DiffObjects<Column> unexpectedColumns = new DiffObjects<Column>();
+    private DiffObjects<Column> changedColumns = new DiffObjects<Column>();
 
-    private SortedSet<ForeignKey> missingForeignKeys = new TreeSet<ForeignKey>();
-    private SortedSet<ForeignKey> unexpectedForeignKeys = new TreeSet<ForeignKey>();
+    private DiffObjects<ForeignKey> missingForeignKeys = new DiffObjects<ForeignKey>();
+    private DiffObjects<ForeignKey> unexpectedForeignKeys = new DiffObjects<ForeignKey>();
 
-    private SortedSet<Index> missingIndexes = new TreeSet<Index>();
-    private SortedSet<Index> unexpectedIndexes = new TreeSet<Index>();
+    private DiffObjects<Index> missingIndexes = new DiffObjects<Index>();
+    private DiffObjects<Index> unexpectedIndexes = new DiffObjects<Index>();
 
-    private SortedSet<PrimaryKey> missingPrimaryKeys = new TreeSet<PrimaryKey>();
-    private SortedSet<PrimaryKey> unexpectedPrimaryKeys = new TreeSet<PrimaryKey>();
+    private DiffObjects<PrimaryKey> missingPrimaryKeys = new DiffObjects<PrimaryKey>();
+    private DiffObjects<PrimaryKey> unexpectedPrimaryKeys = new DiffObjects<PrimaryKey>();
 
-    private SortedSet<UniqueConstraint> missingUniqueConstraints = new TreeSet<UniqueConstraint>();
-    private SortedSet<UniqueConstraint> unexpectedUniqueConstraints = new TreeSet<UniqueConstraint>();
+    private DiffObjects<UniqueConstraint> missingUniqueConstraints = new DiffObjects<UniqueConstraint>();
+    private DiffObjects<UniqueConstraint> unexpectedUniqueConstraints = new DiffObjects<UniqueConstraint>();
 
-    private SortedSet<Sequence> missingSequences = new TreeSet<Sequence>();
-    private SortedSet<Sequence> unexpectedSequences = new TreeSet<Sequence>();
+    private DiffObjects<Sequence> missingSequences = new DiffObjects<Sequence>();
+    private DiffObjects<Sequence> unexpectedSequences = new DiffObjects<Sequence>();
 
     private boolean diffData = false;
     private String dataDir = null;
     private String changeSetContext;
     private String changeSetAuthor;
+    private DataExporter dataExporter;
+    private List<Change> dataChanges;
 
     public DiffResult(DatabaseSnapshot baseDatabase, DatabaseSnapshot targetDatabase) {
         this.baseDatabase = baseDatabase.getDatabase();
@@ -110,7 +115,7 @@ public class DiffResult {
     }
 
     public SortedSet<Table> getMissingTables() {
-        return missingTables;
+        return missingTables.getSorted();
     }
 
     public void addUnexpectedTable(Table table) {
@@ -118,7 +123,7 @@ public class DiffResult {
     }
 
     public SortedSet<Table> getUnexpectedTables() {
-        return unexpectedTables;
+        return unexpectedTables.getSorted();
     }
 
     public void addMissingView(View viewName) {
@@ -126,7 +131,7 @@ public class DiffResult {
     }
 
     public SortedSet<View> getMissingViews() {
-        return missingViews;
+        return missingViews.getSorted();
     }
 
     public void addUnexpectedView(View viewName) {
@@ -134,7 +139,7 @@ public class DiffResult {
     }
 
     public SortedSet<View> getUnexpectedViews() {
-        return unexpectedViews;
+        return unexpectedViews.getSorted();
     }
 
     public void addMissingColumn(Column columnName) {
@@ -142,7 +147,7 @@ public class DiffResult {
     }
 
     public SortedSet<Column> getMissingColumns() {
-        return missingColumns;
+        return missingColumns.getSorted();
     }
 
     public void addUnexpectedColumn(Column columnName) {
@@ -150,7 +155,7 @@ public class DiffResult {
     }
 
     public SortedSet<Column> getUnexpectedColumns() {
-        return unexpectedColumns;
+        return unexpectedColumns.getSorted();
     }
 
     public void addChangedColumn(Column columnName) {
@@ -158,7 +163,7 @@ public class DiffResult {
     }
 
     public SortedSet<Column> getChangedColumns() {
-        return changedColumns;
+        return changedColumns.getSorted();
     }
 
     public void addMissingForeignKey(ForeignKey fkName) {
@@ -166,7 +171,7 @@ public class DiffResult {
     }
 
     public SortedSet<ForeignKey> getMissingForeignKeys() {
-        return missingForeignKeys;
+        return missingForeignKeys.getSorted();
     }
 
     public void addUnexpectedForeignKey(ForeignKey fkName) {
@@ -174,7 +179,7 @@ public class DiffResult {
     }
 
     public SortedSet<ForeignKey> getUnexpectedForeignKeys() {
-        return unexpectedForeignKeys;
+        return unexpectedForeignKeys.getSorted();
     }
 
     public void addMissingIndex(Index fkName) {
@@ -182,7 +187,7 @@ public class DiffResult {
     }
 
     public SortedSet<Index> getMissingIndexes() {
-        return missingIndexes;
+        return missingIndexes.getSorted();
     }
 
     public void addUnexpectedIndex(Index fkName) {
@@ -190,7 +195,7 @@ public class DiffResult {
     }
 
     public SortedSet<Index> getUnexpectedIndexes() {
-        return unexpectedIndexes;
+        return unexpectedIndexes.getSorted();
     }
 
     public void addMissingPrimaryKey(PrimaryKey primaryKey) {
@@ -198,7 +203,7 @@ public class DiffResult {
     }
 
     public SortedSet<PrimaryKey> getMissingPrimaryKeys() {
-        return missingPrimaryKeys;
+        return missingPrimaryKeys.getSorted();
     }
 
     public void addUnexpectedPrimaryKey(PrimaryKey primaryKey) {
@@ -206,7 +211,7 @@ public class DiffResult {
     }
 
     public SortedSet<PrimaryKey> getUnexpectedPrimaryKeys() {
-        return unexpectedPrimaryKeys;
+        return unexpectedPrimaryKeys.getSorted();
     }
 
     public void addMissingSequence(Sequence sequence) {
@@ -214,7 +219,7 @@ public class DiffResult {
     }
 
     public SortedSet<Sequence> getMissingSequences() {
-        return missingSequences;
+        return missingSequences.getSorted();
     }
 
     public void addUnexpectedSequence(Sequence sequence) {
@@ -222,7 +227,7 @@ public class DiffResult {
     }
 
     public SortedSet<Sequence> getUnexpectedSequences() {
-        return unexpectedSequences;
+        return unexpectedSequences.getSorted();
     }
 
     public void addMissingUniqueConstraint(UniqueConstraint uniqueConstraint) {
@@ -230,7 +235,7 @@ public class DiffResult {
     }
 
     public SortedSet<UniqueConstraint> getMissingUniqueConstraints() {
-        return this.missingUniqueConstraints;
+        return missingUniqueConstraints.getSorted();
     }
 
     public void addUnexpectedUniqueConstraint(UniqueConstraint uniqueConstraint) {
@@ -238,7 +243,7 @@ public class DiffResult {
     }
 
     public SortedSet<UniqueConstraint> getUnexpectedUniqueConstraints() {
-        return unexpectedUniqueConstraints;
+        return unexpectedUniqueConstraints.getSorted();
     }
 
     public boolean shouldDiffData() {
@@ -249,6 +254,18 @@ public class DiffResult {
         this.diffData = diffData;
     }
 
+    /**
+     * Data changes found by comparing the base and target rows.  Null if the data was not compared, in which
+     * case the changelog contains all base data.
+     */
+    public List<Change> getDataChanges() {
+        return dataChanges;
+    }
+
+    public void setDataChanges(List<Change> dataChanges) {
+        this.dataChanges = dataChanges;
+    }
+
     public String getDataDir() {
         return dataDir;
     }
@@ -288,6 +305,9 @@ public class DiffResult {
         printSetComparison("Unexpected Indexes", getUnexpectedIndexes(), out);
         printSetComparison("Missing Sequences", getMissingSequences(), out);
         printSetComparison("Unexpected Sequences", getUnexpectedSequences(), out);
+        if (getDataChanges() != null) {
+            out.println("Data Differences: " + (getDataChanges().size() == 0 ? "NONE" : String.valueOf(getDataChanges().size())));
+        }
     }
 
     private void printSetComparison(String title, SortedSet<?> objects, PrintStream out) {
@@ -344,13 +364,35 @@ public class DiffResult {
     }
 
     public void printChangeLog(String changeLogFile, Database targetDatabase) throws ParserConfigurationException, IOException, JDBCException {
-        this.printChangeLog(changeLogFile, targetDatabase, new DefaultXmlWriter());
+        this.printChangeLog(changeLogFile, targetDatabase, null);
     }
 
+    /**
+     * Prints the changeLog as each change set is generated, without building a document of the whole changeLog.
+     */
     public void printChangeLog(PrintStream out, Database targetDatabase) throws ParserConfigurationException, IOException, JDBCException {
-        this.printChangeLog(out, targetDatabase, new DefaultXmlWriter());
+        final StreamingXmlWriter xmlWriter = new StreamingXmlWriter(out);
+        final Document doc = createDocumentBuilder().newDocument();
+
+        xmlWriter.writeStartDocument();
+        xmlWriter.writeStartElement("databaseChangeLog");
+        xmlWriter.writeAttribute("xmlns", "http://www.liquibase.org/xml/ns/dbchangelog/" + XMLChangeLogParser.getSchemaVersion());
+        xmlWriter.writeAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
+        xmlWriter.writeAttribute("xsi:schemaLocation", "http://www.liquibase.org/xml/ns/dbchangelog/" + XMLChangeLogParser.getSchemaVersion() + " http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-" + XMLChangeLogParser.getSchemaVersion() + ".xsd");
+
+        addChanges(new ChangeOutput() {
+            public void add(Change change) throws IOException {
+                xmlWriter.writeNode(createChangeSetElement(doc, change));
+            }
+        }, targetDatabase);
+
+        xmlWriter.writeEndDocument();
+        out.flush();
     }
 
+    /**
+     * Prints the changeLog with the given writer, or streams it if the writer is null.
+     */
     public void printChangeLog(String changeLogFile, Database targetDatabase, XmlWriter xmlWriter) throws ParserConfigurationException, IOException, JDBCException {
         File file = new File(changeLogFile);
         if (!file.exists()) {
@@ -403,14 +445,17 @@ public class DiffResult {
     }
 
     /**
-     * Prints changeLog that would bring the base database to be the same as the target database
+     * Prints changeLog that would bring the base database to be the same as the target database.  The whole changeLog
+     * is built as a document before it is written; use {@link #printChangeLog(java.io.PrintStream, liquibase.database.Database)}
+     * to stream it instead.
      */
     public void printChangeLog(PrintStream out, Database targetDatabase, XmlWriter xmlWriter) throws ParserConfigurationException, IOException, JDBCException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder documentBuilder = factory.newDocumentBuilder();
-        documentBuilder.setEntityResolver(new LiquibaseSchemaResolver());
+        if (xmlWriter == null) {
+            printChangeLog(out, targetDatabase);
+            return;
+        }
 
-        Document doc = documentBuilder.newDocument();
+        final Document doc = createDocumentBuilder().newDocument();
 
         Element changeLogElement = doc.createElement("databaseChangeLog");
         changeLogElement.setAttribute("xmlns", "http://www.liquibase.org/xml/ns/dbchangelog/" + XMLChangeLogParser.getSchemaVersion());
@@ -419,7 +464,28 @@ public class DiffResult {
 
         doc.appendChild(changeLogElement);
 
-        List<Change> changes = new ArrayList<Change>();
+        addChanges(new ChangeOutput() {
+            public void add(Change change) {
+                doc.getDocumentElement().appendChild(createChangeSetElement(doc, change));
+            }
+        }, targetDatabase);
+
+        xmlWriter.write(doc, out);
+
+        out.flush();
+    }
+
+    private DocumentBuilder createDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        DocumentBuilder documentBuilder = factory.newDocumentBuilder();
+        documentBuilder.setEntityResolver(new LiquibaseSchemaResolver());
+        return documentBuilder;
+    }
+
+    /**
+     * Generates the changes in changeLog order, passing each on as soon as it is created.
+     */
+    private void addChanges(ChangeOutput changes, Database targetDatabase) throws IOException, JDBCException {
         addUnexpectedViewChanges(changes);
         addMissingTableChanges(changes, targetDatabase);
         addMissingColumnChanges(changes, targetDatabase);
@@ -432,7 +498,13 @@ public class DiffResult {
         addUnexpectedIndexChanges(changes);
 
         if (diffData) {
-            addInsertDataChanges(changes, dataDir);
+            if (dataChanges != null) {
+                for (Change change : dataChanges) {
+                    changes.add(change);
+                }
+            } else {
+                addInsertDataChanges(changes, dataDir);
+            }
         }
 
         addMissingForeignKeyChanges(changes);
@@ -442,23 +514,18 @@ public class DiffResult {
         addUnexpectedSequenceChanges(changes);
         addMissingViewChanges(changes);
         addUnexpectedTableChanges(changes);
+    }
 
-        for (Change change : changes) {
-            Element changeSet = doc.createElement("changeSet");
-            changeSet.setAttribute("author", getChangeSetAuthor());
-            changeSet.setAttribute("id", generateId());
-            if (getChangeSetContext() != null) {
-                changeSet.setAttribute("context", getChangeSetContext());
-            }
-
-            changeSet.appendChild(change.createNode(doc));
-            doc.getDocumentElement().appendChild(changeSet);
+    private Element createChangeSetElement(Document doc, Change change) {
+        Element changeSet = doc.createElement("changeSet");
+        changeSet.setAttribute("author", getChangeSetAuthor());
+        changeSet.setAttribute("id", generateId());
+        if (getChangeSetContext() != null) {
+            changeSet.setAttribute("context", getChangeSetContext());
         }
 
-
-        xmlWriter.write(doc, out);
-
-        out.flush();
+        changeSet.appendChild(change.createNode(doc));
+        return changeSet;
     }
 
     private String getChangeSetAuthor() {
@@ -481,7 +548,7 @@ public class DiffResult {
         return baseId.toString() + "-" + changeNumber++;
     }
 
-    private void addUnexpectedIndexChanges(List<Change> changes) {
+    private void addUnexpectedIndexChanges(ChangeOutput changes) throws IOException {
         for (Index index : getUnexpectedIndexes()) {
 
             DropIndexChange change = new DropIndexChange();
@@ -493,7 +560,7 @@ public class DiffResult {
         }
     }
 
-    private void addMissingIndexChanges(List<Change> changes) {
+    private void addMissingIndexChanges(ChangeOutput changes) throws IOException {
         for (Index index : getMissingIndexes()) {
 
             CreateIndexChange change = new CreateIndexChange();
@@ -511,7 +578,7 @@ public class DiffResult {
         }
     }
 
-    private void addUnexpectedPrimaryKeyChanges(List<Change> changes) {
+    private void addUnexpectedPrimaryKeyChanges(ChangeOutput changes) throws IOException {
         for (PrimaryKey pk : getUnexpectedPrimaryKeys()) {
 
             if (!getUnexpectedTables().contains(pk.getTable())) {
@@ -525,7 +592,7 @@ public class DiffResult {
         }
     }
 
-    private void addMissingPrimaryKeyChanges(List<Change> changes) {
+    private void addMissingPrimaryKeyChanges(ChangeOutput changes) throws IOException {
         for (PrimaryKey pk : getMissingPrimaryKeys()) {
 
             AddPrimaryKeyChange change = new AddPrimaryKeyChange();
@@ -538,7 +605,7 @@ public class DiffResult {
         }
     }
 
-    private void addUnexpectedUniqueConstraintChanges(List<Change> changes) {
+    private void addUnexpectedUniqueConstraintChanges(ChangeOutput changes) throws IOException {
         for (UniqueConstraint uc : getUnexpectedUniqueConstraints()) {
 
             if (!getUnexpectedTables().contains(uc.getTable())) {
@@ -552,7 +619,7 @@ public class DiffResult {
         }
     }
 
-    private void addMissingUniqueConstraintChanges(List<Change> changes) {
+    private void addMissingUniqueConstraintChanges(ChangeOutput changes) throws IOException {
         for (UniqueConstraint uc : getMissingUniqueConstraints()) {
 
             AddUniqueConstraintChange change = new AddUniqueConstraintChange();
@@ -565,7 +632,7 @@ public class DiffResult {
         }
     }
 
-    private void addUnexpectedForeignKeyChanges(List<Change> changes) {
+    private void addUnexpectedForeignKeyChanges(ChangeOutput changes) throws IOException {
         for (ForeignKey fk : getUnexpectedForeignKeys()) {
 
             DropForeignKeyConstraintChange change = new DropForeignKeyConstraintChange();
@@ -577,7 +644,7 @@ public class DiffResult {
         }
     }
 
-    private void addMissingForeignKeyChanges(List<Change> changes) {
+    private void addMissingForeignKeyChanges(ChangeOutput changes) throws IOException {
         for (ForeignKey fk : getMissingForeignKeys()) {
 
             AddForeignKeyConstraintChange change = new AddForeignKeyConstraintChange();
@@ -600,7 +667,7 @@ public class DiffResult {
         }
     }
 
-    private void addUnexpectedSequenceChanges(List<Change> changes) {
+    private void addUnexpectedSequenceChanges(ChangeOutput changes) throws IOException {
         for (Sequence sequence : getUnexpectedSequences()) {
 
             DropSequenceChange change = new DropSequenceChange();
@@ -611,7 +678,7 @@ public class DiffResult {
         }
     }
 
-    private void addMissingSequenceChanges(List<Change> changes) {
+    private void addMissingSequenceChanges(ChangeOutput changes) throws IOException {
         for (Sequence sequence : getMissingSequences()) {
 
             CreateSequenceChange change = new CreateSequenceChange();
@@ -622,7 +689,7 @@ public class DiffResult {
         }
     }
 
-    private void addUnexpectedColumnChanges(List<Change> changes) {
+    private void addUnexpectedColumnChanges(ChangeOutput changes) throws IOException {
         for (Column column : getUnexpectedColumns()) {
             if (!shouldModifyColumn(column)) {
                 continue;
@@ -637,7 +704,7 @@ public class DiffResult {
         }
     }
 
-    private void addMissingViewChanges(List<Change> changes) {
+    private void addMissingViewChanges(ChangeOutput changes) throws IOException {
         for (View view : getMissingViews()) {
 
             CreateViewChange change = new CreateViewChange();
@@ -653,7 +720,7 @@ public class DiffResult {
         }
     }
 
-    private void addChangedColumnChanges(List<Change> changes) {
+    private void addChangedColumnChanges(ChangeOutput changes) throws IOException {
         for (Column column : getChangedColumns()) {
             if (!shouldModifyColumn(column)) {
                 continue;
@@ -708,7 +775,7 @@ public class DiffResult {
 
     }
 
-    private void addUnexpectedViewChanges(List<Change> changes) {
+    private void addUnexpectedViewChanges(ChangeOutput changes) throws IOException {
         for (View view : getUnexpectedViews()) {
 
             DropViewChange change = new DropViewChange();
@@ -720,7 +787,7 @@ public class DiffResult {
     }
 
 
-    private void addMissingColumnChanges(List<Change> changes, Database database) {
+    private void addMissingColumnChanges(ChangeOutput changes, Database database) throws IOException {
         for (Column column : getMissingColumns()) {
             if (!shouldModifyColumn(column)) {
                 continue;
@@ -762,7 +829,7 @@ public class DiffResult {
         }
     }
 
-    private void addMissingTableChanges(List<Change> changes, Database database) {
+    private void addMissingTableChanges(ChangeOutput changes, Database database) throws IOException {
         for (Table missingTable : getMissingTables()) {
             if (baseDatabase.isLiquibaseTable(missingTable.getName())) {
                 continue;
@@ -841,7 +908,7 @@ public class DiffResult {
         }
     }
 
-    private void addUnexpectedTableChanges(List<Change> changes) {
+    private void addUnexpectedTableChanges(ChangeOutput changes) throws IOException {
         for (Table unexpectedTable : getUnexpectedTables()) {
             DropTableChange change = new DropTableChange();
             change.setTableName(unexpectedTable.getName());
@@ -851,78 +918,48 @@ public class DiffResult {
         }
     }
 
-    private void addInsertDataChanges(List<Change> changes, String dataDir) throws JDBCException, IOException {
+    private void addInsertDataChanges(ChangeOutput changes, String dataDir) throws JDBCException, IOException {
+        // if dataDir is not null, stream csv files and use loadData tags
+        if (dataDir != null) {
+            for (Change change : getDataExporter().export(baseSnapshot.getTables(), dataDir)) {
+                changes.add(change);
+            }
+            return;
+        }
+
         try {
             String schema = baseSnapshot.getSchema();
-            Statement stmt = baseSnapshot.getDatabase().getConnection().createStatement();
+            Database database = baseSnapshot.getDatabase();
             for (Table table : baseSnapshot.getTables()) {
-                ResultSet rs = stmt.executeQuery("SELECT * FROM " + baseSnapshot.getDatabase().escapeTableName(schema, table.getName()));
-
-                ResultSetMetaData columnData = rs.getMetaData();
-                int columnCount = columnData.getColumnCount();
-
-                // if dataDir is not null, print out a csv file and use loadData tag
-                if (dataDir != null) {
-                    String fileName = table.getName() + ".csv";
-                    if (dataDir != null) {
-                        fileName = dataDir + "/" + fileName;
-                    }
-
-                    File parentDir = new File(dataDir);
-                    if (!parentDir.exists()) {
-                        parentDir.mkdirs();
-                    }
-                    if (!parentDir.isDirectory()) {
-                        throw new RuntimeException(parentDir + " is not a directory");
-                    }
+                Statement stmt = database.createStreamingStatement();
+                ResultSet rs = null;
+                try {
+                    rs = stmt.executeQuery("SELECT * FROM " + database.escapeTableName(schema, table.getName()));
 
-                    CSVWriter outputFile = new CSVWriter(new FileWriter(fileName));
-                    outputFile.writeAll(rs, true);
-                    outputFile.flush();
-                    outputFile.close();
+                    ResultSetMetaData columnData = rs.getMetaData();
+                    int columnCount = columnData.getColumnCount();
 
-                    LoadDataChange change = new LoadDataChange();
-                    change.setFile(fileName);
-                    change.setEncoding("UTF-8");
+                    // one change is refilled for every row, as the output turns it into XML straight away
+                    InsertDataChange change = new InsertDataChange();
                     change.setSchemaName(schema);
                     change.setTableName(table.getName());
-
+                    ColumnConfig[] columns = new ColumnConfig[columnCount + 1];
+                    int[] dataTypes = new int[columnCount + 1];
                     for (int col = 1; col <= columnCount; col++) {
-                        String colName = columnData.getColumnName(col);
-                        int dataType = columnData.getColumnType(col);
-                        String typeString = "STRING";
-                        if (SqlUtil.isNumeric(dataType)) {
-                            typeString = "NUMERIC";
-                        } else if (SqlUtil.isBoolean(dataType)) {
-                            typeString = "BOOLEAN";
-                        } else if (SqlUtil.isDate(dataType)) {
-                            typeString = "DATE";
-                        }
-
-                        LoadDataColumnConfig columnConfig = new LoadDataColumnConfig();
-                        columnConfig.setHeader(colName);
-                        columnConfig.setType(typeString);
-
-                        change.addColumn(columnConfig);
+                        columns[col] = new ColumnConfig();
+                        columns[col].setName(columnData.getColumnName(col));
+                        dataTypes[col] = columnData.getColumnType(col);
+                        change.addColumn(columns[col]);
                     }
 
-                    changes.add(change);
-                } else { // if dataDir is null, build and use insert tags
-
-
                     // loop over all rows
                     while (rs.next()) {
-                        InsertDataChange change = new InsertDataChange();
-                        change.setSchemaName(schema);
-                        change.setTableName(table.getName());
-
                         // loop over all columns for this row
                         for (int col = 1; col <= columnCount; col++) {
-                            ColumnConfig column = new ColumnConfig();
-                            column.setName(columnData.getColumnName(col));
+                            ColumnConfig column = columns[col];
 
-                            // set the value for this column
-                            int dataType = columnData.getColumnType(col);
+                            // set the value for this column, always with the same setter so no value is left over
+                            int dataType = dataTypes[col];
                             if (SqlUtil.isNumeric(dataType)) {
                                 String columnValue = rs.getString(col);
                                 if (columnValue == null) {
@@ -950,16 +987,15 @@ public class DiffResult {
                             } else { //string
                                 column.setValue(rs.getString(col));
                             }
-
-                            change.addColumn(column);
-
                         }
 
                         // for each row, add a new change
                         // (there will be one group per table)
                         changes.add(change);
                     }
-
+                } finally {
+                    JdbcUtils.closeResultSet(rs);
+                    JdbcUtils.closeStatement(stmt);
                 }
             }
 
@@ -967,4 +1003,51 @@ public class DiffResult {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Exporter used to write table data when a dataDir is set.  Configure it to control fetch size and file
+     * splitting.
+     */
+    public DataExporter getDataExporter() {
+        if (dataExporter == null) {
+            dataExporter = new DataExporter(baseSnapshot.getDatabase(), baseSnapshot.getSchema());
+        }
+        return dataExporter;
+    }
+
+    public void setDataExporter(DataExporter dataExporter) {
+        this.dataExporter = dataExporter;
+    }
+
+    /**
+     * Receives the generated changes in changeLog order.  A change is turned into XML before add returns, so the
+     * caller may change and pass it again.
+     */
+    private interface ChangeOutput {
+        void add(Change change) throws IOException;
+    }
+
+    /**
+     * Differences of one kind, kept in the order they were added until they are first read, then sorted once.
+     */
+    private static class DiffObjects<T> {
+        private List<T> added = new ArrayList<T>();
+        private SortedSet<T> sorted;
+
+        public void add(T object) {
+            if (sorted == null) {
+                added.add(object);
+            } else {
+                sorted.add(object);
+            }
+        }
+
+        public SortedSet<T> getSorted() {
+            if (sorted == null) {
+                sorted = new TreeSet<T>(added);
+                added = null;
+            }
+            return sorted;
+        }
+    }
 }
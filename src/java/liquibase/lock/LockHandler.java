@@ -9,6 +9,8 @@ import liquibase.database.sql.visitor.SqlVisitor;
 import liquibase.exception.JDBCException;
 import liquibase.exception.LockException;
 import liquibase.log.LogFactory;
+import liquibase.metrics.MigrationMetrics;
+import liquibase.metrics.PhaseTimer;
 
 import java.net.InetAddress;
 import java.sql.Timestamp;
@@ -28,14 +30,24 @@ public class LockHandler {
         this.database = database;
     }
 
-    public static LockHandler getInstance(Database database) {
+    public static synchronized LockHandler getInstance(Database database) {
         if (!instances.containsKey(database)) {
             instances.put(database, new LockHandler(database));
         }
         return instances.get(database);
     }
 
+    public boolean hasChangeLogLock() {
+        return hasChangeLogLock;
+    }
+
     public boolean acquireLock() throws LockException {
+        if (database.getOfflineHistory() != null) {
+            //no lock table to update
+            hasChangeLogLock = true;
+            return true;
+        }
+
         try {
             database.checkDatabaseChangeLogLockTable();
 
@@ -82,6 +94,12 @@ public class LockHandler {
     }
 
     public void releaseLock() throws LockException {
+        if (database.getOfflineHistory() != null) {
+            hasChangeLogLock = false;
+            removeInstance(this.database);
+            return;
+        }
+
         try {
             if (database.doesChangeLogLockTableExist() || !database.getJdbcTemplate().executesStatements()) {
                 UpdateStatement releaseStatement = new UpdateStatement(database.getDefaultSchemaName(), database.getDatabaseChangeLogLockTableName());
@@ -100,7 +118,7 @@ public class LockHandler {
                 database.commit();
                 hasChangeLogLock = false;
 
-                instances.remove(this.database);
+                removeInstance(this.database);
 
                 LogFactory.getLogger().info("Successfully released change log lock");
             }
@@ -111,7 +129,7 @@ public class LockHandler {
 
     public DatabaseChangeLogLock[] listLocks() throws LockException {
         try {
-            if (!database.doesChangeLogLockTableExist()) {
+            if (database.getOfflineHistory() != null || !database.doesChangeLogLockTableExist()) {
                 return new DatabaseChangeLogLock[0];
             }
 
@@ -141,6 +159,12 @@ public class LockHandler {
             return;
         }
 
+        if (database.getOfflineHistory() != null) {
+            acquireLock();
+            return;
+        }
+
+        PhaseTimer timer = PhaseTimer.start(database.getMigrationMetrics(), MigrationMetrics.Phase.LOCK_WAIT);
         try {
             database.checkDatabaseChangeLogLockTable();
 
@@ -169,12 +193,15 @@ public class LockHandler {
                 }
                 throw new LockException("Could not acquire change log lock.  Currently locked by " + lockedBy);
             }
+            timer.succeeded();
         } catch (JDBCException e) {
             if (!database.getJdbcTemplate().executesStatements()) {
                 ; //nothing to do
             } else {
                 throw new LockException(e);
             }
+        } finally {
+            timer.stop();
         }
     }
 
@@ -187,6 +214,10 @@ public class LockHandler {
         releaseLock();
     }
 
+    private static synchronized void removeInstance(Database database) {
+        instances.remove(database);
+    }
+
     /**
      * Clears information the lock handler knows about the tables.  Should only be called by LiquiBase internal calls
      */
@@ -0,0 +1,85 @@
+package liquibase.metrics;
+
+import liquibase.ChangeSet;
+import liquibase.log.LogFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+/**
+ * Forwards all calls to the added metrics, so a database can report to several.  A failing implementation is logged
+ * and never stops a migration.
+ */
+public class CompositeMigrationMetrics implements MigrationMetrics {
+
+    private List<MigrationMetrics> metrics = new CopyOnWriteArrayList<MigrationMetrics>();
+
+    public void add(MigrationMetrics migrationMetrics) {
+        if (!metrics.contains(migrationMetrics)) {
+            metrics.add(migrationMetrics);
+        }
+    }
+
+    public void remove(MigrationMetrics migrationMetrics) {
+        metrics.remove(migrationMetrics);
+    }
+
+    public boolean isEmpty() {
+        return metrics.isEmpty();
+    }
+
+    public void phaseStarted(Phase phase) {
+        for (MigrationMetrics migrationMetrics : metrics) {
+            try {
+                migrationMetrics.phaseStarted(phase);
+            } catch (RuntimeException e) {
+                logFailure(e);
+            }
+        }
+    }
+
+    public void phaseFinished(Phase phase, long elapsedMillis, boolean successful) {
+        for (MigrationMetrics migrationMetrics : metrics) {
+            try {
+                migrationMetrics.phaseFinished(phase, elapsedMillis, successful);
+            } catch (RuntimeException e) {
+                logFailure(e);
+            }
+        }
+    }
+
+    public void pendingChangeSets(int count) {
+        for (MigrationMetrics migrationMetrics : metrics) {
+            try {
+                migrationMetrics.pendingChangeSets(count);
+            } catch (RuntimeException e) {
+                logFailure(e);
+            }
+        }
+    }
+
+    public void changeSetStarted(ChangeSet changeSet) {
+        for (MigrationMetrics migrationMetrics : metrics) {
+            try {
+                migrationMetrics.changeSetStarted(changeSet);
+            } catch (RuntimeException e) {
+                logFailure(e);
+            }
+        }
+    }
+
+    public void changeSetFinished(ChangeSet changeSet, long elapsedMillis, boolean successful) {
+        for (MigrationMetrics migrationMetrics : metrics) {
+            try {
+                migrationMetrics.changeSetFinished(changeSet, elapsedMillis, successful);
+            } catch (RuntimeException e) {
+                logFailure(e);
+            }
+        }
+    }
+
+    private void logFailure(RuntimeException e) {
+        LogFactory.getLogger().log(Level.WARNING, "Error recording migration metrics", e);
+    }
+}
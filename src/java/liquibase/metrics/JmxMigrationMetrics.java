@@ -0,0 +1,262 @@
+package liquibase.metrics;
+
+import liquibase.ChangeSet;
+import liquibase.exception.LiquibaseException;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Exposes LiquiBase counters and timers as a JMX MBean so monitoring can alert on slow or stuck migrations.
+ * Use {@link #register()} to add it to the platform MBean server, and set it on the database it reports for with
+ * {@link liquibase.database.Database#setMigrationMetrics(MigrationMetrics)}.
+ */
+public class JmxMigrationMetrics implements MigrationMetrics, JmxMigrationMetricsMBean {
+
+    public static final String OBJECT_NAME_PREFIX = "liquibase:type=Migration,name=";
+
+    private ObjectName objectName;
+
+    private final Map<Phase, PhaseStatistics> statistics = new EnumMap<Phase, PhaseStatistics>(Phase.class);
+
+    private Phase currentPhase;
+    private long currentPhaseStarted;
+    private ChangeSet currentChangeSet;
+    private long currentChangeSetStarted;
+    private int pendingChangeSets;
+    private long executedChangeSets;
+    private long failedChangeSets;
+    private String lastFailedChangeSet;
+
+    public JmxMigrationMetrics(String name) throws LiquibaseException {
+        try {
+            this.objectName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(name));
+        } catch (Exception e) {
+            throw new LiquibaseException("Invalid JMX name: " + name, e);
+        }
+        reset();
+    }
+
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    public void register() throws LiquibaseException {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new LiquibaseException("Could not register " + objectName, e);
+        }
+    }
+
+    public void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            //nothing to do, the server is probably shutting down
+        }
+    }
+
+    public synchronized void phaseStarted(Phase phase) {
+        if (phase == Phase.CHECKSUM) {
+            return; //too frequent and too short to be interesting as the current phase
+        }
+        currentPhase = phase;
+        currentPhaseStarted = System.currentTimeMillis();
+    }
+
+    public synchronized void phaseFinished(Phase phase, long elapsedMillis, boolean successful) {
+        statistics.get(phase).record(elapsedMillis, successful);
+        if (phase == currentPhase) {
+            currentPhase = null;
+        }
+    }
+
+    public synchronized void pendingChangeSets(int count) {
+        pendingChangeSets = count;
+    }
+
+    public synchronized void changeSetStarted(ChangeSet changeSet) {
+        currentChangeSet = changeSet;
+        currentChangeSetStarted = System.currentTimeMillis();
+        phaseStarted(Phase.CHANGESET_EXECUTE);
+    }
+
+    public synchronized void changeSetFinished(ChangeSet changeSet, long elapsedMillis, boolean successful) {
+        phaseFinished(Phase.CHANGESET_EXECUTE, elapsedMillis, successful);
+        if (successful) {
+            executedChangeSets++;
+        } else {
+            failedChangeSets++;
+            lastFailedChangeSet = changeSet.toString(false);
+        }
+        if (pendingChangeSets > 0) {
+            pendingChangeSets--;
+        }
+        currentChangeSet = null;
+    }
+
+    public synchronized String getCurrentPhase() {
+        if (currentPhase == null) {
+            return null;
+        }
+        return currentPhase.name();
+    }
+
+    public synchronized long getCurrentPhaseElapsedTime() {
+        if (currentPhase == null) {
+            return 0;
+        }
+        return System.currentTimeMillis() - currentPhaseStarted;
+    }
+
+    public synchronized String getCurrentChangeSet() {
+        if (currentChangeSet == null) {
+            return null;
+        }
+        return currentChangeSet.toString(false);
+    }
+
+    public synchronized long getCurrentChangeSetElapsedTime() {
+        if (currentChangeSet == null) {
+            return 0;
+        }
+        return System.currentTimeMillis() - currentChangeSetStarted;
+    }
+
+    public synchronized int getPendingChangeSets() {
+        return pendingChangeSets;
+    }
+
+    public synchronized long getExecutedChangeSets() {
+        return executedChangeSets;
+    }
+
+    public synchronized long getFailedChangeSets() {
+        return failedChangeSets;
+    }
+
+    public synchronized String getLastFailedChangeSet() {
+        return lastFailedChangeSet;
+    }
+
+    public synchronized long getParseCount() {
+        return statistics.get(Phase.PARSE).count;
+    }
+
+    public synchronized long getParseTotalTime() {
+        return statistics.get(Phase.PARSE).totalTime;
+    }
+
+    public synchronized long getParseMaxTime() {
+        return statistics.get(Phase.PARSE).maxTime;
+    }
+
+    public synchronized long getValidateCount() {
+        return statistics.get(Phase.VALIDATE).count;
+    }
+
+    public synchronized long getValidateTotalTime() {
+        return statistics.get(Phase.VALIDATE).totalTime;
+    }
+
+    public synchronized long getValidateMaxTime() {
+        return statistics.get(Phase.VALIDATE).maxTime;
+    }
+
+    public synchronized long getLockWaitCount() {
+        return statistics.get(Phase.LOCK_WAIT).count;
+    }
+
+    public synchronized long getLockWaitTotalTime() {
+        return statistics.get(Phase.LOCK_WAIT).totalTime;
+    }
+
+    public synchronized long getLockWaitMaxTime() {
+        return statistics.get(Phase.LOCK_WAIT).maxTime;
+    }
+
+    public synchronized long getSnapshotCount() {
+        return statistics.get(Phase.SNAPSHOT).count;
+    }
+
+    public synchronized long getSnapshotTotalTime() {
+        return statistics.get(Phase.SNAPSHOT).totalTime;
+    }
+
+    public synchronized long getSnapshotMaxTime() {
+        return statistics.get(Phase.SNAPSHOT).maxTime;
+    }
+
+    public synchronized long getChangeSetExecuteCount() {
+        return statistics.get(Phase.CHANGESET_EXECUTE).count;
+    }
+
+    public synchronized long getChangeSetExecuteTotalTime() {
+        return statistics.get(Phase.CHANGESET_EXECUTE).totalTime;
+    }
+
+    public synchronized long getChangeSetExecuteMaxTime() {
+        return statistics.get(Phase.CHANGESET_EXECUTE).maxTime;
+    }
+
+    public synchronized long getChecksumCount() {
+        return statistics.get(Phase.CHECKSUM).count;
+    }
+
+    public synchronized long getChecksumTotalTime() {
+        return statistics.get(Phase.CHECKSUM).totalTime;
+    }
+
+    public synchronized long getChecksumMaxTime() {
+        return statistics.get(Phase.CHECKSUM).maxTime;
+    }
+
+    public synchronized long getFailureCount() {
+        long failures = 0;
+        for (PhaseStatistics phaseStatistics : statistics.values()) {
+            failures += phaseStatistics.failures;
+        }
+        return failures;
+    }
+
+    public synchronized void reset() {
+        for (Phase phase : Phase.values()) {
+            statistics.put(phase, new PhaseStatistics());
+        }
+        currentPhase = null;
+        currentChangeSet = null;
+        pendingChangeSets = 0;
+        executedChangeSets = 0;
+        failedChangeSets = 0;
+        lastFailedChangeSet = null;
+    }
+
+    private static class PhaseStatistics {
+        private long count;
+        private long totalTime;
+        private long maxTime;
+        private long failures;
+
+        private void record(long elapsedMillis, boolean successful) {
+            count++;
+            totalTime += elapsedMillis;
+            if (elapsedMillis > maxTime) {
+                maxTime = elapsedMillis;
+            }
+            if (!successful) {
+                failures++;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package liquibase.metrics;
+
+/**
+ * Management interface of {@link JmxMigrationMetrics}.  Times are in milliseconds.
+ */
+public interface JmxMigrationMetricsMBean {
+
+    String getCurrentPhase();
+
+    long getCurrentPhaseElapsedTime();
+
+    String getCurrentChangeSet();
+
+    long getCurrentChangeSetElapsedTime();
+
+    int getPendingChangeSets();
+
+    long getExecutedChangeSets();
+
+    long getFailedChangeSets();
+
+    String getLastFailedChangeSet();
+
+    long getParseCount();
+
+    long getParseTotalTime();
+
+    long getParseMaxTime();
+
+    long getValidateCount();
+
+    long getValidateTotalTime();
+
+    long getValidateMaxTime();
+
+    long getLockWaitCount();
+
+    long getLockWaitTotalTime();
+
+    long getLockWaitMaxTime();
+
+    long getSnapshotCount();
+
+    long getSnapshotTotalTime();
+
+    long getSnapshotMaxTime();
+
+    long getChangeSetExecuteCount();
+
+    long getChangeSetExecuteTotalTime();
+
+    long getChangeSetExecuteMaxTime();
+
+    long getChecksumCount();
+
+    long getChecksumTotalTime();
+
+    long getChecksumMaxTime();
+
+    long getFailureCount();
+
+    void reset();
+}
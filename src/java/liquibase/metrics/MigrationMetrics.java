@@ -0,0 +1,34 @@
+package liquibase.metrics;
+
+import liquibase.ChangeSet;
+
+/**
+ * Receives timing and counter information from LiquiBase as it runs.
+ * Implementations are set on the database a migration runs against with
+ * {@link liquibase.database.Database#setMigrationMetrics(MigrationMetrics)}, so each database reports separately.
+ * They may be called from several threads at once.
+ */
+public interface MigrationMetrics {
+
+    public enum Phase {
+        PARSE,
+        VALIDATE,
+        LOCK_WAIT,
+        SNAPSHOT,
+        CHANGESET_EXECUTE,
+        CHECKSUM
+    }
+
+    void phaseStarted(Phase phase);
+
+    void phaseFinished(Phase phase, long elapsedMillis, boolean successful);
+
+    /**
+     * Called once the change sets that an update will apply are known.
+     */
+    void pendingChangeSets(int count);
+
+    void changeSetStarted(ChangeSet changeSet);
+
+    void changeSetFinished(ChangeSet changeSet, long elapsedMillis, boolean successful);
+}
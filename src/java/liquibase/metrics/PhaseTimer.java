@@ -0,0 +1,56 @@
+package liquibase.metrics;
+
+/**
+ * Times one occurrence of a {@link MigrationMetrics.Phase}.  Typical use:
+ * <pre>
+ * PhaseTimer timer = PhaseTimer.start(database.getMigrationMetrics(), MigrationMetrics.Phase.PARSE);
+ * try {
+ *     ...
+ *     timer.succeeded();
+ * } finally {
+ *     timer.stop();
+ * }
+ * </pre>
+ */
+public class PhaseTimer {
+
+    private static final PhaseTimer DISABLED = new PhaseTimer(null, null, 0);
+
+    private MigrationMetrics metrics;
+    private MigrationMetrics.Phase phase;
+    private long startTime;
+    private boolean successful = false;
+    private boolean stopped = false;
+
+    private PhaseTimer(MigrationMetrics metrics, MigrationMetrics.Phase phase, long startTime) {
+        this.metrics = metrics;
+        this.phase = phase;
+        this.startTime = startTime;
+    }
+
+    /**
+     * @param metrics where the phase is reported, or null to not time it
+     */
+    public static PhaseTimer start(MigrationMetrics metrics, MigrationMetrics.Phase phase) {
+        if (metrics == null) {
+            return DISABLED;
+        }
+        metrics.phaseStarted(phase);
+        return new PhaseTimer(metrics, phase, System.nanoTime());
+    }
+
+    public void succeeded() {
+        successful = true;
+    }
+
+    /**
+     * Reports the elapsed time.  Only the first call has any effect.
+     */
+    public void stop() {
+        if (metrics == null || stopped) {
+            return;
+        }
+        stopped = true;
+        metrics.phaseFinished(phase, (System.nanoTime() - startTime) / 1000000, successful);
+    }
+}
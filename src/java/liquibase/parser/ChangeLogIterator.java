@@ -7,6 +7,7 @@ import liquibase.exception.LiquibaseException;
 import liquibase.parser.filter.ChangeSetFilter;
 import liquibase.parser.visitor.ChangeSetVisitor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -23,6 +24,8 @@ public class ChangeLogIterator {
     public void run(ChangeSetVisitor visitor, Database database) throws LiquibaseException {
         List<ChangeSet> changeSetList = databaseChangeLog.getChangeSets();
         if (visitor.getDirection().equals(ChangeSetVisitor.Direction.REVERSE)) {
+            //reverse a copy, the change log's own list must keep its order
+            changeSetList = new ArrayList<ChangeSet>(changeSetList);
             Collections.reverse(changeSetList);
         }
 
@@ -0,0 +1,124 @@
+package liquibase.parser;
+
+import liquibase.ChangeSet;
+import liquibase.DatabaseChangeLog;
+import liquibase.RanChangeSet;
+import liquibase.exception.RollbackFailedException;
+import liquibase.parser.filter.ChangeSetFilter;
+
+import java.util.*;
+
+/**
+ * Works out which change sets a rollback to a tag or date has to undo.  The ran change sets, in the order of the
+ * change log table, are indexed once by tag and by execution date, so the change sets to roll back are known up
+ * front and only those are looked up in the change log.
+ */
+public class RollbackPlanner {
+
+    private List<RanChangeSet> ranChangeSets;
+    private Map<String, Integer> firstPositionByTag = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);
+    private long[] executionTimes;
+
+    public RollbackPlanner(List<RanChangeSet> ranChangeSets) {
+        this.ranChangeSets = ranChangeSets;
+
+        executionTimes = new long[ranChangeSets.size()];
+        for (int i = 0; i < ranChangeSets.size(); i++) {
+            RanChangeSet ranChangeSet = ranChangeSets.get(i);
+            if (ranChangeSet.getTag() != null && !firstPositionByTag.containsKey(ranChangeSet.getTag())) {
+                firstPositionByTag.put(ranChangeSet.getTag(), i);
+            }
+
+            Date dateExecuted = ranChangeSet.getDateExecuted();
+            if (executionTimes != null) {
+                if (dateExecuted == null || (i > 0 && dateExecuted.getTime() < executionTimes[i - 1])) {
+                    //not in execution order, fall back to checking every date
+                    executionTimes = null;
+                } else {
+                    executionTimes[i] = dateExecuted.getTime();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the change sets ran after the first change set tagged with the given tag, other than those with the
+     * same tag.
+     */
+    public List<RanChangeSet> getRanAfterTag(String tag) throws RollbackFailedException {
+        Integer tagPosition = firstPositionByTag.get(tag);
+        if (tagPosition == null) {
+            throw new RollbackFailedException("Could not find tag '" + tag + "' in the database");
+        }
+
+        List<RanChangeSet> returnList = new ArrayList<RanChangeSet>();
+        for (RanChangeSet ranChangeSet : ranChangeSets.subList(tagPosition + 1, ranChangeSets.size())) {
+            if (!tag.equalsIgnoreCase(ranChangeSet.getTag())) {
+                returnList.add(ranChangeSet);
+            }
+        }
+        return returnList;
+    }
+
+    /**
+     * Returns the change sets executed after the given date.
+     */
+    public List<RanChangeSet> getRanAfter(Date date) {
+        if (executionTimes != null) {
+            int low = 0;
+            int high = executionTimes.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (executionTimes[middle] > date.getTime()) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return new ArrayList<RanChangeSet>(ranChangeSets.subList(low, ranChangeSets.size()));
+        }
+
+        List<RanChangeSet> returnList = new ArrayList<RanChangeSet>();
+        for (RanChangeSet ranChangeSet : ranChangeSets) {
+            if (ranChangeSet.getDateExecuted() != null && ranChangeSet.getDateExecuted().getTime() > date.getTime()) {
+                returnList.add(ranChangeSet);
+            }
+        }
+        return returnList;
+    }
+
+    /**
+     * Returns the change sets of the change log matching the ran change sets and accepted by the filters, in the
+     * order they are rolled back: last in the change log first.
+     */
+    public List<ChangeSet> plan(DatabaseChangeLog changeLog, List<RanChangeSet> toRollBack, ChangeSetFilter... changeSetFilters) {
+        Set<String> keys = new HashSet<String>();
+        for (RanChangeSet ranChangeSet : toRollBack) {
+            keys.add(createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor()));
+        }
+
+        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+        List<ChangeSet> changeLogChangeSets = changeLog.getChangeSets();
+        for (int i = changeLogChangeSets.size() - 1; i >= 0 && changeSets.size() < keys.size(); i--) {
+            ChangeSet changeSet = changeLogChangeSets.get(i);
+            if (keys.contains(createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()))) {
+                changeSets.add(changeSet);
+            }
+        }
+
+        for (Iterator<ChangeSet> iterator = changeSets.iterator(); iterator.hasNext();) {
+            ChangeSet changeSet = iterator.next();
+            for (ChangeSetFilter filter : changeSetFilters) {
+                if (!filter.accepts(changeSet)) {
+                    iterator.remove();
+                    break;
+                }
+            }
+        }
+        return changeSets;
+    }
+
+    private String createKey(String filePath, String id, String author) {
+        return id + ":" + author + ":" + filePath;
+    }
+}
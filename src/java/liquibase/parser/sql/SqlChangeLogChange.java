@@ -0,0 +1,108 @@
+package liquibase.parser.sql;
+
+import liquibase.change.SQLFileChange;
+import liquibase.util.MD5Util;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The change a .sql change log is turned into.  The file is read as the change is executed, like a sqlFile change, but
+ * it is described and checksummed as the sql change the whole file used to be loaded into, so change sets already ran
+ * keep their checksum.  The file is run as one statement unless
+ * {@link SqlChangeLogGenerator#SPLIT_STATEMENTS_PROPERTY} is set.
+ */
+public class SqlChangeLogChange extends SQLFileChange {
+
+    public SqlChangeLogChange() {
+        super("sql", "Custom SQL");
+    }
+
+    public String getConfirmationMessage() {
+        return "Custom SQL executed";
+    }
+
+    public Element createNode(Document currentChangeLogFileDOM) {
+        Element sqlElement = currentChangeLogFileDOM.createElement("sql");
+        sqlElement.appendChild(currentChangeLogFileDOM.createTextNode(getSql()));
+
+        return sqlElement;
+    }
+
+    /**
+     * Computes the checksum {@link #createNode(Document)} gives, reading the file rather than building the node.
+     */
+    public String getMD5Sum() {
+        try {
+            Reader reader = new ChecksumReader(openSqlReader());
+            try {
+                return MD5Util.computeMD5(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads the SQL trimmed and wrapped in the sql tag, as it is checksummed when in a node.
+     */
+    private static class ChecksumReader extends Reader {
+        private Reader sql;
+        private StringBuffer output = new StringBuffer("<sql>");
+        private int outputPosition = 0;
+        private StringBuffer whitespace = new StringBuffer();
+        private boolean started = false;
+        private boolean finished = false;
+        private char[] buffer = new char[8192];
+
+        public ChecksumReader(Reader sql) {
+            this.sql = sql;
+        }
+
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            while (outputPosition >= output.length()) {
+                if (finished) {
+                    return -1;
+                }
+                output.setLength(0);
+                outputPosition = 0;
+                fill();
+            }
+
+            int count = Math.min(len, output.length() - outputPosition);
+            output.getChars(outputPosition, outputPosition + count, cbuf, off);
+            outputPosition += count;
+            return count;
+        }
+
+        private void fill() throws IOException {
+            int read = sql.read(buffer);
+            if (read == -1) {
+                output.append("</sql>");
+                finished = true;
+                return;
+            }
+
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (c <= ' ') {
+                    if (started) {
+                        whitespace.append(c);
+                    }
+                } else {
+                    started = true;
+                    output.append(whitespace).append(c);
+                    whitespace.setLength(0);
+                }
+            }
+        }
+
+        public void close() throws IOException {
+            sql.close();
+        }
+    }
+}
@@ -3,9 +3,6 @@ package liquibase.parser.sql;
 import liquibase.DatabaseChangeLog;
 import liquibase.FileOpener;
 import liquibase.ChangeSet;
-import liquibase.util.StreamUtil;
-import liquibase.change.SQLFileChange;
-import liquibase.change.RawSQLChange;
 import liquibase.exception.ChangeLogParseException;
 
 import java.util.Map;
@@ -13,19 +10,30 @@ import java.io.IOException;
 import java.io.InputStream;
 
 public class SqlChangeLogGenerator {
-    public DatabaseChangeLog generate(String physicalChangeLogLocation, FileOpener fileOpener, Map<String, Object> changeLogProperties) throws ChangeLogParseException {
 
-        RawSQLChange change = new RawSQLChange();
+    /**
+     * Change log parameter or system property which, when "true", splits .sql change logs into statements.  By
+     * default the file is sent to the database as one statement, as the reader does not know about dollar quoted or
+     * BEGIN...END bodies holding delimiters.
+     */
+    public static final String SPLIT_STATEMENTS_PROPERTY = "liquibase.sql.splitStatements";
+
+    public DatabaseChangeLog generate(String physicalChangeLogLocation, FileOpener fileOpener, Map<String, Object> changeLogProperties) throws ChangeLogParseException {
 
         try {
             InputStream sqlStream = fileOpener.getResourceAsStream(physicalChangeLogLocation);
-            String sql = StreamUtil.getStreamContents(sqlStream, null);
-            change.setSql(sql);
+            if (sqlStream == null) {
+                throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
+            }
+            sqlStream.close();
         } catch (IOException e) {
             throw new ChangeLogParseException(e);
         }
+
+        SqlChangeLogChange change = new SqlChangeLogChange();
+        change.setPath(physicalChangeLogLocation);
         change.setFileOpener(fileOpener);
-        change.setSplitStatements(false);
+        change.setSplitStatements(isSplitStatements(changeLogProperties));
         change.setStripComments(false);
 
         ChangeSet changeSet = new ChangeSet("raw", "includeAll", false, false, physicalChangeLogLocation, physicalChangeLogLocation, null, null, false);
@@ -36,4 +44,12 @@ public class SqlChangeLogGenerator {
 
         return changeLog;
     }
+
+    private boolean isSplitStatements(Map<String, Object> changeLogProperties) {
+        Object value = changeLogProperties == null ? null : changeLogProperties.get(SPLIT_STATEMENTS_PROPERTY);
+        if (value == null) {
+            value = System.getProperty(SPLIT_STATEMENTS_PROPERTY);
+        }
+        return value != null && Boolean.valueOf(value.toString().trim());
+    }
 }
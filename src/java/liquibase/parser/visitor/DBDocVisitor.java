@@ -19,6 +19,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DBDocVisitor implements ChangeSetVisitor {
 
@@ -33,8 +38,13 @@ public class DBDocVisitor implements ChangeSetVisitor {
     private List<Change> changesToRun;
     private List<Change> recentChanges;
 
+    private ChangeSetRunStatuses runStatuses;
+
     private String rootChangeLog;
 
+    private boolean incremental = false;
+    private int writerThreads = 1;
+
     private static final int MAX_RECENT_CHANGE = 50;
 
     public DBDocVisitor(Database database) {
@@ -48,6 +58,30 @@ public class DBDocVisitor implements ChangeSetVisitor {
         changesToRunByAuthor = new HashMap<String, List<Change>>();
         changesToRun = new ArrayList<Change>();
         recentChanges = new ArrayList<Change>();
+
+        runStatuses = new ChangeSetRunStatuses(database);
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * If true, only pages whose content changed since the last run into the same directory are written.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public int getWriterThreads() {
+        return writerThreads;
+    }
+
+    /**
+     * Number of threads writing the table, column and author pages.
+     */
+    public void setWriterThreads(int writerThreads) {
+        this.writerThreads = writerThreads;
     }
 
     public ChangeSetVisitor.Direction getDirection() {
@@ -55,7 +89,7 @@ public class DBDocVisitor implements ChangeSetVisitor {
     }
 
     public void visit(ChangeSet changeSet, Database database) throws LiquibaseException {
-        ChangeSet.RunStatus runStatus = this.database.getRunStatus(changeSet);
+        ChangeSet.RunStatus runStatus = runStatuses.getRunStatus(changeSet);
         if (rootChangeLog == null) {
             rootChangeLog = changeSet.getFilePath();
         }
@@ -106,13 +140,22 @@ public class DBDocVisitor implements ChangeSetVisitor {
 
     public void writeHTML(File rootOutputDir, FileOpener fileOpener) throws IOException, JDBCException, DatabaseHistoryException {
         ChangeLogWriter changeLogWriter = new ChangeLogWriter(fileOpener, rootOutputDir);
-        HTMLWriter authorWriter = new AuthorWriter(rootOutputDir, database);
-        HTMLWriter tableWriter = new TableWriter(rootOutputDir, database);
-        HTMLWriter columnWriter = new ColumnWriter(rootOutputDir, database);
+        final HTMLWriter authorWriter = new AuthorWriter(rootOutputDir, database);
+        final HTMLWriter tableWriter = new TableWriter(rootOutputDir, database);
+        final HTMLWriter columnWriter = new ColumnWriter(rootOutputDir, database);
         HTMLWriter pendingChangesWriter = new PendingChangesWriter(rootOutputDir, database);
         HTMLWriter recentChangesWriter = new RecentChangesWriter(rootOutputDir, database);
         HTMLWriter pendingSQLWriter = new PendingSQLWriter(rootOutputDir, database);
 
+        PageFingerprints fingerprints = null;
+        if (incremental) {
+            fingerprints = new PageFingerprints(rootOutputDir);
+        }
+        for (HTMLWriter writer : new HTMLWriter[]{authorWriter, tableWriter, columnWriter, pendingChangesWriter, recentChangesWriter, pendingSQLWriter}) {
+            writer.setRunStatuses(runStatuses);
+            writer.setFingerprints(fingerprints);
+        }
+
         copyFile("liquibase/dbdoc/stylesheet.css", rootOutputDir);
         copyFile("liquibase/dbdoc/index.html", rootOutputDir);
         copyFile("liquibase/dbdoc/globalnav.html", rootOutputDir);
@@ -124,18 +167,36 @@ public class DBDocVisitor implements ChangeSetVisitor {
         new TableListWriter(rootOutputDir).writeHTML(new TreeSet<Object>(snapshot.getTables()));
         new AuthorListWriter(rootOutputDir).writeHTML(new TreeSet<Object>(changesByAuthor.keySet()));
 
-        for (String author : changesByAuthor.keySet()) {
-            authorWriter.writeHTML(author, changesByAuthor.get(author), changesToRunByAuthor.get(author), rootChangeLog);
+        List<Callable<Object>> pages = new ArrayList<Callable<Object>>();
+        for (final String author : changesByAuthor.keySet()) {
+            pages.add(new Callable<Object>() {
+                public Object call() throws Exception {
+                    authorWriter.writeHTML(author, changesByAuthor.get(author), changesToRunByAuthor.get(author), rootChangeLog);
+                    return null;
+                }
+            });
         }
 
-        for (Table table : snapshot.getTables()) {
-            tableWriter.writeHTML(table, changesByObject.get(table), changesToRunByObject.get(table), rootChangeLog);
+        for (final Table table : snapshot.getTables()) {
+            pages.add(new Callable<Object>() {
+                public Object call() throws Exception {
+                    tableWriter.writeHTML(table, changesByObject.get(table), changesToRunByObject.get(table), rootChangeLog);
+                    return null;
+                }
+            });
         }
 
-        for (Column column : snapshot.getColumns()) {
-            columnWriter.writeHTML(column, changesByObject.get(column), changesToRunByObject.get(column), rootChangeLog);
+        for (final Column column : snapshot.getColumns()) {
+            pages.add(new Callable<Object>() {
+                public Object call() throws Exception {
+                    columnWriter.writeHTML(column, changesByObject.get(column), changesToRunByObject.get(column), rootChangeLog);
+                    return null;
+                }
+            });
         }
 
+        writePages(pages);
+
         for (ChangeLogInfo changeLog : changeLogs) {
             changeLogWriter.writeChangeLog(changeLog.logicalPath, changeLog.physicalPath);
         }
@@ -148,6 +209,56 @@ public class DBDocVisitor implements ChangeSetVisitor {
         }
         recentChangesWriter.writeHTML("index", recentChanges, null, rootChangeLog);
 
+        if (fingerprints != null) {
+            fingerprints.save();
+        }
+    }
+
+    /**
+     * Writes the pages, which do not depend on each other, on writerThreads threads.
+     */
+    private void writePages(List<Callable<Object>> pages) throws IOException, JDBCException, DatabaseHistoryException {
+        if (writerThreads <= 1 || pages.size() <= 1) {
+            for (Callable<Object> page : pages) {
+                try {
+                    page.call();
+                } catch (Exception e) {
+                    rethrow(e);
+                }
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(writerThreads, pages.size()));
+        try {
+            for (Future<Object> future : executor.invokeAll(pages)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    rethrow(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted writing documentation");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void rethrow(Throwable e) throws IOException, JDBCException, DatabaseHistoryException {
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        } else if (e instanceof JDBCException) {
+            throw (JDBCException) e;
+        } else if (e instanceof DatabaseHistoryException) {
+            throw (DatabaseHistoryException) e;
+        } else if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new RuntimeException(e);
     }
 
     private void copyFile(String fileToCopy, File rootOutputDir) throws IOException {
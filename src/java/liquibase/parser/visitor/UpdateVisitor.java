@@ -4,6 +4,7 @@ import liquibase.ChangeSet;
 import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
 import liquibase.log.LogFactory;
+import liquibase.metrics.MigrationMetrics;
 
 import java.util.logging.Logger;
 
@@ -23,14 +24,27 @@ public class UpdateVisitor implements ChangeSetVisitor {
     
     public void visit(ChangeSet changeSet, Database database) throws LiquibaseException {
         log.finer("Running Changeset:" + changeSet);
-        if (changeSet.execute(this.database)) {
-            if (this.database.getRunStatus(changeSet).equals(ChangeSet.RunStatus.NOT_RAN)) {
-                this.database.markChangeSetAsRan(changeSet);
-            } else {
-                this.database.markChangeSetAsReRan(changeSet);
-            }
+        MigrationMetrics metrics = this.database.getMigrationMetrics();
+        if (metrics != null) {
+            metrics.changeSetStarted(changeSet);
         }
+        long startTime = System.nanoTime();
+        boolean successful = false;
+        try {
+            if (changeSet.execute(this.database)) {
+                if (this.database.getRunStatus(changeSet).equals(ChangeSet.RunStatus.NOT_RAN)) {
+                    this.database.markChangeSetAsRan(changeSet);
+                } else {
+                    this.database.markChangeSetAsReRan(changeSet);
+                }
+            }
 
-        this.database.commit();
+            this.database.commit();
+            successful = true;
+        } finally {
+            if (metrics != null) {
+                metrics.changeSetFinished(changeSet, (System.nanoTime() - startTime) / 1000000, successful);
+            }
+        }
     }
 }
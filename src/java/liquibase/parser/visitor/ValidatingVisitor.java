@@ -4,19 +4,29 @@ import liquibase.ChangeSet;
 import liquibase.DatabaseChangeLog;
 import liquibase.RanChangeSet;
 import liquibase.change.Change;
+import liquibase.change.custom.CustomChangeWrapper;
 import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
 import liquibase.exception.PreconditionFailedException;
 import liquibase.exception.SetupException;
 import liquibase.exception.PreconditionErrorException;
 import liquibase.exception.InvalidChangeDefinitionException;
+import liquibase.metrics.MigrationMetrics;
 import liquibase.preconditions.AndPrecondition;
 import liquibase.preconditions.FailedPrecondition;
 import liquibase.preconditions.ErrorPrecondition;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class ValidatingVisitor implements ChangeSetVisitor {
 
@@ -30,6 +40,8 @@ public class ValidatingVisitor implements ChangeSetVisitor {
     private Set<String> seenChangeSets = new HashSet<String>();
 
     private List<RanChangeSet> ranChangeSets;
+    private Map<String, RanChangeSet> ranChangeSetsByKey;
+    private Map<ChangeSet, ChangeSetValidation> preparedValidations = new HashMap<ChangeSet, ChangeSetValidation>();
 
     public ValidatingVisitor(List<RanChangeSet> ranChangeSets) {
         this.ranChangeSets = ranChangeSets;
@@ -53,29 +65,83 @@ public class ValidatingVisitor implements ChangeSetVisitor {
         return ChangeSetVisitor.Direction.FORWARD;
     }
 
+    /**
+     * Sets up and validates the changes, and computes the checksums of change sets already ran, on the given number
+     * of threads.  The change sets are independent of each other, so this work is done ahead of
+     * {@link #visit(ChangeSet, Database)}, which then only reports the results in change log order.
+     * <p/>
+     * Custom changes run user code that may use the database connection, so they are still validated by visit().
+     */
+    public void prepare(List<ChangeSet> changeSets, final Database database, int threads) throws LiquibaseException {
+        if (threads <= 1 || changeSets.size() <= 1) {
+            return;
+        }
+
+        List<Callable<ChangeSetValidation>> validations = new ArrayList<Callable<ChangeSetValidation>>();
+        for (final ChangeSet changeSet : changeSets) {
+            validations.add(new Callable<ChangeSetValidation>() {
+                public ChangeSetValidation call() {
+                    return new ChangeSetValidation(changeSet, database, true);
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, changeSets.size()));
+        try {
+            List<Future<ChangeSetValidation>> futures = executor.invokeAll(validations);
+            for (int i = 0; i < changeSets.size(); i++) {
+                try {
+                    preparedValidations.put(changeSets.get(i), futures.get(i).get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    throw new LiquibaseException(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LiquibaseException("Interrupted validating change log", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     public void visit(ChangeSet changeSet, Database database) {
-        for (Change change : changeSet.getChanges()) {
-            try {
-                change.setUp();
-            } catch (SetupException se) {
-                setupExceptions.add(se);
+        ChangeSetValidation validation = preparedValidations.remove(changeSet);
+        if (validation == null) {
+            validation = new ChangeSetValidation(changeSet, database, false);
+        }
+        if (validation.failure != null) {
+            throw validation.failure;
+        }
+
+        List<Change> changes = changeSet.getChanges();
+        for (int i = 0; i < changes.size(); i++) {
+            if (validation.setupExceptions[i] != null) {
+                setupExceptions.add(validation.setupExceptions[i]);
             }
 
-            try {
-                change.validate(database);
-            } catch (InvalidChangeDefinitionException e) {
-                changeValidationExceptions.add(e);
+            if (validation.deferred[i]) {
+                try {
+                    changes.get(i).validate(database);
+                } catch (InvalidChangeDefinitionException e) {
+                    changeValidationExceptions.add(e);
+                }
+            } else if (validation.validationExceptions[i] != null) {
+                changeValidationExceptions.add(validation.validationExceptions[i]);
             }
         }
 
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
-            if (ranChangeSet.getId().equals(changeSet.getId())
-                    && ranChangeSet.getAuthor().equals(changeSet.getAuthor())
-                    && ranChangeSet.getChangeLog().equals(changeSet.getFilePath())) {
-                if (!changeSet.isCheckSumValid(ranChangeSet.getMd5sum())) {
-                    if (!changeSet.shouldRunOnChange()) {
-                        invalidMD5Sums.add(changeSet);
-                    }
+        RanChangeSet ranChangeSet = getRanChangeSet(changeSet);
+        if (ranChangeSet != null) {
+            if (validation.checkSumFailure != null) {
+                throw validation.checkSumFailure;
+            }
+            changeSet.getMd5sum(getMigrationMetrics(database));
+            if (!changeSet.isCheckSumValid(ranChangeSet.getMd5sum())) {
+                if (!changeSet.shouldRunOnChange()) {
+                    invalidMD5Sums.add(changeSet);
                 }
             }
         }
@@ -89,6 +155,70 @@ public class ValidatingVisitor implements ChangeSetVisitor {
         }
     }
 
+    private static MigrationMetrics getMigrationMetrics(Database database) {
+        return database == null ? null : database.getMigrationMetrics();
+    }
+
+    private synchronized RanChangeSet getRanChangeSet(ChangeSet changeSet) {
+        if (ranChangeSetsByKey == null) {
+            ranChangeSetsByKey = new HashMap<String, RanChangeSet>();
+            for (RanChangeSet ranChangeSet : ranChangeSets) {
+                ranChangeSetsByKey.put(ranChangeSet.getId() + ":" + ranChangeSet.getAuthor() + ":" + ranChangeSet.getChangeLog(), ranChangeSet);
+            }
+        }
+        return ranChangeSetsByKey.get(changeSet.getId() + ":" + changeSet.getAuthor() + ":" + changeSet.getFilePath());
+    }
+
+    /**
+     * The outcome of setting up and validating the changes of a change set, by change.
+     */
+    private class ChangeSetValidation {
+        private SetupException[] setupExceptions;
+        private InvalidChangeDefinitionException[] validationExceptions;
+        private boolean[] deferred;
+        private RuntimeException checkSumFailure;
+        private RuntimeException failure;
+
+        private ChangeSetValidation(ChangeSet changeSet, Database database, boolean deferCustomChanges) {
+            List<Change> changes = changeSet.getChanges();
+            setupExceptions = new SetupException[changes.size()];
+            validationExceptions = new InvalidChangeDefinitionException[changes.size()];
+            deferred = new boolean[changes.size()];
+
+            try {
+                for (int i = 0; i < changes.size(); i++) {
+                    Change change = changes.get(i);
+                    try {
+                        change.setUp();
+                    } catch (SetupException se) {
+                        setupExceptions[i] = se;
+                    }
+
+                    if (deferCustomChanges && change instanceof CustomChangeWrapper) {
+                        deferred[i] = true;
+                    } else {
+                        try {
+                            change.validate(database);
+                        } catch (InvalidChangeDefinitionException e) {
+                            validationExceptions[i] = e;
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+                return;
+            }
+
+            if (deferCustomChanges && getRanChangeSet(changeSet) != null) {
+                try {
+                    changeSet.getMd5sum(getMigrationMetrics(database));
+                } catch (RuntimeException e) {
+                    checkSumFailure = e;
+                }
+            }
+        }
+    }
+
     public List<ChangeSet> getInvalidMD5Sums() {
         return invalidMD5Sums;
     }
@@ -0,0 +1,67 @@
+package liquibase.servlet;
+
+import liquibase.MigrationTask;
+import liquibase.exception.LiquibaseException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter that can be registered via web.xml in front of the parts of an application needing the updated database
+ * when the LiquibaseServletListener runs with LIQUIBASE_ASYNC set to true.  Requests made while the migration is
+ * running wait for it for at most the "timeout" init parameter in seconds (0 by default) and are then answered with
+ * a 503 response.  Requests are also refused if the migration failed, unless LIQUIBASE_FAIL_ON_ERROR is false.
+ */
+public class LiquibaseReadinessFilter implements Filter {
+
+    private ServletContext servletContext;
+    private long timeout = 0;
+
+    public void init(FilterConfig filterConfig) throws ServletException {
+        servletContext = filterConfig.getServletContext();
+        String timeoutParameter = filterConfig.getInitParameter("timeout");
+        if (timeoutParameter != null) {
+            try {
+                timeout = Long.parseLong(timeoutParameter.trim());
+            } catch (NumberFormatException e) {
+                throw new ServletException("Invalid LiquibaseReadinessFilter timeout: " + timeoutParameter);
+            }
+        }
+    }
+
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        MigrationTask migration = (MigrationTask) servletContext.getAttribute(LiquibaseServletListener.MIGRATION_ATTRIBUTE);
+        if (migration == null || migration.isReady()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            if (!migration.isDone() && timeout > 0) {
+                migration.await(timeout, TimeUnit.SECONDS);
+            }
+        } catch (LiquibaseException e) {
+            //reported below
+        }
+
+        if (migration.isReady() || (migration.isDone() && !LiquibaseServletListener.isFailOnError(servletContext))) {
+            chain.doFilter(request, response);
+        } else if (migration.isDone()) {
+            ((HttpServletResponse) response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Database migration failed");
+        } else {
+            ((HttpServletResponse) response).setHeader("Retry-After", "30");
+            ((HttpServletResponse) response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Database migration is still running");
+        }
+    }
+
+    public void destroy() {
+    }
+}
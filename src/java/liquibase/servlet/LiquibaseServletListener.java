@@ -3,18 +3,24 @@ package liquibase.servlet;
 import liquibase.log.LogFactory;
 import liquibase.*;
 import liquibase.util.NetUtil;
+import liquibase.database.Database;
 import liquibase.database.DatabaseFactory;
+import liquibase.exception.LiquibaseException;
+import liquibase.metrics.JmxMigrationMetrics;
 
 import javax.servlet.ServletContextListener;
 import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContext;
 import javax.naming.Context;
 import javax.naming.InitialContext;
 import javax.sql.DataSource;
 import java.util.logging.Handler;
+import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.sql.Connection;
+import java.util.concurrent.Callable;
 
 /**
  * Servlet listener than can be added to web.xml to allow LiquiBase to run on every application server startup.
@@ -22,13 +28,24 @@ import java.sql.Connection;
  * slow down application server startup slightly.
  * See the <a href="http://www.liquibase.org/manual/latest/servlet_listener_migrator.html">LiquiBase documentation</a> for
  * more information.
+ * <p>
+ * If the LIQUIBASE_ASYNC init parameter is true, the migration runs in a background thread and the application
+ * starts without waiting for it.  The running {@link MigrationTask} is stored in the servlet context under
+ * {@link #MIGRATION_ATTRIBUTE}, where the LiquibaseStatusServlet and LiquibaseReadinessFilter find it.  A failed
+ * migration is reported as FAILED even if LIQUIBASE_FAIL_ON_ERROR is false; that setting only decides whether the
+ * application is still served.  A migration still running when the context is destroyed is interrupted.
  */
 public class LiquibaseServletListener implements ServletContextListener {
 
+    public static final String MIGRATION_ATTRIBUTE = MigrationTask.class.getName();
+
+    private static final long SHUTDOWN_TIMEOUT = 10000;
+
     private String changeLogFile;
     private String dataSource;
     private String contexts;
-
+    private JmxMigrationMetrics jmxMetrics;
+    private MigrationTask migration;
 
     public String getChangeLogFile() {
         return changeLogFile;
@@ -120,38 +137,103 @@ public class LiquibaseServletListener implements ServletContextListener {
             throw new RuntimeException("Cannot run LiquiBase, LIQUIBASE_DATA_SOURCE is not set");
         }
 
+        registerJmxMetrics(servletContextEvent.getServletContext());
+
+        if ("true".equals(servletContextEvent.getServletContext().getInitParameter("LIQUIBASE_ASYNC"))) {
+            migration = new MigrationTask(new Callable<Object>() {
+                public Object call() throws Exception {
+                    try {
+                        update();
+                    } catch (Exception e) {
+                        LogFactory.getLogger().log(Level.SEVERE, "LiquiBase migration failed", e);
+                        throw e;
+                    }
+                    return null;
+                }
+            });
+            servletContextEvent.getServletContext().setAttribute(MIGRATION_ATTRIBUTE, migration);
+            migration.start("LiquiBase-" + getChangeLogFile());
+            return;
+        }
+
         try {
-            Context ic = null;
-            Connection connection = null;
-            try {
-                ic = new InitialContext();
-                DataSource dataSource = (DataSource) ic.lookup(this.dataSource);
+            update();
+        } catch (Exception e) {
+            if (!"false".equals(failOnError)) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 
-                connection = dataSource.getConnection();
+    private void update() throws Exception {
+        Context ic = null;
+        Connection connection = null;
+        try {
+            ic = new InitialContext();
+            DataSource dataSource = (DataSource) ic.lookup(this.dataSource);
 
-                FileOpener clFO = new ClassLoaderFileOpener();
-                FileOpener fsFO = new FileSystemFileOpener();
+            connection = dataSource.getConnection();
 
+            FileOpener clFO = new ClassLoaderFileOpener();
+            FileOpener fsFO = new FileSystemFileOpener();
 
-                Liquibase liquibase = new Liquibase(getChangeLogFile(), new CompositeFileOpener(clFO,fsFO), DatabaseFactory.getInstance().findCorrectDatabaseImplementation(connection));
-                liquibase.update(getContexts());
-            } finally {
-                if (ic != null) {
-                    ic.close();
-                }
-                if (connection != null) {
-                    connection.close();
-                }
-            }
 
-        } catch (Exception e) {
-            if (!"false".equals(failOnError)) {
-                throw new RuntimeException(e);
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(connection);
+            database.setMigrationMetrics(jmxMetrics);
+            Liquibase liquibase = new Liquibase(getChangeLogFile(), new CompositeFileOpener(clFO,fsFO), database);
+            liquibase.update(getContexts());
+        } finally {
+            if (ic != null) {
+                ic.close();
+            }
+            if (connection != null) {
+                connection.close();
             }
         }
     }
 
+    /**
+     * Registers the LiquiBase metrics MBean if LIQUIBASE_JMX_ENABLED is true.
+     * The MBean name comes from LIQUIBASE_JMX_NAME, defaulting to the servlet context name.
+     */
+    private void registerJmxMetrics(ServletContext servletContext) {
+        if (!"true".equals(servletContext.getInitParameter("LIQUIBASE_JMX_ENABLED"))) {
+            return;
+        }
+        String jmxName = servletContext.getInitParameter("LIQUIBASE_JMX_NAME");
+        if (jmxName == null) {
+            jmxName = servletContext.getServletContextName();
+        }
+        if (jmxName == null) {
+            jmxName = "servlet";
+        }
+        try {
+            jmxMetrics = new JmxMigrationMetrics(jmxName);
+            jmxMetrics.register();
+        } catch (LiquibaseException e) {
+            jmxMetrics = null;
+            servletContext.log("Cannot register LiquiBase JMX metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns true unless the LIQUIBASE_FAIL_ON_ERROR init parameter is false.
+     */
+    static boolean isFailOnError(ServletContext servletContext) {
+        return !"false".equals(servletContext.getInitParameter("LIQUIBASE_FAIL_ON_ERROR"));
+    }
+
     public void contextDestroyed(ServletContextEvent servletContextEvent) {
+        if (migration != null && !migration.isDone()) {
+            if (!migration.cancel(SHUTDOWN_TIMEOUT)) {
+                servletContextEvent.getServletContext().log("LiquiBase migration did not stop within " + SHUTDOWN_TIMEOUT + "ms of the context being destroyed, it keeps running and holds the change log lock until it finishes");
+            }
+        }
+        migration = null;
+        if (jmxMetrics != null) {
+            jmxMetrics.unregister();
+            jmxMetrics = null;
+        }
     }
 
 }
@@ -1,5 +1,7 @@
 package liquibase.servlet;
 
+import liquibase.MigrationTask;
+
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -15,6 +17,11 @@ import java.text.DateFormat;
 
 /**
  * Servlet that can be registered via web.xml to view the log of the LiquiBase run from the LiquibaseServletListener.
+ * <p>
+ * Requested with the "ready" parameter, it only returns the status of the migration as text, with a 503 response
+ * while an asynchronous migration is running or if it failed, so it can be used as a readiness check.  A failed
+ * migration is reported as FAILED but answered with a 200 response if LIQUIBASE_FAIL_ON_ERROR is false, as the
+ * application is then meant to run without it.
  */
 public class LiquibaseStatusServlet extends HttpServlet {
 
@@ -25,7 +32,28 @@ public class LiquibaseStatusServlet extends HttpServlet {
 
     }
 
+    /**
+     * A copy of the log, which an asynchronous migration may still be adding to.
+     */
+    private static synchronized List<LogRecord> getRunLog() {
+        return new ArrayList<LogRecord>(liquibaseRunLog);
+    }
+
     protected void doGet(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
+        List<LogRecord> runLog = getRunLog();
+        MigrationTask migration = (MigrationTask) getServletContext().getAttribute(LiquibaseServletListener.MIGRATION_ATTRIBUTE);
+        if (httpServletRequest.getParameter("ready") != null) {
+            String status = migration == null ? MigrationTask.READY : migration.getStatus();
+            boolean available = MigrationTask.READY.equals(status)
+                    || (MigrationTask.FAILED.equals(status) && !LiquibaseServletListener.isFailOnError(getServletContext()));
+            if (!available) {
+                httpServletResponse.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            }
+            httpServletResponse.setContentType("text/plain");
+            httpServletResponse.getWriter().println(status);
+            return;
+        }
+
         httpServletResponse.setContentType("text/html");
 
         String logLevelToDisplay = httpServletRequest.getParameter("logLevel");
@@ -38,7 +66,11 @@ public class LiquibaseStatusServlet extends HttpServlet {
         writer.println("<html>");
         writer.println("<head><title>LiquiBase Status</title></head>");
         writer.println("<body>");
-        if (liquibaseRunLog.size() == 0) {
+        if (migration != null) {
+            writer.println("<b>Status: " + migration.getStatus() + "</b>");
+            writer.println("<hr>");
+        }
+        if (runLog.size() == 0) {
             writer.println("<b>LiquiBase did not run</b>");
         } else {
             writer.println("<b>View level: " + getLevelLink(Level.SEVERE, currentLevel, httpServletRequest)
@@ -51,10 +83,10 @@ public class LiquibaseStatusServlet extends HttpServlet {
                     + "</b>");
 
             writer.println("<hr>");
-            writer.println("<b>LiquiBase started at " + DateFormat.getDateTimeInstance().format(new Date(liquibaseRunLog.get(0).getMillis())));
+            writer.println("<b>LiquiBase started at " + DateFormat.getDateTimeInstance().format(new Date(runLog.get(0).getMillis())));
             writer.println("<hr>");
             writer.println("<pre>");
-            for (LogRecord record : liquibaseRunLog) {
+            for (LogRecord record : runLog) {
                 if (record.getLevel().intValue() >= currentLevel.intValue()) {
                     writer.println(record.getLevel() + ": " + record.getMessage());
                     if (record.getThrown() != null) {
@@ -67,7 +99,12 @@ public class LiquibaseStatusServlet extends HttpServlet {
 
             writer.println("</pre>");
             writer.println("<hr>");
-            writer.println("<b>LiquiBase finished at " + DateFormat.getDateTimeInstance().format(new Date(liquibaseRunLog.get(liquibaseRunLog.size() - 1).getMillis())));
+            String lastMessageTime = DateFormat.getDateTimeInstance().format(new Date(runLog.get(runLog.size() - 1).getMillis()));
+            if (migration != null && !migration.isDone()) {
+                writer.println("<b>LiquiBase is still running, last message at " + lastMessageTime);
+            } else {
+                writer.println("<b>LiquiBase finished at " + lastMessageTime);
+            }
         }
         writer.println("</body>");
         writer.println("</html>");
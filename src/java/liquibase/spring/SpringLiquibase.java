@@ -2,15 +2,18 @@ package liquibase.spring;
 
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import liquibase.FileOpener;
 import liquibase.Liquibase;
+import liquibase.MigrationTask;
 import liquibase.database.Database;
 import liquibase.database.DatabaseFactory;
 import liquibase.exception.JDBCException;
 import liquibase.exception.LiquibaseException;
+import liquibase.metrics.JmxMigrationMetrics;
 
 import javax.sql.DataSource;
 import java.io.InputStream;
@@ -21,6 +24,8 @@ import java.net.URL;
 import java.util.Enumeration;
 import java.util.Vector;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.sql.Connection;
@@ -64,13 +69,27 @@ import java.text.SimpleDateFormat;
  *      --&gt;
  *      &lt;property name=&quot;sqlOutputDir&quot; value=&quot;c:\sql&quot; /&gt;
  *
+ *      &lt;!--
+ *      jmxEnabled registers a liquibase:type=Migration MBean exposing
+ *      migration counters and timers. It is off unless set to true.
+ *      jmxName defaults to the bean name.
+ *      --&gt;
+ *      &lt;property name=&quot;jmxEnabled&quot; value=&quot;true&quot; /&gt;
+ *
+ *      &lt;!--
+ *      If set to true, the migration runs in a background thread and the
+ *      context starts without waiting for it.  Beans needing the updated
+ *      database can call isReady() or waitForMigration() on this bean.
+ *      --&gt;
+ *      &lt;property name=&quot;asynchronous&quot; value=&quot;true&quot; /&gt;
+ *
  * &lt;/bean&gt;
  *
  * </pre>
  *
  * @author Rob Schoening
  */
-public class SpringLiquibase implements InitializingBean, BeanNameAware, ResourceLoaderAware {
+public class SpringLiquibase implements InitializingBean, DisposableBean, BeanNameAware, ResourceLoaderAware {
     public class SpringResourceOpener implements FileOpener {
         private String parentFile;
 
@@ -124,6 +143,21 @@ public class SpringLiquibase implements InitializingBean, BeanNameAware, Resourc
 
     private String contexts;
 
+    private boolean jmxEnabled = false;
+
+    private String jmxName;
+
+    private JmxMigrationMetrics jmxMetrics;
+
+    private boolean asynchronous = false;
+
+    private MigrationTask migration;
+
+    /**
+     * How long destroy() waits for an asynchronous migration to stop.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 10000;
+
     public SpringLiquibase() {
         super();
     }
@@ -196,16 +230,105 @@ public class SpringLiquibase implements InitializingBean, BeanNameAware, Resourc
         this.contexts = contexts;
     }
 
+    public boolean isJmxEnabled() {
+        return jmxEnabled;
+    }
+
+    /**
+     * If true, migration metrics are exposed through a JMX MBean.  Off by default.
+     */
+    public void setJmxEnabled(boolean jmxEnabled) {
+        this.jmxEnabled = jmxEnabled;
+    }
+
+    public String getJmxName() {
+        return jmxName;
+    }
+
+    /**
+     * Name used in the MBean's ObjectName.  Defaults to the bean name.
+     */
+    public void setJmxName(String jmxName) {
+        this.jmxName = jmxName;
+    }
+
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    /**
+     * If true, the migration runs in a background thread rather than holding up the Spring context.
+     */
+    public void setAsynchronous(boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
+    /**
+     * The migration started in asynchronous mode, or null if the migration did not run in the background.
+     */
+    public MigrationTask getMigration() {
+        return migration;
+    }
+
+    /**
+     * Returns false while an asynchronous migration is running or if it failed.
+     */
+    public boolean isReady() {
+        return migration == null || migration.isReady();
+    }
+
+    /**
+     * Waits for an asynchronous migration to finish, throwing what it failed with.
+     */
+    public void waitForMigration() throws LiquibaseException {
+        if (migration != null) {
+            migration.await();
+        }
+    }
+
+    /**
+     * Waits at most the given number of milliseconds for an asynchronous migration to finish.
+     *
+     * @return false if the migration had not finished in time
+     */
+    public boolean waitForMigration(long timeoutMillis) throws LiquibaseException {
+        return migration == null || migration.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Executed automatically when the bean is initialized.
      */
     public void afterPropertiesSet() throws LiquibaseException {
+        if (isJmxEnabled()) {
+            registerJmxMetrics();
+        }
+
         String shouldRunProperty = System.getProperty(Liquibase.SHOULD_RUN_SYSTEM_PROPERTY);
         if (shouldRunProperty != null && !Boolean.valueOf(shouldRunProperty)) {
             System.out.println("LiquiBase did not run because '" + Liquibase.SHOULD_RUN_SYSTEM_PROPERTY + "' system property was set to false");
             return;
         }
 
+        if (isAsynchronous()) {
+            migration = new MigrationTask(new Callable<Object>() {
+                public Object call() throws Exception {
+                    try {
+                        update();
+                    } catch (LiquibaseException e) {
+                        log.log(Level.SEVERE, "LiquiBase migration failed", e);
+                        throw e;
+                    }
+                    return null;
+                }
+            });
+            String name = getBeanName() == null ? "spring" : getBeanName();
+            migration.start("LiquiBase-" + name);
+        } else {
+            update();
+        }
+    }
+
+    private void update() throws LiquibaseException {
         Connection c = null;
         try {
             c = getDataSource().getConnection();
@@ -224,11 +347,44 @@ public class SpringLiquibase implements InitializingBean, BeanNameAware, Resourc
                 }
             }
         }
+    }
 
+    private void registerJmxMetrics() {
+        String name = getJmxName();
+        if (name == null) {
+            name = getBeanName();
+        }
+        if (name == null) {
+            name = "spring";
+        }
+        try {
+            jmxMetrics = new JmxMigrationMetrics(name);
+            jmxMetrics.register();
+        } catch (LiquibaseException e) {
+            jmxMetrics = null;
+            log.log(Level.WARNING, "Cannot register LiquiBase JMX metrics", e);
+        }
+    }
+
+    /**
+     * Stops an asynchronous migration still running and removes the JMX MBean when the Spring context is closed.
+     */
+    public void destroy() {
+        if (migration != null && !migration.isDone()) {
+            if (!migration.cancel(SHUTDOWN_TIMEOUT)) {
+                log.warning("LiquiBase migration did not stop within " + SHUTDOWN_TIMEOUT + "ms of the context closing, it keeps running and holds the change log lock until it finishes");
+            }
+        }
+        if (jmxMetrics != null) {
+            jmxMetrics.unregister();
+            jmxMetrics = null;
+        }
     }
 
     private Liquibase createLiquibase(Connection c) throws JDBCException {
-        return new Liquibase(getChangeLog(), new SpringResourceOpener(getChangeLog()), DatabaseFactory.getInstance().findCorrectDatabaseImplementation(c));
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(c);
+        database.setMigrationMetrics(jmxMetrics);
+        return new Liquibase(getChangeLog(), new SpringResourceOpener(getChangeLog()), database);
     }
 
     /**
@@ -2,8 +2,13 @@ package liquibase.util;
 
 import java.security.MessageDigest;
 import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
 import java.io.InputStream;
 import java.io.BufferedInputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 
 /**
  * Generates md5-sums based on a string.
@@ -17,14 +22,7 @@ public class MD5Util {
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
-        byte[] digestBytes = digest.digest();
-
-        StringBuffer hexString = new StringBuffer();
-        for (byte digestByte : digestBytes) {
-            hexString.append(Integer.toHexString(0xFF & digestByte));
-        }
-        return hexString.toString();
-
+        return toHexString(digest.digest());
     }
 
     public static String computeMD5(InputStream stream) {
@@ -39,8 +37,40 @@ public class MD5Util {
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
-        byte[] digestBytes = digest.digest();
+        return toHexString(digest.digest());
+    }
+
+    /**
+     * Computes the same md5-sum as {@link #computeMD5(String)} would for the characters read, without holding them
+     * all in memory.
+     */
+    public static String computeMD5(Reader reader) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+
+            Writer writer = new OutputStreamWriter(new DigestOutputStream(new OutputStream() {
+                public void write(int b) {
+                    ; //only the digest is wanted
+                }
+
+                public void write(byte[] b, int off, int len) {
+                    ; //only the digest is wanted
+                }
+            }, digest), "UTF-8");
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                writer.write(buffer, 0, read);
+            }
+            writer.flush();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return toHexString(digest.digest());
+    }
 
+    private static String toHexString(byte[] digestBytes) {
         StringBuffer hexString = new StringBuffer();
         for (byte digestByte : digestBytes) {
             hexString.append(Integer.toHexString(0xFF & digestByte));
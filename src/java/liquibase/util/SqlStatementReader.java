@@ -0,0 +1,260 @@
+package liquibase.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads SQL statements one at a time from a Reader, so a script of any size can be executed without reading it
+ * into memory first.
+ * <p/>
+ * A statement ends at a line ending with the delimiter or at a line holding only "go".  Delimiters and "go" inside
+ * quotes or comments do not end a statement.  If requested, -- and /* *&#47; comments are stripped out.  As in
+ * {@link StringUtils#stripComments(String)}, -- only starts a comment at the start of a line or after whitespace, and
+ * only when followed by whitespace or the end of the line, so SQL such as <code>a--b</code> is left alone.
+ * <p/>
+ * When splitting, a statement longer than {@link #setMaxStatementLength(int)} characters is an error rather than
+ * being buffered without limit, as it most likely means a delimiter is missing.  Unsplit scripts are not limited.
+ */
+public class SqlStatementReader {
+
+    public static final String DEFAULT_DELIMITER = ";";
+    public static final int DEFAULT_MAX_STATEMENT_LENGTH = 16 * 1024 * 1024;
+
+    private static final int NORMAL = 0;
+    private static final int SINGLE_QUOTE = 1;
+    private static final int DOUBLE_QUOTE = 2;
+    private static final int BACKTICK = 3;
+    private static final int BLOCK_COMMENT = 4;
+
+    private BufferedReader reader;
+    private String delimiter;
+    private boolean stripComments;
+    private boolean splitStatements = true;
+    private boolean backslashEscapes = false;
+    private int maxStatementLength = DEFAULT_MAX_STATEMENT_LENGTH;
+
+    private int state = NORMAL;
+    private boolean lineTerminated;
+    private boolean finished = false;
+
+    /**
+     * @param delimiter the statement delimiter, or null to only split on "go" lines
+     */
+    public SqlStatementReader(Reader reader, String delimiter, boolean stripComments) {
+        this.reader = new BufferedReader(reader);
+        this.delimiter = StringUtils.trimToNull(delimiter);
+        if (this.delimiter != null && this.delimiter.equalsIgnoreCase("go")) {
+            this.delimiter = null;
+        }
+        this.stripComments = stripComments;
+    }
+
+    /**
+     * If false, the whole script is returned as a single statement.
+     */
+    public void setSplitStatements(boolean splitStatements) {
+        this.splitStatements = splitStatements;
+    }
+
+    /**
+     * If true, a backslash escapes the next character in a quoted string, as in MySQL.
+     */
+    public void setBackslashEscapes(boolean backslashEscapes) {
+        this.backslashEscapes = backslashEscapes;
+    }
+
+    /**
+     * Sets the most characters a single statement may hold before reading it fails.  Only applies when splitting.
+     */
+    public void setMaxStatementLength(int maxStatementLength) {
+        if (maxStatementLength < 1) {
+            throw new IllegalArgumentException("Max statement length must be at least 1");
+        }
+        this.maxStatementLength = maxStatementLength;
+    }
+
+    /**
+     * Returns the next statement, or null if there are no more.
+     *
+     * @throws IOException if the statement is longer than the max statement length
+     */
+    public String nextStatement() throws IOException {
+        if (finished) {
+            return null;
+        }
+
+        StringBuffer statement = new StringBuffer();
+        String line;
+        while ((line = readLine()) != null) {
+            if (splitStatements && state == NORMAL && line.trim().equalsIgnoreCase("go")) {
+                if (statement.length() > 0 && statement.charAt(statement.length() - 1) == '\n') {
+                    statement.setLength(statement.length() - 1);
+                }
+                if (StringUtils.trimToNull(statement.toString()) != null) {
+                    return trimLeading(statement.toString());
+                }
+                statement.setLength(0);
+                continue;
+            }
+
+            int delimiterStart = appendLine(line, statement);
+            checkLength(statement);
+            if (delimiterStart >= 0) {
+                String sql = statement.substring(0, delimiterStart);
+                if (StringUtils.trimToNull(sql) != null) {
+                    return trimLeading(sql);
+                }
+                statement.setLength(0);
+            } else if (lineTerminated) {
+                statement.append('\n');
+            }
+        }
+
+        finished = true;
+        if (StringUtils.trimToNull(statement.toString()) == null) {
+            return null;
+        }
+        return trimLeading(statement.toString());
+    }
+
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Appends the line to the statement and returns where the delimiter ending the statement starts, or -1 if the
+     * line does not end the statement.
+     */
+    private int appendLine(String line, StringBuffer statement) {
+        int lineStart = statement.length();
+        int codeStart = lineStart;
+        int delimiterStart = -1;
+
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            char next = i + 1 < length ? line.charAt(i + 1) : 0;
+            switch (state) {
+                case NORMAL:
+                    if (c == '-' && next == '-' && isLineCommentStart(line, i)) {
+                        if (stripComments) {
+                            while (statement.length() > lineStart && Character.isWhitespace(statement.charAt(statement.length() - 1))) {
+                                statement.setLength(statement.length() - 1);
+                            }
+                        } else {
+                            statement.append(line.substring(i));
+                        }
+                        i = length;
+                    } else if (c == '/' && next == '*') {
+                        state = BLOCK_COMMENT;
+                        statement.append(stripComments ? " " : "/*");
+                        i++;
+                    } else {
+                        if (c == '\'') {
+                            state = SINGLE_QUOTE;
+                        } else if (c == '"') {
+                            state = DOUBLE_QUOTE;
+                        } else if (c == '`') {
+                            state = BACKTICK;
+                        }
+                        statement.append(c);
+                        if (!Character.isWhitespace(c)) {
+                            delimiterStart = endingDelimiterStart(statement, codeStart);
+                        }
+                    }
+                    break;
+                case BLOCK_COMMENT:
+                    if (c == '*' && next == '/') {
+                        state = NORMAL;
+                        if (!stripComments) {
+                            statement.append("*/");
+                        }
+                        codeStart = statement.length();
+                        i++;
+                    } else if (!stripComments) {
+                        statement.append(c);
+                    }
+                    break;
+                default:
+                    statement.append(c);
+                    if (backslashEscapes && c == '\\' && state == SINGLE_QUOTE && i + 1 < length) {
+                        statement.append(next);
+                        i++;
+                    } else if ((state == SINGLE_QUOTE && c == '\'') || (state == DOUBLE_QUOTE && c == '"') || (state == BACKTICK && c == '`')) {
+                        state = NORMAL;
+                        codeStart = statement.length();
+                    }
+                    break;
+            }
+        }
+
+        if (!splitStatements || state != NORMAL) {
+            return -1;
+        }
+        return delimiterStart;
+    }
+
+    /**
+     * Returns where the delimiter starts if the statement ends with it, or -1.  The delimiter must lie after codeStart,
+     * the end of the last quote or comment, so it is not made up of quoted or commented text.  Whitespace and comments
+     * after the delimiter are appended without changing the answer, so they do not stop the line ending the statement.
+     */
+    private int endingDelimiterStart(StringBuffer statement, int codeStart) {
+        if (delimiter == null) {
+            return -1;
+        }
+        int start = statement.length() - delimiter.length();
+        if (start < codeStart || !statement.substring(start).equals(delimiter)) {
+            return -1;
+        }
+        return start;
+    }
+
+    private void checkLength(StringBuffer statement) throws IOException {
+        if (splitStatements && statement.length() > maxStatementLength) {
+            throw new IOException("SQL statement is longer than " + maxStatementLength + " characters, check it ends with the delimiter" + (delimiter == null ? "" : " '" + delimiter + "'"));
+        }
+    }
+
+    private static boolean isLineCommentStart(String line, int index) {
+        return (index == 0 || Character.isWhitespace(line.charAt(index - 1)))
+                && (index + 2 >= line.length() || Character.isWhitespace(line.charAt(index + 2)));
+    }
+
+    /**
+     * Reads the next line, recording whether it was ended by a line break so the last line of the script is not
+     * given one it did not have.
+     */
+    private String readLine() throws IOException {
+        StringBuffer line = new StringBuffer();
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                lineTerminated = true;
+                return line.toString();
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                lineTerminated = true;
+                return line.toString();
+            }
+            line.append((char) c);
+        }
+        lineTerminated = false;
+        if (line.length() == 0) {
+            return null;
+        }
+        return line.toString();
+    }
+
+    private static String trimLeading(String sql) {
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        return sql.substring(start);
+    }
+}
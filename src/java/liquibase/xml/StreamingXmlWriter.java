@@ -0,0 +1,223 @@
+package liquibase.xml;
+
+import org.w3c.dom.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes an XML document to a stream as it is produced, rather than building the whole document in memory first like
+ * {@link DefaultXmlWriter}.  Elements are started and ended in order, and small DOM subtrees can be written with
+ * {@link #writeNode(org.w3c.dom.Node)} once they are complete so only one of them is held at a time.
+ * <p/>
+ * Output is UTF-8 and indented by four spaces per level.  Elements containing text are written on one line with their
+ * text left as it is.
+ */
+public class StreamingXmlWriter {
+
+    private static final String INDENT = "    ";
+    private static final String LINE_SEPARATOR = "\n";
+
+    private Writer writer;
+
+    private List<String> openElements = new ArrayList<String>();
+    private boolean startTagOpen = false;
+
+    public StreamingXmlWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, "UTF-8"));
+    }
+
+    public void writeStartDocument() throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+    }
+
+    public void writeStartElement(String name) throws IOException {
+        closeStartTag();
+        writer.write(LINE_SEPARATOR);
+        writeIndent(openElements.size());
+        writer.write("<");
+        writer.write(name);
+
+        openElements.add(name);
+        startTagOpen = true;
+    }
+
+    /**
+     * Adds an attribute to the element just started.
+     */
+    public void writeAttribute(String name, String value) throws IOException {
+        if (!startTagOpen) {
+            throw new IllegalStateException("Attribute " + name + " written outside of a start tag");
+        }
+        writer.write(" ");
+        writer.write(name);
+        writer.write("=\"");
+        writer.write(escapeAttribute(value));
+        writer.write("\"");
+    }
+
+    public void writeEndElement() throws IOException {
+        if (openElements.size() == 0) {
+            throw new IllegalStateException("No element to end");
+        }
+        String name = openElements.remove(openElements.size() - 1);
+        if (startTagOpen) {
+            writer.write("/>");
+            startTagOpen = false;
+        } else {
+            writer.write(LINE_SEPARATOR);
+            writeIndent(openElements.size());
+            writer.write("</");
+            writer.write(name);
+            writer.write(">");
+        }
+    }
+
+    /**
+     * Writes an element and everything in it as a child of the current element.
+     */
+    public void writeNode(Node node) throws IOException {
+        if (node.getNodeType() != Node.ELEMENT_NODE) {
+            throw new IllegalArgumentException("Only elements can be written, not " + node.getNodeName());
+        }
+        closeStartTag();
+        writeElement((Element) node, openElements.size());
+    }
+
+    /**
+     * Ends all open elements and flushes the output.  The underlying stream is not closed.
+     */
+    public void writeEndDocument() throws IOException {
+        while (openElements.size() > 0) {
+            writeEndElement();
+        }
+        writer.write(LINE_SEPARATOR);
+        flush();
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeElement(Element element, int depth) throws IOException {
+        writer.write(LINE_SEPARATOR);
+        writeIndent(depth);
+        writer.write("<");
+        writer.write(element.getTagName());
+
+        NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Node attribute = attributes.item(i);
+            writer.write(" ");
+            writer.write(attribute.getNodeName());
+            writer.write("=\"");
+            writer.write(escapeAttribute(attribute.getNodeValue()));
+            writer.write("\"");
+        }
+
+        NodeList children = element.getChildNodes();
+        if (children.getLength() == 0) {
+            writer.write("/>");
+            return;
+        }
+        writer.write(">");
+
+        boolean childElements = false;
+        for (int i = 0; i < children.getLength(); i++) {
+            if (children.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                childElements = true;
+            }
+        }
+
+        for (int i = 0; i < children.getLength(); i++) {
+            Node child = children.item(i);
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                writeElement((Element) child, depth + 1);
+            } else if (child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                writer.write("<![CDATA[");
+                writer.write(child.getNodeValue().replaceAll("]]>", "]]]]><![CDATA[>"));
+                writer.write("]]>");
+            } else if (child.getNodeType() == Node.TEXT_NODE) {
+                String text = child.getNodeValue();
+                if (!childElements || text.trim().length() > 0) {
+                    writer.write(escapeText(text));
+                }
+            } else if (child.getNodeType() == Node.COMMENT_NODE) {
+                writer.write("<!--");
+                writer.write(child.getNodeValue());
+                writer.write("-->");
+            }
+        }
+
+        if (childElements) {
+            writer.write(LINE_SEPARATOR);
+            writeIndent(depth);
+        }
+        writer.write("</");
+        writer.write(element.getTagName());
+        writer.write(">");
+    }
+
+    private void closeStartTag() throws IOException {
+        if (startTagOpen) {
+            writer.write(">");
+            startTagOpen = false;
+        }
+    }
+
+    private void writeIndent(int depth) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            writer.write(INDENT);
+        }
+    }
+
+    private String escapeText(String text) {
+        StringBuffer escaped = new StringBuffer(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '&') {
+                escaped.append("&amp;");
+            } else if (c == '<') {
+                escaped.append("&lt;");
+            } else if (c == '>') {
+                escaped.append("&gt;");
+            } else if (c == '\r') {
+                escaped.append("&#13;");
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private String escapeAttribute(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuffer escaped = new StringBuffer(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '&') {
+                escaped.append("&amp;");
+            } else if (c == '<') {
+                escaped.append("&lt;");
+            } else if (c == '"') {
+                escaped.append("&quot;");
+            } else if (c == '\n') {
+                escaped.append("&#10;");
+            } else if (c == '\r') {
+                escaped.append("&#13;");
+            } else if (c == '\t') {
+                escaped.append("&#9;");
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}